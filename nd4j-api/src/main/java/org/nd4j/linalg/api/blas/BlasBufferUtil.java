@@ -19,7 +19,28 @@ public class BlasBufferUtil {
      * @return the blas stride
      */
     public static int getBlasOffset(INDArray arr) {
-        return arr.offset();
+        //direct data is handed out from the offset on (see getFloatData)
+        if(arr.data().allocationMode() == DataBuffer.AllocationMode.HEAP)
+            return arr.offset();
+        return 0;
+    }
+
+    /**
+     * Get the number of buffer elements from the
+     * offset of the given array up to and including its last element
+     * @param arr the array
+     * @return the span of the array in its buffer
+     */
+    public static int getBlasSpan(INDArray arr) {
+        int last = 0;
+        //the strides of vector views aren't per dimension: step through them by their major stride
+        if(arr.isVector())
+            last = (arr.length() - 1) * arr.majorStride();
+        else
+            for(int i = 0; i < arr.rank(); i++)
+                last += (arr.size(i) - 1) * arr.stride(i);
+        int span = last + (arr instanceof IComplexNDArray ? 2 : 1);
+        return Math.min(span, arr.data().length() - arr.offset());
     }
 
     /**
@@ -41,53 +62,40 @@ public class BlasBufferUtil {
 
     /**
      * Returns the float data
-     * for this ndarray.
-     * If possible (the offset is 0 representing the whole buffer)
-     * it will return a direct reference to the underlying array
+     * for this ndarray's buffer.
+     * For heap buffers this is a direct reference to the underlying array,
+     * otherwise it is a copy of the elements the array spans
+     * (see {@link #getBlasSpan(INDArray)}) starting at its offset.
+     * Index it with {@link #getBlasOffset(INDArray)}
+     * and write it back with {@link #setData(float[], INDArray)}
      * @param buf the ndarray to get the data for
      * @return the float data for this ndarray
      */
     public static float[] getFloatData(INDArray buf) {
         if(buf.data().dataType() != DataBuffer.Type.FLOAT)
             throw new IllegalArgumentException("Float data must be obtained from a float buffer");
-
-        if(buf.data().allocationMode() == DataBuffer.AllocationMode.HEAP) {
+        if(buf.data().allocationMode() == DataBuffer.AllocationMode.HEAP)
             return buf.data().asFloat();
-        }
-        else {
-            float[] ret = new float[buf.length()];
-            INDArray linear = buf.linearView();
-
-            for(int i = 0; i < buf.length(); i++)
-                ret[i] = linear.getFloat(i);
-            return ret;
-        }
+        return buf.data().getFloatsAt(buf.offset(), getBlasSpan(buf));
     }
 
     /**
      * Returns the double data
-     * for this ndarray.
-     * If possible (the offset is 0 representing the whole buffer)
-     * it will return a direct reference to the underlying array
+     * for this ndarray's buffer.
+     * For heap buffers this is a direct reference to the underlying array,
+     * otherwise it is a copy of the elements the array spans
+     * (see {@link #getBlasSpan(INDArray)}) starting at its offset.
+     * Index it with {@link #getBlasOffset(INDArray)}
+     * and write it back with {@link #setData(double[], INDArray)}
      * @param buf the ndarray to get the data for
      * @return the double data for this ndarray
      */
     public static double[] getDoubleData(INDArray buf) {
         if(buf.data().dataType() != DataBuffer.Type.DOUBLE)
             throw new IllegalArgumentException("Double data must be obtained from a double buffer");
-
-        if(buf.data().allocationMode() == DataBuffer.AllocationMode.HEAP) {
+        if(buf.data().allocationMode() == DataBuffer.AllocationMode.HEAP)
             return buf.data().asDouble();
-
-        }
-        else {
-            double[] ret = new double[buf.length()];
-            INDArray linear = buf.linearView();
-            for(int i = 0; i < buf.length(); i++)
-                ret[i] = linear.getDouble(i);
-            return ret;
-
-        }
+        return buf.data().getDoublesAt(buf.offset(), getBlasSpan(buf));
     }
 
 
@@ -258,7 +266,12 @@ public class BlasBufferUtil {
         else {
             //assumes the underlying data is in the right order
             DataBuffer underlyingData = toSet.data();
-            if(data.length == toSet.length() && toSet.offset() == 0) {
+            //a copy of the span of the array (see getFloatData)
+            if(data.length == getBlasSpan(toSet))
+                underlyingData.setData(data, toSet.offset());
+            else if(data.length == underlyingData.length())
+                underlyingData.setData(data);
+            else if(data.length == toSet.length() && toSet.offset() == 0) {
                 for(int i = 0; i < toSet.length(); i++) {
                     underlyingData.put(i,data[i]);
                 }
@@ -323,7 +336,12 @@ public class BlasBufferUtil {
         else {
             //assumes the underlying data is in the right order
             DataBuffer underlyingData = toSet.data();
-            if(data.length == toSet.length() && toSet.offset() == 0) {
+            //a copy of the span of the array (see getDoubleData)
+            if(data.length == getBlasSpan(toSet))
+                underlyingData.setData(data, toSet.offset());
+            else if(data.length == underlyingData.length())
+                underlyingData.setData(data);
+            else if(data.length == toSet.length() && toSet.offset() == 0) {
                 for(int i = 0; i < toSet.length(); i++) {
                     underlyingData.put(i,data[i]);
                 }
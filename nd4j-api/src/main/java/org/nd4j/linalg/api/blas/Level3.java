@@ -45,6 +45,45 @@ public interface Level3 {
           INDArray B,
           double beta, INDArray C);
 
+    /**
+     * gemm over a batch of independent matrices:
+     c[i] := alpha*op(a[i])*op(b[i]) + beta*c[i]
+     for every i. The operands are validated and laid out once
+     when every a (and every b and c) share a shape and strides,
+     and the batch is spread over the available cores.
+     * @param Order
+     * @param TransA
+     * @param TransB
+     * @param alpha
+     * @param A the left operands
+     * @param B the right operands
+     * @param beta
+     * @param C the results
+     */
+    void gemmBatched(char Order, char TransA, char TransB,
+                     double alpha, INDArray[] A,
+                     INDArray[] B,
+                     double beta, INDArray[] C);
+
+    /**
+     * gemm over the slices of rank 3 tensors:
+     c[i,:,:] := alpha*op(a[i,:,:])*op(b[i,:,:]) + beta*c[i,:,:]
+     for every i. Either a or b may also be a matrix
+     in which case it is used for every slice.
+     * @param Order
+     * @param TransA
+     * @param TransB
+     * @param alpha
+     * @param A a batch x m x k tensor (or a matrix)
+     * @param B a batch x k x n tensor (or a matrix)
+     * @param beta
+     * @param C a batch x m x n tensor
+     */
+    void gemmBatched(char Order, char TransA, char TransB,
+                     double alpha, INDArray A,
+                     INDArray B,
+                     double beta, INDArray C);
+
 
 
     /**
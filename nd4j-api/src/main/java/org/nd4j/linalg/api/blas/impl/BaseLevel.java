@@ -4,6 +4,11 @@ import org.nd4j.linalg.api.blas.BlasBufferUtil;
 import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.ndarray.INDArray;
 
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * Provides auxillary methods for
  * blas to databuffer interactions
@@ -28,5 +33,141 @@ public abstract class BaseLevel {
         return BlasBufferUtil.getDoubleData(buf);
     }
 
+    public void setData(float[] data, INDArray toSet) {
+        BlasBufferUtil.setData(data, toSet);
+    }
+
+    public void setData(double[] data, INDArray toSet) {
+        BlasBufferUtil.setData(data, toSet);
+    }
+
+    /**
+     * The double data of each array's buffer
+     * (see {@link BlasBufferUtil#getDoubleData(INDArray)}), fetched once per distinct buffer.
+     * A direct buffer is copied from the first to the last element the arrays on it span:
+     * index the data with {@link #getBlasOffsets(INDArray[])}
+     * @param arrs the arrays to get the data for
+     * @return the data for each array
+     */
+    protected double[][] getDoubleData(INDArray[] arrs) {
+        Map<DataBuffer,int[]> spans = directSpans(arrs);
+        Map<DataBuffer,double[]> fetched = new IdentityHashMap<>();
+        double[][] ret = new double[arrs.length][];
+        for(int i = 0; i < arrs.length; i++) {
+            DataBuffer buf = arrs[i].data();
+            ret[i] = fetched.get(buf);
+            if(ret[i] == null) {
+                int[] span = spans.get(buf);
+                ret[i] = span == null ? getDoubleData(arrs[i]) : buf.getDoublesAt(span[0], span[1] - span[0]);
+                fetched.put(buf,ret[i]);
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * The float data of each array's buffer
+     * (see {@link BlasBufferUtil#getFloatData(INDArray)}), fetched once per distinct buffer.
+     * A direct buffer is copied from the first to the last element the arrays on it span:
+     * index the data with {@link #getBlasOffsets(INDArray[])}
+     * @param arrs the arrays to get the data for
+     * @return the data for each array
+     */
+    protected float[][] getFloatData(INDArray[] arrs) {
+        Map<DataBuffer,int[]> spans = directSpans(arrs);
+        Map<DataBuffer,float[]> fetched = new IdentityHashMap<>();
+        float[][] ret = new float[arrs.length][];
+        for(int i = 0; i < arrs.length; i++) {
+            DataBuffer buf = arrs[i].data();
+            ret[i] = fetched.get(buf);
+            if(ret[i] == null) {
+                int[] span = spans.get(buf);
+                ret[i] = span == null ? getFloatData(arrs[i]) : buf.getFloatsAt(span[0], span[1] - span[0]);
+                fetched.put(buf,ret[i]);
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * The blas offset of each array in to the data
+     * from {@link #getDoubleData(INDArray[])} or {@link #getFloatData(INDArray[])}
+     * @param arrs the arrays to get the offsets for
+     * @return the offset of each array
+     */
+    protected int[] getBlasOffsets(INDArray[] arrs) {
+        Map<DataBuffer,int[]> spans = directSpans(arrs);
+        int[] ret = new int[arrs.length];
+        for(int i = 0; i < arrs.length; i++) {
+            int[] span = spans.get(arrs[i].data());
+            ret[i] = span == null ? BlasBufferUtil.getBlasOffset(arrs[i]) : arrs[i].offset() - span[0];
+        }
+        return ret;
+    }
+
+    /**
+     * Write back data obtained from {@link #getDoubleData(INDArray[])}
+     * once per distinct buffer
+     * @param data the data of each array
+     * @param arrs the arrays to write to
+     */
+    protected void setData(double[][] data, INDArray[] arrs) {
+        Map<DataBuffer,int[]> spans = directSpans(arrs);
+        Set<DataBuffer> written = Collections.newSetFromMap(new IdentityHashMap<DataBuffer, Boolean>());
+        for(int i = 0; i < arrs.length; i++) {
+            DataBuffer buf = arrs[i].data();
+            if(!written.add(buf))
+                continue;
+            int[] span = spans.get(buf);
+            if(span == null)
+                BlasBufferUtil.setData(data[i],arrs[i]);
+            else
+                buf.setData(data[i],span[0]);
+        }
+    }
+
+    /**
+     * Write back data obtained from {@link #getFloatData(INDArray[])}
+     * once per distinct buffer
+     * @param data the data of each array
+     * @param arrs the arrays to write to
+     */
+    protected void setData(float[][] data, INDArray[] arrs) {
+        Map<DataBuffer,int[]> spans = directSpans(arrs);
+        Set<DataBuffer> written = Collections.newSetFromMap(new IdentityHashMap<DataBuffer, Boolean>());
+        for(int i = 0; i < arrs.length; i++) {
+            DataBuffer buf = arrs[i].data();
+            if(!written.add(buf))
+                continue;
+            int[] span = spans.get(buf);
+            if(span == null)
+                BlasBufferUtil.setData(data[i],arrs[i]);
+            else
+                buf.setData(data[i],span[0]);
+        }
+    }
+
+    /**
+     * The first and the last (exclusive) element
+     * the given arrays span in each of their direct buffers
+     */
+    private static Map<DataBuffer,int[]> directSpans(INDArray[] arrs) {
+        Map<DataBuffer,int[]> ret = new IdentityHashMap<>();
+        for(INDArray arr : arrs) {
+            DataBuffer buf = arr.data();
+            if(buf.allocationMode() == DataBuffer.AllocationMode.HEAP)
+                continue;
+            int from = arr.offset(), to = from + BlasBufferUtil.getBlasSpan(arr);
+            int[] span = ret.get(buf);
+            if(span == null)
+                ret.put(buf,new int[]{from,to});
+            else {
+                span[0] = Math.min(span[0],from);
+                span[1] = Math.max(span[1],to);
+            }
+        }
+        return ret;
+    }
+
 }
 
@@ -34,15 +34,15 @@ public abstract class BaseLevel2 extends BaseLevel implements Level2 {
      */
     @Override
     public void gemv(char order, char transA, double alpha, INDArray A, INDArray X, double beta, INDArray Y) {
-        GemvParameters parameters = new GemvParameters(A,X,Y);
+        GemvParameters parameters = new GemvParameters(A,X,Y,transA != 'N' && transA != 'n');
         if(A.data().dataType() == DataBuffer.Type.DOUBLE)
             dgemv(order
-                    , transA
+                    , parameters.getTransA()
                     , parameters.getM()
                     , parameters.getN()
                     ,
                     alpha
-                    , A
+                    , parameters.getA()
                     , parameters.getLda()
                     , X
                     , parameters.getIncx()
@@ -51,11 +51,11 @@ public abstract class BaseLevel2 extends BaseLevel implements Level2 {
                     , parameters.getIncy());
         else
             sgemv(order
-                    , transA
+                    , parameters.getTransA()
                     , parameters.getM()
                     , parameters.getN()
                     , (float) alpha
-                    , A
+                    , parameters.getA()
                     ,parameters.getLda()
                     , X
                     , parameters.getIncx()
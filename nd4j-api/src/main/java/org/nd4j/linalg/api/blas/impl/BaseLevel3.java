@@ -9,6 +9,9 @@ import org.nd4j.linalg.api.complex.IComplexNDArray;
 import org.nd4j.linalg.api.complex.IComplexNumber;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.factory.NDArrayFactory;
+import org.nd4j.linalg.util.Parallel;
+
+import java.util.Arrays;
 
 /**
  * Base class for level 3 functions, abstract headers pulled from:
@@ -34,39 +37,199 @@ public abstract class BaseLevel3 extends BaseLevel implements Level3 {
      */
     @Override
     public void gemm(char Order, char TransA, char TransB, double alpha, INDArray A, INDArray B, double beta, INDArray C) {
-        GemmParams params = new GemmParams(A,B,C);
+        GemmParams params = new GemmParams(A,B,C,isTranspose(TransA),isTranspose(TransB));
 
         if(A.data().dataType() == DataBuffer.Type.DOUBLE)
             dgemm(Order
-                    ,TransA
-                    ,TransB
+                    ,params.getTransA()
+                    ,params.getTransB()
                     ,params.getM()
                     ,params.getN()
                     ,params.getK()
-                    ,1.0
+                    ,alpha
                     ,params.getA()
                     ,params.getLda()
                     ,params.getB()
                     ,params.getLdb()
-                    ,0
-                    ,C
+                    ,beta
+                    ,params.getC()
                     ,params.getLdc());
         else
             sgemm(Order
-                    , TransA
-                    , TransB
+                    , params.getTransA()
+                    , params.getTransB()
                     , params.getM()
                     , params.getN()
                     , params.getK()
-                    , 1.0f
+                    , (float) alpha
                     , params.getA()
                     , params.getLda()
                     , params.getB()
                     , params.getLdb()
-                    , 0
-                    , C
+                    , (float) beta
+                    , params.getC()
                     , params.getLdc());
 
+        params.copyResult(C);
+
+    }
+
+
+    /**
+     * gemm over a batch of independent matrices:
+     * c[i] := alpha*op(a[i])*op(b[i]) + beta*c[i]
+     *
+     * The parameters are worked out once from the first matrices
+     * and handed to {@link #dgemmBatched} / {@link #sgemmBatched}
+     * when every matrix shares their layout. Otherwise each
+     * multiply gets its own parameters.
+     *  @param Order
+     * @param TransA
+     * @param TransB
+     * @param alpha
+     * @param A
+     * @param B
+     * @param beta
+     * @param C
+     */
+    @Override
+    public void gemmBatched(char Order, char TransA, char TransB, double alpha, INDArray[] A, INDArray[] B, double beta, INDArray[] C) {
+        if(A.length != C.length || B.length != C.length)
+            throw new IllegalArgumentException("A, B and C must hold the same number of matrices");
+        if(C.length == 0)
+            return;
+        for(int i = 0; i < C.length; i++)
+            if(A[i] instanceof IComplexNDArray || B[i] instanceof IComplexNDArray || C[i] instanceof IComplexNDArray)
+                throw new UnsupportedOperationException("Batched gemm is only supported for real valued matrices");
+
+        GemmParams params = new GemmParams(A[0],B[0],C[0],isTranspose(TransA),isTranspose(TransB));
+        if(!sharedLayout(params,A,B,C)) {
+            for(int i = 0; i < C.length; i++)
+                gemm(Order,TransA,TransB,alpha,A[i],B[i],beta,C[i]);
+            return;
+        }
+
+        INDArray[] a = params.isTransposed() ? B : A;
+        INDArray[] b = params.isTransposed() ? A : B;
+        if(A[0].data().dataType() == DataBuffer.Type.DOUBLE)
+            dgemmBatched(Order
+                    ,params.getTransA()
+                    ,params.getTransB()
+                    ,params.getM()
+                    ,params.getN()
+                    ,params.getK()
+                    ,alpha
+                    ,a
+                    ,params.getLda()
+                    ,b
+                    ,params.getLdb()
+                    ,beta
+                    ,C
+                    ,params.getLdc());
+        else
+            sgemmBatched(Order
+                    ,params.getTransA()
+                    ,params.getTransB()
+                    ,params.getM()
+                    ,params.getN()
+                    ,params.getK()
+                    ,(float) alpha
+                    ,a
+                    ,params.getLda()
+                    ,b
+                    ,params.getLdb()
+                    ,(float) beta
+                    ,C
+                    ,params.getLdc());
+    }
+
+    /**
+     * gemm over the slices of rank 3 tensors:
+     * c[i,:,:] := alpha*op(a[i,:,:])*op(b[i,:,:]) + beta*c[i,:,:]
+     * a or b may be a matrix in which case it is used for every slice.
+     *  @param Order
+     * @param TransA
+     * @param TransB
+     * @param alpha
+     * @param A
+     * @param B
+     * @param beta
+     * @param C
+     */
+    @Override
+    public void gemmBatched(char Order, char TransA, char TransB, double alpha, INDArray A, INDArray B, double beta, INDArray C) {
+        if(C.rank() != 3)
+            throw new IllegalArgumentException("C must be a rank 3 tensor");
+        int batch = C.size(0);
+        gemmBatched(Order,TransA,TransB,alpha,batchOf(A,batch),batchOf(B,batch),beta,batchOf(C,batch));
+    }
+
+    /**
+     * Whether the parameters worked out for the first matrices of a batch
+     * hold for the rest: nothing had to be copied and every a, b and c
+     * shares the data type, shape and strides of the first one
+     * @param params the parameters of the first multiply
+     * @param A the left operands
+     * @param B the right operands
+     * @param C the results
+     * @return true if the parameters can be used for the whole batch
+     */
+    protected boolean sharedLayout(GemmParams params, INDArray[] A, INDArray[] B, INDArray[] C) {
+        if(params.getC() != C[0]
+                || params.getA() != (params.isTransposed() ? B[0] : A[0])
+                || params.getB() != (params.isTransposed() ? A[0] : B[0]))
+            return false;
+        return sameLayout(A) && sameLayout(B) && sameLayout(C);
+    }
+
+    private boolean sameLayout(INDArray[] arrs) {
+        INDArray first = arrs[0];
+        for(int i = 1; i < arrs.length; i++) {
+            INDArray arr = arrs[i];
+            if(arr.data().dataType() != first.data().dataType()
+                    || arr.ordering() != first.ordering()
+                    || !Arrays.equals(arr.shape(),first.shape())
+                    || !Arrays.equals(arr.stride(),first.stride()))
+                return false;
+        }
+        return true;
+    }
+
+    private INDArray[] batchOf(INDArray arr, int batch) {
+        INDArray[] ret = new INDArray[batch];
+        if(arr.rank() == 2) {
+            Arrays.fill(ret,arr);
+            return ret;
+        }
+        if(arr.rank() != 3 || arr.size(0) != batch)
+            throw new IllegalArgumentException("Expected a matrix or a rank 3 tensor with " + batch + " slices");
+        for(int i = 0; i < batch; i++)
+            ret[i] = arr.slice(i);
+        return ret;
+    }
+
+    /**
+     * Run one multiply of a batch per index, spread over
+     * the shared pool of {@link Parallel} when there is enough work
+     * @param batch the number of multiplies
+     * @param work the multiply adds in each one
+     * @param task the multiply to run for each index
+     */
+    protected void runBatched(int batch, long work, final BatchTask task) {
+        Parallel.run(batch, work * batch, new Parallel.RangeTask() {
+            @Override
+            public void run(int from, int to) {
+                for(int i = from; i < to; i++)
+                    task.run(i);
+            }
+        });
+    }
+
+    /**
+     * One multiply of a batch
+     */
+    protected interface BatchTask {
+        void run(int i);
     }
 
 
@@ -113,9 +276,9 @@ public abstract class BaseLevel3 extends BaseLevel implements Level3 {
     @Override
     public void syrk(char Order, char Uplo, char Trans, double alpha, INDArray A, double beta, INDArray C) {
         if(A.data().dataType() == DataBuffer.Type.DOUBLE)
-            dsyrk(Order,Uplo,Trans,C.rows(),1,alpha,A,A.size(0),beta,C,C.size(0));
+            dsyrk(Order,Uplo,Trans,C.rows(),rankUpdateK(Trans,A),alpha,A,A.size(0),beta,C,C.size(0));
         else
-            ssyrk(Order,Uplo,Trans,C.rows(),1,(float) alpha,A,A.size(0),(float) beta,C,C.size(0));
+            ssyrk(Order,Uplo,Trans,C.rows(),rankUpdateK(Trans,A),(float) alpha,A,A.size(0),(float) beta,C,C.size(0));
 
     }
 
@@ -138,10 +301,10 @@ public abstract class BaseLevel3 extends BaseLevel implements Level3 {
     @Override
     public void syr2k(char Order, char Uplo, char Trans, double alpha, INDArray A, INDArray B, double beta, INDArray C) {
         if(A.data().dataType() == DataBuffer.Type.DOUBLE) {
-            dsyr2k(Order,Uplo,Trans,A.rows(),A.columns(),alpha,A,A.size(0),B,B.size(0),beta,C,C.size(0));
+            dsyr2k(Order,Uplo,Trans,C.rows(),rankUpdateK(Trans,A),alpha,A,A.size(0),B,B.size(0),beta,C,C.size(0));
         }
         else
-            ssyr2k(Order, Uplo, Trans, A.rows(), A.columns(), (float) alpha, A, A.size(0), B, B.size(0), (float) beta, C, C.size(0));
+            ssyr2k(Order, Uplo, Trans, C.rows(), rankUpdateK(Trans, A), (float) alpha, A, A.size(0), B, B.size(0), (float) beta, C, C.size(0));
 
     }
 
@@ -165,10 +328,10 @@ public abstract class BaseLevel3 extends BaseLevel implements Level3 {
     @Override
     public void trmm(char Order, char Side, char Uplo, char TransA, char Diag, double alpha, INDArray A, INDArray B, INDArray C) {
         if(A.data().dataType() == DataBuffer.Type.DOUBLE) {
-            dtrmm(Order,Side,Uplo,TransA,Diag,A.rows(),A.columns(),alpha,A,A.size(0),B,B.size(0));
+            dtrmm(Order,Side,Uplo,TransA,Diag,B.rows(),B.columns(),alpha,A,A.size(0),B,B.size(0));
         }
         else
-            strmm(Order, Side, Uplo, TransA, Diag, A.rows(), A.columns(), (float) alpha, A, A.size(0), B, B.size(0));
+            strmm(Order, Side, Uplo, TransA, Diag, B.rows(), B.columns(), (float) alpha, A, A.size(0), B, B.size(0));
 
     }
 
@@ -192,10 +355,10 @@ public abstract class BaseLevel3 extends BaseLevel implements Level3 {
     @Override
     public void trsm(char Order, char Side, char Uplo, char TransA, char Diag, double alpha, INDArray A, INDArray B) {
         if(A.data().dataType() == DataBuffer.Type.DOUBLE) {
-            dtrsm(Order,Side,Uplo,TransA,Diag,A.rows(),A.columns(),alpha,A,A.size(0),B,B.size(0));
+            dtrsm(Order,Side,Uplo,TransA,Diag,B.rows(),B.columns(),alpha,A,A.size(0),B,B.size(0));
         }
         else
-            strsm(Order, Side, Uplo, TransA, Diag, A.rows(), A.columns(), (float) alpha, A, A.size(0), B, B.size(0));
+            strsm(Order, Side, Uplo, TransA, Diag, B.rows(), B.columns(), (float) alpha, A, A.size(0), B, B.size(0));
 
     }
 
@@ -445,6 +608,50 @@ public abstract class BaseLevel3 extends BaseLevel implements Level3 {
 
     }
 
+    /**
+     * The inner dimension k of a rank k update (syrk, syr2k):
+     * a is n x k when not transposed and k x n otherwise
+     * @param Trans the transpose flag of the update
+     * @param A the matrix of the update
+     * @return the inner dimension
+     */
+    protected int rankUpdateK(char Trans, INDArray A) {
+        return isTranspose(Trans) ? A.rows() : A.columns();
+    }
+
+    /**
+     * Whether the given blas transpose flag transposes its operand
+     * @param Trans the transpose flag
+     * @return false for 'N' or 'n', true otherwise
+     */
+    protected boolean isTranspose(char Trans) {
+        return Trans != 'N' && Trans != 'n';
+    }
+
+    /**
+     * Multiplies every matrix of a batch sharing the given parameters.
+     * Runs {@link #sgemm} for each one, backends override this to
+     * fetch each buffer once and spread the batch over the cores
+     */
+    protected void sgemmBatched(char Order, char TransA, char TransB, int M, int N, int K,
+                                float alpha, INDArray[] A, int lda, INDArray[] B, int ldb,
+                                float beta, INDArray[] C, int ldc) {
+        for(int i = 0; i < C.length; i++)
+            sgemm(Order,TransA,TransB,M,N,K,alpha,A[i],lda,B[i],ldb,beta,C[i],ldc);
+    }
+
+    /**
+     * Multiplies every matrix of a batch sharing the given parameters.
+     * Runs {@link #dgemm} for each one, backends override this to
+     * fetch each buffer once and spread the batch over the cores
+     */
+    protected void dgemmBatched(char Order, char TransA, char TransB, int M, int N, int K,
+                                double alpha, INDArray[] A, int lda, INDArray[] B, int ldb,
+                                double beta, INDArray[] C, int ldc) {
+        for(int i = 0; i < C.length; i++)
+            dgemm(Order,TransA,TransB,M,N,K,alpha,A[i],lda,B[i],ldb,beta,C[i],ldc);
+    }
+
 /*
  * ===========================================================================
  * Prototypes for level 3 BLAS
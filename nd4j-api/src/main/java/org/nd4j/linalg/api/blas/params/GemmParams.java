@@ -1,25 +1,67 @@
 package org.nd4j.linalg.api.blas.params;
 
 import lombok.Data;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.complex.IComplexNDArray;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.factory.NDArrayFactory;
+import org.nd4j.linalg.factory.Nd4j;
 
 /**
  * Used for setting the gemm parameters
  * Separates blas logic from
  * the run time itself.
  *
+ * Real valued operands are handed to blas as they are
+ * whenever their layout can be described with an offset,
+ * a leading dimension and a transpose flag:
+ * that is any matrix (or view of one) with a unit stride along
+ * either its rows or its columns. A row major result is computed
+ * as the transposed product (c' = op(b)' * op(a)') so no copy is needed there either.
+ * Only operands with no unit stride get copied (in to a column major array).
+ *
  * @author Adam Gibson
  */
 public @Data class GemmParams {
     private int lda,ldb,ldc,m,n,k;
     private INDArray a,b,c;
+    private char transA = 'N',transB = 'N';
+    //whether a and b were swapped to compute the transposed product
+    private boolean transposed;
 
     public GemmParams(INDArray a,INDArray b,INDArray c) {
-        if(b.columns() != c.columns())
+        this(a,b,c,false,false);
+    }
+
+    /**
+     * Gemm parameters for c = op(a) * op(b)
+     * @param a the left operand
+     * @param b the right operand
+     * @param c the result
+     * @param transposeA whether op(a) is the transpose of a
+     * @param transposeB whether op(b) is the transpose of b
+     */
+    public GemmParams(INDArray a,INDArray b,INDArray c,boolean transposeA,boolean transposeB) {
+        if((transposeB ? b.rows() : b.columns()) != c.columns())
             throw new IllegalArgumentException("B columns must match c columns");
-        if(a.rows() != c.rows())
+        if((transposeA ? a.columns() : a.rows()) != c.rows())
             throw new IllegalArgumentException("A rows must equal c rows");
+        if((transposeA ? a.rows() : a.columns()) != (transposeB ? b.columns() : b.rows()))
+            throw new IllegalArgumentException("A columns must equal b rows");
+
+        if(a instanceof IComplexNDArray || b instanceof IComplexNDArray || c instanceof IComplexNDArray)
+            initDense(a, b, c);
+        else
+            initStrided(a, b, c, transposeA, transposeB);
+
+        validate();
+    }
+
+    /**
+     * The complex routines still expect dense operands:
+     * c ordered arrays are handled by inverting the operation
+     */
+    private void initDense(INDArray a,INDArray b,INDArray c) {
         this.a = a;
         this.b = b;
         this.c = c;
@@ -39,11 +81,166 @@ public @Data class GemmParams {
         this.lda = Math.max(1, m);
         this.ldb = Math.max(1, k);
         this.ldc = Math.max(1, m);
+    }
 
+    private void initStrided(INDArray a,INDArray b,INDArray c,boolean transposeA,boolean transposeB) {
+        this.k = transposeA ? a.rows() : a.columns();
+        this.c = addressable(c) ? c : columnMajorCopy(c);
+        boolean columnMajor = columnMajorLd(this.c) > 0;
+        if(columnMajor) {
+            this.m = c.rows();
+            this.n = c.columns();
+            this.ldc = columnMajorLd(this.c);
+            this.a = addressable(a) ? a : columnMajorCopy(a);
+            this.b = addressable(b) ? b : columnMajorCopy(b);
+            this.transA = trans(this.a, transposeA, true);
+            this.transB = trans(this.b, transposeB, true);
+        }
+        else {
+            //c is row major: compute c' = op(b)' * op(a)' in to its column major transpose
+            this.transposed = true;
+            this.m = c.columns();
+            this.n = c.rows();
+            this.ldc = rowMajorLd(this.c);
+            this.a = addressable(b) ? b : columnMajorCopy(b);
+            this.b = addressable(a) ? a : columnMajorCopy(a);
+            this.transA = trans(this.a, transposeB, false);
+            this.transB = trans(this.b, transposeA, false);
+        }
 
-        validate();
+        this.lda = ld(this.a);
+        this.ldb = ld(this.b);
+    }
+
+    /**
+     * Copies the product back in to the result
+     * if the result couldn't be handed to blas in place
+     * @param result the result passed to the constructor
+     */
+    public void copyResult(INDArray result) {
+        if(c == result)
+            return;
+        copy(c, result);
+    }
+
+    /**
+     * The blas transpose flag for an operand given whether its op is
+     * transposed and whether the product is computed column major
+     */
+    private static char trans(INDArray x,boolean transpose,boolean columnMajor) {
+        boolean rowMajor = columnMajorLd(x) < 1;
+        return transpose ^ rowMajor ^ !columnMajor ? 'T' : 'N';
+    }
+
+    private static int ld(INDArray x) {
+        int ld = columnMajorLd(x);
+        return ld > 0 ? ld : rowMajorLd(x);
+    }
+
+    /**
+     * Whether blas can read the given matrix in place
+     * @param x the matrix
+     * @return true if x is column or row major (with any leading dimension)
+     */
+    public static boolean addressable(INDArray x) {
+        return !(x instanceof IComplexNDArray) && (columnMajorLd(x) > 0 || rowMajorLd(x) > 0);
+    }
+
+    /**
+     * The leading dimension of x read as a column major matrix
+     * (unit stride down each column)
+     * @param x the matrix
+     * @return the leading dimension or -1 if x isn't column major
+     */
+    public static int columnMajorLd(INDArray x) {
+        if(x.rank() != 2)
+            return -1;
+        int rows = x.rows(), columns = x.columns();
+        //the strides of vector views aren't per dimension: step through them by their major stride
+        if(x.isVector() && x.length() > 1) {
+            if(rows == 1)
+                return x.majorStride() >= 1 ? x.majorStride() : -1;
+            return x.majorStride() == 1 ? rows : -1;
+        }
+        if(rows > 1 && x.stride(0) != 1)
+            return -1;
+        if(columns == 1)
+            return Math.max(1, rows);
+        return x.stride(1) >= Math.max(1, rows) ? x.stride(1) : -1;
+    }
+
+    /**
+     * The leading dimension of x read as a row major matrix
+     * (unit stride along each row)
+     * @param x the matrix
+     * @return the leading dimension or -1 if x isn't row major
+     */
+    public static int rowMajorLd(INDArray x) {
+        if(x.rank() != 2)
+            return -1;
+        int rows = x.rows(), columns = x.columns();
+        if(x.isVector() && x.length() > 1) {
+            if(columns == 1)
+                return x.majorStride() >= 1 ? x.majorStride() : -1;
+            return x.majorStride() == 1 ? columns : -1;
+        }
+        if(columns > 1 && x.stride(1) != 1)
+            return -1;
+        if(rows == 1)
+            return Math.max(1, columns);
+        return x.stride(0) >= Math.max(1, columns) ? x.stride(0) : -1;
     }
 
+    /**
+     * Copy a matrix blas can't read in place in to a column major array
+     */
+    static INDArray columnMajorCopy(INDArray x) {
+        INDArray ret = Nd4j.create(new int[]{x.rows(),x.columns()}, NDArrayFactory.FORTRAN);
+        copy(x, ret);
+        return ret;
+    }
+
+    /**
+     * Copy the matrix src in to dst a column at a time,
+     * walking both buffers by their offsets and strides
+     * (straight over the arrays when both are heap buffers of the same type)
+     */
+    private static void copy(INDArray src,INDArray dst) {
+        int rows = src.rows(), columns = src.columns();
+        int srcRowStride = rowStride(src), srcColumnStride = columnStride(src);
+        int dstRowStride = rowStride(dst), dstColumnStride = columnStride(dst);
+        DataBuffer from = src.data(), to = dst.data();
+        boolean heap = from.allocationMode() == DataBuffer.AllocationMode.HEAP
+                && to.allocationMode() == DataBuffer.AllocationMode.HEAP
+                && from.dataType() == to.dataType();
+        for(int j = 0; j < columns; j++) {
+            int s = src.offset() + j * srcColumnStride;
+            int d = dst.offset() + j * dstColumnStride;
+            if(heap && from.dataType() == DataBuffer.Type.DOUBLE) {
+                double[] f = (double[]) from.array(), t = (double[]) to.array();
+                for(int i = 0; i < rows; i++, s += srcRowStride, d += dstRowStride)
+                    t[d] = f[s];
+            }
+            else if(heap && from.dataType() == DataBuffer.Type.FLOAT) {
+                float[] f = (float[]) from.array(), t = (float[]) to.array();
+                for(int i = 0; i < rows; i++, s += srcRowStride, d += dstRowStride)
+                    t[d] = f[s];
+            }
+            else {
+                for(int i = 0; i < rows; i++, s += srcRowStride, d += dstRowStride)
+                    to.put(d, from.getDouble(s));
+            }
+        }
+    }
+
+    //the strides of vector views aren't per dimension: step through them by their major stride
+    private static int rowStride(INDArray x) {
+        return x.isVector() && x.rows() > 1 ? x.majorStride() : x.stride(0);
+    }
+
+    private static int columnStride(INDArray x) {
+        return x.isVector() && x.columns() > 1 ? x.majorStride() : x.stride(1);
+    }
 
     private void validate() {
 
@@ -6,16 +6,60 @@ import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.factory.NDArrayFactory;
 
 /**
+ * Used for setting the gemv parameters.
+ *
+ * A real valued matrix is handed to blas in place when it is
+ * row or column major (see {@link GemmParams#addressable(INDArray)}),
+ * a row major matrix being passed as the transpose of its column major reading.
+ *
  * @author Adam Gibson
  */
 public @Data class GemvParameters {
     private int m,n,lda,incx,incy;
     private INDArray a,x,y;
+    private char transA = 'N';
 
     public GemvParameters(INDArray a,INDArray x,INDArray y) {
-        this.a = a;
+        this(a,x,y,false);
+    }
+
+    /**
+     * Gemv parameters for y = op(a) * x
+     * @param a the matrix
+     * @param x the vector to multiply by
+     * @param y the result
+     * @param transposeA whether op(a) is the transpose of a
+     */
+    public GemvParameters(INDArray a,INDArray x,INDArray y,boolean transposeA) {
         this.x = x;
         this.y = y;
+        if(a instanceof IComplexNDArray || x instanceof IComplexNDArray || y instanceof IComplexNDArray) {
+            initDense(a, x, y);
+            return;
+        }
+
+        this.a = GemmParams.addressable(a) ? a : GemmParams.columnMajorCopy(a);
+        int columnMajorLd = GemmParams.columnMajorLd(this.a);
+        if(columnMajorLd > 0) {
+            this.m = a.rows();
+            this.n = a.columns();
+            this.lda = columnMajorLd;
+            this.transA = transposeA ? 'T' : 'N';
+        }
+        else {
+            //a row major matrix read column major is its transpose
+            this.m = a.columns();
+            this.n = a.rows();
+            this.lda = GemmParams.rowMajorLd(this.a);
+            this.transA = transposeA ? 'N' : 'T';
+        }
+
+        this.incx = vectorStride(x);
+        this.incy = vectorStride(y);
+    }
+
+    private void initDense(INDArray a,INDArray x,INDArray y) {
+        this.a = a;
         this.m = a.rows();
         this.n = a.columns();
         this.lda = a.rows();
@@ -30,8 +74,13 @@ public @Data class GemvParameters {
             this.incx /= 2;
         if(y instanceof IComplexNDArray)
             this.incy /= 2;
-
     }
 
+    /**
+     * The stride between consecutive elements of a vector
+     */
+    private static int vectorStride(INDArray vector) {
+        return vector.length() == 1 ? 1 : vector.majorStride();
+    }
 
 }
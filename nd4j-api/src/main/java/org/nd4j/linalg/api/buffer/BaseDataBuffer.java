@@ -21,6 +21,7 @@ package org.nd4j.linalg.api.buffer;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
+import org.nd4j.linalg.api.buffer.allocation.DataBufferPool;
 import org.nd4j.linalg.api.complex.IComplexDouble;
 import org.nd4j.linalg.api.complex.IComplexFloat;
 import org.nd4j.linalg.api.complex.IComplexNumber;
@@ -32,6 +33,9 @@ import java.lang.ref.WeakReference;
 import java.nio.*;
 import java.nio.DoubleBuffer;
 import java.nio.FloatBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.*;
 
 /**
@@ -52,6 +56,12 @@ public abstract class BaseDataBuffer implements DataBuffer {
     protected double[] doubleData;
     protected int[] intData;
     protected float[] floatData;
+    protected transient DataBufferPool pool;
+    /**
+     * The size in bytes of the chunks elements are moved
+     * in when reading and writing buffers
+     */
+    public final static int IO_CHUNK_SIZE = 1 << 20;
 
     /**
      *
@@ -59,7 +69,8 @@ public abstract class BaseDataBuffer implements DataBuffer {
      * @param length
      */
     protected BaseDataBuffer(ByteBuf buf,int length) {
-        allocationMode = Nd4j.alloc;
+        //direct memory handed in from elsewhere (eg: a mapped file) is direct regardless of the default
+        allocationMode = buf.isDirect() ? AllocationMode.DIRECT : Nd4j.alloc;
         this.dataBuffer = buf;
         this.length = length;
     }
@@ -80,7 +91,10 @@ public abstract class BaseDataBuffer implements DataBuffer {
             }
         }
         else {
-            dataBuffer = Unpooled.copyFloat(data).order(ByteOrder.nativeOrder());
+            dataBuffer = allocateDirect(data.length * 4);
+            for(int i = 0; i < data.length; i++)
+                dataBuffer.setFloat(i * 4, data[i]);
+            dataBuffer.writerIndex(data.length * 4);
         }
         length = data.length;
 
@@ -102,7 +116,10 @@ public abstract class BaseDataBuffer implements DataBuffer {
             }
         }
         else {
-            dataBuffer = Unpooled.copyDouble(data).order(ByteOrder.nativeOrder());
+            dataBuffer = allocateDirect(data.length * 8);
+            for(int i = 0; i < data.length; i++)
+                dataBuffer.setDouble(i * 8, data[i]);
+            dataBuffer.writerIndex(data.length * 8);
         }
         length = data.length;
 
@@ -123,8 +140,12 @@ public abstract class BaseDataBuffer implements DataBuffer {
                 this.intData = data;
 
         }
-        else
-            dataBuffer = Unpooled.copyInt(data).order(ByteOrder.nativeOrder());
+        else {
+            dataBuffer = allocateDirect(data.length * 4);
+            for(int i = 0; i < data.length; i++)
+                dataBuffer.setInt(i * 4, data[i]);
+            dataBuffer.writerIndex(data.length * 4);
+        }
 
         length = data.length;
     }
@@ -194,14 +215,23 @@ public abstract class BaseDataBuffer implements DataBuffer {
                 floatData = new float[length];
         }
         else {
-            dataBuffer = allocationMode == AllocationMode.DIRECT ?
-                    Unpooled.buffer(length * getElementSize()).order(ByteOrder.nativeOrder())
-                    : Unpooled.buffer(length * getElementSize()).order(ByteOrder.nativeOrder());
+            dataBuffer = allocateDirect(length * getElementSize());
         }
 
     }
 
 
+    /**
+     * Allocate off heap memory in native byte order
+     * (used by the direct allocation mode) so native code
+     * can read and write the buffer in place
+     * @param bytes the number of bytes to allocate
+     * @return the allocated memory
+     */
+    protected ByteBuf allocateDirect(int bytes) {
+        return Unpooled.directBuffer(bytes).order(ByteOrder.nativeOrder());
+    }
+
     @Override
     public void removeReferencing(String id) {
         referencing.remove(id);
@@ -247,6 +277,8 @@ public abstract class BaseDataBuffer implements DataBuffer {
         if(floatData != null) {
             this.floatData = data;
         }
+        else if(isDirectData() && dataType() == Type.FLOAT)
+            directView(0, data.length).asFloatBuffer().put(data);
         else {
             for(int i = 0; i < data.length; i++)
                 put(i,data[i]);
@@ -259,12 +291,38 @@ public abstract class BaseDataBuffer implements DataBuffer {
         if(doubleData != null) {
             this.doubleData = data;
         }
+        else if(isDirectData() && dataType() == Type.DOUBLE)
+            directView(0, data.length).asDoubleBuffer().put(data);
         else {
             for(int i = 0; i < data.length; i++)
                 put(i, data[i]);
         }
     }
 
+    @Override
+    public void setData(float[] data, int offset) {
+        if(floatData != null)
+            System.arraycopy(data, 0, floatData, offset, data.length);
+        else if(isDirectData() && dataType() == Type.FLOAT)
+            directView(offset, data.length).asFloatBuffer().put(data);
+        else {
+            for(int i = 0; i < data.length; i++)
+                put(offset + i, data[i]);
+        }
+    }
+
+    @Override
+    public void setData(double[] data, int offset) {
+        if(doubleData != null)
+            System.arraycopy(data, 0, doubleData, offset, data.length);
+        else if(isDirectData() && dataType() == Type.DOUBLE)
+            directView(offset, data.length).asDoubleBuffer().put(data);
+        else {
+            for(int i = 0; i < data.length; i++)
+                put(offset + i, data[i]);
+        }
+    }
+
 
     @Override
     public void assign(int[] indices, double[] data, boolean contiguous, int inc) {
@@ -319,6 +377,10 @@ public abstract class BaseDataBuffer implements DataBuffer {
         if (offset + length > length())
             length -= offset;
         float[] ret = new float[length];
+        if (inc == 1 && isDirectData() && dataType() == Type.FLOAT) {
+            directView(offset, length).asFloatBuffer().get(ret);
+            return ret;
+        }
         for (int i = 0; i < length; i++) {
             ret[i] = getFloat(i + offset);
         }
@@ -391,6 +453,10 @@ public abstract class BaseDataBuffer implements DataBuffer {
             length -= offset;
 
         double[] ret = new double[length];
+        if (inc == 1 && isDirectData() && dataType() == Type.DOUBLE) {
+            directView(offset, length).asDoubleBuffer().get(ret);
+            return ret;
+        }
         for (int i = 0; i < length; i++) {
             ret[i] = getDouble(i + offset);
         }
@@ -434,62 +500,9 @@ public abstract class BaseDataBuffer implements DataBuffer {
 
     @Override
     public byte[] asBytes() {
-        if(allocationMode == AllocationMode.HEAP) {
-            ByteArrayOutputStream bos = new ByteArrayOutputStream(getElementSize() * length());
-            DataOutputStream dos = new DataOutputStream(bos);
-
-            if(dataType() == Type.DOUBLE) {
-                if(doubleData == null)
-                    throw new IllegalStateException("Double array is null!");
-
-                try {
-                    for(int i = 0; i < doubleData.length; i++)
-                        dos.writeDouble(doubleData[i]);
-                } catch (IOException e) {
-                    throw new RuntimeException(e);
-                }
-
-            }
-            else {
-                if(floatData == null)
-                    throw new IllegalStateException("Double array is null!");
-
-                try {
-                    for(int i = 0; i < floatData.length; i++)
-                        dos.writeFloat(floatData[i]);
-                } catch (IOException e) {
-                    throw new RuntimeException(e);
-                }
-
-
-            }
-
-            return bos.toByteArray();
-
-        }
-        else {
-            ByteArrayOutputStream bos = new ByteArrayOutputStream();
-            DataOutputStream dos = new DataOutputStream(bos);
-            if(dataType() == Type.DOUBLE) {
-                for(int i = 0; i < length(); i++) {
-                    try {
-                        dos.writeDouble(getDouble(i));
-                    } catch (IOException e) {
-                        e.printStackTrace();
-                    }
-                }
-            }
-            else {
-                for(int i = 0; i < length(); i++) {
-                    try {
-                        dos.writeFloat(getFloat(i));
-                    } catch (IOException e) {
-                        e.printStackTrace();
-                    }
-                }
-            }
-            return bos.toByteArray();
-        }
+        byte[] ret = new byte[length() * streamElementSize(dataType())];
+        encode(ByteBuffer.wrap(ret), 0, length());
+        return ret;
     }
 
     @Override
@@ -501,8 +514,11 @@ public abstract class BaseDataBuffer implements DataBuffer {
         }
 
         float[] ret = new float[length];
-        for(int i = 0; i < length; i++)
-            ret[i] = getFloat(i);
+        if(isDirectData() && dataType() == Type.FLOAT)
+            directView(0, length).asFloatBuffer().get(ret);
+        else
+            for(int i = 0; i < length; i++)
+                ret[i] = getFloat(i);
         return ret;
 
     }
@@ -517,8 +533,11 @@ public abstract class BaseDataBuffer implements DataBuffer {
 
 
         double[] ret = new double[length];
-        for(int i = 0; i < length; i++)
-            ret[i] = getDouble(i);
+        if(isDirectData() && dataType() == Type.DOUBLE)
+            directView(0, length).asDoubleBuffer().get(ret);
+        else
+            for(int i = 0; i < length; i++)
+                ret[i] = getDouble(i);
         return ret;
 
     }
@@ -743,9 +762,34 @@ public abstract class BaseDataBuffer implements DataBuffer {
     }
 
 
+    /**
+     * Set the pool the memory of this buffer
+     * is returned to when it is destroyed
+     * @param pool the pool to return the memory to
+     */
+    public void setPool(DataBufferPool pool) {
+        this.pool = pool;
+    }
+
     @Override
     public void destroy() {
-        this.dataBuffer.clear();
+        if(pool != null) {
+            if(doubleData != null)
+                pool.release(doubleData);
+            else if(floatData != null)
+                pool.release(floatData);
+            else if(intData != null)
+                pool.release(intData);
+            else if(dataBuffer != null)
+                pool.release(dataBuffer);
+            pool = null;
+        }
+        else if(dataBuffer != null)
+            dataBuffer.clear();
+
+        this.doubleData = null;
+        this.floatData = null;
+        this.intData = null;
         this.dataBuffer = null;
     }
 
@@ -798,34 +842,8 @@ public abstract class BaseDataBuffer implements DataBuffer {
             allocationMode = AllocationMode.valueOf(s.readUTF());
             length = s.readInt();
             Type t = Type.valueOf(s.readUTF());
-            if(t == Type.DOUBLE) {
-                if(allocationMode == AllocationMode.HEAP) {
-                    floatData = new float[(int) length()];
-                    for(int i = 0; i < length(); i++) {
-                        put(i,s.readDouble());
-                    }
-                }
-                else {
-                    dataBuffer = Unpooled.buffer((int) length() * getElementSize()).order(ByteOrder.nativeOrder());
-                    for(int i = 0; i < length(); i++) {
-                        put(i,s.readDouble());
-                    }
-                }
-            }
-            else {
-                if(allocationMode == AllocationMode.HEAP) {
-                    doubleData = new double[(int) length()];
-                    for(int i = 0; i < length(); i++) {
-                        put(i,s.readFloat());
-                    }
-                }
-                else {
-                    dataBuffer = Unpooled.buffer((int) length() * getElementSize()).order(ByteOrder.nativeOrder());
-                    for(int i = 0; i < length(); i++) {
-                        put(i,s.readFloat());
-                    }
-                }
-            }
+            allocateForRead();
+            read(Channels.newChannel(s), t, ByteOrder.BIG_ENDIAN);
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -838,18 +856,187 @@ public abstract class BaseDataBuffer implements DataBuffer {
         out.writeUTF(allocationMode.name());
         out.writeInt(length());
         out.writeUTF(dataType().name());
+        write(Channels.newChannel(out));
+    }
+
+    @Override
+    public void write(WritableByteChannel channel) throws IOException {
+        write(channel, ByteOrder.BIG_ENDIAN);
+    }
+
+    @Override
+    public void write(WritableByteChannel channel, ByteOrder order) throws IOException {
+        int elementSize = streamElementSize(dataType());
+        ByteBuffer chunk = ioChunk(elementSize).order(order);
+        int perChunk = chunk.capacity() / elementSize;
+        for(int i = 0; i < length(); i += perChunk) {
+            int n = Math.min(perChunk, length() - i);
+            encode(chunk, i, n);
+            chunk.limit(n * elementSize);
+            while(chunk.hasRemaining())
+                channel.write(chunk);
+        }
+    }
+
+    @Override
+    public void read(ReadableByteChannel channel) throws IOException {
+        read(channel, ByteOrder.BIG_ENDIAN);
+    }
+
+    @Override
+    public void read(ReadableByteChannel channel, ByteOrder order) throws IOException {
+        read(channel, dataType(), order);
+    }
+
+    /**
+     * Fill this buffer with {@link #length()} elements
+     * serialized as the given type read in bulk from the given channel
+     * @param channel the channel to read from
+     * @param type the data type the elements were serialized as
+     * @param order the byte order of the elements
+     * @throws IOException
+     */
+    protected void read(ReadableByteChannel channel, Type type, ByteOrder order) throws IOException {
+        int elementSize = streamElementSize(type);
+        ByteBuffer chunk = ioChunk(elementSize).order(order);
+        int perChunk = chunk.capacity() / elementSize;
+        for(int i = 0; i < length(); i += perChunk) {
+            int n = Math.min(perChunk, length() - i);
+            chunk.clear();
+            chunk.limit(n * elementSize);
+            while(chunk.hasRemaining()) {
+                if(channel.read(chunk) < 0)
+                    throw new EOFException("Channel ended before " + length() + " elements were read");
+            }
+            chunk.flip();
+            decode(chunk, type, i, n);
+        }
+    }
+
+    /**
+     * The number of bytes an element of the given type
+     * takes up in the serialized form. Doubles are written as doubles,
+     * everything else as floats.
+     * @param type the data type of the stream
+     * @return the size of a serialized element in bytes
+     */
+    protected static int streamElementSize(Type type) {
+        return type == Type.DOUBLE ? 8 : 4;
+    }
+
+    /**
+     * A heap buffer used for moving elements in bulk
+     * (big endian by default, the same byte order as {@link DataOutputStream})
+     * @param elementSize the size of a serialized element
+     * @return a buffer of at most {@link #IO_CHUNK_SIZE} bytes
+     */
+    protected ByteBuffer ioChunk(int elementSize) {
+        int elements = Math.max(1, Math.min(length(), IO_CHUNK_SIZE / elementSize));
+        return ByteBuffer.allocate(elements * elementSize);
+    }
+
+    /**
+     * Whether the elements live in {@link #dataBuffer}
+     * rather than one of the java arrays
+     * @return true if the data is off heap (or in a wrapped byte buffer)
+     */
+    protected boolean isDirectData() {
+        return doubleData == null && floatData == null && intData == null && dataBuffer != null;
+    }
+
+    /**
+     * A nio view of n elements of the direct data starting at element i
+     */
+    private ByteBuffer directView(int i, int n) {
+        return dataBuffer.nioBuffer(i * getElementSize(), n * getElementSize()).order(dataBuffer.order());
+    }
+
+    /**
+     * Encode n elements starting at i in to the start of the given
+     * buffer in their serialized form
+     * @param chunk the buffer to write to
+     * @param i the first element
+     * @param n the number of elements
+     */
+    protected void encode(ByteBuffer chunk, int i, int n) {
+        chunk.clear();
         if(dataType() == Type.DOUBLE) {
-            for(int i = 0; i < length(); i++)
-                out.writeDouble(getDouble(i));
+            DoubleBuffer view = chunk.asDoubleBuffer();
+            if(doubleData != null)
+                view.put(doubleData, i, n);
+            else if(isDirectData())
+                view.put(directView(i, n).asDoubleBuffer());
+            else
+                for(int j = 0; j < n; j++)
+                    view.put(getDouble(i + j));
         }
         else {
-            for(int i = 0; i < length(); i++)
-                out.writeFloat(getFloat(i));
+            FloatBuffer view = chunk.asFloatBuffer();
+            if(floatData != null)
+                view.put(floatData, i, n);
+            else if(isDirectData() && dataType() == Type.FLOAT)
+                view.put(directView(i, n).asFloatBuffer());
+            else
+                for(int j = 0; j < n; j++)
+                    view.put(getFloat(i + j));
         }
-
     }
 
+    /**
+     * Decode n serialized elements of the given type from the start of
+     * the given buffer in to this buffer starting at element i
+     * @param chunk the buffer to read from
+     * @param type the data type the elements were serialized as
+     * @param i the first element
+     * @param n the number of elements
+     */
+    protected void decode(ByteBuffer chunk, Type type, int i, int n) {
+        if(type == Type.DOUBLE) {
+            DoubleBuffer view = chunk.asDoubleBuffer();
+            view.limit(n);
+            if(doubleData != null)
+                view.get(doubleData, i, n);
+            else if(isDirectData() && dataType() == Type.DOUBLE)
+                directView(i, n).asDoubleBuffer().put(view);
+            else
+                for(int j = 0; j < n; j++)
+                    put(i + j, view.get());
+        }
+        else {
+            FloatBuffer view = chunk.asFloatBuffer();
+            view.limit(n);
+            if(floatData != null)
+                view.get(floatData, i, n);
+            else if(isDirectData() && dataType() == Type.FLOAT)
+                directView(i, n).asFloatBuffer().put(view);
+            else
+                for(int j = 0; j < n; j++)
+                    put(i + j, view.get());
+        }
+    }
 
+    /**
+     * (Re)allocate the storage for {@link #length}
+     * elements of this buffer's data type
+     * according to the {@link #allocationMode}
+     */
+    protected void allocateForRead() {
+        doubleData = null;
+        floatData = null;
+        intData = null;
+        if(allocationMode == AllocationMode.HEAP) {
+            if(dataType() == Type.DOUBLE)
+                doubleData = new double[length];
+            else if(dataType() == Type.FLOAT)
+                floatData = new float[length];
+            else
+                intData = new int[length];
+        }
+        else {
+            dataBuffer = allocateDirect(length * getElementSize());
+            dataBuffer.writerIndex(length * getElementSize());
+        }
+    }
 
 
     @Override
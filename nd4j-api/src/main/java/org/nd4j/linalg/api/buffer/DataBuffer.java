@@ -24,10 +24,14 @@ import org.nd4j.linalg.api.complex.IComplexDouble;
 import org.nd4j.linalg.api.complex.IComplexFloat;
 import org.nd4j.linalg.api.complex.IComplexNumber;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.Collection;
 
 /**
@@ -268,6 +272,22 @@ public interface DataBuffer extends Serializable {
      */
     void setData(double[] data);
 
+    /**
+     * Set part of the data for this buffer
+     *
+     * @param data   the data to set
+     * @param offset the element to start at
+     */
+    void setData(float[] data, int offset);
+
+    /**
+     * Set part of the data for this buffer
+     *
+     * @param data   the data to set
+     * @param offset the element to start at
+     */
+    void setData(double[] data, int offset);
+
     /**
      * Raw byte array storage
      *
@@ -480,4 +500,44 @@ public interface DataBuffer extends Serializable {
      */
     void read(InputStream is);
 
+    /**
+     * Write the elements of this buffer to the given channel
+     * in bulk. The elements are written big endian
+     * (the same encoding as {@link #write(OutputStream)}
+     * minus the header) as doubles for double buffers
+     * and floats otherwise.
+     * @param channel the channel to write to
+     * @throws IOException
+     */
+    void write(WritableByteChannel channel) throws IOException;
+
+    /**
+     * Write the elements of this buffer to the given channel
+     * in bulk with the given byte order
+     * (see {@link #write(WritableByteChannel)})
+     * @param channel the channel to write to
+     * @param order the byte order of the elements
+     * @throws IOException
+     */
+    void write(WritableByteChannel channel, ByteOrder order) throws IOException;
+
+    /**
+     * Fill this buffer with {@link #length()} elements
+     * read in bulk from the given channel
+     * (in the encoding of {@link #write(WritableByteChannel)})
+     * @param channel the channel to read from
+     * @throws IOException
+     */
+    void read(ReadableByteChannel channel) throws IOException;
+
+    /**
+     * Fill this buffer with {@link #length()} elements
+     * of the given byte order read in bulk from the given channel
+     * (see {@link #read(ReadableByteChannel)})
+     * @param channel the channel to read from
+     * @param order the byte order of the elements
+     * @throws IOException
+     */
+    void read(ReadableByteChannel channel, ByteOrder order) throws IOException;
+
 }
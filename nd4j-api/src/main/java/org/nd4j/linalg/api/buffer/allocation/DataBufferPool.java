@@ -0,0 +1,414 @@
+/*
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ *
+ */
+
+package org.nd4j.linalg.api.buffer.allocation;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+import java.lang.ref.WeakReference;
+import java.nio.ByteOrder;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A pool of the memory backing data buffers.
+ *
+ * Memory is kept in free lists by size class: one per element type
+ * and exact length. Exact sizes keep the length of a pooled array
+ * equal to the length of its buffer (callers of asDouble() and friends
+ * rely on this) and are a good fit for training loops, which allocate
+ * the same shapes over and over.
+ *
+ * Released memory first goes to a small per thread cache
+ * (at most {@link #THREAD_CACHE_SIZE} entries per size class)
+ * so the common allocate/release cycle on one thread does not contend,
+ * the rest goes to the shared free lists. Every thread cache is registered
+ * with the pool: {@link #clear()} drains all of them and the caches
+ * of threads that died are drained back in to the accounting
+ * whenever a new thread starts using the pool, the pool is full
+ * or the pooled bytes are read. The total amount
+ * of pooled memory is bounded by {@link #MAX_BYTES}: memory
+ * released beyond that is left to the garbage collector.
+ *
+ * @author Adam Gibson
+ */
+public class DataBufferPool {
+    public final static String MAX_BYTES = "databuffer.pool.maxbytes";
+    public final static String THREAD_CACHE_SIZE = "databuffer.pool.threadcache";
+
+    private final static int DOUBLE = 0;
+    private final static int FLOAT = 1;
+    private final static int INT = 2;
+    private final static int DIRECT = 3;
+
+    private final long maxBytes;
+    private final int threadCacheSize;
+    private final ConcurrentMap<Long, Queue<Object>> freeLists = new ConcurrentHashMap<>();
+    private final Queue<ThreadCache> registeredCaches = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<ThreadCache> threadCaches = new ThreadLocal<ThreadCache>() {
+        @Override
+        protected ThreadCache initialValue() {
+            reclaimDeadCaches();
+            ThreadCache cache = new ThreadCache(Thread.currentThread());
+            registeredCaches.add(cache);
+            return cache;
+        }
+    };
+    private final AtomicLong pooledBytes = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong releases = new AtomicLong();
+    private final AtomicLong discards = new AtomicLong();
+
+    /**
+     * Create a pool configured from the system properties
+     * {@link #MAX_BYTES} (default: a quarter of the max heap)
+     * and {@link #THREAD_CACHE_SIZE} (default: 4)
+     */
+    public DataBufferPool() {
+        this(Long.parseLong(System.getProperty(MAX_BYTES, String.valueOf(Runtime.getRuntime().maxMemory() / 4))),
+                Integer.parseInt(System.getProperty(THREAD_CACHE_SIZE, "4")));
+    }
+
+    /**
+     * @param maxBytes        the max number of bytes to keep pooled
+     * @param threadCacheSize the max number of entries per size class
+     *                        in each thread's cache
+     */
+    public DataBufferPool(long maxBytes, int threadCacheSize) {
+        this.maxBytes = maxBytes;
+        this.threadCacheSize = threadCacheSize;
+    }
+
+    /**
+     * Get a double array of the given length
+     * @param length the length of the array
+     * @param clear  whether a reused array should be zeroed
+     *               (new arrays are always zero)
+     * @return a double array of exactly the given length
+     */
+    public double[] acquireDouble(int length, boolean clear) {
+        double[] ret = (double[]) acquire(key(DOUBLE, length), length * 8L);
+        if (ret == null)
+            return new double[length];
+        if (clear)
+            Arrays.fill(ret, 0.0);
+        return ret;
+    }
+
+    /**
+     * Get a float array of the given length
+     * @param length the length of the array
+     * @param clear  whether a reused array should be zeroed
+     *               (new arrays are always zero)
+     * @return a float array of exactly the given length
+     */
+    public float[] acquireFloat(int length, boolean clear) {
+        float[] ret = (float[]) acquire(key(FLOAT, length), length * 4L);
+        if (ret == null)
+            return new float[length];
+        if (clear)
+            Arrays.fill(ret, 0.0f);
+        return ret;
+    }
+
+    /**
+     * Get an int array of the given length
+     * @param length the length of the array
+     * @param clear  whether a reused array should be zeroed
+     *               (new arrays are always zero)
+     * @return an int array of exactly the given length
+     */
+    public int[] acquireInt(int length, boolean clear) {
+        int[] ret = (int[]) acquire(key(INT, length), length * 4L);
+        if (ret == null)
+            return new int[length];
+        if (clear)
+            Arrays.fill(ret, 0);
+        return ret;
+    }
+
+    /**
+     * Get a direct buffer in native byte order
+     * @param bytes the capacity of the buffer in bytes
+     * @param clear whether a reused buffer should be zeroed
+     *              (new buffers are always zero)
+     * @return a direct buffer with exactly the given capacity
+     */
+    public ByteBuf acquireDirect(int bytes, boolean clear) {
+        ByteBuf ret = (ByteBuf) acquire(key(DIRECT, bytes), bytes);
+        if (ret == null)
+            return Unpooled.directBuffer(bytes, bytes).order(ByteOrder.nativeOrder());
+        ret.clear();
+        if (clear)
+            ret.setZero(0, bytes);
+        return ret;
+    }
+
+    /**
+     * Return an array to the pool.
+     * The array must not be used after it is released
+     * @param data the array to release
+     */
+    public void release(double[] data) {
+        release(key(DOUBLE, data.length), data, data.length * 8L);
+    }
+
+    /**
+     * Return an array to the pool.
+     * The array must not be used after it is released
+     * @param data the array to release
+     */
+    public void release(float[] data) {
+        release(key(FLOAT, data.length), data, data.length * 4L);
+    }
+
+    /**
+     * Return an array to the pool.
+     * The array must not be used after it is released
+     * @param data the array to release
+     */
+    public void release(int[] data) {
+        release(key(INT, data.length), data, data.length * 4L);
+    }
+
+    /**
+     * Return a direct buffer to the pool.
+     * The buffer must not be used after it is released
+     * @param buf the buffer to release
+     */
+    public void release(ByteBuf buf) {
+        release(key(DIRECT, buf.capacity()), buf, buf.capacity());
+    }
+
+    /**
+     * Drop everything in the shared free lists
+     * and the caches of every thread
+     */
+    public void clear() {
+        for (Map.Entry<Long, Queue<Object>> entry : freeLists.entrySet())
+            drain(entry.getKey(), entry.getValue());
+        for (Iterator<ThreadCache> iter = registeredCaches.iterator(); iter.hasNext(); ) {
+            ThreadCache cache = iter.next();
+            if (!cache.isOwnerAlive())
+                iter.remove();
+            drain(cache);
+        }
+    }
+
+    /**
+     * Reset the hit, miss, release and discard counts
+     */
+    public void resetStats() {
+        hits.set(0);
+        misses.set(0);
+        releases.set(0);
+        discards.set(0);
+    }
+
+    /**
+     * The number of allocations served from the pool
+     * @return the number of allocations served from the pool
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * The number of allocations that had to allocate new memory
+     * @return the number of allocations that had to allocate new memory
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * The number of times memory was returned to the pool
+     * @return the number of times memory was returned to the pool
+     */
+    public long getReleases() {
+        return releases.get();
+    }
+
+    /**
+     * The number of releases that were dropped
+     * because the pool was full
+     * @return the number of releases that were dropped
+     */
+    public long getDiscards() {
+        return discards.get();
+    }
+
+    /**
+     * The number of bytes currently pooled
+     * @return the number of bytes currently pooled
+     */
+    public long getPooledBytes() {
+        reclaimDeadCaches();
+        return pooledBytes.get();
+    }
+
+    /**
+     * The fraction of allocations served from the pool
+     * @return the hit rate (0 if nothing was allocated yet)
+     */
+    public double getHitRate() {
+        long hits = getHits();
+        long total = hits + getMisses();
+        return total == 0 ? 0 : hits / (double) total;
+    }
+
+    @Override
+    public String toString() {
+        return "DataBufferPool{" +
+                "hits=" + getHits() +
+                ", misses=" + getMisses() +
+                ", releases=" + getReleases() +
+                ", discards=" + getDiscards() +
+                ", pooledBytes=" + getPooledBytes() +
+                ", maxBytes=" + maxBytes +
+                '}';
+    }
+
+    //size classes are per element type and exact size
+    private static Long key(int type, int size) {
+        return ((long) type << 32) | size;
+    }
+
+    private Object acquire(Long key, long bytes) {
+        Object ret = threadCaches.get().poll(key);
+        if (ret == null) {
+            Queue<Object> shared = freeLists.get(key);
+            ret = shared != null ? shared.poll() : null;
+        }
+
+        if (ret == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+
+        pooledBytes.addAndGet(-bytes);
+        hits.incrementAndGet();
+        return ret;
+    }
+
+    private void release(Long key, Object data, long bytes) {
+        releases.incrementAndGet();
+        //the caches of dead threads may be holding on to the space
+        if (!reserve(bytes) && !(reclaimDeadCaches() && reserve(bytes))) {
+            discards.incrementAndGet();
+            return;
+        }
+
+        if (threadCaches.get().offer(key, data, threadCacheSize))
+            return;
+
+        Queue<Object> shared = freeLists.get(key);
+        if (shared == null) {
+            shared = new ConcurrentLinkedQueue<>();
+            Queue<Object> existing = freeLists.putIfAbsent(key, shared);
+            if (existing != null)
+                shared = existing;
+        }
+
+        shared.offer(data);
+    }
+
+    //count the bytes as pooled unless that would go over the bound
+    private boolean reserve(long bytes) {
+        if (pooledBytes.addAndGet(bytes) <= maxBytes)
+            return true;
+        pooledBytes.addAndGet(-bytes);
+        return false;
+    }
+
+    //drain and unregister the caches of threads that died, returns whether any were found
+    private boolean reclaimDeadCaches() {
+        boolean reclaimed = false;
+        for (Iterator<ThreadCache> iter = registeredCaches.iterator(); iter.hasNext(); ) {
+            ThreadCache cache = iter.next();
+            if (!cache.isOwnerAlive()) {
+                iter.remove();
+                drain(cache);
+                reclaimed = true;
+            }
+        }
+        return reclaimed;
+    }
+
+    private void drain(ThreadCache cache) {
+        synchronized (cache) {
+            for (Map.Entry<Long, Deque<Object>> entry : cache.lists.entrySet())
+                drain(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private void drain(Long key, Queue<Object> queue) {
+        long size = key & 0xFFFFFFFFL;
+        int type = (int) (key >>> 32);
+        long bytes = type == DOUBLE ? size * 8 : type == DIRECT ? size : size * 4;
+        while (queue.poll() != null)
+            pooledBytes.addAndGet(-bytes);
+    }
+
+    /**
+     * The cache of one thread. Only the owner adds and takes memory,
+     * other threads lock it to drain it ({@link #clear()} or once the owner died)
+     */
+    private static class ThreadCache {
+        private final WeakReference<Thread> owner;
+        private final Map<Long, Deque<Object>> lists = new HashMap<>();
+
+        ThreadCache(Thread owner) {
+            this.owner = new WeakReference<>(owner);
+        }
+
+        boolean isOwnerAlive() {
+            Thread thread = owner.get();
+            return thread != null && thread.isAlive();
+        }
+
+        synchronized Object poll(Long key) {
+            Deque<Object> local = lists.get(key);
+            return local != null ? local.poll() : null;
+        }
+
+        synchronized boolean offer(Long key, Object data, int max) {
+            Deque<Object> local = lists.get(key);
+            if (local == null) {
+                local = new ArrayDeque<>();
+                lists.put(key, local);
+            }
+            if (local.size() >= max)
+                return false;
+            local.push(data);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ *
+ */
+
+package org.nd4j.linalg.api.buffer.allocation;
+
+import org.nd4j.linalg.api.buffer.BaseDataBuffer;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.buffer.factory.PooledDataBufferFactory;
+import org.nd4j.linalg.api.ndarray.INDArray;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A scope for temporary arrays.
+ *
+ * While a workspace is entered on a thread, every buffer
+ * created on that thread through {@link org.nd4j.linalg.factory.Nd4j#createBuffer(int)}
+ * (which covers Nd4j.create, dup() and the results of ops)
+ * is allocated from the workspace's pool and tracked.
+ * Closing the workspace destroys all of them at once,
+ * returning their memory to the pool, so the next time the workspace is
+ * entered (eg: the next iteration of a training loop) the same memory is reused
+ * instead of being allocated and garbage collected again.
+ *
+ * Arrays that need to outlive the scope have to be {@link #detach(INDArray)}ed.
+ * Using any other array created in the scope after it is closed is an error.
+ *
+ * <pre>
+ * for (int i = 0; i < iterations; i++) {
+ *     try (Workspace ws = Nd4j.workspace("train")) {
+ *         INDArray output = ...;
+ *         ws.detach(output);
+ *     }
+ * }
+ * </pre>
+ *
+ * A workspace belongs to one thread. Workspaces nest:
+ * buffers go to the innermost one.
+ *
+ * Named workspaces are kept per thread until they are {@link #release(String)}d.
+ * The memory each one pools is bounded by {@link #MAX_BYTES}
+ * (default: a quarter of the max heap), memory released beyond that
+ * is left to the garbage collector.
+ *
+ * @author Adam Gibson
+ */
+public class Workspace extends PooledDataBufferFactory implements AutoCloseable {
+    public final static String MAX_BYTES = "workspace.pool.maxbytes";
+
+    private static final ThreadLocal<Deque<Workspace>> ENTERED = new ThreadLocal<Deque<Workspace>>() {
+        @Override
+        protected Deque<Workspace> initialValue() {
+            return new ArrayDeque<>();
+        }
+    };
+    private static final ThreadLocal<Map<String, Workspace>> NAMED = new ThreadLocal<Map<String, Workspace>>() {
+        @Override
+        protected Map<String, Workspace> initialValue() {
+            return new HashMap<>();
+        }
+    };
+
+    private final Set<DataBuffer> scoped = Collections.newSetFromMap(new IdentityHashMap<DataBuffer, Boolean>());
+
+    /**
+     * Create a workspace with a pool bounded by
+     * the system property {@link #MAX_BYTES}
+     */
+    public Workspace() {
+        this(Long.parseLong(System.getProperty(MAX_BYTES, String.valueOf(Runtime.getRuntime().maxMemory() / 4))));
+    }
+
+    /**
+     * @param maxBytes the max number of bytes the workspace keeps pooled
+     */
+    public Workspace(long maxBytes) {
+        //only used by the thread that owns it: no need for a shared free list
+        super(new DataBufferPool(maxBytes, Integer.MAX_VALUE));
+    }
+
+    /**
+     * The innermost workspace entered on the calling thread
+     * @return the current workspace or null if there is none
+     */
+    public static Workspace getCurrent() {
+        return ENTERED.get().peek();
+    }
+
+    /**
+     * The workspace with the given name for the calling thread.
+     * The same workspace (and pool) is returned every time
+     * @param name the name of the workspace
+     * @return the workspace with the given name
+     */
+    public static Workspace getNamed(String name) {
+        Map<String, Workspace> named = NAMED.get();
+        Workspace ret = named.get(name);
+        if (ret == null) {
+            ret = new Workspace();
+            named.put(name, ret);
+        }
+
+        return ret;
+    }
+
+    /**
+     * Drop the calling thread's workspace with the given name
+     * along with the memory it pooled
+     * @param name the name of the workspace
+     * @return true if there was a workspace with the given name
+     */
+    public static boolean release(String name) {
+        Map<String, Workspace> named = NAMED.get();
+        Workspace workspace = named.get(name);
+        if (workspace == null)
+            return false;
+        if (ENTERED.get().contains(workspace))
+            throw new IllegalStateException("Workspace " + name + " is still entered");
+        named.remove(name);
+        workspace.getPool().clear();
+        return true;
+    }
+
+    /**
+     * Drop all of the calling thread's named workspaces
+     * along with the memory they pooled
+     */
+    public static void releaseAll() {
+        for (String name : new ArrayList<>(NAMED.get().keySet()))
+            release(name);
+    }
+
+    /**
+     * Make this the current workspace for the calling thread
+     * @return this workspace
+     */
+    public Workspace enter() {
+        Deque<Workspace> entered = ENTERED.get();
+        if (entered.contains(this))
+            throw new IllegalStateException("Workspace already entered");
+        entered.push(this);
+        return this;
+    }
+
+    /**
+     * Keep the given array alive after the workspace is closed
+     * @param arr the array to detach
+     * @return the array
+     */
+    public INDArray detach(INDArray arr) {
+        scoped.remove(arr.data());
+        return arr;
+    }
+
+    /**
+     * Whether the given array will be destroyed when the workspace is closed
+     * @param arr the array to test
+     * @return true if the array's buffer belongs to the scope
+     */
+    public boolean isScoped(INDArray arr) {
+        return scoped.contains(arr.data());
+    }
+
+    /**
+     * Destroy every buffer created in the scope
+     * (except the detached ones) and leave the workspace
+     */
+    @Override
+    public void close() {
+        Deque<Workspace> entered = ENTERED.get();
+        if (entered.peek() != this)
+            throw new IllegalStateException("Only the innermost workspace can be closed");
+        entered.pop();
+        for (DataBuffer buffer : scoped)
+            buffer.destroy();
+        scoped.clear();
+    }
+
+    @Override
+    protected DataBuffer pooled(BaseDataBuffer buffer) {
+        scoped.add(buffer);
+        return super.pooled(buffer);
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ *
+ */
+
+package org.nd4j.linalg.api.buffer.factory;
+
+import io.netty.buffer.ByteBuf;
+import org.nd4j.linalg.api.buffer.BaseDataBuffer;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.buffer.DoubleBuffer;
+import org.nd4j.linalg.api.buffer.FloatBuffer;
+import org.nd4j.linalg.api.buffer.IntBuffer;
+import org.nd4j.linalg.api.buffer.allocation.DataBufferPool;
+import org.nd4j.linalg.factory.Nd4j;
+
+/**
+ * Data buffer creation backed by a {@link DataBufferPool}.
+ *
+ * Buffers are created from pooled heap arrays
+ * (or pooled direct buffers when the allocation mode is direct)
+ * and {@link DataBuffer#destroy()} returns their memory to the pool.
+ * Buffers wrapping caller provided arrays (copy is false)
+ * are never pooled.
+ *
+ * Enable with databufferfactory=org.nd4j.linalg.api.buffer.factory.PooledDataBufferFactory
+ * in the backend properties.
+ *
+ * @author Adam Gibson
+ */
+public class PooledDataBufferFactory extends DefaultDataBufferFactory {
+    protected DataBufferPool pool;
+
+    public PooledDataBufferFactory() {
+        this(new DataBufferPool());
+    }
+
+    public PooledDataBufferFactory(DataBufferPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * The pool the buffers are allocated from
+     * @return the pool the buffers are allocated from
+     */
+    public DataBufferPool getPool() {
+        return pool;
+    }
+
+    @Override
+    public DataBuffer createDouble(int length) {
+        if (Nd4j.alloc == DataBuffer.AllocationMode.HEAP)
+            return pooled(new DoubleBuffer(pool.acquireDouble(length, true), false));
+        return pooled(new DoubleBuffer(pool.acquireDirect(length * 8, true), length));
+    }
+
+    @Override
+    public DataBuffer createFloat(int length) {
+        if (Nd4j.alloc == DataBuffer.AllocationMode.HEAP)
+            return pooled(new FloatBuffer(pool.acquireFloat(length, true), false));
+        return pooled(new FloatBuffer(pool.acquireDirect(length * 4, true), length));
+    }
+
+    @Override
+    public DataBuffer createInt(int length) {
+        if (Nd4j.alloc == DataBuffer.AllocationMode.HEAP)
+            return pooled(new IntBuffer(pool.acquireInt(length, true), false));
+        return pooled(new IntBuffer(pool.acquireDirect(length * 4, true), length));
+    }
+
+    @Override
+    public DataBuffer createDouble(double[] data, boolean copy) {
+        if (!copy)
+            return super.createDouble(data, false);
+        if (Nd4j.alloc == DataBuffer.AllocationMode.HEAP) {
+            double[] pooled = pool.acquireDouble(data.length, false);
+            System.arraycopy(data, 0, pooled, 0, data.length);
+            return pooled(new DoubleBuffer(pooled, false));
+        }
+
+        ByteBuf buf = pool.acquireDirect(data.length * 8, false);
+        for (int i = 0; i < data.length; i++)
+            buf.setDouble(i * 8, data[i]);
+        return pooled(new DoubleBuffer(buf, data.length));
+    }
+
+    @Override
+    public DataBuffer createFloat(float[] data, boolean copy) {
+        if (!copy)
+            return super.createFloat(data, false);
+        if (Nd4j.alloc == DataBuffer.AllocationMode.HEAP) {
+            float[] pooled = pool.acquireFloat(data.length, false);
+            System.arraycopy(data, 0, pooled, 0, data.length);
+            return pooled(new FloatBuffer(pooled, false));
+        }
+
+        ByteBuf buf = pool.acquireDirect(data.length * 4, false);
+        for (int i = 0; i < data.length; i++)
+            buf.setFloat(i * 4, data[i]);
+        return pooled(new FloatBuffer(buf, data.length));
+    }
+
+    @Override
+    public DataBuffer createFloat(double[] data, boolean copy) {
+        //always a copy: the data has to be converted
+        if (Nd4j.alloc == DataBuffer.AllocationMode.HEAP) {
+            float[] pooled = pool.acquireFloat(data.length, false);
+            for (int i = 0; i < data.length; i++)
+                pooled[i] = (float) data[i];
+            return pooled(new FloatBuffer(pooled, false));
+        }
+
+        ByteBuf buf = pool.acquireDirect(data.length * 4, false);
+        for (int i = 0; i < data.length; i++)
+            buf.setFloat(i * 4, (float) data[i]);
+        return pooled(new FloatBuffer(buf, data.length));
+    }
+
+    @Override
+    public DataBuffer createInt(int[] data, boolean copy) {
+        if (!copy || Nd4j.alloc != DataBuffer.AllocationMode.HEAP)
+            return super.createInt(data, copy);
+        int[] pooled = pool.acquireInt(data.length, false);
+        System.arraycopy(data, 0, pooled, 0, data.length);
+        return pooled(new IntBuffer(pooled, false));
+    }
+
+    /**
+     * Link a buffer created from pooled memory
+     * to the pool so destroying it returns the memory
+     * @param buffer the buffer to link
+     * @return the buffer
+     */
+    protected DataBuffer pooled(BaseDataBuffer buffer) {
+        buffer.setPool(pool);
+        return buffer;
+    }
+}
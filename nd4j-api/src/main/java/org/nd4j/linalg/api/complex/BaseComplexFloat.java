@@ -233,7 +233,7 @@ public abstract class BaseComplexFloat implements IComplexFloat {
     @Override
     public IComplexNumber addi(IComplexNumber c, IComplexNumber result) {
         if (this == result) {
-            set(realComponent() + c.realComponent().floatValue(), imaginaryComponent() + result.imaginaryComponent().floatValue());
+            set(realComponent() + c.realComponent().floatValue(), imaginaryComponent() + c.imaginaryComponent().floatValue());
         } else {
             result.set(result.realComponent().floatValue() + c.realComponent().floatValue(), result.imaginaryComponent().floatValue() + c.imaginaryComponent().floatValue());
 
@@ -308,7 +308,7 @@ public abstract class BaseComplexFloat implements IComplexFloat {
     @Override
     public IComplexNumber subi(IComplexNumber c, IComplexNumber result) {
         if (this == result) {
-            set(realComponent() - c.realComponent().floatValue(), imaginaryComponent() - result.imaginaryComponent().floatValue());
+            set(realComponent() - c.realComponent().floatValue(), imaginaryComponent() - c.imaginaryComponent().floatValue());
         } else {
             return result.set(result.realComponent().floatValue() - c.realComponent().floatValue(), result.imaginaryComponent().floatValue() - c.imaginaryComponent().floatValue());
 
@@ -437,7 +437,7 @@ public abstract class BaseComplexFloat implements IComplexFloat {
         if (this == result) {
             set(realComponent() / v.floatValue(), imaginaryComponent() / v.floatValue());
         } else {
-            result.set(result.realComponent().floatValue() / v.floatValue(), imaginaryComponent() / v.floatValue());
+            result.set(result.realComponent().floatValue() / v.floatValue(), result.imaginaryComponent().floatValue() / v.floatValue());
 
         }
         return result;
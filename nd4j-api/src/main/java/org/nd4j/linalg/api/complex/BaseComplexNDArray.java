@@ -25,6 +25,8 @@ import org.nd4j.linalg.api.blas.BlasBufferUtil;
 import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.ndarray.BaseNDArray;
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.OpCodes;
+import org.nd4j.linalg.api.ops.executioner.ComplexKernels;
 import org.nd4j.linalg.factory.NDArrayFactory;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.indexing.Indices;
@@ -983,6 +985,12 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
 
     @Override
     public IComplexNDArray dup() {
+        IComplexNDArray ret = Nd4j.createComplex(shape());
+        if (ComplexKernels.canIterate(this, ret)) {
+            ComplexKernels.copy(this, ret);
+            return ret;
+        }
+
         return (IComplexNDArray) Shape.toOffsetZeroCopy(this);
     }
 
@@ -1098,6 +1106,15 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
 
     @Override
     public IComplexNDArray put(NDArrayIndex[] indices, INDArray element) {
+        if (!isVector()) {
+            INDArray view = stridedView(Indices.adjustIndices(shape(), indices));
+            if (view != null && Arrays.equals(view.shape(), element.shape())) {
+                IComplexNDArray complexView = (IComplexNDArray) view;
+                complexView.assign(element instanceof IComplexNDArray ? (IComplexNDArray) element : Nd4j.createComplex(element));
+                return this;
+            }
+        }
+
         if (isVector()) {
             assert element.isScalar() || element.isVector() : "Unable to assign elements. Element is not a vector.";
             assert indices[0].length() == element.length() : "Number of specified elements in index does not match length of element.";
@@ -1250,6 +1267,11 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
      */
     @Override
     public IComplexNDArray conji() {
+        if (ComplexKernels.canIterate(this)) {
+            ComplexKernels.conj(this, this);
+            return this;
+        }
+
         IComplexNDArray reshaped = linearView();
         IComplexDouble c = Nd4j.createDouble(0.0, 0);
         for (int i = 0; i < length; i++) {
@@ -2478,6 +2500,10 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
         if (other.isScalar())
             return divi(cOther.getComplex(0), result);
 
+        if (ComplexKernels.canIterate(this, other, result)) {
+            ComplexKernels.exec(OpCodes.DIV, this, other, result);
+            return cResult;
+        }
 
         IComplexNumber c = Nd4j.createComplexNumber(0, 0);
         IComplexNumber d = Nd4j.createComplexNumber(0, 0);
@@ -2517,6 +2543,10 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
         if (other.isScalar())
             return muli(cOther.getComplex(0), result);
 
+        if (ComplexKernels.canIterate(this, other, result)) {
+            ComplexKernels.exec(OpCodes.MUL, this, other, result);
+            return cResult;
+        }
 
         IComplexNumber c = Nd4j.createComplexNumber(0, 0);
         IComplexNumber d = Nd4j.createComplexNumber(0, 0);
@@ -2552,6 +2582,10 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
         if (other.isScalar())
             return subi(cOther.getComplex(0), result);
 
+        if (ComplexKernels.canIterate(this, other, result)) {
+            ComplexKernels.exec(OpCodes.SUB, this, other, result);
+            return cResult;
+        }
 
         if (result == this)
             Nd4j.getBlasWrapper().axpy(Nd4j.NEG_UNIT, cOther, cResult);
@@ -2601,6 +2635,10 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
             return cOther.addi(getComplex(0), result);
         }
 
+        if (ComplexKernels.canIterate(this, other, result)) {
+            ComplexKernels.exec(OpCodes.ADD, this, other, result);
+            return cResult;
+        }
 
         if (result == this) {
 
@@ -2628,6 +2666,11 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
 
     @Override
     public IComplexNDArray rdivi(IComplexNumber n, INDArray result) {
+        if (ComplexKernels.canIterate(this, result)) {
+            ComplexKernels.exec(OpCodes.RDIV_SCALAR, this, n.realComponent().doubleValue(), n.imaginaryComponent().doubleValue(), result);
+            return (IComplexNDArray) result;
+        }
+
         IComplexNDArray cResult = (IComplexNDArray) result;
         IComplexNDArray cResultLinear = cResult.linearView();
         for (int i = 0; i < length; i++)
@@ -2642,6 +2685,11 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
 
     @Override
     public IComplexNDArray rsubi(IComplexNumber n, INDArray result) {
+        if (ComplexKernels.canIterate(this, result)) {
+            ComplexKernels.exec(OpCodes.RSUB_SCALAR, this, n.realComponent().doubleValue(), n.imaginaryComponent().doubleValue(), result);
+            return (IComplexNDArray) result;
+        }
+
         IComplexNDArray cResult = (IComplexNDArray) result;
         IComplexNDArray cResultLinear = cResult.linearView();
         IComplexNDArray thiLinear = linearView();
@@ -2658,6 +2706,11 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
 
     @Override
     public IComplexNDArray divi(IComplexNumber n, INDArray result) {
+        if (ComplexKernels.canIterate(this, result)) {
+            ComplexKernels.exec(OpCodes.DIV_SCALAR, this, n.realComponent().doubleValue(), n.imaginaryComponent().doubleValue(), result);
+            return (IComplexNDArray) result;
+        }
+
         IComplexNDArray cResult = (IComplexNDArray) result;
         IComplexNDArray cResultLinear = cResult.linearView();
         IComplexNDArray thisLinear = linearView();
@@ -2673,6 +2726,11 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
 
     @Override
     public IComplexNDArray muli(IComplexNumber n, INDArray result) {
+        if (ComplexKernels.canIterate(this, result)) {
+            ComplexKernels.exec(OpCodes.MUL_SCALAR, this, n.realComponent().doubleValue(), n.imaginaryComponent().doubleValue(), result);
+            return (IComplexNDArray) result;
+        }
+
         IComplexNDArray cResult = (IComplexNDArray) result;
         IComplexNDArray cResultLinear = cResult.linearView();
         IComplexNDArray thiLinear = linearView();
@@ -2688,6 +2746,11 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
 
     @Override
     public IComplexNDArray subi(IComplexNumber n, INDArray result) {
+        if (ComplexKernels.canIterate(this, result)) {
+            ComplexKernels.exec(OpCodes.SUB_SCALAR, this, n.realComponent().doubleValue(), n.imaginaryComponent().doubleValue(), result);
+            return (IComplexNDArray) result;
+        }
+
         IComplexNDArray cResult = (IComplexNDArray) result;
         IComplexNDArray cResultLinear = cResult.linearView();
 
@@ -2704,6 +2767,11 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
 
     @Override
     public IComplexNDArray addi(IComplexNumber n, INDArray result) {
+        if (ComplexKernels.canIterate(this, result)) {
+            ComplexKernels.exec(OpCodes.ADD_SCALAR, this, n.realComponent().doubleValue(), n.imaginaryComponent().doubleValue(), result);
+            return (IComplexNDArray) result;
+        }
+
         IComplexNDArray linear = linearView();
         IComplexNDArray cResult = (IComplexNDArray) result.linearView();
 
@@ -2716,7 +2784,7 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
 
     @Override
     public IComplexNDArray rdiv(IComplexNumber n) {
-        return dup().rdivi(n, this);
+        return dup().rdivi(n);
     }
 
     @Override
@@ -2726,7 +2794,7 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
 
     @Override
     public IComplexNDArray rsub(IComplexNumber n) {
-        return rsub(n, this);
+        return dup().rsubi(n);
     }
 
     @Override
@@ -2736,7 +2804,7 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
 
     @Override
     public IComplexNDArray div(IComplexNumber n) {
-        return div(n, this);
+        return dup().divi(n);
     }
 
     @Override
@@ -2766,7 +2834,7 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
 
     @Override
     public IComplexNDArray add(IComplexNumber n) {
-        return addi(n, this);
+        return dup().addi(n);
     }
 
     @Override
@@ -2893,6 +2961,11 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
 
     @Override
     public IComplexNDArray addi(IComplexNumber n, IComplexNDArray result) {
+        if (ComplexKernels.canIterate(this, result)) {
+            ComplexKernels.exec(OpCodes.ADD_SCALAR, this, n.realComponent().doubleValue(), n.imaginaryComponent().doubleValue(), result);
+            return result;
+        }
+
         IComplexNDArray linear = linearView();
         IComplexNDArray cResult = result.linearView();
         for (int i = 0; i < length(); i++) {
@@ -2906,6 +2979,11 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
 
     @Override
     public IComplexNDArray subi(IComplexNumber n, IComplexNDArray result) {
+        if (ComplexKernels.canIterate(this, result)) {
+            ComplexKernels.exec(OpCodes.SUB_SCALAR, this, n.realComponent().doubleValue(), n.imaginaryComponent().doubleValue(), result);
+            return result;
+        }
+
         IComplexNDArray linear = linearView();
         IComplexNDArray cResult = result.linearView();
         for (int i = 0; i < length(); i++) {
@@ -2919,6 +2997,11 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
 
     @Override
     public IComplexNDArray muli(IComplexNumber n, IComplexNDArray result) {
+        if (ComplexKernels.canIterate(this, result)) {
+            ComplexKernels.exec(OpCodes.MUL_SCALAR, this, n.realComponent().doubleValue(), n.imaginaryComponent().doubleValue(), result);
+            return result;
+        }
+
         IComplexNDArray linear = linearView();
         IComplexNDArray cResult = result.linearView();
         for (int i = 0; i < length(); i++) {
@@ -2933,6 +3016,11 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
 
     @Override
     public IComplexNDArray divi(IComplexNumber n, IComplexNDArray result) {
+        if (ComplexKernels.canIterate(this, result)) {
+            ComplexKernels.exec(OpCodes.DIV_SCALAR, this, n.realComponent().doubleValue(), n.imaginaryComponent().doubleValue(), result);
+            return result;
+        }
+
         IComplexNDArray linear = linearView();
         IComplexNDArray cResult = result.linearView();
         for (int i = 0; i < length(); i++) {
@@ -2946,6 +3034,11 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
 
     @Override
     public IComplexNDArray rsubi(IComplexNumber n, IComplexNDArray result) {
+        if (ComplexKernels.canIterate(this, result)) {
+            ComplexKernels.exec(OpCodes.RSUB_SCALAR, this, n.realComponent().doubleValue(), n.imaginaryComponent().doubleValue(), result);
+            return result;
+        }
+
         IComplexNDArray linear = linearView();
         IComplexNDArray cResult = result.linearView();
         for (int i = 0; i < length(); i++) {
@@ -2958,6 +3051,11 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
 
     @Override
     public IComplexNDArray rdivi(IComplexNumber n, IComplexNDArray result) {
+        if (ComplexKernels.canIterate(this, result)) {
+            ComplexKernels.exec(OpCodes.RDIV_SCALAR, this, n.realComponent().doubleValue(), n.imaginaryComponent().doubleValue(), result);
+            return result;
+        }
+
         IComplexNDArray linear = linearView();
         IComplexNDArray cResult = result.linearView();
         for (int i = 0; i < length(); i++) {
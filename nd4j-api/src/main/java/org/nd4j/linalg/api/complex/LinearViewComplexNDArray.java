@@ -77,6 +77,14 @@ public class LinearViewComplexNDArray extends BaseComplexNDArray {
 
 
 
+    /**
+     * The ndarray this is a linear view of
+     * @return the wrapped ndarray
+     */
+    public IComplexNDArray getWrapped() {
+        return wrapped;
+    }
+
     @Override
     public boolean isCleanedUp() {
         return wrapped.isCleanedUp();
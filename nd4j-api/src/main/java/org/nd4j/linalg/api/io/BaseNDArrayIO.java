@@ -23,6 +23,7 @@ import org.nd4j.linalg.api.complex.IComplexNDArray;
 import org.nd4j.linalg.api.ndarray.INDArray;
 
 import java.io.*;
+import java.nio.file.Files;
 
 /**
  * Base class for NDArray IO
@@ -31,6 +32,13 @@ import java.io.*;
  */
 public abstract class BaseNDArrayIO implements NDArrayIO {
 
+    /**
+     * The size of the buffers used for file streams.
+     * Large enough that the header is buffered
+     * while the bulk writes of the data go straight to the file
+     */
+    public final static int BUFFER_SIZE = 1 << 16;
+
     /**
      * Write an ndarray to the output stream
      *
@@ -39,12 +47,9 @@ public abstract class BaseNDArrayIO implements NDArrayIO {
      */
     @Override
     public void write(INDArray out, File to) throws IOException {
-        FileOutputStream fos = new FileOutputStream(to);
-        BufferedOutputStream bos = new BufferedOutputStream(fos);
-        write(out, bos);
-        bos.flush();
-        bos.close();
-        fos.close();
+        try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(to.toPath()), BUFFER_SIZE)) {
+            write(out, os);
+        }
     }
 
     /**
@@ -55,12 +60,9 @@ public abstract class BaseNDArrayIO implements NDArrayIO {
      */
     @Override
     public void writeComplex(IComplexNDArray out, File to) throws IOException {
-        FileOutputStream fos = new FileOutputStream(to);
-        BufferedOutputStream bos = new BufferedOutputStream(fos);
-        write(out, bos);
-        bos.flush();
-        bos.close();
-        fos.close();
+        try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(to.toPath()), BUFFER_SIZE)) {
+            writeComplex(out, os);
+        }
     }
 
     /**
@@ -71,10 +73,9 @@ public abstract class BaseNDArrayIO implements NDArrayIO {
      */
     @Override
     public INDArray read(File file) throws IOException {
-        FileInputStream fis = new FileInputStream(file);
-        INDArray ret = read(fis);
-        fis.close();
-        return ret;
+        try (InputStream is = new BufferedInputStream(Files.newInputStream(file.toPath()), BUFFER_SIZE)) {
+            return read(is);
+        }
     }
 
     /**
@@ -85,9 +86,8 @@ public abstract class BaseNDArrayIO implements NDArrayIO {
      */
     @Override
     public IComplexNDArray readComplex(File file) throws IOException {
-        FileInputStream fis = new FileInputStream(file);
-        IComplexNDArray ret = readComplex(fis);
-        fis.close();
-        return ret;
+        try (InputStream is = new BufferedInputStream(Files.newInputStream(file.toPath()), BUFFER_SIZE)) {
+            return readComplex(is);
+        }
     }
 }
@@ -0,0 +1,198 @@
+/*
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ *
+ */
+
+package org.nd4j.linalg.api.io;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.buffer.DoubleBuffer;
+import org.nd4j.linalg.api.buffer.FloatBuffer;
+import org.nd4j.linalg.api.complex.IComplexNDArray;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.util.ArrayUtil;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * An aligned binary format for ndarrays that can be memory mapped.
+ *
+ * The file is a little endian header followed by the raw little endian elements:
+ * <pre>
+ *     int magic (ND4J)
+ *     int version
+ *     int header length (the offset of the elements, a multiple of {@link #ALIGNMENT})
+ *     int data type (0 for float, 1 for double)
+ *     int ordering (c or f)
+ *     int rank
+ *     int offset of the first element
+ *     int number of elements
+ *     int[rank] shape
+ *     int[rank] stride
+ *     zero padding up to the header length
+ *     the elements
+ * </pre>
+ *
+ * {@link #mmap(Path, FileChannel.MapMode)} maps the elements straight
+ * in to a {@link DataBuffer}: nothing is read or copied so opening is
+ * independent of the size of the array and the pages are shared with
+ * every other process mapping the same file.
+ *
+ * Arrays are limited to 2GB of elements: the size of a single mapping
+ * and of a data buffer.
+ *
+ * @author Adam Gibson
+ */
+public class BinaryNDArrayFormat {
+    public final static int MAGIC = 0x4E44344A;
+    public final static int VERSION = 1;
+    public final static int ALIGNMENT = 64;
+    public final static int FLOAT = 0;
+    public final static int DOUBLE = 1;
+    private final static int FIXED_HEADER_LENGTH = 32;
+
+    private BinaryNDArrayFormat() {
+    }
+
+    /**
+     * Write an ndarray to the given file.
+     * Views are written as a dense copy with the same ordering
+     *
+     * @param arr  the array to write
+     * @param path the file to write to
+     * @throws IOException
+     */
+    public static void write(INDArray arr, Path path) throws IOException {
+        if (arr instanceof IComplexNDArray)
+            throw new IllegalArgumentException("Complex ndarrays are not supported");
+        if (!isDense(arr)) {
+            INDArray dense = Nd4j.create(arr.shape(), arr.ordering());
+            dense.assign(arr);
+            arr = dense;
+        }
+
+        DataBuffer data = arr.data();
+        int rank = arr.shape().length;
+        int headerLength = align(FIXED_HEADER_LENGTH + rank * 8);
+        ByteBuffer header = ByteBuffer.allocate(headerLength).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC);
+        header.putInt(VERSION);
+        header.putInt(headerLength);
+        header.putInt(data.dataType() == DataBuffer.Type.DOUBLE ? DOUBLE : FLOAT);
+        header.putInt(arr.ordering());
+        header.putInt(rank);
+        header.putInt(0);
+        header.putInt(arr.length());
+        for (int i = 0; i < rank; i++)
+            header.putInt(arr.size(i));
+        for (int i = 0; i < rank; i++)
+            header.putInt(arr.stride(i));
+        header.rewind();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(channel, header);
+            data.write(channel, ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    /**
+     * Map an ndarray written with {@link #write(INDArray, Path)}.
+     * With {@link FileChannel.MapMode#READ_ONLY} writes to the array fail,
+     * with {@link FileChannel.MapMode#PRIVATE} writes are copy on write and
+     * never reach the file and with {@link FileChannel.MapMode#READ_WRITE}
+     * writes go to the file. All but read only mappings need write access to the file
+     *
+     * @param path the file to map
+     * @param mode how to map the file
+     * @return an ndarray backed by the mapped file
+     * @throws IOException
+     */
+    public static INDArray mmap(Path path, FileChannel.MapMode mode) throws IOException {
+        //copy on write mappings need a writable channel even though the file is never written
+        boolean write = mode != FileChannel.MapMode.READ_ONLY;
+        try (FileChannel channel = write ? FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE) : FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer fixed = ByteBuffer.allocate(FIXED_HEADER_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, fixed, 0);
+            fixed.flip();
+            if (fixed.getInt() != MAGIC)
+                throw new IOException(path + " is not a binary ndarray");
+            int version = fixed.getInt();
+            if (version > VERSION)
+                throw new IOException("Unsupported version " + version + " of " + path);
+            int headerLength = fixed.getInt();
+            int type = fixed.getInt();
+            char ordering = (char) fixed.getInt();
+            int rank = fixed.getInt();
+            int offset = fixed.getInt();
+            int length = fixed.getInt();
+
+            ByteBuffer shapeAndStride = ByteBuffer.allocate(rank * 8).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, shapeAndStride, FIXED_HEADER_LENGTH);
+            shapeAndStride.flip();
+            int[] shape = new int[rank];
+            int[] stride = new int[rank];
+            for (int i = 0; i < rank; i++)
+                shape[i] = shapeAndStride.getInt();
+            for (int i = 0; i < rank; i++)
+                stride[i] = shapeAndStride.getInt();
+
+            int elementSize = type == DOUBLE ? 8 : 4;
+            long bytes = (long) length * elementSize;
+            if (bytes > Integer.MAX_VALUE)
+                throw new IOException("Arrays over 2GB can not be mapped");
+            if (headerLength + bytes > channel.size())
+                throw new IOException(path + " is truncated");
+
+            MappedByteBuffer mapped = channel.map(mode, headerLength, bytes);
+            ByteBuf buf = Unpooled.wrappedBuffer(mapped).order(ByteOrder.LITTLE_ENDIAN);
+            DataBuffer data = type == DOUBLE ? new DoubleBuffer(buf, length) : new FloatBuffer(buf, length);
+            return Nd4j.create(data, shape, stride, offset, ordering);
+        }
+    }
+
+    //whether the array's buffer holds exactly its elements in its ordering
+    private static boolean isDense(INDArray arr) {
+        int[] strides = arr.ordering() == 'f' ? ArrayUtil.calcStridesFortran(arr.shape()) : ArrayUtil.calcStrides(arr.shape());
+        return arr.offset() == 0 && arr.data().length() == arr.length() && Arrays.equals(strides, arr.stride());
+    }
+
+    private static int align(int length) {
+        return (length + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0)
+                throw new IOException("Unexpected end of file");
+        }
+    }
+}
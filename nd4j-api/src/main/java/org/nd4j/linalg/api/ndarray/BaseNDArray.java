@@ -1759,6 +1759,18 @@ public abstract class BaseNDArray implements INDArray {
 
     @Override
     public INDArray put(NDArrayIndex[] indices, INDArray element) {
+        if (!isVector()) {
+            INDArray view = stridedView(Indices.adjustIndices(shape(), indices));
+            if (view != null && element.isScalar()) {
+                view.assign(element.getDouble(0));
+                return this;
+            }
+            else if (view != null && Arrays.equals(view.shape(), element.shape())) {
+                view.assign(element);
+                return this;
+            }
+        }
+
         if (isVector()) {
             assert element.isScalar() || element.isVector() : "Unable to assign elements. Element is not a vector.";
             int[] assign = indices[0].indices();
@@ -1946,6 +1958,44 @@ public abstract class BaseNDArray implements INDArray {
         return create(buffer);
     }
 
+    /**
+     * Creates a view for indexes that are all intervals,
+     * strided intervals or all(). The offset and strides
+     * are computed directly from each index's begin and stride
+     * so nothing is materialized.
+     *
+     * @param indexes the (adjusted) indexes, one per dimension
+     * @return the view or null if any index is a point index,
+     * falls outside of this array or the result would be a vector or scalar
+     */
+    protected INDArray stridedView(NDArrayIndex... indexes) {
+        if (indexes.length != shape.length || isVector())
+            return null;
+
+        int[] newShape = new int[indexes.length];
+        int[] newStride = new int[indexes.length];
+        int newOffset = offset;
+        for (int i = 0; i < indexes.length; i++) {
+            NDArrayIndex index = indexes[i];
+            if (index instanceof NDArrayIndex.NDArrayIndexAll) {
+                newShape[i] = shape[i];
+                newStride[i] = stride[i];
+                continue;
+            }
+
+            if (!index.isSymbolic() || index.length() < 1 || index.stride() < 1 || index.end() >= shape[i])
+                return null;
+            newShape[i] = index.length();
+            newStride[i] = stride[i] * index.stride();
+            newOffset += index.offset() * stride[i];
+        }
+
+        if (Shape.isVector(newShape) || ArrayUtil.prod(newShape) == 1)
+            return null;
+
+        return create(data, newShape, newStride, newOffset, ordering);
+    }
+
     @Override
     public INDArray cond(Condition condition) {
         return dup().condi(condition);
@@ -3908,6 +3958,10 @@ public abstract class BaseNDArray implements INDArray {
 
         indexes = Indices.adjustIndices(shape(), indexes);
 
+        //intervals and all() map straight on to a view of the same buffer
+        INDArray view = stridedView(indexes);
+        if (view != null)
+            return view;
 
 
         int[] offsets = Indices.offsets(indexes);
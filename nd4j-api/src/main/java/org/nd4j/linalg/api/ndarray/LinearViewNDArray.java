@@ -85,6 +85,14 @@ public class LinearViewNDArray  extends BaseNDArray {
     }
 
 
+    /**
+     * The ndarray this is a linear view of
+     * @return the wrapped ndarray
+     */
+    public INDArray getWrapped() {
+        return wrapped;
+    }
+
     @Override
     public boolean isCleanedUp() {
         return wrapped.isCleanedUp();
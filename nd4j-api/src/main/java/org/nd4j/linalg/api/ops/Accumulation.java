@@ -77,6 +77,90 @@ public interface Accumulation extends Op {
      */
     void update(IComplexNumber result);
 
+    /**
+     * Fold the given (already transformed) element
+     * in to a partial result. Unlike {@link #update(Number)}
+     * this does not touch the state of the op
+     * which allows partial results to be computed
+     * independently (eg: one per thread)
+     *
+     * @param accum the partial result so far
+     * @param x     the element to fold in
+     * @return the new partial result
+     */
+    double update(double accum, double x);
+
+    /**
+     * Combine two partial results
+     * computed with {@link #update(double, double)}
+     *
+     * @param first  the first partial result
+     * @param second the second partial result
+     * @return the combined partial result
+     */
+    double combineSubResult(double first, double second);
+
+    /**
+     * Apply any post processing (eg: dividing by n for a mean)
+     * to the fully combined partial result and
+     * set it as the current result
+     *
+     * @param accum the combined partial result
+     * @return the final result
+     */
+    double getAndSetFinalResult(double accum);
+
+    /**
+     * Float version of {@link #update(double, double)}
+     *
+     * @param accum the partial result so far
+     * @param x     the element to fold in
+     * @return the new partial result
+     */
+    float update(float accum, float x);
+
+    /**
+     * Float version of {@link #combineSubResult(double, double)}
+     *
+     * @param first  the first partial result
+     * @param second the second partial result
+     * @return the combined partial result
+     */
+    float combineSubResult(float first, float second);
+
+    /**
+     * Float version of {@link #getAndSetFinalResult(double)}
+     *
+     * @param accum the combined partial result
+     * @return the final result
+     */
+    float getAndSetFinalResult(float accum);
+
+    /**
+     * Apply the post processing of {@link #getAndSetFinalResult(double)}
+     * to a partial result over n elements without setting the current result.
+     * Only supported by accumulations that are {@link #isStateless()}
+     *
+     * @param accum the combined partial result
+     * @param n     the number of elements the partial result was computed over
+     * @return the final result
+     */
+    double calculateFinalResult(double accum, int n);
+
+    /**
+     * Whether the result over a set of elements only depends
+     * on the elements and how many there are (eg: a sum or a mean).
+     * Accumulations that compute state from their input when they
+     * are created (eg: the mean for a variance) need an op
+     * per vector when reducing along a dimension.
+     *
+     * @return true if the result only depends on the elements
+     */
+    boolean isStateless();
+
+    @Override
+    Accumulation copyForRange(int start);
+
 
     /**
      * Initial value
@@ -31,10 +31,13 @@ import java.util.List;
  * with respect to the child class. Also contains baseline fields
  * for the over all field with accumulation.
  *
+ * The real valued result is kept as a primitive so that
+ * accumulating does not box a number per element.
+ *
  * @author Adam Gibson
  */
 public abstract class BaseAccumulation extends BaseOp implements Accumulation {
-    protected Number currentResult;
+    protected double currentResult;
     protected IComplexNumber currentComplexResult;
     protected List<Number> otherAccum;
     protected List<IComplexNumber> otherAccumComplex;
@@ -72,13 +75,36 @@ public abstract class BaseAccumulation extends BaseOp implements Accumulation {
     }
 
     private void init() {
-        currentResult = zero();
+        currentResult = zero().doubleValue();
         currentComplexResult = zeroComplex();
-        otherAccum = new ArrayList<>();
-        otherAccumComplex = new ArrayList<>();
         init(x, y, x, x.length());
     }
 
+    @Override
+    public float update(float accum, float x) {
+        return (float) update((double) accum, (double) x);
+    }
+
+    @Override
+    public float combineSubResult(float first, float second) {
+        return (float) combineSubResult((double) first, (double) second);
+    }
+
+    @Override
+    public float getAndSetFinalResult(float accum) {
+        return (float) getAndSetFinalResult((double) accum);
+    }
+
+    @Override
+    public double calculateFinalResult(double accum, int n) {
+        throw new UnsupportedOperationException("The result of " + name() + " depends on state computed from its input");
+    }
+
+    @Override
+    public boolean isStateless() {
+        return false;
+    }
+
     @Override
     public IComplexNumber op(IComplexNumber origin, double other) {
         numProcessed++;
@@ -156,17 +182,21 @@ public abstract class BaseAccumulation extends BaseOp implements Accumulation {
 
     @Override
     public List<IComplexNumber> otherAccumComplex() {
+        if (otherAccumComplex == null)
+            otherAccumComplex = new ArrayList<>();
         return otherAccumComplex;
     }
 
     @Override
     public List<Number> otherAccum() {
+        if (otherAccum == null)
+            otherAccum = new ArrayList<>();
         return otherAccum;
     }
 
     @Override
     public void setCurrentResult(Number number) {
-        this.currentResult = number;
+        this.currentResult = number.doubleValue();
     }
 
     @Override
@@ -174,6 +204,14 @@ public abstract class BaseAccumulation extends BaseOp implements Accumulation {
         this.currentComplexResult = complexNumber;
     }
 
+    @Override
+    public Accumulation copyForRange(int start) {
+        BaseAccumulation ret = (BaseAccumulation) super.copyForRange(start);
+        ret.otherAccum = null;
+        ret.otherAccumComplex = null;
+        return ret;
+    }
+
     @Override
     public void init(INDArray x, INDArray y, INDArray z, int n) {
         super.init(x, y, z, n);
@@ -28,13 +28,18 @@ import org.nd4j.linalg.api.ndarray.LinearViewNDArray;
  *
  * @author Adam Gibson
  */
-public abstract class BaseOp implements Op {
+public abstract class BaseOp implements Op, Cloneable {
 
     protected INDArray x, y, z;
     protected int n;
     protected int numProcessed;
     protected Object[] extraArgs;
     protected boolean passThrough;
+    private int opNum = OpCodes.UNKNOWN;
+    //extra args converted for backends: reconverted whenever extraArgs is replaced
+    private Object[] convertedDouble, convertedFloat;
+    private double[] extraArgsDouble;
+    private float[] extraArgsFloat;
 
     public BaseOp() {
     }
@@ -132,6 +137,41 @@ public abstract class BaseOp implements Op {
         return extraArgs;
     }
 
+    @Override
+    public double[] extraArgsDouble() {
+        if(extraArgs == null)
+            return null;
+        if(convertedDouble != extraArgs) {
+            double[] ret = new double[extraArgs.length];
+            for(int i = 0; i < ret.length; i++)
+                ret[i] = extraArgs[i] instanceof Number ? ((Number) extraArgs[i]).doubleValue() : Double.valueOf(extraArgs[i].toString());
+            extraArgsDouble = ret;
+            convertedDouble = extraArgs;
+        }
+        return extraArgsDouble;
+    }
+
+    @Override
+    public float[] extraArgsFloat() {
+        if(extraArgs == null)
+            return null;
+        if(convertedFloat != extraArgs) {
+            float[] ret = new float[extraArgs.length];
+            for(int i = 0; i < ret.length; i++)
+                ret[i] = extraArgs[i] instanceof Number ? ((Number) extraArgs[i]).floatValue() : Float.valueOf(extraArgs[i].toString());
+            extraArgsFloat = ret;
+            convertedFloat = extraArgs;
+        }
+        return extraArgsFloat;
+    }
+
+    @Override
+    public int opNum() {
+        if(opNum == OpCodes.UNKNOWN)
+            opNum = OpCodes.opNum(name());
+        return opNum;
+    }
+
     @Override
     public INDArray x() {
         return x;
@@ -165,6 +205,17 @@ public abstract class BaseOp implements Op {
         return numProcessed;
     }
 
+    @Override
+    public Op copyForRange(int start) {
+        try {
+            BaseOp ret = (BaseOp) clone();
+            ret.numProcessed = start;
+            return ret;
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     @Override
     public String toString() {
         return name();
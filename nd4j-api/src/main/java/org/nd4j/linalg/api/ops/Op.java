@@ -49,6 +49,14 @@ public interface Op {
      */
     String name();
 
+    /**
+     * The numeric code of this operation
+     * used by backends to dispatch without comparing names
+     *
+     * @return the op code (see {@link OpCodes})
+     */
+    int opNum();
+
     /**
      * The origin ndarray
      *
@@ -167,6 +175,16 @@ public interface Op {
      */
     Op opForDimension(int index, int...dimension);
 
+    /**
+     * A copy of this operation for processing a range of the elements
+     * on another thread. The copy has its own state
+     * (eg: the number of elements processed) which starts at the range
+     *
+     * @param start the first element the copy processes
+     * @return the copy
+     */
+    Op copyForRange(int start);
+
     /**
      * Initialize the operation based on the parameters
      *
@@ -191,6 +209,24 @@ public interface Op {
      */
     Object[] extraArgs();
 
+    /**
+     * The extra arguments as doubles.
+     * The conversion is cached until the extra arguments change
+     *
+     * @return the extra arguments as doubles or null
+     * if there are no extra arguments
+     */
+    double[] extraArgsDouble();
+
+    /**
+     * The extra arguments as floats.
+     * The conversion is cached until the extra arguments change
+     *
+     * @return the extra arguments as floats or null
+     * if there are no extra arguments
+     */
+    float[] extraArgsFloat();
+
 
     /**
      * set x (the input ndarray)
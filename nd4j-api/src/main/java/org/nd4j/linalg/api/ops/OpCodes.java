@@ -0,0 +1,245 @@
+/*
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ *
+ */
+
+package org.nd4j.linalg.api.ops;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Stable numeric op codes for the ops in {@code org.nd4j.linalg.api.ops.impl}
+ * keyed by {@link Op#name()}.
+ * <p/>
+ * Backends dispatch on these rather than comparing names on every call.
+ * The native loop in nd4j-x86 mirrors these values, so codes are never
+ * renumbered: new ops are appended to the end of their group.
+ * Ops that share a name (eg: the max accumulation and the pairwise max)
+ * share a code: the entry point an op is executed through picks the kernel.
+ *
+ * @author Adam Gibson
+ */
+public class OpCodes {
+    /**
+     * Code for ops without a registered code
+     */
+    public static final int UNKNOWN = -1;
+
+    //pairwise transforms
+    public static final int ADD = 0;
+    public static final int SUB = 1;
+    public static final int RSUB = 2;
+    public static final int MUL = 3;
+    public static final int DIV = 4;
+    public static final int RDIV = 5;
+    public static final int COPY = 6;
+    public static final int EQ = 7;
+    public static final int NEQ = 8;
+    public static final int GT = 9;
+    public static final int GTE = 10;
+    public static final int LT = 11;
+    public static final int LTE = 12;
+    public static final int EPS = 13;
+
+    //transforms
+    public static final int ABS = 100;
+    public static final int ACOS = 101;
+    public static final int ASIN = 102;
+    public static final int ATAN = 103;
+    public static final int CEIL = 104;
+    public static final int COS = 105;
+    public static final int EXP = 106;
+    public static final int FLOOR = 107;
+    public static final int HARD_TANH = 108;
+    public static final int HARD_TANH_DERIVATIVE = 109;
+    public static final int IDENTITY = 110;
+    public static final int LINEAR_INDEX = 111;
+    public static final int LOG = 112;
+    public static final int MAX_OUT = 113;
+    public static final int NEG = 114;
+    public static final int ONE_MINUS = 115;
+    public static final int ONES = 116;
+    public static final int POW = 117;
+    public static final int RELU = 118;
+    public static final int ROUND = 119;
+    public static final int SET_RANGE = 120;
+    public static final int SIGMOID = 121;
+    public static final int SIGMOID_DERIVATIVE = 122;
+    public static final int SIGN = 123;
+    public static final int SIN = 124;
+    public static final int SOFTMAX = 125;
+    public static final int SOFTMAX_DERIVATIVE = 126;
+    public static final int SOFT_PLUS = 127;
+    public static final int SQRT = 128;
+    public static final int STABILIZE = 129;
+    public static final int TANH = 130;
+    public static final int FFT = 131;
+    public static final int IFFT = 132;
+
+    //scalar ops
+    public static final int ADD_SCALAR = 200;
+    public static final int SUB_SCALAR = 201;
+    public static final int RSUB_SCALAR = 202;
+    public static final int MUL_SCALAR = 203;
+    public static final int DIV_SCALAR = 204;
+    public static final int RDIV_SCALAR = 205;
+    public static final int MAX_SCALAR = 206;
+    public static final int SET_SCALAR = 207;
+    public static final int EQUALS_SCALAR = 208;
+    public static final int NOT_EQUALS_SCALAR = 209;
+    public static final int GREATER_THAN_SCALAR = 210;
+    public static final int GREATER_THAN_OR_EQUAL_SCALAR = 211;
+    public static final int LESS_THAN_SCALAR = 212;
+    public static final int LESS_THAN_OR_EQUAL_SCALAR = 213;
+    public static final int SET_VAL_OR_LESS_SCALAR = 214;
+
+    //accumulations (and the pairwise max/min which share their names)
+    public static final int SUM = 300;
+    public static final int PROD = 301;
+    public static final int MEAN = 302;
+    public static final int MAX = 303;
+    public static final int MIN = 304;
+    public static final int BIAS = 305;
+    public static final int VAR = 306;
+    public static final int STD = 307;
+    public static final int NORM1 = 308;
+    public static final int NORM2 = 309;
+    public static final int NORM_MAX = 310;
+    public static final int DOT = 311;
+    public static final int IAMAX = 312;
+    public static final int COSINE_SIMILARITY = 313;
+    public static final int EUCLIDEAN = 314;
+    public static final int MANHATTAN = 315;
+
+    private static final Map<String,Integer> CODES = new HashMap<>();
+    private static final Map<Integer,String> NAMES = new HashMap<>();
+
+    static {
+        register("add", ADD);
+        register("sub", SUB);
+        register("rsub", RSUB);
+        register("mul", MUL);
+        register("div", DIV);
+        register("rdiv", RDIV);
+        register("copy", COPY);
+        register("eq", EQ);
+        register("neq", NEQ);
+        register("gt", GT);
+        register("gte", GTE);
+        register("lt", LT);
+        register("lte", LTE);
+        register("eps", EPS);
+        register("abs", ABS);
+        register("acos", ACOS);
+        register("asin", ASIN);
+        register("atan", ATAN);
+        register("ceil", CEIL);
+        register("cos", COS);
+        register("exp", EXP);
+        register("floor", FLOOR);
+        register("hardtanh", HARD_TANH);
+        register("hardtanhderivative", HARD_TANH_DERIVATIVE);
+        register("identity", IDENTITY);
+        register("linearindex", LINEAR_INDEX);
+        register("log", LOG);
+        register("maxout", MAX_OUT);
+        register("neg", NEG);
+        register("oneminus", ONE_MINUS);
+        register("ones", ONES);
+        register("pow", POW);
+        register("relu", RELU);
+        register("round", ROUND);
+        register("setrange", SET_RANGE);
+        register("sigmoid", SIGMOID);
+        register("sigmoidderivative", SIGMOID_DERIVATIVE);
+        register("sign", SIGN);
+        register("sin", SIN);
+        register("softmax", SOFTMAX);
+        register("softmaxderivative", SOFTMAX_DERIVATIVE);
+        register("softplus", SOFT_PLUS);
+        register("sqrt", SQRT);
+        register("stabilize", STABILIZE);
+        register("tanh", TANH);
+        register("fft", FFT);
+        register("ifft", IFFT);
+        register("add_scalar", ADD_SCALAR);
+        register("sub_scalar", SUB_SCALAR);
+        register("rsub_scalar", RSUB_SCALAR);
+        register("mul_scalar", MUL_SCALAR);
+        register("div_scalar", DIV_SCALAR);
+        register("rdiv_scalar", RDIV_SCALAR);
+        register("max_scalar", MAX_SCALAR);
+        register("set_scalar", SET_SCALAR);
+        register("equals_scalar", EQUALS_SCALAR);
+        register("notequals_scalar", NOT_EQUALS_SCALAR);
+        register("greaterthan_scalar", GREATER_THAN_SCALAR);
+        register("greaterthanorequal_scalar", GREATER_THAN_OR_EQUAL_SCALAR);
+        register("lessthan_scalar", LESS_THAN_SCALAR);
+        register("lessthanorequal_scalar", LESS_THAN_OR_EQUAL_SCALAR);
+        register("setvalorless_scalar", SET_VAL_OR_LESS_SCALAR);
+        register("sum", SUM);
+        register("prod", PROD);
+        register("mean", MEAN);
+        register("max", MAX);
+        register("min", MIN);
+        register("bias", BIAS);
+        register("var", VAR);
+        register("std", STD);
+        register("norm1", NORM1);
+        register("norm2", NORM2);
+        register("normmax", NORM_MAX);
+        register("dot", DOT);
+        register("iamax", IAMAX);
+        register("cosinesimilarity", COSINE_SIMILARITY);
+        register("euclidean", EUCLIDEAN);
+        register("manhattan", MANHATTAN);
+    }
+
+    private OpCodes() {
+    }
+
+    private static void register(String name, int opNum) {
+        if(NAMES.containsKey(opNum))
+            throw new IllegalStateException("Op code " + opNum + " is already registered for " + NAMES.get(opNum));
+        CODES.put(name, opNum);
+        NAMES.put(opNum, name);
+    }
+
+    /**
+     * The op code for the given op name
+     *
+     * @param name the name of the op
+     * @return the op code or {@link #UNKNOWN}
+     * if there is no code for the op
+     */
+    public static int opNum(String name) {
+        Integer ret = CODES.get(name);
+        return ret == null ? UNKNOWN : ret;
+    }
+
+    /**
+     * The op name for the given op code
+     *
+     * @param opNum the op code
+     * @return the name of the op or null
+     * if the code isn't registered
+     */
+    public static String name(int opNum) {
+        return NAMES.get(opNum);
+    }
+}
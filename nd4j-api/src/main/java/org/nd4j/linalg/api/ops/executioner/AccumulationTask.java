@@ -0,0 +1,126 @@
+/*
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ *
+ */
+
+package org.nd4j.linalg.api.ops.executioner;
+
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.Accumulation;
+
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Fork join task for computing the partial result
+ * of an accumulation over a range of the elements
+ * of an op's inputs.
+ *
+ * The range is split in half until it is at most
+ * chunk size elements, which are computed with a copy of the op
+ * (see {@link Accumulation#copyForRange(int)}) so no two threads touch
+ * the state of the same op. The partial results of each half
+ * are merged with {@link Accumulation#combineSubResult(double, double)}.
+ * The op's current result is not touched, the caller is expected
+ * to call {@link Accumulation#getAndSetFinalResult(double)}
+ * with the returned value.
+ *
+ * @author Adam Gibson
+ */
+public class AccumulationTask extends RecursiveTask<Double> {
+    private final Accumulation op;
+    private final INDArray x, y;
+    private final double zero;
+    private final boolean strided;
+    private final int start, end, chunkSize;
+
+    /**
+     * @param op        the accumulation to compute
+     * @param x         the input
+     * @param y         the pairwise input (may be null)
+     * @param zero      the initial value for each partial result
+     * @param strided   whether the arrays are walked with a {@link StridedIterator}
+     *                  (otherwise they are expected to be linear views)
+     * @param start     the first index (inclusive)
+     * @param end       the last index (exclusive)
+     * @param chunkSize the max number of elements to accumulate in one task
+     */
+    public AccumulationTask(Accumulation op, INDArray x, INDArray y, double zero, boolean strided, int start, int end, int chunkSize) {
+        this.op = op;
+        this.x = x;
+        this.y = y;
+        this.zero = zero;
+        this.strided = strided;
+        this.start = start;
+        this.end = end;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    protected Double compute() {
+        if (end - start <= chunkSize)
+            return accumulate(op.copyForRange(start), x, y, zero, strided, start, end);
+
+        int mid = (start + end) >>> 1;
+        AccumulationTask first = new AccumulationTask(op, x, y, zero, strided, start, mid, chunkSize);
+        AccumulationTask second = new AccumulationTask(op, x, y, zero, strided, mid, end, chunkSize);
+        first.fork();
+        double secondResult = second.compute();
+        return op.combineSubResult(first.join(), secondResult);
+    }
+
+    /**
+     * Compute the partial result for the elements
+     * in the range [start,end) in the calling thread
+     * @param op      the accumulation to compute
+     * @param x       the input
+     * @param y       the pairwise input (may be null)
+     * @param zero    the initial value of the partial result
+     * @param strided whether the arrays are walked with a {@link StridedIterator}
+     *                (otherwise they are expected to be linear views)
+     * @param start   the first index (inclusive)
+     * @param end     the last index (exclusive)
+     * @return the partial result
+     */
+    public static double accumulate(Accumulation op, INDArray x, INDArray y, double zero, boolean strided, int start, int end) {
+        double accum = zero;
+        if (strided) {
+            DataBuffer xData = x.data();
+            StridedIterator xIter = new StridedIterator(x, start);
+            if (y != null) {
+                DataBuffer yData = y.data();
+                StridedIterator yIter = new StridedIterator(y, start);
+                for (int i = start; i < end; i++)
+                    accum = op.update(accum, op.op(xData.getDouble(xIter.next()), yData.getDouble(yIter.next())));
+            }
+            else {
+                for (int i = start; i < end; i++)
+                    accum = op.update(accum, op.op(xData.getDouble(xIter.next())));
+            }
+        }
+        else if (y != null) {
+            for (int i = start; i < end; i++)
+                accum = op.update(accum, op.op(x.getDouble(i), y.getDouble(i)));
+        }
+        else {
+            for (int i = start; i < end; i++)
+                accum = op.update(accum, op.op(x.getDouble(i)));
+        }
+
+        return accum;
+    }
+}
@@ -0,0 +1,418 @@
+/*
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ *
+ */
+
+package org.nd4j.linalg.api.ops.executioner;
+
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.complex.IComplexNDArray;
+import org.nd4j.linalg.api.complex.IComplexNumber;
+import org.nd4j.linalg.api.complex.LinearViewComplexNDArray;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.Accumulation;
+import org.nd4j.linalg.api.ops.Op;
+import org.nd4j.linalg.api.ops.OpCodes;
+import org.nd4j.linalg.api.ops.ScalarOp;
+import org.nd4j.linalg.api.ops.TransformOp;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.Arrays;
+
+/**
+ * Element wise complex kernels that work directly on the
+ * interleaved (real, imaginary) buffers of complex ndarrays.
+ *
+ * Each element is read as two doubles from the buffer
+ * (the real component at the offset returned by a {@link StridedIterator},
+ * the imaginary component right after it), combined with primitive
+ * arithmetic and written back the same way:
+ * no complex number is created per element.
+ *
+ * Only ops whose element wise semantics are plain complex arithmetic
+ * have a kernel; everything else goes through the op itself.
+ *
+ * @author Adam Gibson
+ */
+public class ComplexKernels {
+
+    private ComplexKernels() {
+    }
+
+    /**
+     * The array a strided iterator should walk for the given complex array:
+     * the wrapped array for a linear view, the array itself otherwise
+     * @param arr the array to unwrap
+     * @return the array to iterate over
+     */
+    public static INDArray unwrap(INDArray arr) {
+        if (arr instanceof LinearViewComplexNDArray)
+            return ((LinearViewComplexNDArray) arr).getWrapped();
+        return arr;
+    }
+
+    /**
+     * Whether the given arrays can be walked in lock step
+     * by the complex kernels: they must all be complex and
+     * either have the same shape or all be addressed linearly
+     * with the same length
+     * @param arrs the arrays to test (null entries are ignored)
+     * @return true if the kernels can walk the arrays
+     */
+    public static boolean canIterate(INDArray... arrs) {
+        INDArray first = null;
+        for (INDArray arr : arrs) {
+            if (arr == null)
+                continue;
+            arr = unwrap(arr);
+            if (!(arr instanceof IComplexNDArray) || arr instanceof LinearViewComplexNDArray)
+                return false;
+            if (first == null) {
+                first = arr;
+                continue;
+            }
+
+            if (StridedIterator.isLinear(first) && StridedIterator.isLinear(arr)) {
+                if (first.length() != arr.length())
+                    return false;
+            }
+            else if (!Arrays.equals(first.shape(), arr.shape()))
+                return false;
+        }
+
+        return first != null;
+    }
+
+    /**
+     * Whether there is a pairwise kernel for the given op code
+     * @param opNum the op code
+     * @return true if {@link #exec(int, INDArray, INDArray, INDArray)} handles the op
+     */
+    public static boolean supportsPairwise(int opNum) {
+        switch (opNum) {
+            case OpCodes.ADD:
+            case OpCodes.SUB:
+            case OpCodes.RSUB:
+            case OpCodes.MUL:
+            case OpCodes.DIV:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Whether there is a scalar kernel for the given op code
+     * @param opNum the op code
+     * @return true if {@link #exec(int, INDArray, double, double, INDArray)} handles the op
+     */
+    public static boolean supportsScalar(int opNum) {
+        switch (opNum) {
+            case OpCodes.ADD_SCALAR:
+            case OpCodes.SUB_SCALAR:
+            case OpCodes.RSUB_SCALAR:
+            case OpCodes.MUL_SCALAR:
+            case OpCodes.DIV_SCALAR:
+            case OpCodes.RDIV_SCALAR:
+            case OpCodes.SET_SCALAR:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Whether there is an accumulation kernel for the given op code
+     * @param opNum the op code
+     * @return true if {@link #accumulate(int, INDArray, INDArray)} handles the op
+     */
+    public static boolean supportsAccumulation(int opNum) {
+        switch (opNum) {
+            case OpCodes.SUM:
+            case OpCodes.PROD:
+            case OpCodes.MEAN:
+            case OpCodes.DOT:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Run the given op with a kernel if there is one
+     * for the op and its arrays
+     * @param op the op to run
+     * @return true if the op was run, false if the op has
+     * to be run element by element
+     */
+    public static boolean exec(Op op) {
+        if (op.isPassThrough() || op.opNum() == OpCodes.UNKNOWN || op.n() != op.x().length())
+            return false;
+
+        if (op instanceof ScalarOp) {
+            IComplexNumber scalar = ((ScalarOp) op).complexScalar();
+            if (scalar == null || !supportsScalar(op.opNum()) || !canIterate(op.x(), op.z()))
+                return false;
+            exec(op.opNum(), op.x(), scalar.realComponent().doubleValue(), scalar.imaginaryComponent().doubleValue(), op.z());
+            return true;
+        }
+        else if (op instanceof TransformOp) {
+            if (op.y() == null || !supportsPairwise(op.opNum()) || !canIterate(op.x(), op.y(), op.z()))
+                return false;
+            exec(op.opNum(), op.x(), op.y(), op.z());
+            return true;
+        }
+        else if (op instanceof Accumulation) {
+            if (!supportsAccumulation(op.opNum()) || op.opNum() == OpCodes.DOT && op.y() == null
+                    || !canIterate(op.x(), op.y()))
+                return false;
+            double[] result = accumulate(op.opNum(), op.x(), op.y());
+            ((Accumulation) op).setCurrentResultComplex(Nd4j.createComplexNumber(result[0], result[1]));
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * z = x op y element wise
+     * @param opNum the op code (see {@link #supportsPairwise(int)})
+     * @param x     the first operand
+     * @param y     the second operand
+     * @param z     the result (may be x or y)
+     */
+    public static void exec(int opNum, INDArray x, INDArray y, INDArray z) {
+        x = unwrap(x);
+        y = unwrap(y);
+        z = unwrap(z);
+        DataBuffer xData = x.data();
+        DataBuffer yData = y.data();
+        DataBuffer zData = z.data();
+        StridedIterator xIter = new StridedIterator(x);
+        StridedIterator yIter = new StridedIterator(y);
+        StridedIterator zIter = new StridedIterator(z);
+        int n = x.length();
+        for (int i = 0; i < n; i++) {
+            int xIdx = xIter.next();
+            int yIdx = yIter.next();
+            int zIdx = zIter.next();
+            double a = xData.getDouble(xIdx);
+            double b = xData.getDouble(xIdx + 1);
+            double c = yData.getDouble(yIdx);
+            double d = yData.getDouble(yIdx + 1);
+            double real, imag;
+            switch (opNum) {
+                case OpCodes.ADD:
+                    real = a + c;
+                    imag = b + d;
+                    break;
+                case OpCodes.SUB:
+                    real = a - c;
+                    imag = b - d;
+                    break;
+                case OpCodes.RSUB:
+                    real = c - a;
+                    imag = d - b;
+                    break;
+                case OpCodes.MUL:
+                    real = a * c - b * d;
+                    imag = a * d + b * c;
+                    break;
+                case OpCodes.DIV: {
+                    double denom = c * c + d * d;
+                    real = (a * c + b * d) / denom;
+                    imag = (b * c - a * d) / denom;
+                    break;
+                }
+                default:
+                    throw new IllegalArgumentException("No complex kernel for op " + opNum);
+            }
+
+            zData.put(zIdx, real);
+            zData.put(zIdx + 1, imag);
+        }
+    }
+
+    /**
+     * z = x op (real + imag i) element wise
+     * @param opNum the op code (see {@link #supportsScalar(int)})
+     * @param x     the ndarray
+     * @param real  the real component of the scalar
+     * @param imag  the imaginary component of the scalar
+     * @param z     the result (may be x)
+     */
+    public static void exec(int opNum, INDArray x, double real, double imag, INDArray z) {
+        x = unwrap(x);
+        z = unwrap(z);
+        DataBuffer xData = x.data();
+        DataBuffer zData = z.data();
+        StridedIterator xIter = new StridedIterator(x);
+        StridedIterator zIter = new StridedIterator(z);
+        int n = x.length();
+        double denom = real * real + imag * imag;
+        for (int i = 0; i < n; i++) {
+            int xIdx = xIter.next();
+            int zIdx = zIter.next();
+            double a = xData.getDouble(xIdx);
+            double b = xData.getDouble(xIdx + 1);
+            double retReal, retImag;
+            switch (opNum) {
+                case OpCodes.ADD_SCALAR:
+                    retReal = a + real;
+                    retImag = b + imag;
+                    break;
+                case OpCodes.SUB_SCALAR:
+                    retReal = a - real;
+                    retImag = b - imag;
+                    break;
+                case OpCodes.RSUB_SCALAR:
+                    retReal = real - a;
+                    retImag = imag - b;
+                    break;
+                case OpCodes.MUL_SCALAR:
+                    retReal = a * real - b * imag;
+                    retImag = a * imag + b * real;
+                    break;
+                case OpCodes.DIV_SCALAR:
+                    retReal = (a * real + b * imag) / denom;
+                    retImag = (b * real - a * imag) / denom;
+                    break;
+                case OpCodes.RDIV_SCALAR: {
+                    double xDenom = a * a + b * b;
+                    retReal = (real * a + imag * b) / xDenom;
+                    retImag = (imag * a - real * b) / xDenom;
+                    break;
+                }
+                case OpCodes.SET_SCALAR:
+                    retReal = real;
+                    retImag = imag;
+                    break;
+                default:
+                    throw new IllegalArgumentException("No complex scalar kernel for op " + opNum);
+            }
+
+            zData.put(zIdx, retReal);
+            zData.put(zIdx + 1, retImag);
+        }
+    }
+
+    /**
+     * z = x element wise
+     * @param x the ndarray to copy
+     * @param z the result
+     */
+    public static void copy(INDArray x, INDArray z) {
+        x = unwrap(x);
+        z = unwrap(z);
+        DataBuffer xData = x.data();
+        DataBuffer zData = z.data();
+        StridedIterator xIter = new StridedIterator(x);
+        StridedIterator zIter = new StridedIterator(z);
+        int n = x.length();
+        for (int i = 0; i < n; i++) {
+            int xIdx = xIter.next();
+            int zIdx = zIter.next();
+            zData.put(zIdx, xData.getDouble(xIdx));
+            zData.put(zIdx + 1, xData.getDouble(xIdx + 1));
+        }
+    }
+
+    /**
+     * z = conj(x) element wise
+     * @param x the ndarray
+     * @param z the result (may be x)
+     */
+    public static void conj(INDArray x, INDArray z) {
+        x = unwrap(x);
+        z = unwrap(z);
+        DataBuffer xData = x.data();
+        DataBuffer zData = z.data();
+        StridedIterator xIter = new StridedIterator(x);
+        StridedIterator zIter = new StridedIterator(z);
+        int n = x.length();
+        for (int i = 0; i < n; i++) {
+            int xIdx = xIter.next();
+            int zIdx = zIter.next();
+            double real = xData.getDouble(xIdx);
+            double imag = xData.getDouble(xIdx + 1);
+            zData.put(zIdx, real);
+            zData.put(zIdx + 1, -imag);
+        }
+    }
+
+    /**
+     * Accumulate x (and y for the dot product) in to a single complex number
+     * @param opNum the op code (see {@link #supportsAccumulation(int)})
+     * @param x     the ndarray to accumulate
+     * @param y     the second operand of the dot product (ignored otherwise, may be null)
+     * @return the real and imaginary component of the result
+     */
+    public static double[] accumulate(int opNum, INDArray x, INDArray y) {
+        x = unwrap(x);
+        DataBuffer xData = x.data();
+        StridedIterator xIter = new StridedIterator(x);
+        int n = x.length();
+        double real = opNum == OpCodes.PROD ? 1 : 0;
+        double imag = 0;
+        if (opNum == OpCodes.DOT) {
+            y = unwrap(y);
+            DataBuffer yData = y.data();
+            StridedIterator yIter = new StridedIterator(y);
+            for (int i = 0; i < n; i++) {
+                int xIdx = xIter.next();
+                int yIdx = yIter.next();
+                double a = xData.getDouble(xIdx);
+                double b = xData.getDouble(xIdx + 1);
+                double c = yData.getDouble(yIdx);
+                double d = yData.getDouble(yIdx + 1);
+                real += a * c - b * d;
+                imag += a * d + b * c;
+            }
+
+            return new double[]{real, imag};
+        }
+
+        for (int i = 0; i < n; i++) {
+            int xIdx = xIter.next();
+            double a = xData.getDouble(xIdx);
+            double b = xData.getDouble(xIdx + 1);
+            switch (opNum) {
+                case OpCodes.SUM:
+                case OpCodes.MEAN:
+                    real += a;
+                    imag += b;
+                    break;
+                case OpCodes.PROD: {
+                    double newReal = real * a - imag * b;
+                    imag = real * b + imag * a;
+                    real = newReal;
+                    break;
+                }
+                default:
+                    throw new IllegalArgumentException("No complex accumulation kernel for op " + opNum);
+            }
+        }
+
+        if (opNum == OpCodes.MEAN && n > 0) {
+            real /= n;
+            imag /= n;
+        }
+
+        return new double[]{real, imag};
+    }
+
+}
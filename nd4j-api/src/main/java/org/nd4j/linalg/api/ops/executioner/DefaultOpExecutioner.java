@@ -31,18 +31,36 @@ import org.nd4j.linalg.api.ops.Op;
 import org.nd4j.linalg.api.ops.ScalarOp;
 import org.nd4j.linalg.api.ops.TransformOp;
 import org.nd4j.linalg.api.ops.exception.BlasOpErrorMessage;
+import org.nd4j.linalg.api.ops.impl.accum.IAMax;
+import org.nd4j.linalg.api.ops.impl.transforms.LinearIndex;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.util.ArrayUtil;
+import org.nd4j.linalg.util.Parallel;
+
+import java.util.Arrays;
 
 /**
  * Basic op executioner. Knows how to iterate over
  * the buffers of each respective ndarray and apply transformations
  *
+ * When the execution mode is {@link ExecutionMode#PARALLEL}
+ * ops with at least {@link #getParallelThreshold()} elements
+ * are split in to chunks of {@link #getChunkSize()} elements
+ * and run on a fork join pool. Accumulations compute a partial
+ * result per chunk which are then combined.
+ *
+ * Complex ops with a kernel in {@link ComplexKernels}
+ * work directly on the interleaved buffers,
+ * other complex ops are applied element by element.
+ *
  * @author Adam Gibson
  */
 public class DefaultOpExecutioner implements OpExecutioner {
 
     protected ExecutionMode executionMode = ExecutionMode.JAVA;
+    protected int parallelThreshold = Integer.parseInt(System.getProperty(Nd4j.PARALLEL_THRESHOLD, "65536"));
+    protected int chunkSize = Integer.parseInt(System.getProperty(Nd4j.PARALLEL_CHUNK_SIZE, "16384"));
+    protected int parallelism = Integer.parseInt(System.getProperty(Nd4j.PARALLEL_THREADS, String.valueOf(Runtime.getRuntime().availableProcessors())));
 
     @Override
     public Op exec(Op op) {
@@ -57,31 +75,40 @@ public class DefaultOpExecutioner implements OpExecutioner {
             //make assumption x and z are same type
             if (!op.x().getClass().equals(t.z().getClass()) && !(op.x() instanceof LinearViewNDArray) && !(t.z() instanceof LinearViewNDArray))
                 throw new IllegalArgumentException("Illegal operation. Origin and output ndarray must be same types. op.x was " + op.x().getClass().getName() + " while t.z was " + t.z().getClass().getName());
-            for (int c = 0; c < op.n(); c++) {
-                apply(t, c);
+            if(op.x() instanceof IComplexNDArray && ComplexKernels.exec(op))
+                return op;
+            if(op.x() instanceof IComplexNDArray || isOrderDependent(op)) {
+                for (int c = 0; c < op.n(); c++) {
+                    apply(t, c);
+                }
             }
+            else
+                transform(op, op.y());
         }
         else if (op instanceof Accumulation) {
             Accumulation accumulation = (Accumulation) op;
-            for (int c = 0; c < op.n(); c++)
-                apply(accumulation, c);
+            if(op.x() instanceof IComplexNDArray && ComplexKernels.exec(op))
+                return op;
+            if(op.x() instanceof IComplexNDArray || isOrderDependent(op)) {
+                for (int c = 0; c < op.n(); c++)
+                    apply(accumulation, c);
+            }
+            else
+                accumulate(accumulation);
         } else if (op instanceof ScalarOp) {
             ScalarOp scalarOp = (ScalarOp) op;
             if(op.isPassThrough())
                 return scalarOp;
-            INDArray zLinear = op.z().linearView();
-            INDArray xLinear = op.x().linearView();
 
+            if (op.x() instanceof IComplexNDArray && ComplexKernels.exec(op))
+                return op;
             if (op.x() instanceof IComplexNDArray) {
                 IComplexNDArray ndArray = (IComplexNDArray) op.z();
                 for(int c = 0; c < op.n(); c++)
                     ndArray.putScalar(c, op.op(((IComplexNDArray) op.x()).getComplex(c)));
             }
-            else {
-                for(int c = 0; c < op.n(); c++)
-                    zLinear.putScalar(c, op.op(xLinear.getDouble(c)));
-
-            }
+            else
+                transform(op, null);
         }
 
 
@@ -320,6 +347,11 @@ public class DefaultOpExecutioner implements OpExecutioner {
             }
             else {
                 INDArray ret = Nd4j.zeros(retShape);
+                if(dimension.length < op.x().rank() && canReduceAlongDimension(op)) {
+                    reduce(op, ret, dimension);
+                    return ret;
+                }
+
                 INDArray linear = ret.linearView();
                 for (int i = 0; i < op.x().tensorssAlongDimension(dimension); i++) {
                     Op op2 = op.opForDimension(i, dimension);
@@ -419,6 +451,11 @@ public class DefaultOpExecutioner implements OpExecutioner {
                 if(shape.length < 2)
                     shape = new int[]{1,shape[0]};
                 INDArray ret = Nd4j.create(shape);
+                if(op.x().isMatrix() && canReduceAlongDimension(op)) {
+                    reduce(op, ret, dimension);
+                    return ret;
+                }
+
                 INDArray linear = ret.linearView();
 
                 for (int i = 0; i < op.x().vectorsAlongDimension(dimension); i++) {
@@ -432,6 +469,11 @@ public class DefaultOpExecutioner implements OpExecutioner {
             }
             else {
                 INDArray ret = Nd4j.create(ArrayUtil.removeIndex(op.x().shape(), dimension));
+                if(canReduceAlongDimension(op)) {
+                    reduce(op, ret, dimension);
+                    return ret;
+                }
+
                 INDArray linear = ret.linearView();
                 for (int i = 0; i < op.x().vectorsAlongDimension(dimension); i++) {
                     Op op2 = op.opForDimension(i, dimension);
@@ -496,6 +538,92 @@ public class DefaultOpExecutioner implements OpExecutioner {
         this.executionMode = executionMode;
     }
 
+    /**
+     * The minimum number of elements an op
+     * must have before it is run in parallel
+     * @return the parallel threshold
+     */
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * Set the minimum number of elements an op
+     * must have before it is run in parallel
+     * @param parallelThreshold the parallel threshold
+     */
+    public void setParallelThreshold(int parallelThreshold) {
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * The max number of elements handled
+     * by one fork join task
+     * @return the chunk size
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Set the max number of elements handled
+     * by one fork join task
+     * @param chunkSize the chunk size
+     */
+    public void setChunkSize(int chunkSize) {
+        if(chunkSize < 1)
+            throw new IllegalArgumentException("Chunk size must be at least 1");
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * The number of threads used
+     * for parallel execution
+     * @return the parallelism
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Set the number of threads used for parallel execution
+     * by backends that run their own loops.
+     * The java ops run on the shared pool of {@link Parallel}
+     * which is sized once by {@link Nd4j#PARALLEL_THREADS}.
+     * @param parallelism the number of threads
+     */
+    public synchronized void setParallelism(int parallelism) {
+        if(parallelism < 1)
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Whether the given op should be split up
+     * and run on the shared fork join pool.
+     * Complex ops and ops that depend on the order
+     * elements are visited in always run serially.
+     * @param op the op to test
+     * @return true if the op should run in parallel
+     */
+    protected boolean shouldExecInParallel(Op op) {
+        return executionMode == ExecutionMode.PARALLEL
+                && op.n() >= parallelThreshold
+                && !(op.x() instanceof IComplexNDArray)
+                && !isOrderDependent(op);
+    }
+
+    /**
+     * Whether the result of the given op depends on
+     * the order the elements are visited in. These ops
+     * can not be computed from partial results.
+     * @param op the op to test
+     * @return true if the op is order dependent
+     */
+    protected boolean isOrderDependent(Op op) {
+        return op instanceof LinearIndex || op instanceof IAMax;
+    }
+
 
     //apply a pairwise op to x and store the result
     private void apply(TransformOp op, int c) {
@@ -545,6 +673,72 @@ public class DefaultOpExecutioner implements OpExecutioner {
 
     }
 
+    /**
+     * Whether the accumulation can be reduced along a dimension
+     * by walking the buffers directly (see {@link DimensionAccumulationTask})
+     * rather than creating an op per vector
+     * @param op the accumulation to test
+     * @return true if the accumulation can be reduced without an op per vector
+     */
+    protected boolean canReduceAlongDimension(Accumulation op) {
+        if(!op.isStateless() || op.x() instanceof IComplexNDArray || op.x() instanceof LinearViewNDArray)
+            return false;
+        INDArray y = op.y();
+        return y == null || !(y instanceof IComplexNDArray) && !(y instanceof LinearViewNDArray) && Arrays.equals(op.x().shape(), y.shape());
+    }
+
+    //write the result of reducing each tensor along the dimension straight in to ret
+    protected void reduce(Accumulation op, INDArray ret, int... dimension) {
+        DimensionAccumulationTask task = new DimensionAccumulationTask(op, ret, chunkSize, dimension);
+        if (shouldExecInParallel(op))
+            Parallel.invoke(task);
+        else
+            task.accumulate();
+    }
+
+    //apply a real valued transform or scalar op (y is null for scalar ops).
+    //the buffers are walked directly with strided iterators when the layouts line up,
+    //otherwise the linear views are used
+    private void transform(Op op, INDArray y) {
+        INDArray x = StridedIterator.unwrap(op.x());
+        INDArray z = StridedIterator.unwrap(op.z());
+        if (y != null)
+            y = StridedIterator.unwrap(y);
+        boolean strided = StridedIterator.canIterate(x, y, z);
+        if (!strided) {
+            x = op.x().linearView();
+            z = op.z().linearView();
+            if (y != null)
+                y = y.linearView();
+        }
+
+        if (shouldExecInParallel(op))
+            Parallel.invoke(new TransformTask(op, x, y, z, strided, 0, op.n(), chunkSize));
+        else
+            TransformTask.exec(op, x, y, z, strided, 0, op.n());
+    }
+
+    //fold every element in to a primitive partial result: nothing is allocated per element
+    private void accumulate(Accumulation op) {
+        INDArray x = StridedIterator.unwrap(op.x());
+        INDArray y = op.y() != null ? StridedIterator.unwrap(op.y()) : null;
+        boolean strided = StridedIterator.canIterate(x, y);
+        if (!strided) {
+            x = op.x().linearView();
+            if (y != null)
+                y = op.y().linearView();
+        }
+
+        double zero = op.zero().doubleValue();
+        double accum;
+        if (shouldExecInParallel(op))
+            accum = Parallel.invoke(new AccumulationTask(op, x, y, zero, strided, 0, op.n(), chunkSize));
+        else
+            accum = AccumulationTask.accumulate(op, x, y, zero, strided, 0, op.n());
+
+        op.getAndSetFinalResult(accum);
+    }
+
     private void apply(Accumulation op, int x) {
         if(op.isPassThrough())
             return;
@@ -0,0 +1,181 @@
+/*
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ *
+ */
+
+package org.nd4j.linalg.api.ops.executioner;
+
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.Accumulation;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Fork join task for reducing an array along one or more dimensions.
+ *
+ * Rather than creating an op (and a view) per tensor along the dimension,
+ * each tensor is walked with a {@link StridedIterator} over the buffer
+ * of the input and the result is written straight in to the buffer
+ * of the output. The tensors are split in to ranges
+ * of roughly chunk size elements which are computed in parallel,
+ * each with its own copy of the op (see {@link Accumulation#copyForRange(int)}).
+ *
+ * Only {@link Accumulation#isStateless()} accumulations
+ * over real valued arrays can be reduced this way.
+ *
+ * @author Adam Gibson
+ */
+public class DimensionAccumulationTask extends RecursiveAction {
+    private final Accumulation op;
+    private final INDArray x, y, ret;
+    private final int[] outerShape, innerShape;
+    private final int[] xOuterStride, xInnerStride, yOuterStride, yInnerStride, retStride;
+    private final int tensorLength, tensorsPerTask;
+    private final int start, end;
+
+    /**
+     * @param op        the accumulation to compute for each tensor
+     * @param ret       the output: one element per tensor along the dimension,
+     *                  with the shape of the input without the reduced dimensions
+     *                  (size 1 dimensions may be prepended)
+     * @param chunkSize the rough number of elements to reduce in one task
+     * @param dimension the dimensions to reduce along
+     */
+    public DimensionAccumulationTask(Accumulation op, INDArray ret, int chunkSize, int... dimension) {
+        this.op = op;
+        this.x = op.x();
+        this.y = op.y();
+        this.ret = ret;
+        int[] shape = x.shape();
+        int[] reduce = new int[shape.length];
+        for (int d : dimension)
+            reduce[d < 0 ? d + shape.length : d] = 1;
+
+        int innerRank = 0;
+        for (int r : reduce)
+            innerRank += r;
+        int outerRank = shape.length - innerRank;
+        outerShape = new int[outerRank];
+        innerShape = new int[innerRank];
+        xOuterStride = new int[outerRank];
+        xInnerStride = new int[innerRank];
+        yOuterStride = new int[outerRank];
+        yInnerStride = new int[innerRank];
+        int outer = 0, inner = 0;
+        for (int i = 0; i < shape.length; i++) {
+            if (reduce[i] == 1) {
+                innerShape[inner] = shape[i];
+                xInnerStride[inner] = x.stride(i);
+                if (y != null)
+                    yInnerStride[inner] = y.stride(i);
+                inner++;
+            }
+            else {
+                outerShape[outer] = shape[i];
+                xOuterStride[outer] = x.stride(i);
+                if (y != null)
+                    yOuterStride[outer] = y.stride(i);
+                outer++;
+            }
+        }
+
+        //the output may have leading ones prepended (eg: a row vector for a matrix)
+        int[] allRetStride = ret.stride();
+        retStride = new int[outerRank];
+        System.arraycopy(allRetStride, allRetStride.length - outerRank, retStride, 0, outerRank);
+        //a product of no dimensions is a single element
+        int length = 1;
+        for (int i : innerShape)
+            length *= i;
+        int tensors = 1;
+        for (int i : outerShape)
+            tensors *= i;
+        tensorLength = length;
+        tensorsPerTask = Math.max(1, chunkSize / Math.max(1, tensorLength));
+        start = 0;
+        end = tensors;
+    }
+
+    private DimensionAccumulationTask(DimensionAccumulationTask parent, int start, int end) {
+        this.op = parent.op;
+        this.x = parent.x;
+        this.y = parent.y;
+        this.ret = parent.ret;
+        this.outerShape = parent.outerShape;
+        this.innerShape = parent.innerShape;
+        this.xOuterStride = parent.xOuterStride;
+        this.xInnerStride = parent.xInnerStride;
+        this.yOuterStride = parent.yOuterStride;
+        this.yInnerStride = parent.yInnerStride;
+        this.retStride = parent.retStride;
+        this.tensorLength = parent.tensorLength;
+        this.tensorsPerTask = parent.tensorsPerTask;
+        this.start = start;
+        this.end = end;
+    }
+
+    @Override
+    protected void compute() {
+        if (end - start <= tensorsPerTask) {
+            accumulate(op.copyForRange(start * tensorLength), start, end);
+            return;
+        }
+
+        int mid = (start + end) >>> 1;
+        invokeAll(new DimensionAccumulationTask(this, start, mid), new DimensionAccumulationTask(this, mid, end));
+    }
+
+    /**
+     * Reduce every tensor in the calling thread
+     */
+    public void accumulate() {
+        accumulate(op, start, end);
+    }
+
+    //reduce the tensors in the range [from,to) with the given op
+    private void accumulate(Accumulation op, int from, int to) {
+        double zero = op.zero().doubleValue();
+        DataBuffer xData = x.data();
+        DataBuffer retData = ret.data();
+        StridedIterator xTensors = new StridedIterator(outerShape, xOuterStride, x.offset(), from);
+        StridedIterator retTensors = new StridedIterator(outerShape, retStride, ret.offset(), from);
+        StridedIterator xIter = new StridedIterator(innerShape, xInnerStride, 0);
+        if (y != null) {
+            DataBuffer yData = y.data();
+            StridedIterator yTensors = new StridedIterator(outerShape, yOuterStride, y.offset(), from);
+            StridedIterator yIter = new StridedIterator(innerShape, yInnerStride, 0);
+            for (int i = from; i < to; i++) {
+                xIter.reset(xTensors.next());
+                yIter.reset(yTensors.next());
+                double accum = zero;
+                for (int j = 0; j < tensorLength; j++)
+                    accum = op.update(accum, op.op(xData.getDouble(xIter.next()), yData.getDouble(yIter.next())));
+                retData.put(retTensors.next(), op.calculateFinalResult(accum, tensorLength));
+            }
+        }
+        else {
+            for (int i = from; i < to; i++) {
+                xIter.reset(xTensors.next());
+                double accum = zero;
+                for (int j = 0; j < tensorLength; j++)
+                    accum = op.update(accum, op.op(xData.getDouble(xIter.next())));
+                retData.put(retTensors.next(), op.calculateFinalResult(accum, tensorLength));
+            }
+        }
+    }
+}
@@ -34,7 +34,7 @@ import org.nd4j.linalg.api.ops.TransformOp;
 public interface OpExecutioner {
 
     enum ExecutionMode {
-        JAVA,NATIVE
+        JAVA,NATIVE,PARALLEL
     }
 
     /**
@@ -0,0 +1,230 @@
+/*
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ *
+ */
+
+package org.nd4j.linalg.api.ops.executioner;
+
+import org.nd4j.linalg.api.complex.IComplexNDArray;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ndarray.LinearViewNDArray;
+
+import java.util.Arrays;
+
+/**
+ * Iterates over the buffer offsets of an ndarray
+ * in the same order as its linear view, without
+ * going through the linear view.
+ *
+ * Offsets are computed incrementally from the
+ * shape, stride and offset of the array: moving to the next
+ * element is an add (and a carry at the end of each dimension)
+ * rather than a full index computation.
+ * Dimensions of size 1 are dropped and dimensions that are
+ * contiguous with respect to each other are merged, so
+ * a contiguous array is walked as a single flat dimension.
+ *
+ * @author Adam Gibson
+ */
+public class StridedIterator {
+    private final int[] shape;
+    private final int[] stride;
+    private final int[] coords;
+    private int offset;
+
+    /**
+     * Iterate over the given array from the first element
+     * @param arr the array to iterate over
+     */
+    public StridedIterator(INDArray arr) {
+        this(arr, 0);
+    }
+
+    /**
+     * Iterate over the given array starting at the given linear index
+     * @param arr   the array to iterate over
+     * @param start the linear index of the first element to return
+     */
+    public StridedIterator(INDArray arr, int start) {
+        //same semantics as linear index for vectors
+        this(isLinear(arr) ? new int[]{arr.length()} : arr.shape(),
+                isLinear(arr) ? new int[]{arr.majorStride()} : arr.stride(),
+                arr.offset(), start);
+    }
+
+    /**
+     * Iterate over the elements described by the given
+     * shape and stride from the first element
+     * @param shape  the shape to iterate over
+     * @param stride the stride of each dimension
+     * @param offset the buffer offset of the first element
+     */
+    public StridedIterator(int[] shape, int[] stride, int offset) {
+        this(shape, stride, offset, 0);
+    }
+
+    /**
+     * Iterate over the elements described by the given
+     * shape and stride starting at the given linear index
+     * @param shape  the shape to iterate over
+     * @param stride the stride of each dimension
+     * @param offset the buffer offset of the first element
+     * @param start  the linear index of the first element to return
+     */
+    public StridedIterator(int[] shape, int[] stride, int offset, int start) {
+        int[] collapsedShape = new int[shape.length];
+        int[] collapsedStride = new int[shape.length];
+        int rank = 0;
+        for (int i = 0; i < shape.length; i++) {
+            if (shape[i] == 1)
+                continue;
+            //merge with the previous dimension if it is contiguous with this one
+            if (rank > 0 && collapsedStride[rank - 1] == shape[i] * stride[i]) {
+                collapsedShape[rank - 1] *= shape[i];
+                collapsedStride[rank - 1] = stride[i];
+            }
+            else {
+                collapsedShape[rank] = shape[i];
+                collapsedStride[rank] = stride[i];
+                rank++;
+            }
+        }
+
+        this.shape = Arrays.copyOf(collapsedShape, rank);
+        this.stride = Arrays.copyOf(collapsedStride, rank);
+        this.coords = new int[rank];
+        this.offset = offset;
+        int remaining = start;
+        for (int i = rank - 1; i >= 0; i--) {
+            coords[i] = remaining % this.shape[i];
+            remaining /= this.shape[i];
+            this.offset += coords[i] * this.stride[i];
+        }
+    }
+
+    /**
+     * Move back to the first element, which
+     * is now at the given buffer offset. This allows
+     * one iterator to walk many arrays with the same layout
+     * @param offset the buffer offset of the first element
+     */
+    public void reset(int offset) {
+        Arrays.fill(coords, 0);
+        this.offset = offset;
+    }
+
+    /**
+     * The buffer offset of the current element.
+     * Moves to the next element.
+     * @return the buffer offset of the current element
+     */
+    public int next() {
+        int ret = offset;
+        for (int i = shape.length - 1; i >= 0; i--) {
+            if (++coords[i] < shape[i]) {
+                offset += stride[i];
+                break;
+            }
+
+            offset -= (shape[i] - 1) * stride[i];
+            coords[i] = 0;
+        }
+
+        return ret;
+    }
+
+    /**
+     * The shape walked by this iterator:
+     * the shape of the array without size 1 dimensions and
+     * with contiguous dimensions merged
+     * @return the collapsed shape
+     */
+    public int[] shape() {
+        return shape;
+    }
+
+    /**
+     * The stride of each dimension of {@link #shape()}
+     * @return the collapsed stride
+     */
+    public int[] stride() {
+        return stride;
+    }
+
+    /**
+     * The buffer offset of the current element
+     * (without moving to the next element)
+     * @return the buffer offset of the current element
+     */
+    public int offset() {
+        return offset;
+    }
+
+    /**
+     * Whether the array is addressed by
+     * offset + i * majorStride (this is the case when
+     * the array is its own linear view)
+     * @param arr the array to test
+     * @return true if the array is addressed linearly
+     */
+    public static boolean isLinear(INDArray arr) {
+        return arr.isVector() || arr.isScalar() || arr.length() == 1 || arr.length() == arr.size(0);
+    }
+
+    /**
+     * The array a strided iterator should walk for the given array:
+     * the wrapped array for a linear view, the array itself otherwise
+     * @param arr the array to unwrap
+     * @return the array to iterate over
+     */
+    public static INDArray unwrap(INDArray arr) {
+        if (arr instanceof LinearViewNDArray)
+            return ((LinearViewNDArray) arr).getWrapped();
+        return arr;
+    }
+
+    /**
+     * Whether the given (unwrapped) arrays can be walked
+     * in lock step with strided iterators: they must be real valued and
+     * either have the same shape or all be addressed linearly
+     * with the same length
+     * @param arrs the arrays to test (null entries are ignored)
+     * @return true if the arrays can be walked in lock step
+     */
+    public static boolean canIterate(INDArray... arrs) {
+        INDArray first = null;
+        for (INDArray arr : arrs) {
+            if (arr == null)
+                continue;
+            if (arr instanceof IComplexNDArray || arr instanceof LinearViewNDArray)
+                return false;
+            if (first == null) {
+                first = arr;
+                continue;
+            }
+
+            if (isLinear(first) && isLinear(arr)) {
+                if (first.length() != arr.length())
+                    return false;
+            }
+            else if (!Arrays.equals(first.shape(), arr.shape()))
+                return false;
+        }
+
+        return first != null;
+    }
+}
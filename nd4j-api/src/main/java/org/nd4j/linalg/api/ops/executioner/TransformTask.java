@@ -0,0 +1,116 @@
+/*
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ *
+ */
+
+package org.nd4j.linalg.api.ops.executioner;
+
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.Op;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Fork join task for applying a transform
+ * or scalar op over a range of the elements
+ * of an op's inputs and output.
+ *
+ * The range is split in half until it is at most
+ * chunk size elements at which point it is applied serially
+ * with a copy of the op (see {@link Op#copyForRange(int)})
+ * so no two threads touch the state of the same op.
+ *
+ * @author Adam Gibson
+ */
+public class TransformTask extends RecursiveAction {
+    private final Op op;
+    private final INDArray x, y, z;
+    private final boolean strided;
+    private final int start, end, chunkSize;
+
+    /**
+     * @param op        the op to apply
+     * @param x         the input
+     * @param y         the pairwise input (may be null)
+     * @param z         the output
+     * @param strided   whether the arrays are walked with a {@link StridedIterator}
+     *                  (otherwise they are expected to be linear views)
+     * @param start     the first index (inclusive)
+     * @param end       the last index (exclusive)
+     * @param chunkSize the max number of elements to apply in one task
+     */
+    public TransformTask(Op op, INDArray x, INDArray y, INDArray z, boolean strided, int start, int end, int chunkSize) {
+        this.op = op;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.strided = strided;
+        this.start = start;
+        this.end = end;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    protected void compute() {
+        if (end - start <= chunkSize)
+            exec(op.copyForRange(start), x, y, z, strided, start, end);
+        else {
+            int mid = (start + end) >>> 1;
+            invokeAll(new TransformTask(op, x, y, z, strided, start, mid, chunkSize), new TransformTask(op, x, y, z, strided, mid, end, chunkSize));
+        }
+    }
+
+    /**
+     * Apply the op to the elements in the range [start,end)
+     * in the calling thread
+     * @param op      the op to apply
+     * @param x       the input
+     * @param y       the pairwise input (may be null)
+     * @param z       the output
+     * @param strided whether the arrays are walked with a {@link StridedIterator}
+     *                (otherwise they are expected to be linear views)
+     * @param start   the first index (inclusive)
+     * @param end     the last index (exclusive)
+     */
+    public static void exec(Op op, INDArray x, INDArray y, INDArray z, boolean strided, int start, int end) {
+        if (strided) {
+            DataBuffer xData = x.data();
+            DataBuffer zData = z.data();
+            StridedIterator xIter = new StridedIterator(x, start);
+            StridedIterator zIter = new StridedIterator(z, start);
+            if (y != null) {
+                DataBuffer yData = y.data();
+                StridedIterator yIter = new StridedIterator(y, start);
+                for (int i = start; i < end; i++)
+                    zData.put(zIter.next(), op.op(xData.getDouble(xIter.next()), yData.getDouble(yIter.next())));
+            }
+            else {
+                for (int i = start; i < end; i++)
+                    zData.put(zIter.next(), op.op(xData.getDouble(xIter.next())));
+            }
+        }
+        else if (y != null) {
+            for (int i = start; i < end; i++)
+                z.putScalar(i, op.op(x.getDouble(i), y.getDouble(i)));
+        }
+        else {
+            for (int i = start; i < end; i++)
+                z.putScalar(i, op.op(x.getDouble(i)));
+        }
+    }
+}
@@ -53,6 +53,22 @@ public class Bias extends BaseAccumulation {
         super(x, y);
     }
 
+    @Override
+    public double update(double accum, double x) {
+        return accum + (x - mean);
+    }
+
+    @Override
+    public double combineSubResult(double first, double second) {
+        return first + second;
+    }
+
+    @Override
+    public double getAndSetFinalResult(double accum) {
+        currentResult = accum;
+        return accum;
+    }
+
     @Override
     public String name() {
         return "bias";
@@ -79,7 +95,7 @@ public class Bias extends BaseAccumulation {
     @Override
     public void update(Number result) {
         double dev = result.doubleValue() - mean;
-        currentResult = currentResult().doubleValue() + dev;
+        currentResult = currentResult + dev;
         numProcessed++;
 
     }
@@ -49,6 +49,32 @@ public class Dot extends BaseAccumulation {
         super(x, y);
     }
 
+    @Override
+    public double update(double accum, double x) {
+        return accum + x;
+    }
+
+    @Override
+    public double combineSubResult(double first, double second) {
+        return first + second;
+    }
+
+    @Override
+    public double getAndSetFinalResult(double accum) {
+        currentResult = calculateFinalResult(accum, n());
+        return currentResult;
+    }
+
+    @Override
+    public double calculateFinalResult(double accum, int n) {
+        return accum;
+    }
+
+    @Override
+    public boolean isStateless() {
+        return true;
+    }
+
     @Override
     public String name() {
         return "dot";
@@ -121,7 +147,7 @@ public class Dot extends BaseAccumulation {
 
     @Override
     public void update(Number result) {
-         currentResult = currentResult().doubleValue() + result.doubleValue();
+         currentResult = currentResult + result.doubleValue();
     }
 
     @Override
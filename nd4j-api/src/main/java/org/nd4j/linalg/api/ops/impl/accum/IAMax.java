@@ -50,8 +50,8 @@ public class IAMax extends BaseAccumulation {
 
     @Override
     public void update(Number result) {
-        if (result.doubleValue() > currentResult().doubleValue()) {
-            this.currentResult = result;
+        if (result.doubleValue() > currentResult) {
+            this.currentResult = result.doubleValue();
             currIndexOfMax = numProcessed;
         }
         numProcessed++;
@@ -73,6 +73,21 @@ public class IAMax extends BaseAccumulation {
     }
 
 
+    @Override
+    public double update(double accum, double x) {
+        throw new UnsupportedOperationException("The index of the max can not be computed from partial results");
+    }
+
+    @Override
+    public double combineSubResult(double first, double second) {
+        throw new UnsupportedOperationException("The index of the max can not be computed from partial results");
+    }
+
+    @Override
+    public double getAndSetFinalResult(double accum) {
+        throw new UnsupportedOperationException("The index of the max can not be computed from partial results");
+    }
+
     @Override
     public String name() {
         return "iamax";
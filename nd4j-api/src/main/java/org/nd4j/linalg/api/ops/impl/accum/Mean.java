@@ -52,12 +52,12 @@ public class Mean extends BaseAccumulation {
 
     @Override
     public void update(Number result) {
-        if (Double.isInfinite(currentResult.doubleValue()))
-            currentResult = result;
+        if (Double.isInfinite(currentResult))
+            currentResult = result.doubleValue();
         else
-            currentResult = currentResult.doubleValue() + result.doubleValue();
+            currentResult = currentResult + result.doubleValue();
         if (numProcessed() == n())
-            currentResult = currentResult.doubleValue() / (double) n();
+            currentResult = currentResult / (double) n();
 
 
     }
@@ -79,6 +79,32 @@ public class Mean extends BaseAccumulation {
     }
 
 
+    @Override
+    public double update(double accum, double x) {
+        return accum + x;
+    }
+
+    @Override
+    public double combineSubResult(double first, double second) {
+        return first + second;
+    }
+
+    @Override
+    public double getAndSetFinalResult(double accum) {
+        currentResult = calculateFinalResult(accum, n());
+        return currentResult;
+    }
+
+    @Override
+    public double calculateFinalResult(double accum, int n) {
+        return accum / (double) n;
+    }
+
+    @Override
+    public boolean isStateless() {
+        return true;
+    }
+
     @Override
     public String name() {
         return "mean";
@@ -19,6 +19,7 @@
 
 package org.nd4j.linalg.api.ops.impl.accum;
 
+import org.apache.commons.math3.util.FastMath;
 import org.nd4j.linalg.api.complex.IComplexNDArray;
 import org.nd4j.linalg.api.complex.IComplexNumber;
 import org.nd4j.linalg.api.ndarray.INDArray;
@@ -53,8 +54,8 @@ public class Min extends BaseAccumulation {
 
     @Override
     public void update(Number result) {
-        if (result.doubleValue() < currentResult().doubleValue())
-            this.currentResult = result;
+        if (result.doubleValue() < currentResult)
+            this.currentResult = result.doubleValue();
         numProcessed++;
     }
 
@@ -66,6 +67,32 @@ public class Min extends BaseAccumulation {
     }
 
 
+    @Override
+    public double update(double accum, double x) {
+        return FastMath.min(accum, x);
+    }
+
+    @Override
+    public double combineSubResult(double first, double second) {
+        return FastMath.min(first, second);
+    }
+
+    @Override
+    public double getAndSetFinalResult(double accum) {
+        currentResult = calculateFinalResult(accum, n());
+        return currentResult;
+    }
+
+    @Override
+    public double calculateFinalResult(double accum, int n) {
+        return accum;
+    }
+
+    @Override
+    public boolean isStateless() {
+        return true;
+    }
+
     @Override
     public String name() {
         return "min";
@@ -80,7 +107,8 @@ public class Min extends BaseAccumulation {
             initialComplex = complexX.getComplex(0);
         } else {
             currentResult = x.getDouble(0);
-            initial = x.getDouble(0);
+            //the identity rather than the first element: partial results can start from any element
+            initial = Double.POSITIVE_INFINITY;
         }
 
 
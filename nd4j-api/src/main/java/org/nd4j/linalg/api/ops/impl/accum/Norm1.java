@@ -53,7 +53,7 @@ public class Norm1 extends BaseAccumulation {
 
     @Override
     public void update(Number result) {
-        currentResult = currentResult.doubleValue() + FastMath.abs(result.doubleValue());
+        currentResult = currentResult + FastMath.abs(result.doubleValue());
         numProcessed++;
     }
 
@@ -73,6 +73,32 @@ public class Norm1 extends BaseAccumulation {
         return Nd4j.createComplexNumber(0.0, 0.0);
     }
 
+    @Override
+    public double update(double accum, double x) {
+        return accum + FastMath.abs(x);
+    }
+
+    @Override
+    public double combineSubResult(double first, double second) {
+        return first + second;
+    }
+
+    @Override
+    public double getAndSetFinalResult(double accum) {
+        currentResult = calculateFinalResult(accum, n());
+        return currentResult;
+    }
+
+    @Override
+    public double calculateFinalResult(double accum, int n) {
+        return accum;
+    }
+
+    @Override
+    public boolean isStateless() {
+        return true;
+    }
+
     @Override
     public String name() {
         return "norm1";
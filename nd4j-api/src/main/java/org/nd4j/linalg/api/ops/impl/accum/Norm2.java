@@ -55,9 +55,9 @@ public class Norm2 extends BaseAccumulation {
 
     @Override
     public void update(Number result) {
-        currentResult = currentResult.doubleValue() + FastMath.pow(result.doubleValue(), 2);
+        currentResult = currentResult + FastMath.pow(result.doubleValue(), 2);
         if (numProcessed == n)
-            currentResult = FastMath.sqrt(currentResult.doubleValue());
+            currentResult = FastMath.sqrt(currentResult);
     }
 
     @Override
@@ -77,6 +77,32 @@ public class Norm2 extends BaseAccumulation {
         return Nd4j.createComplexNumber(0.0, 0.0);
     }
 
+    @Override
+    public double update(double accum, double x) {
+        return accum + x * x;
+    }
+
+    @Override
+    public double combineSubResult(double first, double second) {
+        return first + second;
+    }
+
+    @Override
+    public double getAndSetFinalResult(double accum) {
+        currentResult = calculateFinalResult(accum, n());
+        return currentResult;
+    }
+
+    @Override
+    public double calculateFinalResult(double accum, int n) {
+        return FastMath.sqrt(accum);
+    }
+
+    @Override
+    public boolean isStateless() {
+        return true;
+    }
+
     @Override
     public String name() {
         return "norm2";
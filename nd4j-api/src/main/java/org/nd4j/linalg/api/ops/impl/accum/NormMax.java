@@ -55,7 +55,7 @@ public class NormMax extends BaseAccumulation {
     @Override
     public void update(Number result) {
         double abs = FastMath.abs(result.doubleValue());
-        currentResult = abs > currentResult.doubleValue() ? abs : currentResult();
+        currentResult = abs > currentResult ? abs : currentResult;
         numProcessed++;
     }
 
@@ -77,6 +77,32 @@ public class NormMax extends BaseAccumulation {
         return Nd4j.createComplexNumber(0.0, 0.0);
     }
 
+    @Override
+    public double update(double accum, double x) {
+        return FastMath.max(accum, FastMath.abs(x));
+    }
+
+    @Override
+    public double combineSubResult(double first, double second) {
+        return FastMath.max(first, second);
+    }
+
+    @Override
+    public double getAndSetFinalResult(double accum) {
+        currentResult = calculateFinalResult(accum, n());
+        return currentResult;
+    }
+
+    @Override
+    public double calculateFinalResult(double accum, int n) {
+        return accum;
+    }
+
+    @Override
+    public boolean isStateless() {
+        return true;
+    }
+
     @Override
     public String name() {
         return "normmax";
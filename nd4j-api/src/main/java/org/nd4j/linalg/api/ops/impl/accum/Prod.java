@@ -52,7 +52,7 @@ public class Prod extends BaseAccumulation {
 
     @Override
     public void update(Number result) {
-        currentResult = currentResult.doubleValue() * result.doubleValue();
+        currentResult = currentResult * result.doubleValue();
         numProcessed++;
     }
 
@@ -72,6 +72,32 @@ public class Prod extends BaseAccumulation {
         return Nd4j.createComplexNumber(1.0, 0.0);
     }
 
+    @Override
+    public double update(double accum, double x) {
+        return accum * x;
+    }
+
+    @Override
+    public double combineSubResult(double first, double second) {
+        return first * second;
+    }
+
+    @Override
+    public double getAndSetFinalResult(double accum) {
+        currentResult = calculateFinalResult(accum, n());
+        return currentResult;
+    }
+
+    @Override
+    public double calculateFinalResult(double accum, int n) {
+        return accum;
+    }
+
+    @Override
+    public boolean isStateless() {
+        return true;
+    }
+
     @Override
     public String name() {
         return "prod";
@@ -51,7 +51,7 @@ public class StandardDeviation extends Variance {
     public void update(Number result) {
         super.update(result);
         if (n() == numProcessed()) {
-            currentResult = FastMath.sqrt(currentResult.doubleValue());
+            currentResult = FastMath.sqrt(currentResult);
         }
     }
 
@@ -63,6 +63,13 @@ public class StandardDeviation extends Variance {
 
     }
 
+    @Override
+    public double getAndSetFinalResult(double accum) {
+        double result = FastMath.sqrt(super.getAndSetFinalResult(accum));
+        currentResult = result;
+        return result;
+    }
+
     @Override
     public String name() {
         return "std";
@@ -52,7 +52,7 @@ public class Sum extends BaseAccumulation {
 
     @Override
     public void update(Number result) {
-        currentResult = currentResult.doubleValue() + result.doubleValue();
+        currentResult = currentResult + result.doubleValue();
         numProcessed++;
     }
 
@@ -62,6 +62,32 @@ public class Sum extends BaseAccumulation {
         numProcessed++;
     }
 
+    @Override
+    public double update(double accum, double x) {
+        return accum + x;
+    }
+
+    @Override
+    public double combineSubResult(double first, double second) {
+        return first + second;
+    }
+
+    @Override
+    public double getAndSetFinalResult(double accum) {
+        currentResult = calculateFinalResult(accum, n());
+        return currentResult;
+    }
+
+    @Override
+    public double calculateFinalResult(double accum, int n) {
+        return accum;
+    }
+
+    @Override
+    public boolean isStateless() {
+        return true;
+    }
+
     @Override
     public String name() {
         return "sum";
@@ -84,13 +84,13 @@ public class Variance extends BaseAccumulation {
     @Override
     public void update(Number result) {
         double dev = result.doubleValue() - mean;
-        currentResult = currentResult().doubleValue() + FastMath.pow(dev, 2);
+        currentResult = currentResult + FastMath.pow(dev, 2);
 
         if (numProcessed() == n()) {
             if (biasCorrected)
-                currentResult = (currentResult.doubleValue() - (FastMath.pow(bias, 2.0) / n())) / (n() - 1.0);
+                currentResult = (currentResult - (FastMath.pow(bias, 2.0) / n())) / (n() - 1.0);
             else
-                currentResult = currentResult().doubleValue() / (double) n;
+                currentResult = currentResult / (double) n;
 
         }
 
@@ -110,6 +110,27 @@ public class Variance extends BaseAccumulation {
     }
 
 
+    @Override
+    public double update(double accum, double x) {
+        return accum + (x - mean) * (x - mean);
+    }
+
+    @Override
+    public double combineSubResult(double first, double second) {
+        return first + second;
+    }
+
+    @Override
+    public double getAndSetFinalResult(double accum) {
+        double result;
+        if (biasCorrected)
+            result = (accum - (FastMath.pow(bias, 2.0) / n())) / (n() - 1.0);
+        else
+            result = accum / (double) n();
+        currentResult = result;
+        return result;
+    }
+
     @Override
     public String name() {
         return "var";
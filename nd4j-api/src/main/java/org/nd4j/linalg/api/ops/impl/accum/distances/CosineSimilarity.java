@@ -58,9 +58,9 @@ public class CosineSimilarity extends BaseAccumulation {
 
     @Override
     public void update(Number result) {
-        currentResult = currentResult.doubleValue() + result.doubleValue();
+        currentResult = currentResult + result.doubleValue();
         if (numProcessed() == n()) {
-            currentResult = currentResult.doubleValue() / constantNormalizedByNorm2X.doubleValue() / constantNormalizedByNorm2Y.doubleValue();
+            currentResult = currentResult / constantNormalizedByNorm2X.doubleValue() / constantNormalizedByNorm2Y.doubleValue();
         }
 
     }
@@ -73,6 +73,23 @@ public class CosineSimilarity extends BaseAccumulation {
         }
     }
 
+    @Override
+    public double update(double accum, double x) {
+        return accum + x;
+    }
+
+    @Override
+    public double combineSubResult(double first, double second) {
+        return first + second;
+    }
+
+    @Override
+    public double getAndSetFinalResult(double accum) {
+        double result = accum / constantNormalizedByNorm2X.doubleValue() / constantNormalizedByNorm2Y.doubleValue();
+        currentResult = result;
+        return result;
+    }
+
     @Override
     public String name() {
         return "cosinesimilarity";
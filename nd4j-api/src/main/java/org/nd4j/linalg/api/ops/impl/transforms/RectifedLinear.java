@@ -40,21 +40,25 @@ public class RectifedLinear extends BaseTransformOp {
     public RectifedLinear(INDArray x, INDArray z, double cutoff) {
         super(x, z);
         this.cutoff = cutoff;
+        init(x, null, z, x.length());
     }
 
     public RectifedLinear(INDArray x, INDArray z, int n, double cutoff) {
         super(x, z, n);
         this.cutoff = cutoff;
+        init(x, null, z, n);
     }
 
     public RectifedLinear(INDArray x, INDArray y, INDArray z, int n, double cutoff) {
         super(x, y, z, n);
         this.cutoff = cutoff;
+        init(x, y, z, n);
     }
 
     public RectifedLinear(INDArray x, double cutoff) {
         super(x);
         this.cutoff = cutoff;
+        init(x, null, x, x.length());
     }
 
     public RectifedLinear(INDArray x, INDArray z) {
@@ -125,9 +129,9 @@ public class RectifedLinear extends BaseTransformOp {
         INDArray xAlongDimension = x.vectorAlongDimension(index, dimension);
 
         if (y() != null)
-            return new Pow(xAlongDimension, y.vectorAlongDimension(index, dimension), z.vectorAlongDimension(index, dimension), xAlongDimension.length(), cutoff);
+            return new RectifedLinear(xAlongDimension, y.vectorAlongDimension(index, dimension), z.vectorAlongDimension(index, dimension), xAlongDimension.length(), cutoff);
         else
-            return new Pow(xAlongDimension, z.vectorAlongDimension(index, dimension), xAlongDimension.length(), cutoff);
+            return new RectifedLinear(xAlongDimension, z.vectorAlongDimension(index, dimension), xAlongDimension.length(), cutoff);
     }
 
     @Override
@@ -135,9 +139,15 @@ public class RectifedLinear extends BaseTransformOp {
         INDArray xAlongDimension = x.tensorAlongDimension(index, dimension);
 
         if (y() != null)
-            return new Pow(xAlongDimension, y.tensorAlongDimension(index, dimension), z.tensorAlongDimension(index, dimension), xAlongDimension.length(), cutoff);
+            return new RectifedLinear(xAlongDimension, y.tensorAlongDimension(index, dimension), z.tensorAlongDimension(index, dimension), xAlongDimension.length(), cutoff);
         else
-            return new Pow(xAlongDimension, z.tensorAlongDimension(index, dimension), xAlongDimension.length(), cutoff);
+            return new RectifedLinear(xAlongDimension, z.tensorAlongDimension(index, dimension), xAlongDimension.length(), cutoff);
 
     }
+
+    @Override
+    public void init(INDArray x, INDArray y, INDArray z, int n) {
+        super.init(x, y, z, n);
+        this.extraArgs = new Object[]{cutoff};
+    }
 }
@@ -20,17 +20,14 @@
 package org.nd4j.linalg.api.ops.impl.transforms;
 
 
-import org.apache.commons.math3.util.FastMath;
 import org.nd4j.linalg.api.complex.IComplexNDArray;
 import org.nd4j.linalg.api.complex.IComplexNumber;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.api.ops.BaseTransformOp;
 import org.nd4j.linalg.api.ops.Op;
-import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.fft.FFTPlan;
 import org.nd4j.linalg.util.ComplexNDArrayUtil;
 
-import static org.nd4j.linalg.ops.transforms.Transforms.exp;
-
 
 /**
  * Encapsulated vector operation
@@ -153,32 +150,8 @@ public class VectorFFT extends BaseTransformOp {
 
         executed = true;
 
-        double len = fftLength;
-        IComplexNDArray ret = x instanceof IComplexNDArray ? (IComplexNDArray) x : Nd4j.createComplex(x);
-        int desiredElementsAlongDimension = ret.length();
-
-        if (len > desiredElementsAlongDimension) {
-            ret = ComplexNDArrayUtil.padWithZeros(ret, new int[]{fftLength});
-        } else if (len < desiredElementsAlongDimension) {
-            ret = ComplexNDArrayUtil.truncate(ret, fftLength, 0);
-        }
-
-
-        IComplexNumber c2 = Nd4j.createDouble(0, -2).muli(FastMath.PI);
-        //row vector
-        INDArray n2 = Nd4j.arange(0, this.fftLength).reshape(1, this.fftLength);
-
-        //column vector
-        INDArray k = n2.reshape(n2.length(),1);
-        INDArray kTimesN = k.mmul(n2);
-        //here
-        IComplexNDArray c1 = kTimesN.muli(c2);
-        c1.divi(len);
-        IComplexNDArray M = (IComplexNDArray) exp(c1);
-
-
-        IComplexNDArray reshaped = ret.reshape(new int[]{1,ret.length()});
-        IComplexNDArray matrix = reshaped.mmul(M);
+        //the twiddles of every length are computed once and cached in the plan
+        IComplexNDArray matrix = FFTPlan.forLength(fftLength, false).execute(x);
         if (originalN > 0)
             matrix = ComplexNDArrayUtil.truncate(matrix, originalN, 0);
 
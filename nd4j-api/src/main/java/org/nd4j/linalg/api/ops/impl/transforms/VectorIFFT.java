@@ -24,7 +24,7 @@ import org.nd4j.linalg.api.complex.IComplexNumber;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.api.ops.BaseTransformOp;
 import org.nd4j.linalg.api.ops.Op;
-import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.fft.FFTPlan;
 import org.nd4j.linalg.util.ComplexNDArrayUtil;
 
 /**
@@ -170,10 +170,7 @@ public class VectorIFFT extends BaseTransformOp {
 
 
 
-        //ifft(x) = conj(fft(conj(x)) / length(x)
-        IComplexNDArray ndArray = x instanceof IComplexNDArray ? (IComplexNDArray) x : Nd4j.createComplex(x);
-        IComplexNDArray fft = (IComplexNDArray) Nd4j.getExecutioner().execAndReturn(new VectorFFT(ndArray.conj(),y,z,x.length(),fftLength));
-        IComplexNDArray ret = fft.conj().divi(Nd4j.complexScalar(fftLength));
+        IComplexNDArray ret = FFTPlan.forLength(fftLength, true).execute(x);
         //completely pass through
         this.z = originalN > 0 ? ComplexNDArrayUtil.truncate(ret, originalN, 0) : ret;
         this.x = this.z;
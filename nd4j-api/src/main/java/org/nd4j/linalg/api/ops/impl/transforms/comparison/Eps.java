@@ -125,4 +125,9 @@ public class Eps extends BaseTransformOp {
 
     }
 
+    @Override
+    public void init(INDArray x, INDArray y, INDArray z, int n) {
+        super.init(x, y, z, n);
+        this.extraArgs = new Object[]{Nd4j.EPS_THRESHOLD};
+    }
 }
@@ -83,7 +83,7 @@ public class NotEqualTo extends BaseTransformOp {
 
     @Override
     public double op(double origin, double other) {
-        return origin == other ? 1.0 : 0.0;
+        return origin != other ? 1.0 : 0.0;
     }
 
     @Override
@@ -0,0 +1,458 @@
+/*
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ *
+ */
+
+package org.nd4j.linalg.api.ops.lazy;
+
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.complex.IComplexNDArray;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.Op;
+import org.nd4j.linalg.api.ops.ScalarOp;
+import org.nd4j.linalg.api.ops.TransformOp;
+import org.nd4j.linalg.api.ops.executioner.StridedIterator;
+import org.nd4j.linalg.api.ops.impl.scalar.ScalarAdd;
+import org.nd4j.linalg.api.ops.impl.scalar.ScalarDivision;
+import org.nd4j.linalg.api.ops.impl.scalar.ScalarMultiplication;
+import org.nd4j.linalg.api.ops.impl.scalar.ScalarReverseDivision;
+import org.nd4j.linalg.api.ops.impl.scalar.ScalarReverseSubtraction;
+import org.nd4j.linalg.api.ops.impl.scalar.ScalarSubtraction;
+import org.nd4j.linalg.api.ops.impl.transforms.LinearIndex;
+import org.nd4j.linalg.api.ops.impl.transforms.arithmetic.AddOp;
+import org.nd4j.linalg.api.ops.impl.transforms.arithmetic.DivOp;
+import org.nd4j.linalg.api.ops.impl.transforms.arithmetic.MulOp;
+import org.nd4j.linalg.api.ops.impl.transforms.arithmetic.RDivOp;
+import org.nd4j.linalg.api.ops.impl.transforms.arithmetic.RSubOp;
+import org.nd4j.linalg.api.ops.impl.transforms.arithmetic.SubOp;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A lazily evaluated chain (or dag) of element wise ops.
+ *
+ * Each call records an op rather than executing it:
+ * nothing is computed or allocated until {@link #materialize()}
+ * at which point every op in the expression is applied
+ * to each element in a single pass over the inputs,
+ * writing to a single output.
+ *
+ * <pre>
+ *     INDArray activation = Nd4j.lazy(x).mul(w).add(b).transform("sigmoid").materialize();
+ * </pre>
+ *
+ * is equivalent to
+ * <pre>
+ *     Transforms.sigmoid(x.mul(w).addi(b))
+ * </pre>
+ * without the intermediate arrays and passes over memory.
+ *
+ * Only real valued element wise transform and scalar ops
+ * can be recorded: the op's inputs are ignored and its element wise
+ * functions ({@link Op#op(double)} and {@link Op#op(double, double)})
+ * are applied to the values of the expression instead.
+ *
+ * @author Adam Gibson
+ */
+public class Expression {
+    private static final int LEAF = 0;
+    private static final int UNARY = 1;
+    private static final int PAIRWISE = 2;
+
+    private final int kind;
+    private final INDArray arr;
+    private final Op op;
+    private final Expression first, second;
+    //an input with the shape of this expression: used to create ops and the result
+    private final INDArray ref;
+
+    /**
+     * An expression for the given array
+     * @param arr the array
+     */
+    public Expression(INDArray arr) {
+        if (arr instanceof IComplexNDArray)
+            throw new IllegalArgumentException("Complex arrays can not be evaluated lazily");
+        this.kind = LEAF;
+        this.arr = arr;
+        this.op = null;
+        this.first = null;
+        this.second = null;
+        this.ref = arr;
+    }
+
+    private Expression(Op op, Expression first, Expression second) {
+        if (op.isPassThrough() || op instanceof LinearIndex)
+            throw new IllegalArgumentException("Op " + op.name() + " is not element wise and can not be evaluated lazily");
+        if (second != null && second.length() != first.length())
+            throw new IllegalArgumentException("Lengths must match: " + first.length() + " and " + second.length());
+        this.kind = second == null ? UNARY : PAIRWISE;
+        this.arr = null;
+        this.op = op;
+        this.first = first;
+        this.second = second;
+        this.ref = first.ref;
+    }
+
+    /**
+     * The shape of the result of this expression
+     * @return the shape of the result
+     */
+    public int[] shape() {
+        return ref.shape();
+    }
+
+    /**
+     * The number of elements in the result of this expression
+     * @return the number of elements
+     */
+    public int length() {
+        return ref.length();
+    }
+
+    /**
+     * Apply a transform to each element of this expression
+     * @param op the transform (its inputs are ignored)
+     * @return the expression
+     */
+    public Expression transform(TransformOp op) {
+        return new Expression(op, this, null);
+    }
+
+    /**
+     * Apply the transform with the given name
+     * (see {@link org.nd4j.linalg.api.ops.factory.OpFactory}) to each
+     * element of this expression
+     * @param name the name of the transform
+     * @return the expression
+     */
+    public Expression transform(String name) {
+        return transform(Nd4j.getOpFactory().createTransform(name, ref));
+    }
+
+    /**
+     * Apply a pairwise transform to this expression and another
+     * @param op    the transform (its inputs are ignored)
+     * @param other the other operand
+     * @return the expression
+     */
+    public Expression transform(TransformOp op, Expression other) {
+        return new Expression(op, this, other);
+    }
+
+    /**
+     * Apply a pairwise transform to this expression and an array
+     * @param op    the transform (its inputs are ignored)
+     * @param other the other operand
+     * @return the expression
+     */
+    public Expression transform(TransformOp op, INDArray other) {
+        return transform(op, new Expression(other));
+    }
+
+    /**
+     * Apply a scalar op to each element of this expression
+     * @param op the scalar op (its inputs are ignored)
+     * @return the expression
+     */
+    public Expression scalar(ScalarOp op) {
+        return new Expression(op, this, null);
+    }
+
+    /**
+     * Add another expression element wise
+     * @param other the other operand
+     * @return the expression
+     */
+    public Expression add(Expression other) {
+        return transform(new AddOp(ref, ref, ref, ref.length()), other);
+    }
+
+    /**
+     * Add an array element wise
+     * @param other the other operand
+     * @return the expression
+     */
+    public Expression add(INDArray other) {
+        return add(new Expression(other));
+    }
+
+    /**
+     * Add a scalar element wise
+     * @param n the other operand
+     * @return the expression
+     */
+    public Expression add(Number n) {
+        return scalar(new ScalarAdd(ref, n));
+    }
+
+    /**
+     * Subtract another expression element wise
+     * @param other the other operand
+     * @return the expression
+     */
+    public Expression sub(Expression other) {
+        return transform(new SubOp(ref, ref, ref, ref.length()), other);
+    }
+
+    /**
+     * Subtract an array element wise
+     * @param other the other operand
+     * @return the expression
+     */
+    public Expression sub(INDArray other) {
+        return sub(new Expression(other));
+    }
+
+    /**
+     * Subtract a scalar element wise
+     * @param n the other operand
+     * @return the expression
+     */
+    public Expression sub(Number n) {
+        return scalar(new ScalarSubtraction(ref, n));
+    }
+
+    /**
+     * Reverse subtract another expression element wise
+     * @param other the other operand
+     * @return the expression
+     */
+    public Expression rsub(Expression other) {
+        return transform(new RSubOp(ref, ref, ref, ref.length()), other);
+    }
+
+    /**
+     * Reverse subtract an array element wise
+     * @param other the other operand
+     * @return the expression
+     */
+    public Expression rsub(INDArray other) {
+        return rsub(new Expression(other));
+    }
+
+    /**
+     * Reverse subtract a scalar element wise
+     * @param n the other operand
+     * @return the expression
+     */
+    public Expression rsub(Number n) {
+        return scalar(new ScalarReverseSubtraction(ref, n));
+    }
+
+    /**
+     * Multiply another expression element wise
+     * @param other the other operand
+     * @return the expression
+     */
+    public Expression mul(Expression other) {
+        return transform(new MulOp(ref, ref, ref, ref.length()), other);
+    }
+
+    /**
+     * Multiply an array element wise
+     * @param other the other operand
+     * @return the expression
+     */
+    public Expression mul(INDArray other) {
+        return mul(new Expression(other));
+    }
+
+    /**
+     * Multiply a scalar element wise
+     * @param n the other operand
+     * @return the expression
+     */
+    public Expression mul(Number n) {
+        return scalar(new ScalarMultiplication(ref, n));
+    }
+
+    /**
+     * Divide another expression element wise
+     * @param other the other operand
+     * @return the expression
+     */
+    public Expression div(Expression other) {
+        return transform(new DivOp(ref, ref, ref, ref.length()), other);
+    }
+
+    /**
+     * Divide an array element wise
+     * @param other the other operand
+     * @return the expression
+     */
+    public Expression div(INDArray other) {
+        return div(new Expression(other));
+    }
+
+    /**
+     * Divide a scalar element wise
+     * @param n the other operand
+     * @return the expression
+     */
+    public Expression div(Number n) {
+        return scalar(new ScalarDivision(ref, n));
+    }
+
+    /**
+     * Reverse divide another expression element wise
+     * @param other the other operand
+     * @return the expression
+     */
+    public Expression rdiv(Expression other) {
+        return transform(new RDivOp(ref, ref, ref, ref.length()), other);
+    }
+
+    /**
+     * Reverse divide an array element wise
+     * @param other the other operand
+     * @return the expression
+     */
+    public Expression rdiv(INDArray other) {
+        return rdiv(new Expression(other));
+    }
+
+    /**
+     * Reverse divide a scalar element wise
+     * @param n the other operand
+     * @return the expression
+     */
+    public Expression rdiv(Number n) {
+        return scalar(new ScalarReverseDivision(ref, n));
+    }
+
+    /**
+     * Evaluate this expression in to a new array
+     * @return the result
+     */
+    public INDArray materialize() {
+        return materialize(Nd4j.create(ref.shape()));
+    }
+
+    /**
+     * Evaluate this expression in to the given array.
+     * The result may be one of the inputs of the expression:
+     * every input is read at an element before the result is written there
+     * @param result the array to write the result to
+     * @return the result
+     */
+    public INDArray materialize(INDArray result) {
+        if (result.length() != length())
+            throw new IllegalArgumentException("Result length " + result.length() + " does not match " + length());
+        if (kind == LEAF)
+            return result.assign(arr);
+
+        //number the nodes so that operands come before the ops applied to them
+        List<Expression> nodes = new ArrayList<>();
+        Map<Expression, Integer> index = new IdentityHashMap<>();
+        visit(this, nodes, index);
+
+        int numNodes = nodes.size();
+        List<INDArray> arrays = new ArrayList<>();
+        for (Expression node : nodes) {
+            if (node.kind == LEAF)
+                arrays.add(StridedIterator.unwrap(node.arr));
+        }
+
+        INDArray z = StridedIterator.unwrap(result);
+        arrays.add(z);
+        boolean strided = StridedIterator.canIterate(arrays.toArray(new INDArray[arrays.size()]));
+        if (!strided) {
+            z = result.linearView();
+            for (int i = 0; i < arrays.size(); i++)
+                arrays.set(i, arrays.get(i).linearView());
+        }
+
+        int[] kinds = new int[numNodes];
+        int[] firsts = new int[numNodes];
+        int[] seconds = new int[numNodes];
+        Op[] ops = new Op[numNodes];
+        INDArray[] inputs = new INDArray[numNodes];
+        DataBuffer[] data = new DataBuffer[numNodes];
+        StridedIterator[] iters = new StridedIterator[numNodes];
+        int leaf = 0;
+        for (int k = 0; k < numNodes; k++) {
+            Expression node = nodes.get(k);
+            kinds[k] = node.kind;
+            ops[k] = node.op;
+            if (node.kind == LEAF) {
+                inputs[k] = arrays.get(leaf++);
+                data[k] = inputs[k].data();
+                if (strided)
+                    iters[k] = new StridedIterator(inputs[k]);
+            }
+            else {
+                firsts[k] = index.get(node.first);
+                if (node.kind == PAIRWISE)
+                    seconds[k] = index.get(node.second);
+            }
+        }
+
+        double[] values = new double[numNodes];
+        DataBuffer zData = z.data();
+        StridedIterator zIter = strided ? new StridedIterator(z) : null;
+        int length = length();
+        for (int i = 0; i < length; i++) {
+            for (int k = 0; k < numNodes; k++) {
+                switch (kinds[k]) {
+                    case LEAF:
+                        values[k] = strided ? data[k].getDouble(iters[k].next()) : inputs[k].getDouble(i);
+                        break;
+                    case UNARY:
+                        values[k] = ops[k].op(values[firsts[k]]);
+                        break;
+                    default:
+                        values[k] = ops[k].op(values[firsts[k]], values[seconds[k]]);
+                        break;
+                }
+            }
+
+            if (strided)
+                zData.put(zIter.next(), values[numNodes - 1]);
+            else
+                z.putScalar(i, values[numNodes - 1]);
+        }
+
+        return result;
+    }
+
+    //depth first: each node is added once, after its operands
+    private static void visit(Expression node, List<Expression> nodes, Map<Expression, Integer> index) {
+        if (index.containsKey(node))
+            return;
+        if (node.first != null)
+            visit(node.first, nodes, index);
+        if (node.second != null)
+            visit(node.second, nodes, index);
+        index.put(node, nodes.size());
+        nodes.add(node);
+    }
+
+    @Override
+    public String toString() {
+        if (kind == LEAF)
+            return "array" + Arrays.toString(ref.shape());
+        if (kind == UNARY)
+            return op.name() + "(" + first + ")";
+        return op.name() + "(" + first + "," + second + ")";
+    }
+}
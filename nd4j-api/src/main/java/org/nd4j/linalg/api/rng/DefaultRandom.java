@@ -19,20 +19,39 @@
 
 package org.nd4j.linalg.api.rng;
 
-import org.apache.commons.math3.random.MersenneTwister;
 import org.apache.commons.math3.random.RandomGenerator;
-import org.apache.commons.math3.random.SynchronizedRandomGenerator;
+import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.util.Parallel;
+
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Apache commons based random number generation
+ * Random number generation without a shared lock.
+ *
+ * Every thread draws from its own {@link Xoroshiro128PlusGenerator} stream.
+ * The streams are derived from one seed and numbered in the order threads first use them,
+ * so a single thread sees the same numbers after the same seed.
+ * Setting the seed starts every thread over on a fresh stream.
+ *
+ * Bulk fills are written straight in to the buffer in parallel: each block of
+ * the buffer gets its own stream keyed by the caller's next number and the block,
+ * so the result doesn't depend on the number of threads.
+ *
+ * A generator passed to the constructor is used as is (and shared by all threads).
  *
  * @author Adam Gibson
  */
 public class DefaultRandom implements Random, RandomGenerator {
+    //elements per stream in a bulk fill
+    private static final int BLOCK = 8192;
     protected RandomGenerator randomGenerator;
-    protected long seed;
+    protected volatile long seed;
+    private volatile int generation;
+    private final AtomicLong streams = new AtomicLong();
+    private final ThreadLocal<Stream> stream = new ThreadLocal<>();
+
     /**
      * Initialize with a System.currentTimeMillis()
      * seed
@@ -41,7 +60,6 @@ public class DefaultRandom implements Random, RandomGenerator {
 
     public DefaultRandom(long seed) {
         this.seed = seed;
-        this.randomGenerator = new SynchronizedRandomGenerator(new MersenneTwister(seed));
     }
 
     public DefaultRandom(RandomGenerator randomGenerator) {
@@ -50,8 +68,7 @@ public class DefaultRandom implements Random, RandomGenerator {
 
     @Override
     public void setSeed(int seed) {
-        this.seed = (long) seed;
-        getRandomGenerator().setSeed(seed);
+        setSeed((long) seed);
     }
 
 
@@ -63,9 +80,14 @@ public class DefaultRandom implements Random, RandomGenerator {
     }
 
     @Override
-    public void setSeed(long seed) {
-        this.seed= seed;
-        getRandomGenerator().setSeed(seed);
+    public synchronized void setSeed(long seed) {
+        this.seed = seed;
+        if (randomGenerator != null) {
+            randomGenerator.setSeed(seed);
+            return;
+        }
+        streams.set(0);
+        generation++;
     }
 
     @Override
@@ -111,31 +133,20 @@ public class DefaultRandom implements Random, RandomGenerator {
     @Override
     public INDArray nextGaussian(int[] shape) {
         INDArray ret = Nd4j.create(shape);
-        INDArray linear = ret.linearView();
-        for (int i = 0; i < linear.length(); i++) {
-            linear.putScalar(i, nextGaussian());
-        }
+        fillGaussian(ret.data(), 0, 1);
         return ret;
     }
 
     @Override
     public INDArray nextDouble(int[] shape) {
         INDArray ret = Nd4j.create(shape);
-        INDArray linear = ret.linearView();
-        for (int i = 0; i < linear.length(); i++) {
-            linear.putScalar(i, nextDouble());
-        }
+        fillUniform(ret.data(), 0, 1);
         return ret;
     }
 
     @Override
     public INDArray nextFloat(int[] shape) {
-        INDArray ret = Nd4j.create(shape);
-        INDArray linear = ret.linearView();
-        for (int i = 0; i < linear.length(); i++) {
-            linear.putScalar(i, nextFloat());
-        }
-        return ret;
+        return nextDouble(shape);
     }
 
     @Override
@@ -159,12 +170,124 @@ public class DefaultRandom implements Random, RandomGenerator {
     }
 
 
-    public synchronized RandomGenerator getRandomGenerator() {
-        return randomGenerator;
+    @Override
+    public void fillUniform(DataBuffer buffer, final double lower, final double upper) {
+        fill(buffer, new Sampler() {
+            @Override
+            public double sample(RandomGenerator generator) {
+                double u = generator.nextDouble();
+                return u * upper + (1 - u) * lower;
+            }
+        });
+    }
+
+    @Override
+    public void fillGaussian(DataBuffer buffer, final double mean, final double standardDeviation) {
+        fill(buffer, new Sampler() {
+            @Override
+            public double sample(RandomGenerator generator) {
+                return standardDeviation * generator.nextGaussian() + mean;
+            }
+        });
+    }
+
+    @Override
+    public void fillBinomial(DataBuffer buffer, final int trials, final double p) {
+        //a handful of trials are counted directly, more go through the inverse cumulative probability
+        //(the distribution never samples itself, so it gets no generator)
+        final org.apache.commons.math3.distribution.BinomialDistribution distribution = trials > 32
+                ? new org.apache.commons.math3.distribution.BinomialDistribution(null, trials, p) : null;
+        fill(buffer, new Sampler() {
+            @Override
+            public double sample(RandomGenerator generator) {
+                if (distribution != null)
+                    return distribution.inverseCumulativeProbability(generator.nextDouble());
+                int successes = 0;
+                for (int i = 0; i < trials; i++)
+                    if (generator.nextDouble() < p)
+                        successes++;
+                return successes;
+            }
+        });
     }
 
-    public synchronized long getSeed(){
+    /**
+     * The generator for the calling thread
+     * (or the generator this was created with)
+     *
+     * @return the generator to draw from
+     */
+    public RandomGenerator getRandomGenerator() {
+        if (randomGenerator != null)
+            return randomGenerator;
+        Stream current = stream.get();
+        int generation = this.generation;
+        if (current == null || current.generation != generation) {
+            current = new Stream(generation, Xoroshiro128PlusGenerator.forStream(seed, streams.getAndIncrement()));
+            stream.set(current);
+        }
+        return current.generator;
+    }
+
+    public long getSeed(){
         return this.seed;
     }
 
+    private void fill(final DataBuffer buffer, final Sampler sampler) {
+        final int length = buffer.length();
+        //a generator handed to us may not be safe to share between threads
+        if (randomGenerator != null) {
+            write(buffer, 0, length, sampler, randomGenerator);
+            return;
+        }
+
+        final long key = getRandomGenerator().nextLong();
+        int blocks = (length + BLOCK - 1) / BLOCK;
+        Parallel.run(blocks, length, new Parallel.RangeTask() {
+            @Override
+            public void run(int from, int to) {
+                for (int block = from; block < to; block++) {
+                    int begin = block * BLOCK;
+                    write(buffer, begin, Math.min(length, begin + BLOCK), sampler, Xoroshiro128PlusGenerator.forStream(key, block));
+                }
+            }
+        });
+    }
+
+    private static void write(DataBuffer buffer, int begin, int end, Sampler sampler, RandomGenerator generator) {
+        if (buffer.allocationMode() == DataBuffer.AllocationMode.HEAP) {
+            Object array = buffer.array();
+            if (array instanceof double[]) {
+                double[] d = (double[]) array;
+                for (int i = begin; i < end; i++)
+                    d[i] = sampler.sample(generator);
+                return;
+            }
+            if (array instanceof float[]) {
+                float[] f = (float[]) array;
+                for (int i = begin; i < end; i++)
+                    f[i] = (float) sampler.sample(generator);
+                return;
+            }
+        }
+
+        for (int i = begin; i < end; i++)
+            buffer.put(i, sampler.sample(generator));
+    }
+
+    private interface Sampler {
+        double sample(RandomGenerator generator);
+    }
+
+    //a thread's generator and the seeding it was derived from
+    private static class Stream {
+        private final int generation;
+        private final RandomGenerator generator;
+
+        Stream(int generation, RandomGenerator generator) {
+            this.generation = generation;
+            this.generator = generator;
+        }
+    }
+
 }
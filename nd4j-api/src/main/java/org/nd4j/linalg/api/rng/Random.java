@@ -19,6 +19,7 @@
 
 package org.nd4j.linalg.api.rng;
 
+import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.ndarray.INDArray;
 
 /**
@@ -226,6 +227,35 @@ public interface Random {
      */
     INDArray nextInt(int n, int[] shape);
 
-}
+    /**
+     * Fill every element of a buffer with
+     * uniformly distributed numbers in [lower, upper)
+     *
+     * @param buffer the buffer to fill
+     * @param lower  the lower bound (inclusive)
+     * @param upper  the upper bound (exclusive)
+     */
+    void fillUniform(DataBuffer buffer, double lower, double upper);
+
+    /**
+     * Fill every element of a buffer with
+     * normally distributed numbers
+     *
+     * @param buffer            the buffer to fill
+     * @param mean              the mean of the distribution
+     * @param standardDeviation the standard deviation of the distribution
+     */
+    void fillGaussian(DataBuffer buffer, double mean, double standardDeviation);
 
+    /**
+     * Fill every element of a buffer with the number
+     * of successes out of the given number of trials
+     * (a mask of ones and zeros for a single trial)
+     *
+     * @param buffer the buffer to fill
+     * @param trials the number of trials
+     * @param p      the probability of success of each trial
+     */
+    void fillBinomial(DataBuffer buffer, int trials, double p);
 
+}
@@ -0,0 +1,115 @@
+/*
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ *
+ */
+
+package org.nd4j.linalg.api.rng;
+
+import org.apache.commons.math3.random.BitsStreamGenerator;
+
+/**
+ * xoroshiro128+ generator: 128 bits of state, a few shifts and
+ * xors per number and no locking. It isn't thread safe: every thread
+ * should use its own instance.
+ *
+ * Independent streams are derived from one seed with {@link #forStream(long, long)},
+ * which mixes the seed and the stream number with splitmix64
+ * to initialize the state.
+ *
+ * @author Adam Gibson
+ */
+public class Xoroshiro128PlusGenerator extends BitsStreamGenerator {
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private long s0, s1;
+
+    public Xoroshiro128PlusGenerator() {
+        this(System.currentTimeMillis());
+    }
+
+    public Xoroshiro128PlusGenerator(long seed) {
+        setSeed(seed);
+    }
+
+    /**
+     * A generator for one of the streams derived from the given seed.
+     * The same seed and stream always produce the same numbers
+     *
+     * @param seed   the seed shared by all of the streams
+     * @param stream the stream number
+     * @return the generator for the stream
+     */
+    public static Xoroshiro128PlusGenerator forStream(long seed, long stream) {
+        return new Xoroshiro128PlusGenerator(mix(seed + mix(stream + GOLDEN_GAMMA)));
+    }
+
+    @Override
+    public void setSeed(int seed) {
+        setSeed((long) seed);
+    }
+
+    @Override
+    public void setSeed(int[] seed) {
+        long combined = 0;
+        for (int i = 0; i < seed.length; i++)
+            combined = mix(combined + seed[i]);
+        setSeed(combined);
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        s0 = mix(seed + GOLDEN_GAMMA);
+        s1 = mix(seed + 2 * GOLDEN_GAMMA);
+        //the all zero state is the one state the generator can't leave
+        if (s0 == 0 && s1 == 0)
+            s1 = GOLDEN_GAMMA;
+        clear();
+    }
+
+    @Override
+    public long nextLong() {
+        long a = s0;
+        long b = s1;
+        long result = a + b;
+        b ^= a;
+        s0 = Long.rotateLeft(a, 55) ^ b ^ (b << 14);
+        s1 = Long.rotateLeft(b, 36);
+        return result;
+    }
+
+    @Override
+    protected int next(int bits) {
+        return (int) (nextLong() >>> (64 - bits));
+    }
+
+    @Override
+    public double nextDouble() {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    @Override
+    public float nextFloat() {
+        return (nextLong() >>> 40) * 0x1.0p-24f;
+    }
+
+    //splitmix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+}
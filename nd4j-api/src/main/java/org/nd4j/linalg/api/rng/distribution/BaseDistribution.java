@@ -26,6 +26,7 @@ import org.apache.commons.math3.exception.NumberIsTooLargeException;
 import org.apache.commons.math3.exception.OutOfRangeException;
 import org.apache.commons.math3.exception.util.LocalizedFormats;
 import org.apache.commons.math3.util.FastMath;
+import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.api.rng.Random;
 import org.nd4j.linalg.factory.Nd4j;
@@ -254,13 +255,20 @@ public abstract class BaseDistribution implements Distribution {
         return 0d;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * The default implementation fills the array with uniform
+     * numbers in bulk and maps them through the inverse
+     * cumulative probability (the same as {@link #sample()}).
+     */
     @Override
     public INDArray sample(int[] shape) {
         INDArray ret = Nd4j.create(shape);
-        INDArray linear = ret.linearView();
-        for (int i = 0; i < linear.length(); i++) {
-            linear.putScalar(i, sample());
-        }
+        DataBuffer data = ret.data();
+        random.fillUniform(data, 0, 1);
+        for (int i = 0; i < data.length(); i++)
+            data.put(i, inverseCumulativeProbability(data.getDouble(i)));
         return ret;
     }
 }
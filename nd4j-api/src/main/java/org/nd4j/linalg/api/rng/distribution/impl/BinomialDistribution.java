@@ -253,17 +253,15 @@ public class BinomialDistribution extends BaseDistribution {
     @Override
     public INDArray sample(int[] shape) {
         INDArray ret = Nd4j.create(shape);
-        INDArray linear = ret.linearView();
-        if (p != null)
+        if (p != null) {
+            INDArray linear = ret.linearView();
             for (int i = 0; i < linear.length(); i++) {
                 org.apache.commons.math3.distribution.BinomialDistribution binomialDistribution = new org.apache.commons.math3.distribution.BinomialDistribution((RandomGenerator) Nd4j.getRandom(), numberOfTrials, p.linearView().getDouble(i));
                 linear.putScalar(i, binomialDistribution.sample());
             }
+        }
         else
-            for (int i = 0; i < linear.length(); i++) {
-                org.apache.commons.math3.distribution.BinomialDistribution binomialDistribution = new org.apache.commons.math3.distribution.BinomialDistribution((RandomGenerator) Nd4j.getRandom(), numberOfTrials, probabilityOfSuccess);
-                linear.putScalar(i, binomialDistribution.sample());
-            }
+            random.fillBinomial(ret.data(), numberOfTrials, probabilityOfSuccess);
         return ret;
     }
 }
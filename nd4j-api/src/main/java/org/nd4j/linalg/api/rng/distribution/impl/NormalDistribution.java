@@ -331,15 +331,16 @@ public class NormalDistribution extends BaseDistribution {
     @Override
     public INDArray sample(int[] shape) {
         INDArray ret = Nd4j.create(shape);
-        INDArray linear = ret.linearView();
-        if (means != null)
+        if (means != null) {
+            random.fillGaussian(ret.data(), 0, standardDeviation);
+            INDArray linear = ret.linearView();
+            INDArray meansLinear = means.linearView();
             for (int i = 0; i < linear.length(); i++) {
-                linear.putScalar(i, standardDeviation * random.nextGaussian() + means.linearView().getDouble(i));
+                linear.putScalar(i, linear.getDouble(i) + meansLinear.getDouble(i));
             }
+        }
         else
-            for (int i = 0; i < linear.length(); i++) {
-                linear.putScalar(i, standardDeviation * random.nextGaussian() + mean);
-            }
+            random.fillGaussian(ret.data(), mean, standardDeviation);
         return ret;
     }
 }
@@ -0,0 +1,403 @@
+/*
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ *
+ */
+
+package org.nd4j.linalg.convolution;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.executioner.StridedIterator;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.util.ArrayUtil;
+
+import java.util.Arrays;
+
+/**
+ * Convolution instance that picks an algorithm
+ * by the size of the kernel and the input:
+ *
+ * small kernels are convolved directly,
+ * medium kernels are unrolled in to a matrix of patches (im2col)
+ * and multiplied with the kernel by gemm,
+ * large kernels go through the fft (see {@link DefaultConvolutionInstance}).
+ *
+ * Dimensions that are not convolved (the kernel has size 1 along them,
+ * eg: the minibatch and channels of a 4d input) are treated as a batch.
+ * Complex convolutions always use the fft.
+ *
+ * @author Adam Gibson
+ */
+public class AdaptiveConvolutionInstance extends DefaultConvolutionInstance {
+    /**
+     * Kernels with at most this many elements are convolved directly by default (5 x 5)
+     */
+    public final static int DEFAULT_DIRECT_THRESHOLD = 25;
+    /**
+     * Kernels with at most this many elements use im2col by default (15 x 15)
+     */
+    public final static int DEFAULT_IM2COL_THRESHOLD = 225;
+    //rough cost of an element of a complex fft relative to a multiply add
+    private final static int FFT_COST = 8;
+
+    private int directThreshold = DEFAULT_DIRECT_THRESHOLD;
+    private int im2colThreshold = DEFAULT_IM2COL_THRESHOLD;
+
+    /**
+     * The algorithms a convolution can be computed with
+     */
+    public enum Algorithm {
+        DIRECT, IM2COL, FFT
+    }
+
+    @Override
+    public INDArray convn(INDArray input, INDArray kernel, Convolution.Type type, int[] axes) {
+        if (kernel.isScalar() && input.isScalar())
+            return kernel.mul(input);
+
+        //the lower rank is matched by prepending ones to the shape (without a reshape)
+        int rank = Math.max(input.shape().length, kernel.shape().length);
+        int[] inputShape = prependOnes(input.shape(), rank);
+        int[] kernelShape = prependOnes(kernel.shape(), rank);
+        boolean[] convolve = convolved(rank, axes);
+        Algorithm algorithm = algorithm(inputShape, kernelShape, convolve, type);
+        if (algorithm == Algorithm.FFT)
+            return super.convn(input, kernel, type, axes);
+
+        return convolve(input, inputShape, kernel, kernelShape, type, convolve, algorithm);
+    }
+
+    /**
+     * The algorithm used to convolve an input and kernel
+     * of the given shapes (of the same rank)
+     *
+     * @param inputShape  the shape of the input
+     * @param kernelShape the shape of the kernel
+     * @param axes        the axes to convolve along
+     * @param type        the type of convolution
+     * @return the algorithm to use
+     */
+    public Algorithm algorithm(int[] inputShape, int[] kernelShape, int[] axes, Convolution.Type type) {
+        return algorithm(inputShape, kernelShape, convolved(inputShape.length, axes), type);
+    }
+
+    private Algorithm algorithm(int[] inputShape, int[] kernelShape, boolean[] convolve, Convolution.Type type) {
+        long kernelLength = 1;
+        long outLength = 1;
+        long fullLength = 1;
+        for (int i = 0; i < inputShape.length; i++) {
+            if (!convolve[i]) {
+                //the fft convolves every dimension the kernel spans
+                if (kernelShape[i] != 1)
+                    return Algorithm.FFT;
+                outLength *= inputShape[i];
+                fullLength *= inputShape[i];
+            }
+            else {
+                kernelLength *= kernelShape[i];
+                outLength *= outLength(inputShape[i], kernelShape[i], type);
+                fullLength *= inputShape[i] + kernelShape[i] - 1;
+            }
+        }
+
+        if (kernelLength <= directThreshold)
+            return Algorithm.DIRECT;
+        double fftCost = FFT_COST * fullLength * Math.max(1, Math.log(fullLength) / Math.log(2));
+        if (kernelLength <= im2colThreshold || outLength * kernelLength <= fftCost)
+            return Algorithm.IM2COL;
+        return Algorithm.FFT;
+    }
+
+    /**
+     * Kernels with at most this many elements are convolved directly
+     * @return the max length of a kernel to convolve directly
+     */
+    public int getDirectThreshold() {
+        return directThreshold;
+    }
+
+    public void setDirectThreshold(int directThreshold) {
+        this.directThreshold = directThreshold;
+    }
+
+    /**
+     * Kernels with at most this many elements
+     * (and more than {@link #getDirectThreshold()}) use im2col.
+     * Larger kernels use im2col only when it is
+     * estimated to be cheaper than the fft.
+     * @return the max length of a kernel to always use im2col for
+     */
+    public int getIm2colThreshold() {
+        return im2colThreshold;
+    }
+
+    public void setIm2colThreshold(int im2colThreshold) {
+        this.im2colThreshold = im2colThreshold;
+    }
+
+    private INDArray convolve(INDArray input, int[] inputShape, INDArray kernel, int[] kernelShape,
+                              Convolution.Type type, boolean[] convolve, Algorithm algorithm) {
+        int rank = inputShape.length;
+        int dims = 0;
+        for (boolean c : convolve)
+            if (c)
+                dims++;
+
+        //batch dimensions first, then the convolved dimensions
+        int[] order = new int[rank];
+        int batchDims = 0;
+        int count = rank - dims;
+        for (int i = 0; i < rank; i++) {
+            if (convolve[i])
+                order[count++] = i;
+            else
+                order[batchDims++] = i;
+        }
+
+        int[] n = new int[dims];
+        int[] k = new int[dims];
+        int[] len = new int[dims];
+        int[] start = new int[dims];
+        int[] outShape = inputShape.clone();
+        for (int i = 0; i < dims; i++) {
+            int dim = order[batchDims + i];
+            n[i] = inputShape[dim];
+            k[i] = kernelShape[dim];
+            len[i] = outLength(n[i], k[i], type);
+            //the window of the full convolution that is kept, as centered by the fft
+            start[i] = (n[i] + k[i] - 1 - len[i]) / 2;
+            outShape[dim] = len[i];
+        }
+
+        double[] in = read(input, order);
+        double[] ker = read(kernel, order);
+        INDArray ret = Nd4j.create(outShape);
+        int inLength = ArrayUtil.prod(n);
+        int outLength = ArrayUtil.prod(len);
+        int batches = in.length / inLength;
+        double[] out = new double[batches * outLength];
+        if (algorithm == Algorithm.DIRECT)
+            direct(in, n, ker, k, out, len, start, batches);
+        else
+            im2col(in, n, ker, k, out, len, start, batches);
+
+        write(out, ret, order);
+        return ret;
+    }
+
+    //out[o] = sum over j of kernel[j] * in[o + start - j] for every batch
+    private static void direct(double[] in, int[] n, double[] kernel, int[] k, double[] out, int[] len, int[] start, int batches) {
+        Patches patches = new Patches(n, k, len, start);
+        int inLength = ArrayUtil.prod(n);
+        int outLength = out.length / batches;
+        for (int b = 0; b < batches; b++) {
+            int inOffset = b * inLength;
+            patches.reset();
+            for (int o = 0; o < outLength; o++) {
+                double sum = 0;
+                if (patches.interior()) {
+                    int base = inOffset + patches.base();
+                    for (int p = 0; p < kernel.length; p++)
+                        sum += kernel[p] * in[base - patches.offsets[p]];
+                }
+                else {
+                    for (int p = 0; p < kernel.length; p++) {
+                        int idx = patches.index(p);
+                        if (idx >= 0)
+                            sum += kernel[p] * in[inOffset + idx];
+                    }
+                }
+
+                out[b * outLength + o] = sum;
+                patches.next();
+            }
+        }
+    }
+
+    //unrolls the patches of every output in to the rows of a matrix and multiplies it with the kernel
+    private static void im2col(double[] in, int[] n, double[] kernel, int[] k, double[] out, int[] len, int[] start, int batches) {
+        Patches patches = new Patches(n, k, len, start);
+        int inLength = ArrayUtil.prod(n);
+        int outLength = out.length / batches;
+        INDArray cols = Nd4j.create(outLength, kernel.length, 'f');
+        INDArray kernelColumn = Nd4j.create(kernel.length, 1, 'f');
+        for (int p = 0; p < kernel.length; p++)
+            kernelColumn.data().put(p, kernel[p]);
+        INDArray result = Nd4j.create(outLength, 1, 'f');
+        for (int b = 0; b < batches; b++) {
+            int inOffset = b * inLength;
+            patches.reset();
+            for (int o = 0; o < outLength; o++) {
+                for (int p = 0; p < kernel.length; p++) {
+                    int idx = patches.index(p);
+                    cols.data().put(o + p * outLength, idx >= 0 ? in[inOffset + idx] : 0.0);
+                }
+                patches.next();
+            }
+
+            Nd4j.getBlasWrapper().level3().gemm('N', 'N', 'N', 1.0, cols, kernelColumn, 0.0, result);
+            for (int o = 0; o < outLength; o++)
+                out[b * outLength + o] = result.getDouble(o);
+        }
+    }
+
+    /**
+     * Walks the outputs of a convolution in row major order,
+     * tracking where the kernel lies over the input
+     */
+    private static class Patches {
+        private int[] n, k, len, start;
+        private int[] inStride;
+        //the position of the current output, in full convolution coordinates
+        private int[] pos;
+        //the kernel index of each kernel element and its input offset relative to the output
+        private int[][] kernelIndex;
+        private int[] offsets;
+
+        Patches(int[] n, int[] k, int[] len, int[] start) {
+            this.n = n;
+            this.k = k;
+            this.len = len;
+            this.start = start;
+            int dims = n.length;
+            inStride = new int[dims];
+            int stride = 1;
+            for (int i = dims - 1; i >= 0; i--) {
+                inStride[i] = stride;
+                stride *= n[i];
+            }
+
+            int kernelLength = ArrayUtil.prod(k);
+            kernelIndex = new int[kernelLength][dims];
+            offsets = new int[kernelLength];
+            int[] j = new int[dims];
+            for (int p = 0; p < kernelLength; p++) {
+                for (int i = 0; i < dims; i++) {
+                    kernelIndex[p][i] = j[i];
+                    offsets[p] += j[i] * inStride[i];
+                }
+                for (int i = dims - 1; i >= 0; i--) {
+                    if (++j[i] < k[i])
+                        break;
+                    j[i] = 0;
+                }
+            }
+
+            pos = new int[dims];
+            reset();
+        }
+
+        void reset() {
+            System.arraycopy(start, 0, pos, 0, pos.length);
+        }
+
+        void next() {
+            for (int i = pos.length - 1; i >= 0; i--) {
+                if (++pos[i] < start[i] + len[i])
+                    break;
+                pos[i] = start[i];
+            }
+        }
+
+        //whether the whole kernel lies inside the input
+        boolean interior() {
+            for (int i = 0; i < pos.length; i++)
+                if (pos[i] < k[i] - 1 || pos[i] >= n[i])
+                    return false;
+            return true;
+        }
+
+        //the input offset of the current output position
+        int base() {
+            int ret = 0;
+            for (int i = 0; i < pos.length; i++)
+                ret += pos[i] * inStride[i];
+            return ret;
+        }
+
+        //the input offset under the given kernel element, -1 if it is outside of the input
+        int index(int p) {
+            int ret = 0;
+            for (int i = 0; i < pos.length; i++) {
+                int idx = pos[i] - kernelIndex[p][i];
+                if (idx < 0 || idx >= n[i])
+                    return -1;
+                ret += idx * inStride[i];
+            }
+            return ret;
+        }
+    }
+
+    //the elements of the array in row major order of its dimensions permuted by the given order
+    private static double[] read(INDArray arr, int[] order) {
+        StridedIterator iter = permuted(arr, order);
+        double[] ret = new double[arr.length()];
+        for (int i = 0; i < ret.length; i++)
+            ret[i] = arr.data().getDouble(iter.next());
+        return ret;
+    }
+
+    private static void write(double[] data, INDArray arr, int[] order) {
+        StridedIterator iter = permuted(arr, order);
+        for (int i = 0; i < data.length; i++)
+            arr.data().put(iter.next(), data[i]);
+    }
+
+    private static StridedIterator permuted(INDArray arr, int[] order) {
+        int[] arrShape = prependOnes(arr.shape(), order.length);
+        int[] arrStride = prependOnes(arr.stride(), order.length).clone();
+        //the strides of vector views aren't per dimension: step through them by their major stride
+        if (arr.isVector())
+            for (int i = 0; i < arrShape.length; i++)
+                if (arrShape[i] > 1)
+                    arrStride[i] = arr.majorStride();
+        int[] shape = new int[order.length];
+        int[] stride = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            shape[i] = arrShape[order[i]];
+            stride[i] = arrStride[order[i]];
+        }
+        return new StridedIterator(shape, stride, arr.offset());
+    }
+
+    private static int[] prependOnes(int[] shape, int rank) {
+        if (shape.length == rank)
+            return shape;
+        int[] ret = new int[rank];
+        Arrays.fill(ret, 1);
+        System.arraycopy(shape, 0, ret, rank - shape.length, shape.length);
+        return ret;
+    }
+
+    private static boolean[] convolved(int rank, int[] axes) {
+        boolean[] ret = new boolean[rank];
+        for (int axis : axes)
+            ret[axis < 0 ? axis + rank : axis] = true;
+        return ret;
+    }
+
+    private static int outLength(int n, int k, Convolution.Type type) {
+        switch (type) {
+            case SAME:
+                return n;
+            case VALID:
+                return Math.abs(n - k) + 1;
+            default:
+                return n + k - 1;
+        }
+    }
+
+}
@@ -37,6 +37,7 @@ import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.api.rng.distribution.Distribution;
 import org.nd4j.linalg.indexing.NDArrayIndex;
 import org.nd4j.linalg.util.ArrayUtil;
+import org.nd4j.linalg.util.ConcatKernels;
 
 /**
  * Base NDArrayFactory class.
@@ -970,52 +971,16 @@ public abstract class BaseNDArrayFactory implements NDArrayFactory {
             return ret;
         }
 
-        else if (toConcat[0].isVector()) {
-            if (toConcat[0].isRowVector()) {
-                if (dimension == 1 || dimension == 0) {
-                    int length = 0;
-                    for(INDArray toConcat2 : toConcat)
-                        length += toConcat2.length();
-
-                    INDArray ret = Nd4j.create(1,length);
-                    int count = 0;
-                    for (INDArray arr : toConcat) {
-                        for (int i = 0; i < arr.length(); i++) {
-                            ret.putScalar(count++, arr.getDouble(i));
-                        }
-                    }
-
-                    return ret;
-
-                } else
-                    throw new IllegalArgumentException("Illegal dimension " + dimension);
-
-            } else if (toConcat[0].isColumnVector()) {
-                if (dimension == 1) {
-                    INDArray ret = Nd4j.create(toConcat[0].rows(), toConcat.length);
-                    int count = 0;
-                    for (INDArray arr : toConcat) {
-                        ret.putColumn(count++, arr);
-                    }
-                    return ret;
-                } else if (dimension == 0) {
-                    int length = 0;
-                    for(INDArray toConcat2 : toConcat)
-                        length += toConcat2.length();
-
-                    INDArray ret = Nd4j.create(length, 1);
-                    int count = 0;
-                    for (INDArray arr : toConcat) {
-                        for (int i = 0; i < arr.length(); i++) {
-                            ret.putScalar(count++, arr.getDouble(i));
-                        }
-                    }
-                    return ret;
-
-                }
+        else if (toConcat[0].isRowVector()) {
+            if (dimension == 1 || dimension == 0) {
+                int length = 0;
+                for(INDArray toConcat2 : toConcat)
+                    length += toConcat2.length();
 
+                return ConcatKernels.concatVectors(Nd4j.create(1, length), toConcat);
 
-            }
+            } else
+                throw new IllegalArgumentException("Illegal dimension " + dimension);
         }
 
         int sumAlongDim = 0;
@@ -1025,34 +990,8 @@ public abstract class BaseNDArrayFactory implements NDArrayFactory {
 
         outputShape[dimension] = sumAlongDim;
 
-        //the output ndarray
-        INDArray ret = Nd4j.create(outputShape);
-        int vectorOffset = 0;
-        int arrVecLength = 0;
-        boolean notIncremented = true;
-        int retVectorsAlongDimension = ret.vectorsAlongDimension(dimension);
-        for(INDArray arr : toConcat) {
-            int arrVectorsAlongDimension = arr.vectorsAlongDimension(dimension);
-            if(arrVectorsAlongDimension != retVectorsAlongDimension)
-                throw new IllegalStateException("Vectors along dimension must be same");
-            for(int i = 0; i < arr.vectorsAlongDimension(dimension); i++) {
-                INDArray retVec = ret.vectorAlongDimension(i,dimension);
-                INDArray arrVec = arr.vectorAlongDimension(i,dimension);
-                if(notIncremented) {
-                    arrVecLength += arrVec.length();
-                    notIncremented = false;
-                }
-                for(int j = 0; j < arrVec.length(); j++)
-                    retVec.putScalar(j + vectorOffset,arrVec.getDouble(j));
-            }
-
-            vectorOffset += arrVecLength;
-            notIncremented = true;
-
-        }
-
-
-        return ret;
+        //each input is block copied in to its region of the output
+        return ConcatKernels.concat(Nd4j.create(outputShape), dimension, toConcat);
 
     }
 
@@ -1079,17 +1018,7 @@ public abstract class BaseNDArrayFactory implements NDArrayFactory {
 
 
         IComplexNDArray ret = Nd4j.createComplex(outputShape);
-        IComplexNDArray linear = ret.linearView();
-        int count = 0;
-        for (int i = 0; i < toConcat.length; i++) {
-            IComplexNDArray flattened = toConcat[i].linearView();
-
-            for (int j = 0; j < flattened.length(); j++) {
-                linear.putScalar(count++, flattened.getComplex(j));
-            }
-        }
-
-
+        ConcatKernels.concat(ret, dimension, toConcat);
         return ret;
 
     }
@@ -1158,19 +1087,7 @@ public abstract class BaseNDArrayFactory implements NDArrayFactory {
         }
 
 
-        final INDArray ret = Nd4j.create(rows, cols);
-
-
-        int count = 0;
-        for (INDArray arr : arrs) {
-            for(int j = 0; j < arr.rows(); j++) {
-                ret.putRow(count++, arr.getRow(j));
-            }
-
-        }
-
-
-        return ret;
+        return ConcatKernels.concat(Nd4j.create(rows, cols), 0, arrs);
     }
 
 
@@ -25,6 +25,7 @@ import com.google.common.primitives.Ints;
 import io.netty.buffer.ByteBuf;
 import org.apache.commons.io.IOUtils;
 import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.buffer.allocation.Workspace;
 import org.nd4j.linalg.api.buffer.factory.DataBufferFactory;
 import org.nd4j.linalg.api.buffer.factory.DefaultDataBufferFactory;
 import org.nd4j.linalg.api.complex.IComplexDouble;
@@ -33,17 +34,19 @@ import org.nd4j.linalg.api.complex.IComplexNDArray;
 import org.nd4j.linalg.api.complex.IComplexNumber;
 import org.nd4j.linalg.api.instrumentation.InMemoryInstrumentation;
 import org.nd4j.linalg.api.instrumentation.Instrumentation;
+import org.nd4j.linalg.api.io.BinaryNDArrayFormat;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.api.ops.executioner.DefaultOpExecutioner;
 import org.nd4j.linalg.api.ops.executioner.OpExecutioner;
 import org.nd4j.linalg.api.ops.factory.DefaultOpFactory;
 import org.nd4j.linalg.api.ops.factory.OpFactory;
+import org.nd4j.linalg.api.ops.lazy.Expression;
 import org.nd4j.linalg.api.rng.DefaultRandom;
 import org.nd4j.linalg.api.rng.distribution.Distribution;
 import org.nd4j.linalg.api.rng.distribution.factory.DefaultDistributionFactory;
 import org.nd4j.linalg.api.rng.distribution.factory.DistributionFactory;
+import org.nd4j.linalg.convolution.AdaptiveConvolutionInstance;
 import org.nd4j.linalg.convolution.ConvolutionInstance;
-import org.nd4j.linalg.convolution.DefaultConvolutionInstance;
 import org.nd4j.linalg.factory.Nd4jBackend.NoAvailableBackendException;
 import org.nd4j.linalg.fft.DefaultFFTInstance;
 import org.nd4j.linalg.fft.FFTInstance;
@@ -51,12 +54,16 @@ import org.nd4j.linalg.indexing.BooleanIndexing;
 import org.nd4j.linalg.indexing.conditions.Conditions;
 import org.nd4j.linalg.indexing.functions.Value;
 import org.nd4j.linalg.util.ArrayUtil;
+import org.nd4j.linalg.util.GatherKernels;
+import org.nd4j.linalg.util.SortKernels;
 import org.nd4j.linalg.util.Shape;
 import org.springframework.core.io.Resource;
 
 import java.io.*;
 import java.lang.ref.ReferenceQueue;
 import java.lang.reflect.Constructor;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
 import java.util.*;
 
 /**
@@ -84,6 +91,9 @@ public class Nd4j {
     public final static String RESOURCE_MANGER_ON = "resourcemanager_state";
     public final static String ALLOC = "alloc";
     public final static String EXECUTION_MODE = "opexec.mode";
+    public final static String PARALLEL_THRESHOLD = "opexec.parallel.threshold";
+    public final static String PARALLEL_CHUNK_SIZE = "opexec.parallel.chunksize";
+    public final static String PARALLEL_THREADS = "opexec.parallel.threads";
     //execution mode for element wise operations
     public static OpExecutioner.ExecutionMode executionMode = OpExecutioner.ExecutionMode.JAVA;
 
@@ -614,6 +624,53 @@ public class Nd4j {
     }
 
 
+    /**
+     * Matrix multiply a batch of matrices: c[i] = a[i] * b[i].
+     * Validation and blas parameters are worked out once for
+     * the whole batch when the matrices share their layout
+     * and the batch is spread over the available cores.
+     *
+     * @param a the left matrices
+     * @param b the right matrices
+     * @param c the results
+     * @return the results
+     */
+    public static INDArray[] gemmBatched(INDArray[] a,INDArray[] b,INDArray[] c) {
+        getBlasWrapper().level3().gemmBatched('N','N','N',1.0,a,b,0.0,c);
+        return c;
+    }
+
+    /**
+     * Matrix multiply a batch of matrices: c[i] = a[i] * b[i]
+     * allocating the results
+     *
+     * @param a the left matrices
+     * @param b the right matrices
+     * @return the results
+     */
+    public static INDArray[] gemmBatched(INDArray[] a,INDArray[] b) {
+        INDArray[] c = new INDArray[a.length];
+        for(int i = 0; i < c.length; i++)
+            c[i] = create(new int[]{a[i].rows(),b[i].columns()},a[i].ordering());
+        return gemmBatched(a,b,c);
+    }
+
+    /**
+     * Matrix multiply the slices of rank 3 tensors:
+     * c[i,:,:] = a[i,:,:] * b[i,:,:]. Either a or b may be a matrix
+     * which is then used for every slice.
+     *
+     * @param a a batch x m x k tensor (or an m x k matrix)
+     * @param b a batch x k x n tensor (or a k x n matrix)
+     * @param c a batch x m x n tensor
+     * @return c
+     */
+    public static INDArray gemmBatched(INDArray a,INDArray b,INDArray c) {
+        getBlasWrapper().level3().gemmBatched('N','N','N',1.0,a,b,0.0,c);
+        return c;
+    }
+
+
     /**
      * Given a sequence of Iterators over a transform of matrices, fill in all of
      * the matrices with the entries in the theta vector.  Errors are
@@ -859,6 +916,50 @@ public class Nd4j {
         return createBuffer(length);
     }
 
+    /**
+     * Start a lazily evaluated expression on the given array.
+     * Element wise ops applied to the expression are recorded
+     * and fused in to a single pass over the data
+     * when it is materialized (see {@link Expression})
+     *
+     * @param arr the array to start from
+     * @return the expression
+     */
+    public static Expression lazy(INDArray arr) {
+        return new Expression(arr);
+    }
+
+    /**
+     * Enter a new workspace on the calling thread.
+     * Every buffer created on this thread until the workspace
+     * is closed is destroyed when it is closed
+     * (see {@link Workspace})
+     *
+     * @return the entered workspace
+     */
+    public static Workspace workspace() {
+        return new Workspace().enter();
+    }
+
+    /**
+     * Enter the calling thread's workspace with the given name.
+     * The workspace (and the memory it pooled) is reused every time
+     * the name is entered, eg: once per iteration of a training loop
+     * (see {@link Workspace})
+     *
+     * @param name the name of the workspace
+     * @return the entered workspace
+     */
+    public static Workspace workspace(String name) {
+        return Workspace.getNamed(name).enter();
+    }
+
+    //buffers created inside a workspace are allocated from (and destroyed with) it
+    private static DataBufferFactory bufferFactory() {
+        Workspace workspace = Workspace.getCurrent();
+        return workspace != null ? workspace : DATA_BUFFER_FACTORY_INSTANCE;
+    }
+
     /**
      * Creates a buffer of the specified length based on the data type
      *
@@ -868,9 +969,9 @@ public class Nd4j {
     public static DataBuffer createBuffer(int length) {
         DataBuffer ret;
         if (dataType() == DataBuffer.Type.FLOAT)
-            ret = DATA_BUFFER_FACTORY_INSTANCE.createFloat(length);
+            ret = bufferFactory().createFloat(length);
         else
-            ret = DATA_BUFFER_FACTORY_INSTANCE.createDouble(length);
+            ret = bufferFactory().createDouble(length);
         logCreationIfNecessary(ret);
         return ret;
     }
@@ -884,9 +985,9 @@ public class Nd4j {
     public static DataBuffer createBuffer(float[] data) {
         DataBuffer ret;
         if (dataType() == DataBuffer.Type.FLOAT)
-            ret = DATA_BUFFER_FACTORY_INSTANCE.createFloat(data);
+            ret = bufferFactory().createFloat(data);
         else
-            ret = DATA_BUFFER_FACTORY_INSTANCE.createDouble(ArrayUtil.toDoubles(data));
+            ret = bufferFactory().createDouble(ArrayUtil.toDoubles(data));
         logCreationIfNecessary(ret);
         return ret;
     }
@@ -900,9 +1001,9 @@ public class Nd4j {
     public static DataBuffer createBuffer(double[] data) {
         DataBuffer ret;
         if (dataType() == DataBuffer.Type.DOUBLE)
-            ret = DATA_BUFFER_FACTORY_INSTANCE.createDouble(data);
+            ret = bufferFactory().createDouble(data);
         else
-            ret = DATA_BUFFER_FACTORY_INSTANCE.createFloat(ArrayUtil.toFloats(data));
+            ret = bufferFactory().createFloat(ArrayUtil.toFloats(data));
         logCreationIfNecessary(ret);
         return ret;
     }
@@ -962,68 +1063,15 @@ public class Nd4j {
 
     /**
      * Sort an ndarray along a particular dimension
+     * (by the absolute value of each element)
      *
      * @param ndarray   the ndarray to sort
      * @param dimension the dimension to sort
      * @return an array with indices and the sorted ndarray
      */
     public static INDArray[] sortWithIndices(IComplexNDArray ndarray, int dimension, boolean ascending) {
-        INDArray indices = Nd4j.create(ndarray.shape());
-        INDArray[] ret = new INDArray[2];
-
-        for (int i = 0; i < ndarray.vectorsAlongDimension(dimension); i++) {
-            IComplexNDArray vec = ndarray.vectorAlongDimension(i, dimension);
-            INDArray indexVector = indices.vectorAlongDimension(i, dimension);
-
-            final IComplexNumber[] data = new IComplexNumber[vec.length()];
-            final Double[] index = new Double[vec.length()];
-
-            for (int j = 0; j < vec.length(); j++) {
-                data[j] = vec.getComplex(j);
-                index[j] = (double) j;
-
-            }
-
-
-            if (ascending)
-                Arrays.sort(index, new Comparator<Double>() {
-                    @Override
-                    public int compare(Double o1, Double o2) {
-                        int idx1 = (int) o1.doubleValue();
-                        int idx2 = (int) o2.doubleValue();
-
-                        return Double.compare(
-                                data[idx1].absoluteValue().doubleValue(),
-                                data[idx2].absoluteValue().doubleValue());
-                    }
-                });
-
-            else
-                Arrays.sort(index, new Comparator<Double>() {
-                    @Override
-                    public int compare(Double o1, Double o2) {
-                        int idx1 = (int) o1.doubleValue();
-                        int idx2 = (int) o2.doubleValue();
-
-                        return -Double.compare(
-                                data[idx1].absoluteValue().doubleValue(),
-                                data[idx2].absoluteValue().doubleValue());
-                    }
-                });
-
-
-            for (int j = 0; j < vec.length(); j++) {
-                vec.putScalar(j, data[(int) index[j].doubleValue()]);
-                indexVector.putScalar(j, index[j]);
-            }
-
-
-        }
-
-        ret[0] = indices;
-        ret[1] = ndarray;
-
-        return ret;
+        INDArray indices = SortKernels.sortWithIndices(ndarray, Nd4j.create(ndarray.shape()), dimension, ascending);
+        return new INDArray[]{indices, ndarray};
     }
 
     /**
@@ -1034,99 +1082,20 @@ public class Nd4j {
      * @return the indices and the sorted ndarray
      */
     public static INDArray[] sortWithIndices(INDArray ndarray, int dimension, boolean ascending) {
-        INDArray indices = Nd4j.create(ndarray.shape());
-        INDArray[] ret = new INDArray[2];
-
-        for (int i = 0; i < ndarray.vectorsAlongDimension(dimension); i++) {
-            INDArray vec = ndarray.vectorAlongDimension(i, dimension);
-            INDArray indexVector = indices.vectorAlongDimension(i, dimension);
-            final Double[] data = new Double[vec.length()];
-            final Double[] index = new Double[vec.length()];
-
-            for (int j = 0; j < vec.length(); j++) {
-                data[j] = vec.getDouble(j);
-                index[j] = (double) j;
-            }
-
-            /**
-             * Inject a comparator that sorts indices relative to
-             * the actual values in the data.
-             * This allows us to retain the indices
-             * and how they were rearranged.
-             */
-
-            Arrays.sort(index, new Comparator<Double>() {
-                @Override
-                public int compare(Double o1, Double o2) {
-                    int o = (int) o1.doubleValue();
-                    int oo2 = (int) o2.doubleValue();
-                    return Double.compare(data[o], data[oo2]);
-                }
-            });
-
-            if (ascending)
-                for (int j = 0; j < vec.length(); j++) {
-                    vec.putScalar(j, data[(int) index[j].doubleValue()]);
-                    indexVector.putScalar(j, index[j]);
-                }
-            else {
-                int count = data.length - 1;
-                for (int j = 0; j < vec.length(); j++) {
-                    int currCount2 = count;
-                    count--;
-                    vec.putScalar(j, data[(int) index[currCount2].doubleValue()]);
-                    indexVector.putScalar(j, index[currCount2]);
-                }
-            }
-
-        }
-
-        ret[0] = indices;
-        ret[1] = ndarray;
-
-        return ret;
+        INDArray indices = SortKernels.sortWithIndices(ndarray, Nd4j.create(ndarray.shape()), dimension, ascending);
+        return new INDArray[]{indices, ndarray};
     }
 
     /**
      * Sort an ndarray along a particular dimension
+     * (by the absolute value of each element)
      *
      * @param ndarray   the ndarray to sort
      * @param dimension the dimension to sort
      * @return the sorted ndarray
      */
     public static IComplexNDArray sort(IComplexNDArray ndarray, int dimension, boolean ascending) {
-        for (int i = 0; i < ndarray.vectorsAlongDimension(dimension); i++) {
-            IComplexNDArray vec = ndarray.vectorAlongDimension(i, dimension);
-            IComplexNumber[] data = new IComplexNumber[vec.length()];
-            for (int j = 0; j < vec.length(); j++) {
-                data[j] = vec.getComplex(j);
-            }
-            if (ascending)
-                Arrays.sort(data, new Comparator<IComplexNumber>() {
-                    @Override
-                    public int compare(IComplexNumber o1, IComplexNumber o2) {
-                        return Double.compare(
-                                o1.asDouble().absoluteValue().doubleValue(),
-                                o2.asDouble().absoluteValue().doubleValue());
-                    }
-                });
-
-            else
-                Arrays.sort(data, new Comparator<IComplexNumber>() {
-                    @Override
-                    public int compare(IComplexNumber o1, IComplexNumber o2) {
-                        return -Double.compare(
-                                o1.asDouble().absoluteValue().doubleValue(),
-                                o2.asDouble().absoluteValue().doubleValue());
-                    }
-                });
-
-            for (int j = 0; j < vec.length(); j++)
-                vec.putScalar(j, data[j]);
-
-
-        }
-
+        SortKernels.sort(ndarray, dimension, ascending);
         return ndarray;
     }
 
@@ -1138,28 +1107,89 @@ public class Nd4j {
      * @return the sorted ndarray
      */
     public static INDArray sort(INDArray ndarray, int dimension, boolean ascending) {
-        for (int i = 0; i < ndarray.vectorsAlongDimension(dimension); i++) {
-            INDArray vec = ndarray.vectorAlongDimension(i, dimension);
-            double[] data = new double[vec.length()];
-            for (int j = 0; j < vec.length(); j++) {
-                data[j] = vec.getDouble(j);
-            }
+        return SortKernels.sort(ndarray, dimension, ascending);
+    }
 
-            Arrays.sort(data);
+    /**
+     * The indices that would sort an ndarray along a particular dimension.
+     * The ndarray isn't modified
+     *
+     * @param ndarray   the ndarray to arg sort
+     * @param dimension the dimension to sort
+     * @param ascending whether to sort in ascending order
+     * @return the index of each sorted element along the dimension
+     */
+    public static INDArray argsort(INDArray ndarray, int dimension, boolean ascending) {
+        return SortKernels.argsort(ndarray, dimension, ascending);
+    }
 
-            if (ascending)
-                for (int j = 0; j < vec.length(); j++)
-                    vec.putScalar(j, data[j]);
-            else {
-                int count = data.length - 1;
-                for (int j = 0; j < vec.length(); j++) {
-                    vec.putScalar(j, data[count--]);
-                }
-            }
+    /**
+     * The k largest elements of an ndarray along a particular dimension.
+     * The ndarray isn't modified
+     *
+     * @param ndarray   the ndarray to select from
+     * @param k         the number of elements to select
+     * @param dimension the dimension to select along
+     * @return the indices and the values of the k largest elements, largest first
+     */
+    public static INDArray[] topK(INDArray ndarray, int k, int dimension) {
+        return topK(ndarray, k, dimension, true);
+    }
 
-        }
+    /**
+     * The k largest or smallest elements of an ndarray along a particular dimension.
+     * The ndarray isn't modified
+     *
+     * @param ndarray   the ndarray to select from
+     * @param k         the number of elements to select
+     * @param dimension the dimension to select along
+     * @param largest   whether to select the largest or the smallest elements
+     * @return the indices and the values of the selected elements,
+     * from the largest (or smallest) on
+     */
+    public static INDArray[] topK(INDArray ndarray, int k, int dimension, boolean largest) {
+        return SortKernels.topK(ndarray, k, dimension, largest);
+    }
 
-        return ndarray;
+    /**
+     * Gather the slices of an ndarray along a dimension at the given indices
+     * (an embedding lookup when gathering rows)
+     *
+     * @param src       the ndarray to gather from
+     * @param dimension the dimension the indices refer to
+     * @param indices   the slices to take (may repeat)
+     * @return a new ndarray whose slice i is a copy of slice indices[i] of src
+     */
+    public static INDArray gather(INDArray src, int dimension, int[] indices) {
+        return GatherKernels.gather(src, dimension, indices);
+    }
+
+    /**
+     * Add the slices of updates in to the slices of target at the given indices
+     * (target slice indices[i] += updates slice i). Repeated indices accumulate
+     *
+     * @param target    the ndarray to update in place
+     * @param dimension the dimension the indices refer to
+     * @param indices   the slices of target to update
+     * @param updates   the updates, one slice per index
+     * @return the target ndarray
+     */
+    public static INDArray scatterAdd(INDArray target, int dimension, int[] indices, INDArray updates) {
+        return GatherKernels.scatterAdd(target, dimension, indices, updates);
+    }
+
+    /**
+     * Overwrite the slices of target at the given indices with the slices of updates
+     * (target slice indices[i] = updates slice i). For repeated indices the last update wins
+     *
+     * @param target    the ndarray to update in place
+     * @param dimension the dimension the indices refer to
+     * @param indices   the slices of target to overwrite
+     * @param updates   the updates, one slice per index
+     * @return the target ndarray
+     */
+    public static INDArray scatterUpdate(INDArray target, int dimension, int[] indices, INDArray updates) {
+        return GatherKernels.scatterUpdate(target, dimension, indices, updates);
     }
 
     /**
@@ -1579,6 +1609,9 @@ public class Nd4j {
      * @throws IOException
      */
     public static void write(INDArray arr, DataOutputStream dataOutputStream) throws IOException {
+        //the buffer is written as is, so views need to be written densely
+        if(arr.offset() != 0 || arr.data().length() != arr.length())
+            arr = arr.dup();
         dataOutputStream.writeInt(arr.shape().length);
         for (int i = 0; i < arr.shape().length; i++)
             dataOutputStream.writeInt(arr.size(i));
@@ -1591,6 +1624,45 @@ public class Nd4j {
 
     }
 
+    /**
+     * Write an ndarray to a file in the binary format
+     * that can be memory mapped with {@link #mmap(Path)}
+     * (see {@link BinaryNDArrayFormat})
+     *
+     * @param arr  the array to write
+     * @param path the file to write to
+     * @throws IOException
+     */
+    public static void writeBinary(INDArray arr, Path path) throws IOException {
+        BinaryNDArrayFormat.write(arr, path);
+    }
+
+    /**
+     * Memory map an ndarray written with {@link #writeBinary(INDArray, Path)}.
+     * The array is read only: nothing is read until it is accessed
+     * and the pages are shared with every other process mapping the file
+     *
+     * @param path the file to map
+     * @return the mapped ndarray
+     * @throws IOException
+     */
+    public static INDArray mmap(Path path) throws IOException {
+        return mmap(path, false);
+    }
+
+    /**
+     * Memory map an ndarray written with {@link #writeBinary(INDArray, Path)}
+     *
+     * @param path        the file to map
+     * @param copyOnWrite whether the array can be written to:
+     *                    writes are private to the array and never reach the file
+     * @return the mapped ndarray
+     * @throws IOException
+     */
+    public static INDArray mmap(Path path, boolean copyOnWrite) throws IOException {
+        return BinaryNDArrayFormat.mmap(path, copyOnWrite ? FileChannel.MapMode.PRIVATE : FileChannel.MapMode.READ_ONLY);
+    }
+
     /**
      * Clear nans from an ndarray
      *
@@ -1623,12 +1695,14 @@ public class Nd4j {
         if (!type.equals("complex"))
             throw new IllegalArgumentException("Trying to read in a real ndarray");
 
+        //real and imaginary components are interleaved
+        int length = ArrayUtil.prod(shape) * 2;
         if (dataType.equals("double")) {
-            double[] data = ArrayUtil.readDouble(ArrayUtil.prod(shape), dis);
+            double[] data = ArrayUtil.readDouble(length, dis);
             return createComplex(data, shape, stride, 0);
         }
 
-        double[] data = ArrayUtil.read(ArrayUtil.prod(shape), dis);
+        float[] data = ArrayUtil.readFloat(length, dis);
         return createComplex(data, shape, stride, 0);
     }
 
@@ -1640,6 +1714,8 @@ public class Nd4j {
      * @throws IOException
      */
     public static void writeComplex(IComplexNDArray arr, DataOutputStream dataOutputStream) throws IOException {
+        if(arr.offset() != 0 || arr.data().length() != arr.length() * 2)
+            arr = arr.dup();
         dataOutputStream.writeInt(arr.shape().length);
         for (int i = 0; i < arr.shape().length; i++)
             dataOutputStream.writeInt(arr.size(i));
@@ -4232,12 +4308,18 @@ public class Nd4j {
             copyOnOps = Boolean.parseBoolean(props.getProperty(COPY_OPS, "true"));
             shouldInstrument = Boolean.parseBoolean(props.getProperty(INSTRUMENTATION, "false"));
             resourceManagerOn = Boolean.parseBoolean(props.getProperty(RESOURCE_MANGER_ON,"false"));
-            executionMode = props.getProperty(EXECUTION_MODE,"java").equals("java" ) ? OpExecutioner.ExecutionMode.JAVA : OpExecutioner.ExecutionMode.NATIVE;
+            String otherExecutionMode = props.getProperty(EXECUTION_MODE, "java");
+            if(otherExecutionMode.equals("java"))
+                executionMode = OpExecutioner.ExecutionMode.JAVA;
+            else if(otherExecutionMode.equals("parallel"))
+                executionMode = OpExecutioner.ExecutionMode.PARALLEL;
+            else
+                executionMode = OpExecutioner.ExecutionMode.NATIVE;
             ORDER = System.getProperty(ORDER_KEY, props.getProperty(ORDER_KEY, "c").toString()).charAt(0);
             opExecutionerClazz = (Class<? extends OpExecutioner>) Class.forName(props.getProperty(OP_EXECUTIONER, DefaultOpExecutioner.class.getName()));
             fftInstanceClazz = (Class<? extends FFTInstance>) Class.forName(System.getProperty(FFT_OPS, DefaultFFTInstance.class.getName()));
             ndArrayFactoryClazz = (Class<? extends NDArrayFactory>) Class.forName(System.getProperty(NDARRAY_FACTORY_CLASS, props.get(NDARRAY_FACTORY_CLASS).toString()));
-            convolutionInstanceClazz = (Class<? extends ConvolutionInstance>) Class.forName(System.getProperty(CONVOLUTION_OPS, DefaultConvolutionInstance.class.getName()));
+            convolutionInstanceClazz = (Class<? extends ConvolutionInstance>) Class.forName(System.getProperty(CONVOLUTION_OPS, AdaptiveConvolutionInstance.class.getName()));
             String defaultName = props.getProperty(DATA_BUFFER_OPS, DefaultDataBufferFactory.class.getName());
             dataBufferFactoryClazz = (Class<? extends DataBufferFactory>) Class.forName(System.getProperty(DATA_BUFFER_OPS, defaultName));
 
@@ -27,6 +27,8 @@ import org.nd4j.linalg.indexing.NDArrayIndex;
 import org.nd4j.linalg.util.ArrayUtil;
 import org.nd4j.linalg.util.ComplexNDArrayUtil;
 
+import java.util.Arrays;
+
 /**
  * Abstract FFT Instance mostly handling basic things that shouldn't change
  * such as method overloading.
@@ -44,10 +46,11 @@ public abstract class BaseFFTInstance implements FFTInstance {
      */
     @Override
     public IComplexNDArray fft(INDArray transform, int numElements) {
-        IComplexNDArray inputC = Nd4j.createComplex(transform);
-        if (inputC.isVector())
-            return (IComplexNDArray) Nd4j.getExecutioner().execAndReturn(new VectorFFT(inputC,inputC.length()));
+        //real vectors are read directly by the fft op
+        if (transform.isVector())
+            return (IComplexNDArray) Nd4j.getExecutioner().execAndReturn(new VectorFFT(transform,transform.length()));
         else {
+            IComplexNDArray inputC = Nd4j.createComplex(transform);
             return rawfft(inputC, numElements, inputC.shape().length - 1);
         }
     }
@@ -82,6 +85,8 @@ public abstract class BaseFFTInstance implements FFTInstance {
      */
     @Override
     public IComplexNDArray fft(INDArray input) {
+        if (input.isVector())
+            return (IComplexNDArray) Nd4j.getExecutioner().execAndReturn(new VectorFFT(input,input.length()));
         IComplexNDArray inputC = Nd4j.createComplex(input);
         return fft(inputC);
     }
@@ -139,6 +144,61 @@ public abstract class BaseFFTInstance implements FFTInstance {
         return arr;
     }
 
+    @Override
+    public IComplexNDArray rfft(INDArray input, int n) {
+        FFTPlan plan = FFTPlan.forLength(n, false);
+        double[] signal = new double[n];
+        double[] unused = new double[n];
+        double[] re = new double[n / 2 + 1];
+        double[] im = new double[n / 2 + 1];
+        if (input.isVector() || input.isScalar()) {
+            FFTPlan.read(input, signal, unused);
+            plan.executeReal(signal, re, im);
+            return FFTPlan.toComplex(re, im, re.length);
+        }
+
+        IComplexNDArray ret = Nd4j.createComplex(input.rows(), re.length);
+        for (int i = 0; i < input.rows(); i++) {
+            Arrays.fill(signal, 0);
+            FFTPlan.read(input.getRow(i), signal, unused);
+            plan.executeReal(signal, re, im);
+            FFTPlan.write(re, im, ret.getRow(i));
+        }
+
+        return ret;
+    }
+
+    @Override
+    public IComplexNDArray rfft(INDArray input) {
+        return rfft(input, input.isVector() ? input.length() : input.columns());
+    }
+
+    @Override
+    public INDArray irfftReal(IComplexNDArray input, int n) {
+        FFTPlan plan = FFTPlan.forLength(n, true);
+        double[] re = new double[n / 2 + 1];
+        double[] im = new double[n / 2 + 1];
+        double[] signal = new double[n];
+        if (input.isVector() || input.isScalar()) {
+            FFTPlan.read(input, re, im);
+            plan.executeRealInverse(re, im, signal);
+            return Nd4j.create(signal);
+        }
+
+        INDArray ret = Nd4j.create(input.rows(), n);
+        for (int i = 0; i < input.rows(); i++) {
+            Arrays.fill(re, 0);
+            Arrays.fill(im, 0);
+            FFTPlan.read(input.getRow(i), re, im);
+            plan.executeRealInverse(re, im, signal);
+            INDArray row = ret.getRow(i);
+            for (int j = 0; j < n; j++)
+                row.putScalar(j, signal[j]);
+        }
+
+        return ret;
+    }
+
     /**
      * ND IFFT
      *
@@ -315,6 +375,9 @@ public abstract class BaseFFTInstance implements FFTInstance {
     //the inner loop for an fft or ifft
     protected IComplexNDArray doInnerFft(IComplexNDArray result,int[] shape,int[] axes,boolean inverse) {
         for(int i = 0; i < axes.length; i++) {
+            //a length 1 transform is the identity: skipping it keeps the vector fft (which ignores the dimension) off singleton axes
+            if(shape[axes[i]] == 1 && result.size(axes[i]) == 1)
+                continue;
             result = inverse ? ifft(result,shape[axes[i]],axes[i]) : fft(result,shape[axes[i]],axes[i]);
         }
 
@@ -45,9 +45,9 @@ public class DefaultFFTInstance extends BaseFFTInstance {
      */
     @Override
     public IComplexNDArray fft(INDArray transform, int numElements, int dimension) {
-        IComplexNDArray inputC = Nd4j.createComplex(transform);
-        if (inputC.isVector())
-            return (IComplexNDArray) Nd4j.getExecutioner().execAndReturn(getFftOp(inputC, numElements));
+        //real vectors are read directly by the fft op
+        if (transform.isVector())
+            return (IComplexNDArray) Nd4j.getExecutioner().execAndReturn(getFftOp(transform, numElements));
         else {
             int[] finalShape = ArrayUtil.replace(transform.shape(), dimension, numElements);
             IComplexNDArray transform2 = Nd4j.createComplex(transform);
@@ -95,11 +95,10 @@ public class DefaultFFTInstance extends BaseFFTInstance {
      */
     @Override
     public IComplexNDArray ifft(INDArray transform, int numElements, int dimension) {
-        IComplexNDArray inputC = Nd4j.createComplex(transform);
-        if (inputC.isVector())
-            return (IComplexNDArray) Nd4j.getExecutioner().execAndReturn(getIfftOp(inputC, numElements));
+        if (transform.isVector())
+            return (IComplexNDArray) Nd4j.getExecutioner().execAndReturn(getIfftOp(transform, numElements));
         else
-            return rawifft(inputC, numElements, dimension);
+            return rawifft(Nd4j.createComplex(transform), numElements, dimension);
 
     }
 
@@ -130,10 +129,10 @@ public class DefaultFFTInstance extends BaseFFTInstance {
      */
     @Override
     public IComplexNDArray ifft(INDArray transform, int numElements) {
-        IComplexNDArray inputC = Nd4j.createComplex(transform);
-        if (inputC.isVector())
-            return (IComplexNDArray) Nd4j.getExecutioner().execAndReturn(getIfftOp(inputC, numElements));
+        if (transform.isVector())
+            return (IComplexNDArray) Nd4j.getExecutioner().execAndReturn(getIfftOp(transform, numElements));
         else {
+            IComplexNDArray inputC = Nd4j.createComplex(transform);
             return rawifft(inputC, numElements, inputC.shape().length - 1);
         }
     }
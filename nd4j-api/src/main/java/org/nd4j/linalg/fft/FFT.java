@@ -199,6 +199,40 @@ public class FFT {
         return Nd4j.getFFt().irfft(arr);
     }
 
+    /**
+     * Fft of a real signal: the n / 2 + 1 non redundant
+     * coefficients of each row
+     *
+     * @param input the real vector or matrix to op
+     * @param n     the fft length
+     * @return the n / 2 + 1 coefficients of each row
+     */
+    public static IComplexNDArray rfft(INDArray input, int n) {
+        return Nd4j.getFFt().rfft(input, n);
+    }
+
+    /**
+     * Fft of a real signal: the length / 2 + 1 non redundant
+     * coefficients of each row
+     *
+     * @param input the real vector or matrix to op
+     * @return the length / 2 + 1 coefficients of each row
+     */
+    public static IComplexNDArray rfft(INDArray input) {
+        return Nd4j.getFFt().rfft(input);
+    }
+
+    /**
+     * Inverse of {@link #rfft(INDArray, int)}
+     *
+     * @param input the n / 2 + 1 coefficients of each row
+     * @param n     the length of the real signal
+     * @return the real signal of each row
+     */
+    public static INDArray irfftReal(IComplexNDArray input, int n) {
+        return Nd4j.getFFt().irfftReal(input, n);
+    }
+
     /**
      * ND IFFT
      *
@@ -160,6 +160,36 @@ public interface FFTInstance {
 
     IComplexNDArray irfft(IComplexNDArray arr);
 
+    /**
+     * Fft of a real signal: only the n / 2 + 1 non redundant
+     * coefficients are computed (the others are their conjugates).
+     * Matrices are transformed row by row.
+     *
+     * @param input the real vector or matrix to op
+     * @param n     the fft length: each row is padded with zeros or truncated to n
+     * @return the n / 2 + 1 coefficients of each row
+     */
+    IComplexNDArray rfft(INDArray input, int n);
+
+    /**
+     * Fft of a real signal along its rows
+     * (see {@link #rfft(INDArray, int)})
+     *
+     * @param input the real vector or matrix to op
+     * @return the length / 2 + 1 coefficients of each row
+     */
+    IComplexNDArray rfft(INDArray input);
+
+    /**
+     * Inverse of {@link #rfft(INDArray, int)}: the real signal
+     * of length n for the given n / 2 + 1 coefficients of each row
+     *
+     * @param input the n / 2 + 1 coefficients of each row
+     * @param n     the length of the real signal
+     * @return the real signal of each row
+     */
+    INDArray irfftReal(IComplexNDArray input, int n);
+
     /**
      * ND IFFT
      *
@@ -0,0 +1,438 @@
+/*
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ *
+ */
+
+package org.nd4j.linalg.fft;
+
+import org.nd4j.linalg.api.complex.IComplexNDArray;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A precomputed 1d fft of a fixed length and direction.
+ *
+ * A plan holds everything that only depends on the length:
+ * the twiddle factors, the bit reversal table (power of two lengths)
+ * or the factorization of the length (mixed radix for every other length).
+ * Plans are immutable and cached (see {@link #forLength(int, boolean)})
+ * so repeated transforms of the same length only pay for the butterflies.
+ *
+ * Transforms work on split real and imaginary double arrays.
+ * The inverse transform is scaled by 1 / n.
+ *
+ * @author Adam Gibson
+ */
+public class FFTPlan {
+    private static final ConcurrentMap<Long, FFTPlan> PLANS = new ConcurrentHashMap<>();
+
+    private final int n;
+    private final boolean inverse;
+    //twiddle k is cos[k] + i * sin[k] = exp(-+2 pi i k / n)
+    private final double[] cos;
+    private final double[] sin;
+    //only for power of two lengths
+    private final int[] bitReversal;
+    //only for other lengths
+    private final int[] factors;
+    private final int maxFactor;
+
+    /**
+     * Create a plan: prefer {@link #forLength(int, boolean)}
+     * which reuses plans
+     * @param n       the length of the transform
+     * @param inverse whether this is an inverse transform
+     */
+    public FFTPlan(int n, boolean inverse) {
+        if (n < 1)
+            throw new IllegalArgumentException("Fft length must be at least 1");
+        this.n = n;
+        this.inverse = inverse;
+        this.cos = new double[n];
+        this.sin = new double[n];
+        double sign = inverse ? 1 : -1;
+        for (int k = 0; k < n; k++) {
+            double angle = 2 * Math.PI * k / n;
+            cos[k] = Math.cos(angle);
+            sin[k] = sign * Math.sin(angle);
+        }
+
+        if (isPowerOfTwo(n)) {
+            bitReversal = new int[n];
+            int bits = Integer.numberOfTrailingZeros(n);
+            for (int i = 0; i < n; i++)
+                bitReversal[i] = bits == 0 ? 0 : Integer.reverse(i) >>> (32 - bits);
+            factors = null;
+            maxFactor = 2;
+        }
+        else {
+            bitReversal = null;
+            factors = factor(n);
+            int max = 1;
+            for (int factor : factors)
+                max = Math.max(max, factor);
+            maxFactor = max;
+        }
+    }
+
+    /**
+     * The (cached) plan for the given length and direction
+     * @param n       the length of the transform
+     * @param inverse whether the plan is for the inverse transform
+     * @return the plan
+     */
+    public static FFTPlan forLength(int n, boolean inverse) {
+        long key = ((long) n << 1) | (inverse ? 1 : 0);
+        FFTPlan plan = PLANS.get(key);
+        if (plan == null) {
+            FFTPlan created = new FFTPlan(n, inverse);
+            plan = PLANS.putIfAbsent(key, created);
+            if (plan == null)
+                plan = created;
+        }
+
+        return plan;
+    }
+
+    /**
+     * Drop every cached plan
+     */
+    public static void clearCache() {
+        PLANS.clear();
+    }
+
+    /**
+     * The length of the transform
+     * @return the length of the transform
+     */
+    public int length() {
+        return n;
+    }
+
+    /**
+     * Whether this plan computes the inverse transform
+     * @return true for an inverse transform
+     */
+    public boolean isInverse() {
+        return inverse;
+    }
+
+    /**
+     * Transform the given signal in place
+     * @param re the real components (length n)
+     * @param im the imaginary components (length n)
+     */
+    public void execute(double[] re, double[] im) {
+        if (re.length < n || im.length < n)
+            throw new IllegalArgumentException("Signal must have at least " + n + " elements");
+        if (bitReversal != null)
+            radix2(re, im);
+        else {
+            double[] outRe = new double[n];
+            double[] outIm = new double[n];
+            mixedRadix(re, im, 0, 1, outRe, outIm, 0, n, 0, new double[maxFactor], new double[maxFactor]);
+            System.arraycopy(outRe, 0, re, 0, n);
+            System.arraycopy(outIm, 0, im, 0, n);
+        }
+
+        if (inverse) {
+            double scale = 1.0 / n;
+            for (int i = 0; i < n; i++) {
+                re[i] *= scale;
+                im[i] *= scale;
+            }
+        }
+    }
+
+    /**
+     * Forward transform of a real signal. Only the first n / 2 + 1
+     * coefficients are computed: the rest are their conjugates.
+     * Even lengths are computed with a complex transform of half the length.
+     * @param in the real signal (length n)
+     * @param re the real components of the n / 2 + 1 coefficients
+     * @param im the imaginary components of the n / 2 + 1 coefficients
+     */
+    public void executeReal(double[] in, double[] re, double[] im) {
+        if (inverse)
+            throw new IllegalStateException("Real forward transform needs a forward plan");
+        int half = n / 2;
+        if (n % 2 != 0 || n == 2) {
+            double[] fullRe = new double[n];
+            double[] fullIm = new double[n];
+            System.arraycopy(in, 0, fullRe, 0, n);
+            execute(fullRe, fullIm);
+            System.arraycopy(fullRe, 0, re, 0, half + 1);
+            System.arraycopy(fullIm, 0, im, 0, half + 1);
+            return;
+        }
+
+        //pack the even samples in to the real and the odd samples in to the imaginary components
+        double[] zRe = new double[half];
+        double[] zIm = new double[half];
+        for (int k = 0; k < half; k++) {
+            zRe[k] = in[2 * k];
+            zIm[k] = in[2 * k + 1];
+        }
+        forLength(half, false).execute(zRe, zIm);
+
+        for (int k = 0; k <= half; k++) {
+            double aRe = zRe[k % half];
+            double aIm = zIm[k % half];
+            //conjugate of z[half - k]
+            double bRe = zRe[(half - k) % half];
+            double bIm = -zIm[(half - k) % half];
+            //even part: (a + b) / 2, odd part: (a - b) / 2i
+            double eRe = (aRe + bRe) / 2;
+            double eIm = (aIm + bIm) / 2;
+            double oRe = (aIm - bIm) / 2;
+            double oIm = -(aRe - bRe) / 2;
+            double wRe = k == half ? -1 : cos[k];
+            double wIm = k == half ? 0 : sin[k];
+            re[k] = eRe + wRe * oRe - wIm * oIm;
+            im[k] = eIm + wRe * oIm + wIm * oRe;
+        }
+    }
+
+    /**
+     * Inverse of {@link #executeReal(double[], double[], double[])}:
+     * the real signal for the given n / 2 + 1 coefficients
+     * @param re  the real components of the n / 2 + 1 coefficients
+     * @param im  the imaginary components of the n / 2 + 1 coefficients
+     * @param out the real signal (length n)
+     */
+    public void executeRealInverse(double[] re, double[] im, double[] out) {
+        if (!inverse)
+            throw new IllegalStateException("Real inverse transform needs an inverse plan");
+        int half = n / 2;
+        if (n % 2 != 0 || n == 2) {
+            double[] fullRe = new double[n];
+            double[] fullIm = new double[n];
+            for (int k = 0; k <= half; k++) {
+                fullRe[k] = re[k];
+                fullIm[k] = im[k];
+                if (k > 0 && k < n - k) {
+                    fullRe[n - k] = re[k];
+                    fullIm[n - k] = -im[k];
+                }
+            }
+            execute(fullRe, fullIm);
+            System.arraycopy(fullRe, 0, out, 0, n);
+            return;
+        }
+
+        double[] zRe = new double[half];
+        double[] zIm = new double[half];
+        for (int k = 0; k < half; k++) {
+            double aRe = re[k];
+            double aIm = im[k];
+            //conjugate of x[half - k]
+            double bRe = re[half - k];
+            double bIm = -im[half - k];
+            double eRe = (aRe + bRe) / 2;
+            double eIm = (aIm + bIm) / 2;
+            //odd part: (a - b) / 2 times the inverse twiddle
+            double dRe = (aRe - bRe) / 2;
+            double dIm = (aIm - bIm) / 2;
+            double oRe = dRe * cos[k] - dIm * sin[k];
+            double oIm = dRe * sin[k] + dIm * cos[k];
+            //z = even + i * odd
+            zRe[k] = eRe - oIm;
+            zIm[k] = eIm + oRe;
+        }
+        forLength(half, true).execute(zRe, zIm);
+
+        for (int k = 0; k < half; k++) {
+            out[2 * k] = zRe[k];
+            out[2 * k + 1] = zIm[k];
+        }
+    }
+
+    /**
+     * Transform the given vector
+     * @param vector the (real or complex) vector to transform: it is
+     *               padded with zeros or truncated to the length of the plan
+     * @return the transform as a row vector
+     */
+    public IComplexNDArray execute(INDArray vector) {
+        double[] re = new double[n];
+        double[] im = new double[n];
+        read(vector, re, im);
+        execute(re, im);
+        return toComplex(re, im, n);
+    }
+
+    /**
+     * Copy up to n elements of the given vector in to split arrays
+     * @param vector the (real or complex) vector to read
+     * @param re     the real components
+     * @param im     the imaginary components
+     */
+    public static void read(INDArray vector, double[] re, double[] im) {
+        int length = Math.min(re.length, vector.length());
+        if (vector instanceof IComplexNDArray) {
+            for (int i = 0; i < length; i++) {
+                int idx = vector.linearIndex(i);
+                re[i] = vector.data().getDouble(idx);
+                im[i] = vector.data().getDouble(idx + 1);
+            }
+        }
+        else {
+            for (int i = 0; i < length; i++)
+                re[i] = vector.getDouble(i);
+        }
+    }
+
+    /**
+     * A complex row vector with the given components
+     * @param re     the real components
+     * @param im     the imaginary components
+     * @param length the number of components to use
+     * @return the complex row vector
+     */
+    public static IComplexNDArray toComplex(double[] re, double[] im, int length) {
+        IComplexNDArray ret = Nd4j.createComplex(new int[]{1, length});
+        write(re, im, ret);
+        return ret;
+    }
+
+    /**
+     * Copy the given components in to a complex vector
+     * @param re     the real components
+     * @param im     the imaginary components
+     * @param vector the complex vector to write to
+     */
+    public static void write(double[] re, double[] im, IComplexNDArray vector) {
+        for (int i = 0; i < vector.length(); i++) {
+            int idx = vector.linearIndex(i);
+            vector.data().put(idx, re[i]);
+            vector.data().put(idx + 1, im[i]);
+        }
+    }
+
+    private void radix2(double[] re, double[] im) {
+        for (int i = 0; i < n; i++) {
+            int j = bitReversal[i];
+            if (j > i) {
+                double tmp = re[i];
+                re[i] = re[j];
+                re[j] = tmp;
+                tmp = im[i];
+                im[i] = im[j];
+                im[j] = tmp;
+            }
+        }
+
+        for (int size = 2; size <= n; size <<= 1) {
+            int half = size >> 1;
+            int step = n / size;
+            for (int start = 0; start < n; start += size) {
+                for (int j = 0; j < half; j++) {
+                    double wRe = cos[j * step];
+                    double wIm = sin[j * step];
+                    int a = start + j;
+                    int b = a + half;
+                    double tRe = re[b] * wRe - im[b] * wIm;
+                    double tIm = re[b] * wIm + im[b] * wRe;
+                    re[b] = re[a] - tRe;
+                    im[b] = im[a] - tIm;
+                    re[a] += tRe;
+                    im[a] += tIm;
+                }
+            }
+        }
+    }
+
+    //decimation in time over the factors of n: each level splits the
+    //current sub transform in to p interleaved sub transforms of length m
+    private void mixedRadix(double[] inRe, double[] inIm, int inOffset, int stride,
+                            double[] outRe, double[] outIm, int outOffset, int length,
+                            int factorIndex, double[] tmpRe, double[] tmpIm) {
+        int p = factors[factorIndex];
+        int m = length / p;
+        if (m == 1) {
+            for (int j = 0; j < p; j++) {
+                outRe[outOffset + j] = inRe[inOffset + j * stride];
+                outIm[outOffset + j] = inIm[inOffset + j * stride];
+            }
+        }
+        else {
+            for (int j = 0; j < p; j++)
+                mixedRadix(inRe, inIm, inOffset + j * stride, stride * p,
+                        outRe, outIm, outOffset + j * m, m, factorIndex + 1, tmpRe, tmpIm);
+        }
+
+        for (int k = 0; k < m; k++) {
+            //twiddle the k'th element of each sub transform
+            for (int j = 0; j < p; j++) {
+                int idx = outOffset + j * m + k;
+                int w = (j * k * stride) % n;
+                tmpRe[j] = outRe[idx] * cos[w] - outIm[idx] * sin[w];
+                tmpIm[j] = outRe[idx] * sin[w] + outIm[idx] * cos[w];
+            }
+
+            //length p dft of the twiddled elements
+            for (int q = 0; q < p; q++) {
+                double sumRe = 0;
+                double sumIm = 0;
+                int wStep = q * m * stride;
+                for (int j = 0; j < p; j++) {
+                    int w = (int) (((long) j * wStep) % n);
+                    sumRe += tmpRe[j] * cos[w] - tmpIm[j] * sin[w];
+                    sumIm += tmpRe[j] * sin[w] + tmpIm[j] * cos[w];
+                }
+                outRe[outOffset + q * m + k] = sumRe;
+                outIm[outOffset + q * m + k] = sumIm;
+            }
+        }
+    }
+
+    private static boolean isPowerOfTwo(int n) {
+        return (n & (n - 1)) == 0;
+    }
+
+    //small factors first: 4 and 2, then 3, 5 and the remaining odd factors
+    private static int[] factor(int n) {
+        List<Integer> factors = new ArrayList<>();
+        int remaining = n;
+        while (remaining % 4 == 0) {
+            factors.add(4);
+            remaining /= 4;
+        }
+        while (remaining % 2 == 0) {
+            factors.add(2);
+            remaining /= 2;
+        }
+        for (int p = 3; p * p <= remaining; p += 2) {
+            while (remaining % p == 0) {
+                factors.add(p);
+                remaining /= p;
+            }
+        }
+        if (remaining > 1)
+            factors.add(remaining);
+
+        int[] ret = new int[factors.size()];
+        for (int i = 0; i < ret.length; i++)
+            ret[i] = factors.get(i);
+        return ret;
+    }
+}
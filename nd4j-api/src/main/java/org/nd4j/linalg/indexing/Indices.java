@@ -227,10 +227,8 @@ public class Indices {
     public static int[] shape(NDArrayIndex... indices) {
         int[] ret = new int[indices.length];
         for (int i = 0; i < ret.length; i++) {
-            int[] currIndices = indices[i].indices();
-
-            int end = currIndices[currIndices.length - 1] + 1;
-            int begin = currIndices[0];
+            int end = indices[i].end() + 1;
+            int begin = indices[i].offset();
             ret[i] = Math.abs(end - begin);
         }
 
@@ -264,13 +262,28 @@ public class Indices {
     public static boolean isContiguous(int diff, NDArrayIndex... indexes) {
         if (indexes.length < 1)
             return true;
-        boolean contiguous = isContiguous(indexes[0].indices(), diff);
+        boolean contiguous = isContiguous(indexes[0], diff);
         for (int i = 1; i < indexes.length; i++)
-            contiguous = contiguous && isContiguous(indexes[i].indices(), diff);
+            contiguous = contiguous && isContiguous(indexes[i], diff);
 
         return contiguous;
     }
 
+    /**
+     * Returns whether an index is contiguous
+     * by a certain amount or not. Symbolic indices
+     * are answered from their stride without materializing them.
+     *
+     * @param index the index to test
+     * @param diff    the difference considered to be contiguous
+     * @return whether the given index is contiguous or not
+     */
+    public static boolean isContiguous(NDArrayIndex index, int diff) {
+        if(index.isSymbolic())
+            return index.length() < 2 || Math.abs(index.stride()) <= diff;
+        return isContiguous(index.indices(), diff);
+    }
+
     /**
      * Returns whether the indices are contiguous by one or not
      *
@@ -378,10 +391,9 @@ public class Indices {
                 ret[i] = shape[i];
             }
             else {
-                int[] currIndices = indices[i].indices();
-                if (currIndices.length < 1)
+                if (indices[i].length() < 1)
                     continue;
-                ret[i] = indices[i].indices().length;
+                ret[i] = indices[i].length();
                 ret[i] -= offsets[i];
             }
 
@@ -26,7 +26,12 @@ import org.nd4j.linalg.util.ArrayUtil;
 import java.util.Arrays;
 
 /**
- * NDArray indexing
+ * NDArray indexing.
+ *
+ * Intervals are kept symbolic as a begin, stride and length:
+ * the explicit indices are only materialized when {@link #indices()}
+ * is asked for, which lets {@link INDArray#get(NDArrayIndex...)}
+ * turn them directly in to a view.
  *
  * @author Adam Gibson
  */
@@ -34,6 +39,8 @@ public class NDArrayIndex {
 
     private int[] indices = new int[1];
     private boolean isInterval = false;
+    private boolean symbolic = false;
+    private int begin,stride = 1,length;
     private static NDArrayIndexAll ALL = new NDArrayIndexAll();
 
     /**
@@ -43,6 +50,22 @@ public class NDArrayIndex {
      */
     public NDArrayIndex(int... indices) {
         this.indices = indices;
+        this.length = indices.length;
+    }
+
+    /**
+     * A symbolic index: begin, begin + stride, ...
+     * (length elements in total)
+     * @param begin the first index
+     * @param stride the increment between indices
+     * @param length the number of indices
+     */
+    private NDArrayIndex(int begin,int stride,int length) {
+        this.indices = null;
+        this.symbolic = true;
+        this.begin = begin;
+        this.stride = stride;
+        this.length = length;
     }
 
 
@@ -84,7 +107,7 @@ public class NDArrayIndex {
     public static NDArrayIndex[] rangeOfLength(NDArrayIndex...indexes) {
         NDArrayIndex[] indexesRet = new NDArrayIndex[indexes.length];
         for(int i = 0; i < indexes.length; i++)
-            indexesRet[i] = NDArrayIndex.interval(0,indexes[i].indices.length);
+            indexesRet[i] = NDArrayIndex.interval(0,indexes[i].length());
         return indexesRet;
     }
 
@@ -169,7 +192,13 @@ public class NDArrayIndex {
      */
     public static NDArrayIndex interval(int begin,int stride, int end, boolean inclusive) {
         assert begin <= end : "Beginning index in range must be less than end";
-        NDArrayIndex ret = new NDArrayIndex(ArrayUtil.range(begin, inclusive ? end + 1 : end,stride));
+        int to = inclusive ? end + 1 : end;
+        NDArrayIndex ret;
+        //same element count as ArrayUtil.range: at least one, never past the end
+        if(stride > 0 && begin <= to)
+            ret = new NDArrayIndex(begin,stride,Math.max(1,(to - begin) / stride));
+        else
+            ret = new NDArrayIndex(ArrayUtil.range(begin, to,stride));
         ret.isInterval = stride == 1;
         return ret;
     }
@@ -199,36 +228,81 @@ public class NDArrayIndex {
     }
 
     public int end() {
+        if(symbolic)
+            return length > 0 ? begin + (length - 1) * stride : 0;
         if (indices != null && indices.length > 0)
             return indices[indices.length - 1];
         return 0;
     }
 
     public int offset() {
+        if(symbolic)
+            return length > 0 ? begin : 0;
         if (indices.length < 1)
             return 0;
         return indices[0];
     }
 
+    /**
+     * The increment between consecutive indices.
+     * This is only meaningful for symbolic indices,
+     * point indices always report 1
+     *
+     * @return the stride of this index
+     */
+    public int stride() {
+        return stride;
+    }
+
+    /**
+     * Whether this index is described by a begin, stride and length
+     * (an interval) rather than explicit points
+     *
+     * @return true if this index is symbolic
+     */
+    public boolean isSymbolic() {
+        return symbolic;
+    }
+
     /**
      * Returns the length of the indices
      *
      * @return the length of the range
      */
     public int length() {
-        return indices.length;
+        return symbolic ? length : indices.length;
     }
 
+    /**
+     * The explicit indices. For symbolic indices
+     * these are materialized (once) on demand.
+     *
+     * @return the indices
+     */
     public int[] indices() {
+        if(indices == null) {
+            int[] ret = new int[length];
+            for(int i = 0; i < length; i++)
+                ret[i] = begin + i * stride;
+            indices = ret;
+        }
         return indices;
     }
 
     public void reverse() {
+        indices = indices();
+        symbolic = false;
         ArrayUtil.reverse(indices);
     }
 
     @Override
     public String toString() {
+        if(symbolic)
+            return "NDArrayIndex{" +
+                    "begin=" + begin +
+                    ", stride=" + stride +
+                    ", length=" + length +
+                    '}';
         return "NDArrayIndex{" +
                 "indices=" + Arrays.toString(indices) +
                 '}';
@@ -240,8 +314,10 @@ public class NDArrayIndex {
         if (!(o instanceof NDArrayIndex)) return false;
 
         NDArrayIndex that = (NDArrayIndex) o;
+        if(symbolic && that.symbolic)
+            return length == that.length && (length < 1 || begin == that.begin && (length < 2 || stride == that.stride));
 
-        if (!Arrays.equals(indices, that.indices)) return false;
+        if (!Arrays.equals(indices(), that.indices())) return false;
         return true;
     }
 
@@ -257,7 +333,13 @@ public class NDArrayIndex {
 
     @Override
     public int hashCode() {
-        return Arrays.hashCode(indices);
+        if(!symbolic)
+            return Arrays.hashCode(indices);
+        //same as Arrays.hashCode over the materialized indices
+        int result = 1;
+        for(int i = 0; i < length; i++)
+            result = 31 * result + begin + i * stride;
+        return result;
     }
 
     public boolean isInterval() {
@@ -0,0 +1,297 @@
+/*
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ *
+ */
+
+package org.nd4j.linalg.ops.transforms;
+
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.executioner.StridedIterator;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.util.Parallel;
+
+import java.util.Arrays;
+
+/**
+ * Pooling over the last 2 dimensions of an ndarray.
+ *
+ * Every leading dimension (eg: the minibatch and channels of a 4d input)
+ * indexes a plane that is pooled independently.
+ * The kernels read and write the buffers of the arrays
+ * through their strides (views of any ordering are pooled in place)
+ * and the planes are spread over the shared {@link Parallel} pool.
+ *
+ * @author Adam Gibson
+ */
+public class PoolingKernels {
+    /**
+     * The kind of pooling
+     */
+    public enum Type {
+        MAX, AVG, SUM
+    }
+
+    private PoolingKernels() {
+    }
+
+    /**
+     * The size of a pooled dimension
+     *
+     * @param size    the size of the input dimension
+     * @param kernel  the size of the window
+     * @param stride  the step between windows
+     * @param padding the (zero) padding on both sides of the input
+     * @param ceil    whether a partial window at the end is kept
+     * @return the size of the output dimension
+     */
+    public static int outputSize(int size, int kernel, int stride, int padding, boolean ceil) {
+        int span = size + 2 * padding - kernel;
+        if (span < 0)
+            return ceil ? 1 : 0;
+        int ret = (ceil ? (span + stride - 1) / stride : span / stride) + 1;
+        //the last window has to start inside the input or the left padding
+        if (ceil && padding > 0 && (ret - 1) * stride >= size + padding)
+            ret--;
+        return ret;
+    }
+
+    /**
+     * Pool the last 2 dimensions of the input
+     *
+     * @param input   the input to pool (at least rank 2)
+     * @param type    the kind of pooling
+     * @param kernel  the rows and columns of the window
+     * @param stride  the step between windows along the rows and columns
+     * @param padding the padding along the rows and columns.
+     *                Padded elements are ignored: they are never the max and
+     *                averages are over the elements of the window inside the input
+     * @param ceil    whether partial windows at the end of the rows and columns are kept
+     * @param argMax  for max pooling, if not null, the array (with the shape of the output)
+     *                to store the index (row * columns + column) of each max
+     *                within its input plane, eg: for {@link #maxPoolBackprop(INDArray, INDArray, int[])}
+     * @return the pooled array: the shape of the input with the last 2 dimensions pooled
+     */
+    public static INDArray pool(INDArray input, final Type type, int[] kernel, int[] stride, int[] padding, boolean ceil, INDArray argMax) {
+        if (input.rank() < 2)
+            throw new IllegalArgumentException("Pooling requires an ndarray of rank 2 or more");
+        if (kernel.length != 2 || stride.length != 2 || padding.length != 2)
+            throw new IllegalArgumentException("Kernel, stride and padding must be of length 2 (rows and columns)");
+        if (padding[0] >= kernel[0] || padding[1] >= kernel[1])
+            throw new IllegalArgumentException("Padding must be smaller than the kernel");
+
+        int rank = input.rank();
+        int[] outShape = input.shape().clone();
+        outShape[rank - 2] = outputSize(input.size(rank - 2), kernel[0], stride[0], padding[0], ceil);
+        outShape[rank - 1] = outputSize(input.size(rank - 1), kernel[1], stride[1], padding[1], ceil);
+        final INDArray ret = Nd4j.create(outShape);
+        if (argMax != null && !Arrays.equals(argMax.shape(), outShape))
+            throw new IllegalArgumentException("Arg max must be of shape " + Arrays.toString(outShape));
+        if (argMax != null && type != Type.MAX)
+            throw new IllegalArgumentException("Arg max is only defined for max pooling");
+
+        final Planes in = new Planes(input);
+        final Planes out = new Planes(ret);
+        final Planes arg = argMax != null ? new Planes(argMax) : null;
+        final int kh = kernel[0], kw = kernel[1], sh = stride[0], sw = stride[1], ph = padding[0], pw = padding[1];
+        long work = (long) ret.length() * kh * kw;
+        run(in.count(), work, new PlaneTask() {
+            @Override
+            public void run(int plane) {
+                pool(type, in, plane, out, arg, kh, kw, sh, sw, ph, pw);
+            }
+        });
+
+        return ret;
+    }
+
+    /**
+     * The gradient of max pooling with respect to its input:
+     * each error is routed back to the element that was the max of its window
+     *
+     * @param epsilon    the error of the pooled output
+     * @param argMax     the indices stored by {@link #pool(INDArray, Type, int[], int[], int[], boolean, INDArray)}
+     * @param inputShape the shape of the input that was pooled
+     * @return the error of the input
+     */
+    public static INDArray maxPoolBackprop(INDArray epsilon, INDArray argMax, int[] inputShape) {
+        if (!Arrays.equals(epsilon.shape(), argMax.shape()))
+            throw new IllegalArgumentException("Epsilon and arg max must be of the same shape");
+        final INDArray ret = Nd4j.create(inputShape);
+        final Planes eps = new Planes(epsilon);
+        final Planes arg = new Planes(argMax);
+        final Planes in = new Planes(ret);
+        if (eps.count() != in.count())
+            throw new IllegalArgumentException("Epsilon and the input must have the same leading dimensions");
+
+        run(in.count(), epsilon.length(), new PlaneTask() {
+            @Override
+            public void run(int plane) {
+                int epsOffset = eps.offsets[plane];
+                int argOffset = arg.offsets[plane];
+                int inOffset = in.offsets[plane];
+                for (int i = 0; i < eps.rows; i++) {
+                    for (int j = 0; j < eps.columns; j++) {
+                        int idx = (int) arg.data.getDouble(argOffset + i * arg.rowStride + j * arg.columnStride);
+                        if (idx < 0)
+                            continue;
+                        int inIdx = inOffset + (idx / in.columns) * in.rowStride + (idx % in.columns) * in.columnStride;
+                        in.data.put(inIdx, in.data.getDouble(inIdx) + eps.data.getDouble(epsOffset + i * eps.rowStride + j * eps.columnStride));
+                    }
+                }
+            }
+        });
+
+        return ret;
+    }
+
+    /**
+     * Fill each block of an array of the given shape
+     * with the pooled value of the block
+     *
+     * @param pooled the pooled values (one per block)
+     * @param shape  the shape of the result
+     * @param block  the rows and columns of a block
+     * @return the array of the given shape with every block
+     * set to its pooled value; elements outside of the pooled blocks are zero
+     */
+    public static INDArray expand(INDArray pooled, int[] shape, final int[] block) {
+        final INDArray ret = Nd4j.create(shape);
+        final Planes from = new Planes(pooled);
+        final Planes to = new Planes(ret);
+        run(to.count(), ret.length(), new PlaneTask() {
+            @Override
+            public void run(int plane) {
+                for (int i = 0; i < from.rows; i++) {
+                    for (int j = 0; j < from.columns; j++) {
+                        double val = from.data.getDouble(from.offsets[plane] + i * from.rowStride + j * from.columnStride);
+                        for (int r = i * block[0]; r < Math.min((i + 1) * block[0], to.rows); r++)
+                            for (int c = j * block[1]; c < Math.min((j + 1) * block[1], to.columns); c++)
+                                to.data.put(to.offsets[plane] + r * to.rowStride + c * to.columnStride, val);
+                    }
+                }
+            }
+        });
+
+        return ret;
+    }
+
+    private static void pool(Type type, Planes in, int plane, Planes out, Planes arg, int kh, int kw, int sh, int sw, int ph, int pw) {
+        DataBuffer data = in.data;
+        int inOffset = in.offsets[plane];
+        int outOffset = out.offsets[plane];
+        for (int i = 0; i < out.rows; i++) {
+            int rowStart = i * sh - ph;
+            int rowEnd = Math.min(rowStart + kh, in.rows);
+            rowStart = Math.max(rowStart, 0);
+            for (int j = 0; j < out.columns; j++) {
+                int colStart = j * sw - pw;
+                int colEnd = Math.min(colStart + kw, in.columns);
+                colStart = Math.max(colStart, 0);
+                double ret;
+                if (type == Type.MAX) {
+                    ret = Double.NEGATIVE_INFINITY;
+                    int max = -1;
+                    for (int r = rowStart; r < rowEnd; r++) {
+                        int rowOffset = inOffset + r * in.rowStride;
+                        for (int c = colStart; c < colEnd; c++) {
+                            double val = data.getDouble(rowOffset + c * in.columnStride);
+                            if (val > ret || max < 0) {
+                                ret = val;
+                                max = r * in.columns + c;
+                            }
+                        }
+                    }
+
+                    if (max < 0)
+                        ret = 0;
+                    if (arg != null)
+                        arg.data.put(arg.offsets[plane] + i * arg.rowStride + j * arg.columnStride, max);
+                }
+                else {
+                    ret = 0;
+                    for (int r = rowStart; r < rowEnd; r++) {
+                        int rowOffset = inOffset + r * in.rowStride;
+                        for (int c = colStart; c < colEnd; c++)
+                            ret += data.getDouble(rowOffset + c * in.columnStride);
+                    }
+
+                    int count = Math.max(0, rowEnd - rowStart) * Math.max(0, colEnd - colStart);
+                    if (type == Type.AVG && count > 0)
+                        ret /= count;
+                }
+
+                out.data.put(outOffset + i * out.rowStride + j * out.columnStride, ret);
+            }
+        }
+    }
+
+    /**
+     * The planes (last 2 dimensions) of an array:
+     * the buffer offset of each plane and the strides within a plane
+     */
+    private static class Planes {
+        private DataBuffer data;
+        private int rows, columns, rowStride, columnStride;
+        private int[] offsets;
+
+        Planes(INDArray arr) {
+            int rank = arr.rank();
+            int[] shape = arr.shape();
+            int[] stride = arr.stride().clone();
+            //the strides of vector views aren't per dimension: step through them by their major stride
+            if (arr.isVector())
+                for (int i = 0; i < rank; i++)
+                    if (shape[i] > 1)
+                        stride[i] = arr.majorStride();
+
+            data = arr.data();
+            rows = shape[rank - 2];
+            columns = shape[rank - 1];
+            rowStride = stride[rank - 2];
+            columnStride = stride[rank - 1];
+            int[] leadingShape = Arrays.copyOf(shape, rank - 2);
+            int[] leadingStride = Arrays.copyOf(stride, rank - 2);
+            int count = 1;
+            for (int s : leadingShape)
+                count *= s;
+            offsets = new int[count];
+            StridedIterator iter = new StridedIterator(leadingShape, leadingStride, arr.offset());
+            for (int i = 0; i < count; i++)
+                offsets[i] = iter.next();
+        }
+
+        int count() {
+            return offsets.length;
+        }
+    }
+
+    private interface PlaneTask {
+        void run(int plane);
+    }
+
+    private static void run(int planes, long work, final PlaneTask task) {
+        Parallel.run(planes, work, new Parallel.RangeTask() {
+            @Override
+            public void run(int from, int to) {
+                for (int i = from; i < to; i++)
+                    task.run(i);
+            }
+        });
+    }
+
+}
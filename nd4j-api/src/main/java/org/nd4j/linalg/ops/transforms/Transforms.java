@@ -48,45 +48,90 @@ public class Transforms {
 
 
     /**
-     * Max pooling
+     * Max pooling over the last 2 dimensions
+     * with non overlapping windows of the given size.
      *
-     * @param input
-     * @param ds    the strides with which to max pool expectations
-     * @return
-     * @parma ignoreBorder whether to ignore the borders of images
+     * Note that the result has the pooled shape: the leading dimensions of the input
+     * followed by the number of windows along the rows and columns
+     * (eg: a 2 x 3 x 5 x 5 input pooled by 2 x 2 windows is 2 x 3 x 3 x 3, or 2 x 3 x 2 x 2 when ignoring the border).
+     * Earlier versions returned a (minibatch * channels) x 1 x rows x columns array
+     * holding the maxes in the top left corner of each plane.
+     *
+     * @param input        the input to pool
+     * @param ds           the rows and columns of each window
+     * @param ignoreBorder whether to drop the partial windows at the borders
+     * @return the max of each window
      */
     public static INDArray maxPool(INDArray input, int[] ds, boolean ignoreBorder) {
-        assert input.length() >= 2 : "Max pooling requires an ndarray of >= length 2";
-        assert ds.length == 2 : "Down sampling must be of length 2 (the factors used for each image size";
-        assert input.shape().length == 4 : "Only supports 4 dimensional tensors";
-        int batchSize = ArrayUtil.prod(new int[]{input.size(0) * input.size(1)});
-        //possibly look at a input implementation instead (looping over the outer dimension slice wise with calling input repeatedly)
-        //use the given rows and columns if ignoring borders
-        int rows = input.size(2);
-        int cols = input.size(3);
-
-        INDArray signalNDArray = input.reshape(batchSize, 1, rows, cols);
-        INDArray zz = Nd4j.create(signalNDArray.shape());
-
-        int rowIter = ignoreBorder ? (int) (rows / Math.pow(ds[0], 2)) : rows;
-        int colIter = ignoreBorder ? (int) (cols / Math.pow(ds[1], 2)) : cols;
-        rowIter = Math.max(1,rowIter);
-        colIter = Math.max(1, colIter);
-        for (int i = 0; i < signalNDArray.size(0); i++) {
-            for (int j = 0; j < signalNDArray.size(1); j++) {
-                for (int k = 0; k < rowIter; k++) {
-                    int zk = k / ds[0];
-                    for (int l = 0; l < colIter; l++) {
-                        int zl = l / ds[1];
-                        double num = input.getDouble(i, j, k, l);
-                        double zzGet = zz.getDouble(i, j, zk, zl);
-                        zz.putScalar(new int[]{i, j, zk, zl}, Math.max(num, zzGet));
-                    }
-                }
-            }
-        }
+        return PoolingKernels.pool(input, PoolingKernels.Type.MAX, ds, ds, new int[]{0, 0}, !ignoreBorder, null);
+    }
+
+    /**
+     * Max pooling over the last 2 dimensions
+     *
+     * @param input   the input to pool (eg: minibatch x channels x rows x columns)
+     * @param kernel  the rows and columns of each window
+     * @param stride  the step between windows along the rows and columns
+     * @param padding the padding along the rows and columns
+     * @return the max of each window
+     */
+    public static INDArray maxPool(INDArray input, int[] kernel, int[] stride, int[] padding) {
+        return maxPool(input, kernel, stride, padding, null);
+    }
+
+    /**
+     * Max pooling over the last 2 dimensions
+     *
+     * @param input   the input to pool (eg: minibatch x channels x rows x columns)
+     * @param kernel  the rows and columns of each window
+     * @param stride  the step between windows along the rows and columns
+     * @param padding the padding along the rows and columns
+     * @param argMax  if not null, filled with the index of each max
+     *                within its input plane (see {@link #maxPoolBackprop(INDArray, INDArray, int[])})
+     * @return the max of each window
+     */
+    public static INDArray maxPool(INDArray input, int[] kernel, int[] stride, int[] padding, INDArray argMax) {
+        return PoolingKernels.pool(input, PoolingKernels.Type.MAX, kernel, stride, padding, false, argMax);
+    }
+
+    /**
+     * The gradient of max pooling:
+     * the error of each window is routed to its max
+     *
+     * @param epsilon    the error of the pooled output
+     * @param argMax     the indices of the maxes filled in by max pooling
+     * @param inputShape the shape of the pooled input
+     * @return the error of the input
+     */
+    public static INDArray maxPoolBackprop(INDArray epsilon, INDArray argMax, int[] inputShape) {
+        return PoolingKernels.maxPoolBackprop(epsilon, argMax, inputShape);
+    }
+
+    /**
+     * Average pooling over the last 2 dimensions.
+     * Padding isn't counted in the averages
+     *
+     * @param input   the input to pool (eg: minibatch x channels x rows x columns)
+     * @param kernel  the rows and columns of each window
+     * @param stride  the step between windows along the rows and columns
+     * @param padding the padding along the rows and columns
+     * @return the average of each window
+     */
+    public static INDArray avgPool(INDArray input, int[] kernel, int[] stride, int[] padding) {
+        return PoolingKernels.pool(input, PoolingKernels.Type.AVG, kernel, stride, padding, false, null);
+    }
 
-        return zz.reshape(signalNDArray.shape());
+    /**
+     * Sum pooling over the last 2 dimensions
+     *
+     * @param input   the input to pool (eg: minibatch x channels x rows x columns)
+     * @param kernel  the rows and columns of each window
+     * @param stride  the step between windows along the rows and columns
+     * @param padding the padding along the rows and columns
+     * @return the sum of each window
+     */
+    public static INDArray sumPool(INDArray input, int[] kernel, int[] stride, int[] padding) {
+        return PoolingKernels.pool(input, PoolingKernels.Type.SUM, kernel, stride, padding, false, null);
     }
 
     /**
@@ -140,58 +185,25 @@ public class Transforms {
      *
      * @param toPool the ndarray to sumPooling
      * @param stride the 2d stride across the ndarray
-     * @return
+     * @return an ndarray of the same shape with each block
+     * set to its average
      */
     public static INDArray avgPooling(INDArray toPool, int[] stride) {
-
-        int nDims = toPool.shape().length;
-        assert nDims >= 3 : "NDArray must have 3 dimensions";
-        int nRows = toPool.shape()[nDims - 2];
-        int nCols = toPool.shape()[nDims - 1];
-        int yStride = stride[0], xStride = stride[1];
-        INDArray blocks = Nd4j.create(toPool.shape());
-        for (int iR = 0; iR < Math.ceil(nRows / yStride); iR++) {
-            NDArrayIndex rows = NDArrayIndex.interval(iR * yStride, iR * yStride, true);
-            for (int jC = 0; jC < Math.ceil(nCols / xStride); jC++) {
-                NDArrayIndex cols = NDArrayIndex.interval(jC * xStride, (jC * xStride) + 1, true);
-                INDArray blockVal = toPool.get(rows, cols).sum(toPool.shape().length - 1).mean(toPool.shape().length - 1);
-                blocks.put(
-                        new NDArrayIndex[]{rows, cols},
-                        blockVal.permute(new int[]{1, 2, 0}))
-                        .repmat(new int[]{rows.length(), cols.length()});
-            }
-        }
-
-        return blocks;
+        INDArray pooled = PoolingKernels.pool(toPool, PoolingKernels.Type.AVG, stride, stride, new int[]{0, 0}, false, null);
+        return PoolingKernels.expand(pooled, toPool.shape(), stride);
     }
+
     /**
      * Pooled expectations(sum)
      *
      * @param toPool the ndarray to sumPooling
      * @param stride the 2d stride across the ndarray
-     * @return
+     * @return an ndarray of the same shape with each block
+     * set to its sum
      */
     public static INDArray sumPooling(INDArray toPool, int[] stride) {
-
-        int nDims = toPool.shape().length;
-        assert nDims >= 3 : "NDArray must have 3 dimensions";
-        int nRows = toPool.shape()[nDims - 2];
-        int nCols = toPool.shape()[nDims - 1];
-        int yStride = stride[0], xStride = stride[1];
-        INDArray blocks = Nd4j.create(toPool.shape());
-        for (int iR = 0; iR < Math.ceil(nRows / yStride); iR++) {
-            NDArrayIndex rows = NDArrayIndex.interval(iR * yStride, iR * yStride, true);
-            for (int jC = 0; jC < Math.ceil(nCols / xStride); jC++) {
-                NDArrayIndex cols = NDArrayIndex.interval(jC * xStride, (jC * xStride) + 1, true);
-                INDArray blockVal = toPool.get(rows, cols).sum(toPool.shape().length - 1).sum(toPool.shape().length - 1);
-                blocks.put(
-                        new NDArrayIndex[]{rows, cols},
-                        blockVal.permute(new int[]{1, 2, 0}))
-                        .repmat(new int[]{rows.length(), cols.length()});
-            }
-        }
-
-        return blocks;
+        INDArray pooled = PoolingKernels.pool(toPool, PoolingKernels.Type.SUM, stride, stride, new int[]{0, 0}, false, null);
+        return PoolingKernels.expand(pooled, toPool.shape(), stride);
     }
 
     /**
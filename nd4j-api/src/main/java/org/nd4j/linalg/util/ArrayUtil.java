@@ -20,6 +20,7 @@
 package org.nd4j.linalg.util;
 
 import com.google.common.primitives.Ints;
+import org.nd4j.linalg.api.buffer.BaseDataBuffer;
 import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.complex.IComplexNDArray;
 import org.nd4j.linalg.api.ndarray.INDArray;
@@ -29,6 +30,7 @@ import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
 import java.util.*;
 
 /**
@@ -770,37 +772,67 @@ public class ArrayUtil {
 
 
     public static double[] read(int length, DataInputStream dis) throws IOException {
-        double[] ret = new double[length];
-        for (int i = 0; i < length; i++)
-            ret[i] = dis.readDouble();
-        return ret;
+        return readDouble(length, dis);
     }
 
 
     public static void write(double[] data, DataOutputStream dos) throws IOException {
-        for (int i = 0; i < data.length; i++)
-            dos.writeDouble(data[i]);
+        ByteBuffer chunk = ioChunk(data.length, 8);
+        int perChunk = chunk.capacity() / 8;
+        for (int i = 0; i < data.length; i += perChunk) {
+            int n = Math.min(perChunk, data.length - i);
+            chunk.clear();
+            chunk.asDoubleBuffer().put(data, i, n);
+            dos.write(chunk.array(), 0, n * 8);
+        }
     }
 
     public static double[] readDouble(int length, DataInputStream dis) throws IOException {
         double[] ret = new double[length];
-        for (int i = 0; i < length; i++)
-            ret[i] = dis.readDouble();
+        ByteBuffer chunk = ioChunk(length, 8);
+        int perChunk = chunk.capacity() / 8;
+        for (int i = 0; i < length; i += perChunk) {
+            int n = Math.min(perChunk, length - i);
+            dis.readFully(chunk.array(), 0, n * 8);
+            chunk.clear();
+            chunk.asDoubleBuffer().get(ret, i, n);
+        }
         return ret;
     }
 
 
     public static float[] readFloat(int length, DataInputStream dis) throws IOException {
         float[] ret = new float[length];
-        for (int i = 0; i < length; i++)
-            ret[i] = dis.readFloat();
+        ByteBuffer chunk = ioChunk(length, 4);
+        int perChunk = chunk.capacity() / 4;
+        for (int i = 0; i < length; i += perChunk) {
+            int n = Math.min(perChunk, length - i);
+            dis.readFully(chunk.array(), 0, n * 4);
+            chunk.clear();
+            chunk.asFloatBuffer().get(ret, i, n);
+        }
         return ret;
     }
 
 
     public static void write(float[] data, DataOutputStream dos) throws IOException {
-        for (int i = 0; i < data.length; i++)
-            dos.writeFloat(data[i]);
+        ByteBuffer chunk = ioChunk(data.length, 4);
+        int perChunk = chunk.capacity() / 4;
+        for (int i = 0; i < data.length; i += perChunk) {
+            int n = Math.min(perChunk, data.length - i);
+            chunk.clear();
+            chunk.asFloatBuffer().put(data, i, n);
+            dos.write(chunk.array(), 0, n * 4);
+        }
+    }
+
+    /**
+     * A big endian buffer for moving up to
+     * {@link BaseDataBuffer#IO_CHUNK_SIZE} bytes of elements at a time
+     */
+    private static ByteBuffer ioChunk(int length, int elementSize) {
+        int elements = Math.max(1, Math.min(length, BaseDataBuffer.IO_CHUNK_SIZE / elementSize));
+        return ByteBuffer.allocate(elements * elementSize);
     }
 
 
@@ -152,7 +152,8 @@ public class ComplexNDArrayUtil {
 
         IComplexNDArray ret = Nd4j.createComplex(targetShape);
         NDArrayIndex[] targetShapeIndex = NDArrayIndex.createCoveringShape(nd.shape());
-        ret.put(targetShapeIndex,nd);
+        //copy through a view: put with interval indexes only writes the first element of a vector
+        ret.get(targetShapeIndex).assign(nd);
         return ret;
 
     }
@@ -0,0 +1,199 @@
+/*
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ *
+ */
+
+package org.nd4j.linalg.util;
+
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.complex.IComplexNDArray;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.executioner.StridedIterator;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.Arrays;
+
+/**
+ * Block copies for concatenation.
+ *
+ * Each input is copied in to the region of the result it ends up in.
+ * The trailing (or, for fortran ordered operands, leading) dimensions that are
+ * contiguous in both the input and the result are folded in to one block,
+ * so concatenating c ordered matrices along the rows is a single array copy per input.
+ * Inputs are copied in parallel for large concatenations.
+ *
+ * @author Adam Gibson
+ */
+public class ConcatKernels {
+    private ConcatKernels() {
+    }
+
+    /**
+     * Copy the given arrays in to ret one after the other along a dimension.
+     * Every other dimension of the inputs must match ret
+     *
+     * @param ret       the array to fill in
+     * @param dimension the dimension to concatenate along
+     * @param toConcat  the arrays to concatenate
+     * @return ret
+     */
+    public static INDArray concat(INDArray ret, int dimension, final INDArray... toConcat) {
+        final int[] retShape = ret.shape();
+        if (dimension < 0)
+            dimension += retShape.length;
+        if (dimension < 0 || dimension >= retShape.length)
+            throw new IllegalArgumentException("Illegal dimension " + dimension + " for an array of rank " + retShape.length);
+
+        final int[] retStride = strides(ret);
+        final int[] offsets = new int[toConcat.length];
+        int along = 0;
+        for (int i = 0; i < toConcat.length; i++) {
+            int[] shape = toConcat[i].shape();
+            if (shape.length != retShape.length || !Arrays.equals(ArrayUtil.removeIndex(shape, dimension), ArrayUtil.removeIndex(retShape, dimension)))
+                throw new IllegalStateException("Unable to concatenate an array of shape " + Arrays.toString(shape) + " along dimension " + dimension + " in to shape " + Arrays.toString(retShape));
+            offsets[i] = ret.offset() + along * retStride[dimension];
+            along += shape[dimension];
+        }
+        if (along != retShape[dimension])
+            throw new IllegalStateException("Concatenated length " + along + " along dimension " + dimension + " doesn't match " + retShape[dimension]);
+
+        final DataBuffer to = ret.data();
+        final int unit = unit(ret);
+        Parallel.run(toConcat.length, ret.length(), new Parallel.RangeTask() {
+            @Override
+            public void run(int from, int until) {
+                for (int i = from; i < until; i++) {
+                    INDArray arr = toConcat[i];
+                    copy(arr.shape(), arr.data(), arr.offset(), strides(arr), to, offsets[i], retStride, unit);
+                }
+            }
+        });
+        return ret;
+    }
+
+    /**
+     * Copy the elements of the given vectors in to the vector ret one after the other
+     *
+     * @param ret      the vector to fill in
+     * @param toConcat the vectors to copy
+     * @return ret
+     */
+    public static INDArray concatVectors(INDArray ret, final INDArray... toConcat) {
+        final int[] offsets = new int[toConcat.length];
+        final int[] retStride = {ret.majorStride()};
+        int length = 0;
+        for (int i = 0; i < toConcat.length; i++) {
+            if (!toConcat[i].isVector() && !toConcat[i].isScalar())
+                throw new IllegalArgumentException("Unable to concatenate an array of shape " + Arrays.toString(toConcat[i].shape()) + " as a vector");
+            offsets[i] = ret.offset() + length * retStride[0];
+            length += toConcat[i].length();
+        }
+        if (length != ret.length())
+            throw new IllegalStateException("Concatenated length " + length + " doesn't match " + ret.length());
+
+        final DataBuffer to = ret.data();
+        final int unit = unit(ret);
+        Parallel.run(toConcat.length, ret.length(), new Parallel.RangeTask() {
+            @Override
+            public void run(int from, int until) {
+                for (int i = from; i < until; i++) {
+                    INDArray arr = toConcat[i];
+                    copy(new int[]{arr.length()}, arr.data(), arr.offset(), new int[]{arr.majorStride()}, to, offsets[i], retStride, unit);
+                }
+            }
+        });
+        return ret;
+    }
+
+    //the strides of vector views aren't per dimension: step through them by their major stride
+    private static int[] strides(INDArray arr) {
+        int[] strides = arr.stride().clone();
+        if (arr.isVector()) {
+            int[] shape = arr.shape();
+            for (int i = 0; i < shape.length; i++)
+                if (shape[i] > 1)
+                    strides[i] = arr.majorStride();
+        }
+        return strides;
+    }
+
+    //buffer elements per array element
+    private static int unit(INDArray arr) {
+        return arr instanceof IComplexNDArray ? 2 : 1;
+    }
+
+    private static void copy(int[] shape, DataBuffer from, int fromOffset, int[] fromStride, DataBuffer to, int toOffset, int[] toStride, int unit) {
+        //dimensions of size one don't move through memory
+        int n = 0;
+        int[] size = new int[shape.length], fs = new int[shape.length], ts = new int[shape.length];
+        for (int i = 0; i < shape.length; i++) {
+            if (shape[i] == 1)
+                continue;
+            size[n] = shape[i];
+            fs[n] = fromStride[i];
+            ts[n++] = toStride[i];
+        }
+        if (n == 0) {
+            copyBlock(from, fromOffset, to, toOffset, unit);
+            return;
+        }
+
+        size = Arrays.copyOf(size, n);
+        fs = Arrays.copyOf(fs, n);
+        ts = Arrays.copyOf(ts, n);
+        //walk fortran ordered operands from their first dimension on
+        if ((fs[n - 1] != unit || ts[n - 1] != unit) && fs[0] == unit && ts[0] == unit) {
+            ArrayUtil.reverse(size);
+            ArrayUtil.reverse(fs);
+            ArrayUtil.reverse(ts);
+        }
+
+        //fold the innermost dimensions contiguous in both in to one block
+        int block = unit;
+        int outer = n;
+        while (outer > 0 && fs[outer - 1] == block && ts[outer - 1] == block) {
+            block *= size[outer - 1];
+            outer--;
+        }
+
+        if (outer == 0) {
+            copyBlock(from, fromOffset, to, toOffset, block);
+            return;
+        }
+
+        int[] outerShape = Arrays.copyOf(size, outer);
+        StridedIterator fromIter = new StridedIterator(outerShape, Arrays.copyOf(fs, outer), fromOffset);
+        StridedIterator toIter = new StridedIterator(outerShape, Arrays.copyOf(ts, outer), toOffset);
+        int blocks = ArrayUtil.prod(outerShape);
+        for (int i = 0; i < blocks; i++)
+            copyBlock(from, fromIter.next(), to, toIter.next(), block);
+    }
+
+    private static void copyBlock(DataBuffer from, int fromOffset, DataBuffer to, int toOffset, int n) {
+        if (from.allocationMode() == DataBuffer.AllocationMode.HEAP && to.allocationMode() == DataBuffer.AllocationMode.HEAP) {
+            Object src = from.array(), dest = to.array();
+            if (src.getClass() == dest.getClass()) {
+                System.arraycopy(src, fromOffset, dest, toOffset, n);
+                return;
+            }
+        }
+
+        for (int i = 0; i < n; i++)
+            to.put(toOffset + i, from.getDouble(fromOffset + i));
+    }
+
+}
@@ -0,0 +1,281 @@
+/*
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ *
+ */
+
+package org.nd4j.linalg.util;
+
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.complex.IComplexNDArray;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.executioner.StridedIterator;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.Arrays;
+
+/**
+ * Gather (take) and scatter (put/add) of whole slices
+ * along a dimension by an index array: the building blocks
+ * of embedding lookups and their sparse gradient updates.
+ *
+ * A slice is copied as runs of elements that are contiguous in both arrays
+ * (a whole row of a c ordered matrix is one run), using array copies when the
+ * buffers are on the heap. Gathers are spread over the indices; scatters are spread over
+ * the distinct target slices so that repeated indices are applied in order
+ * by a single thread: scatterAdd accumulates them and scatterUpdate keeps the last one.
+ *
+ * @author Adam Gibson
+ */
+public class GatherKernels {
+    private GatherKernels() {
+    }
+
+    /**
+     * Gather the slices along a dimension at the given indices
+     *
+     * @param src       the array to gather from
+     * @param dimension the dimension the indices refer to
+     * @param indices   the slices to take (may repeat)
+     * @return a new array with indices.length slices along the dimension:
+     * slice i is a copy of slice indices[i] of src
+     */
+    public static INDArray gather(INDArray src, int dimension, int[] indices) {
+        Slices from = new Slices(src, dimension);
+        checkIndices(indices, from.count);
+
+        int[] shape = src.shape().clone();
+        shape[from.dimension] = indices.length;
+        INDArray ret = src instanceof IComplexNDArray ? Nd4j.createComplex(shape, src.ordering()) : Nd4j.create(shape, src.ordering());
+        if (indices.length == 0)
+            return ret;
+
+        final int[] index = indices;
+        final SliceCopy copy = new SliceCopy(from, new Slices(ret, dimension));
+        Parallel.run(indices.length, (long) indices.length * copy.length(), new Parallel.RangeTask() {
+            @Override
+            public void run(int from, int to) {
+                for (int i = from; i < to; i++)
+                    copy.copy(index[i], i);
+            }
+        });
+        return ret;
+    }
+
+    /**
+     * Add the slices of updates in to the slices of target at the given indices:
+     * target slice indices[i] += updates slice i.
+     * Repeated indices accumulate all of their updates
+     *
+     * @param target    the array to update in place
+     * @param dimension the dimension the indices refer to
+     * @param indices   the slices of target to update
+     * @param updates   the updates with indices.length slices along the dimension
+     * @return the target array
+     */
+    public static INDArray scatterAdd(INDArray target, int dimension, int[] indices, INDArray updates) {
+        return scatter(target, dimension, indices, updates, true);
+    }
+
+    /**
+     * Overwrite the slices of target at the given indices with the slices of updates:
+     * target slice indices[i] = updates slice i.
+     * For repeated indices the last update wins
+     *
+     * @param target    the array to update in place
+     * @param dimension the dimension the indices refer to
+     * @param indices   the slices of target to overwrite
+     * @param updates   the updates with indices.length slices along the dimension
+     * @return the target array
+     */
+    public static INDArray scatterUpdate(INDArray target, int dimension, int[] indices, INDArray updates) {
+        return scatter(target, dimension, indices, updates, false);
+    }
+
+    private static INDArray scatter(INDArray target, int dimension, int[] indices, INDArray updates, final boolean add) {
+        Slices to = new Slices(target, dimension);
+        Slices from = new Slices(updates, dimension);
+        checkIndices(indices, to.count);
+        if (from.count != indices.length)
+            throw new IllegalArgumentException("Updates have " + from.count + " slices along dimension " + dimension + " but there are " + indices.length + " indices");
+        if (indices.length == 0)
+            return target;
+
+        //order the updates by the slice they go to (stable, so repeats keep their order)
+        long[] keys = new long[indices.length];
+        for (int i = 0; i < keys.length; i++)
+            keys[i] = ((long) indices[i] << 32) | i;
+        Arrays.sort(keys);
+
+        final int[] order = new int[keys.length];
+        int[] starts = new int[keys.length + 1];
+        int groups = 0;
+        for (int i = 0; i < keys.length; i++) {
+            order[i] = (int) keys[i];
+            if (i == 0 || keys[i] >>> 32 != keys[i - 1] >>> 32)
+                starts[groups++] = i;
+        }
+        starts[groups] = keys.length;
+
+        final int[] groupStart = starts;
+        final int[] index = indices;
+        final SliceCopy copy = new SliceCopy(from, to);
+        Parallel.run(groups, (long) indices.length * copy.length(), new Parallel.RangeTask() {
+            @Override
+            public void run(int from, int to) {
+                for (int g = from; g < to; g++) {
+                    int begin = groupStart[g], end = groupStart[g + 1];
+                    if (!add) {
+                        int last = order[end - 1];
+                        copy.copy(last, index[last]);
+                        continue;
+                    }
+                    for (int i = begin; i < end; i++)
+                        copy.add(order[i], index[order[i]]);
+                }
+            }
+        });
+        return target;
+    }
+
+    private static void checkIndices(int[] indices, int count) {
+        for (int i = 0; i < indices.length; i++)
+            if (indices[i] < 0 || indices[i] >= count)
+                throw new IllegalArgumentException("Index " + indices[i] + " out of bounds for " + count + " slices");
+    }
+
+    //the slices of an array along a dimension: each one is the base offset plus the same inner offsets
+    private static class Slices {
+        private DataBuffer data;
+        private boolean complex;
+        private int dimension, offset, stride, count;
+        private int[] shape, inner;
+
+        Slices(INDArray arr, int dimension) {
+            int rank = arr.rank();
+            this.dimension = dimension < 0 ? dimension + rank : dimension;
+            if (this.dimension < 0 || this.dimension >= rank)
+                throw new IllegalArgumentException("Illegal dimension " + dimension + " for an array of rank " + rank);
+
+            int[] shape = arr.shape();
+            int[] strides = arr.stride().clone();
+            //the strides of vector views aren't per dimension: step through them by their major stride
+            if (arr.isVector())
+                for (int i = 0; i < rank; i++)
+                    if (shape[i] > 1)
+                        strides[i] = arr.majorStride();
+
+            data = arr.data();
+            complex = arr instanceof IComplexNDArray;
+            offset = arr.offset();
+            count = shape[this.dimension];
+            stride = strides[this.dimension];
+            this.shape = ArrayUtil.removeIndex(shape, this.dimension);
+            inner = new int[ArrayUtil.prod(this.shape)];
+            StridedIterator iter = new StridedIterator(this.shape, ArrayUtil.removeIndex(strides, this.dimension), 0);
+            for (int i = 0; i < inner.length; i++)
+                inner[i] = iter.next();
+        }
+
+        int slice(int i) {
+            return offset + i * stride;
+        }
+    }
+
+    //copies between the slices of two arrays as runs contiguous in both
+    private static class SliceCopy {
+        private final Slices from, to;
+        private final int[] fromRun, toRun, runLength;
+        private final int runs;
+
+        SliceCopy(Slices from, Slices to) {
+            if (!Arrays.equals(from.shape, to.shape))
+                throw new IllegalArgumentException("Slices of shape " + Arrays.toString(from.shape) + " don't match slices of shape " + Arrays.toString(to.shape));
+            if (from.complex != to.complex)
+                throw new IllegalArgumentException("Unable to copy between real and complex arrays");
+
+            this.from = from;
+            this.to = to;
+            int unit = from.complex ? 2 : 1;
+            int n = from.inner.length;
+            fromRun = new int[n];
+            toRun = new int[n];
+            runLength = new int[n];
+            int runs = 0;
+            for (int j = 0; j < n; j++) {
+                if (j > 0 && from.inner[j] == from.inner[j - 1] + unit && to.inner[j] == to.inner[j - 1] + unit) {
+                    runLength[runs - 1] += unit;
+                    continue;
+                }
+                fromRun[runs] = from.inner[j];
+                toRun[runs] = to.inner[j];
+                runLength[runs++] = unit;
+            }
+            this.runs = runs;
+        }
+
+        int length() {
+            return from.inner.length;
+        }
+
+        void copy(int fromSlice, int toSlice) {
+            int fromOffset = from.slice(fromSlice), toOffset = to.slice(toSlice);
+            for (int r = 0; r < runs; r++)
+                copy(from.data, fromOffset + fromRun[r], to.data, toOffset + toRun[r], runLength[r]);
+        }
+
+        void add(int fromSlice, int toSlice) {
+            int fromOffset = from.slice(fromSlice), toOffset = to.slice(toSlice);
+            for (int r = 0; r < runs; r++)
+                add(from.data, fromOffset + fromRun[r], to.data, toOffset + toRun[r], runLength[r]);
+        }
+
+        private static void copy(DataBuffer from, int fromOffset, DataBuffer to, int toOffset, int n) {
+            if (from.allocationMode() == DataBuffer.AllocationMode.HEAP && to.allocationMode() == DataBuffer.AllocationMode.HEAP) {
+                Object src = from.array(), dest = to.array();
+                if (src.getClass() == dest.getClass()) {
+                    System.arraycopy(src, fromOffset, dest, toOffset, n);
+                    return;
+                }
+            }
+
+            for (int i = 0; i < n; i++)
+                to.put(toOffset + i, from.getDouble(fromOffset + i));
+        }
+
+        private static void add(DataBuffer from, int fromOffset, DataBuffer to, int toOffset, int n) {
+            if (from.allocationMode() == DataBuffer.AllocationMode.HEAP && to.allocationMode() == DataBuffer.AllocationMode.HEAP) {
+                Object src = from.array(), dest = to.array();
+                if (src instanceof double[] && dest instanceof double[]) {
+                    double[] s = (double[]) src, d = (double[]) dest;
+                    for (int i = 0; i < n; i++)
+                        d[toOffset + i] += s[fromOffset + i];
+                    return;
+                }
+                if (src instanceof float[] && dest instanceof float[]) {
+                    float[] s = (float[]) src, d = (float[]) dest;
+                    for (int i = 0; i < n; i++)
+                        d[toOffset + i] += s[fromOffset + i];
+                    return;
+                }
+            }
+
+            for (int i = 0; i < n; i++)
+                to.put(toOffset + i, to.getDouble(toOffset + i) + from.getDouble(fromOffset + i));
+        }
+    }
+
+}
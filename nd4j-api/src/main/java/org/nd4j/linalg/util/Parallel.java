@@ -0,0 +1,147 @@
+/*
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ *
+ */
+
+package org.nd4j.linalg.util;
+
+import org.nd4j.linalg.api.ops.executioner.DefaultOpExecutioner;
+import org.nd4j.linalg.api.ops.executioner.OpExecutioner;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Splits a range of independent work items over one shared fork join pool.
+ *
+ * The pool is sized once by {@link Nd4j#PARALLEL_THREADS}.
+ * Work smaller than the parallel threshold of the op executioner
+ * ({@link Nd4j#PARALLEL_THRESHOLD}) runs on the calling thread.
+ * Calls made from inside a fork join task (eg: a sort inside a batched gemm)
+ * fork in to the pool of that task rather than starting more threads.
+ *
+ * @author Adam Gibson
+ */
+public class Parallel {
+    private static final int PARALLELISM = Math.max(1, Integer.parseInt(System.getProperty(Nd4j.PARALLEL_THREADS, String.valueOf(Runtime.getRuntime().availableProcessors()))));
+    private static ForkJoinPool forkJoinPool;
+
+    /**
+     * A task over a range of work items
+     */
+    public interface RangeTask {
+        /**
+         * Handle the items from (inclusive) to (exclusive)
+         *
+         * @param from the first item
+         * @param to   the item after the last
+         */
+        void run(int from, int to);
+    }
+
+    private Parallel() {
+    }
+
+    /**
+     * Run the task over the items 0 to count,
+     * splitting the range over the shared pool when there is enough work
+     *
+     * @param count the number of work items
+     * @param work  the total amount of work (eg: the number of elements touched)
+     * @param task  the task to run
+     */
+    public static void run(int count, long work, RangeTask task) {
+        if (count < 2 || PARALLELISM < 2 || work < threshold()) {
+            task.run(0, count);
+            return;
+        }
+
+        int chunk = Math.max(1, count / (PARALLELISM * 4));
+        RangeAction action = new RangeAction(task, 0, count, chunk);
+        if (ForkJoinTask.inForkJoinPool())
+            action.invoke();
+        else
+            forkJoinPool().invoke(action);
+    }
+
+    /**
+     * Invoke the task on the shared pool and wait for its result.
+     * Tasks invoked from inside a fork join task run in the pool of that task.
+     *
+     * @param task the task to run
+     * @param <T>  the result type of the task
+     * @return the result of the task
+     */
+    public static <T> T invoke(ForkJoinTask<T> task) {
+        if (ForkJoinTask.inForkJoinPool())
+            return task.invoke();
+        return forkJoinPool().invoke(task);
+    }
+
+    /**
+     * The number of threads in the shared pool
+     *
+     * @return the parallelism
+     */
+    public static int parallelism() {
+        return PARALLELISM;
+    }
+
+    /**
+     * The amount of work below which {@link #run(int, long, RangeTask)}
+     * stays on the calling thread
+     *
+     * @return the parallel threshold
+     */
+    public static long threshold() {
+        OpExecutioner executioner = Nd4j.getExecutioner();
+        if (executioner instanceof DefaultOpExecutioner)
+            return ((DefaultOpExecutioner) executioner).getParallelThreshold();
+        return Long.parseLong(System.getProperty(Nd4j.PARALLEL_THRESHOLD, "65536"));
+    }
+
+    private static synchronized ForkJoinPool forkJoinPool() {
+        if (forkJoinPool == null)
+            forkJoinPool = new ForkJoinPool(PARALLELISM);
+        return forkJoinPool;
+    }
+
+    private static class RangeAction extends RecursiveAction {
+        private final RangeTask task;
+        private final int from, to, chunk;
+
+        RangeAction(RangeTask task, int from, int to, int chunk) {
+            this.task = task;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunk) {
+                task.run(from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RangeAction(task, from, mid, chunk), new RangeAction(task, mid, to, chunk));
+        }
+    }
+
+}
@@ -0,0 +1,420 @@
+/*
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ *
+ */
+
+package org.nd4j.linalg.util;
+
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.complex.IComplexNDArray;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.executioner.StridedIterator;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.Arrays;
+
+/**
+ * Sorting, arg sorting and top k selection
+ * of the vectors along a dimension of an ndarray.
+ *
+ * The vectors are read and written through the strides of the array
+ * (views are sorted in place) in to primitive scratch arrays:
+ * nothing is boxed and the scratch arrays are reused for every
+ * vector handled by a thread. The vectors are spread over the shared {@link Parallel} pool.
+ *
+ * Complex numbers are ordered by their absolute value.
+ * Index sorts are stable: equal elements keep their order.
+ *
+ * @author Adam Gibson
+ */
+public class SortKernels {
+    //ranges this short are insertion sorted
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    private SortKernels() {
+    }
+
+    /**
+     * Sort the vectors along the given dimension in place
+     *
+     * @param arr       the array to sort
+     * @param dimension the dimension to sort along
+     * @param ascending whether to sort in ascending order
+     * @return the sorted array
+     */
+    public static INDArray sort(INDArray arr, int dimension, final boolean ascending) {
+        if (arr instanceof IComplexNDArray) {
+            sortWithIndices((IComplexNDArray) arr, null, dimension, ascending);
+            return arr;
+        }
+
+        final Vectors vectors = new Vectors(arr, dimension);
+        Parallel.run(vectors.count(), arr.length(), new Parallel.RangeTask() {
+            @Override
+            public void run(int from, int to) {
+                double[] data = new double[vectors.length];
+                for (int i = from; i < to; i++) {
+                    vectors.read(i, data);
+                    Arrays.sort(data);
+                    if (!ascending)
+                        reverse(data);
+                    vectors.write(i, data);
+                }
+            }
+        });
+
+        return arr;
+    }
+
+    /**
+     * Sort the vectors along the given dimension in place
+     * and store where each sorted element came from
+     *
+     * @param arr       the array to sort
+     * @param indices   the array (of the same shape) to store the
+     *                  original index of each sorted element in
+     * @param dimension the dimension to sort along
+     * @param ascending whether to sort in ascending order
+     * @return the indices
+     */
+    public static INDArray sortWithIndices(INDArray arr, INDArray indices, int dimension, final boolean ascending) {
+        if (arr instanceof IComplexNDArray)
+            return sortWithIndices((IComplexNDArray) arr, indices, dimension, ascending);
+
+        final Vectors vectors = new Vectors(arr, dimension);
+        final Vectors indexVectors = new Vectors(indices, dimension);
+        Parallel.run(vectors.count(), arr.length(), new Parallel.RangeTask() {
+            @Override
+            public void run(int from, int to) {
+                double[] data = new double[vectors.length];
+                double[] sorted = new double[vectors.length];
+                int[] index = new int[vectors.length];
+                int[] tmp = new int[vectors.length];
+                for (int i = from; i < to; i++) {
+                    vectors.read(i, data);
+                    argsort(data, index, tmp, !ascending);
+                    for (int j = 0; j < index.length; j++)
+                        sorted[j] = data[index[j]];
+                    vectors.write(i, sorted);
+                    indexVectors.write(i, index);
+                }
+            }
+        });
+
+        return indices;
+    }
+
+    /**
+     * The indices that would sort the vectors along the given dimension.
+     * The array isn't modified
+     *
+     * @param arr       the array to arg sort
+     * @param dimension the dimension to sort along
+     * @param ascending whether to sort in ascending order
+     * @return an array of the same shape with the index of
+     * each sorted element along the dimension
+     */
+    public static INDArray argsort(INDArray arr, int dimension, final boolean ascending) {
+        INDArray ret = Nd4j.create(arr.shape());
+        final Vectors vectors = new Vectors(arr, dimension);
+        final Vectors indexVectors = new Vectors(ret, dimension);
+        Parallel.run(vectors.count(), arr.length(), new Parallel.RangeTask() {
+            @Override
+            public void run(int from, int to) {
+                double[] keys = new double[vectors.length];
+                int[] index = new int[vectors.length];
+                int[] tmp = new int[vectors.length];
+                for (int i = from; i < to; i++) {
+                    vectors.readKeys(i, keys);
+                    argsort(keys, index, tmp, !ascending);
+                    indexVectors.write(i, index);
+                }
+            }
+        });
+
+        return ret;
+    }
+
+    /**
+     * The k largest (or smallest) elements of each vector along the given dimension,
+     * found by partial selection rather than a full sort.
+     * The array isn't modified
+     *
+     * @param arr       the array to select from
+     * @param k         the number of elements to select from each vector
+     * @param dimension the dimension to select along
+     * @param largest   whether to select the largest elements (or the smallest)
+     * @return the indices and the values (in that order) of the selected elements:
+     * arrays with the shape of the input except k along the dimension,
+     * ordered from the largest (smallest) element, ties by index
+     */
+    public static INDArray[] topK(INDArray arr, final int k, int dimension, final boolean largest) {
+        final Vectors vectors = new Vectors(arr, dimension);
+        if (k < 1 || k > vectors.length)
+            throw new IllegalArgumentException("K must be between 1 and " + vectors.length);
+
+        int[] shape = arr.shape().clone();
+        shape[vectors.dimension] = k;
+        final INDArray indices = Nd4j.create(shape);
+        final INDArray values = arr instanceof IComplexNDArray ? Nd4j.createComplex(shape) : Nd4j.create(shape);
+        final Vectors indexVectors = new Vectors(indices, dimension);
+        final Vectors valueVectors = new Vectors(values, dimension);
+        Parallel.run(vectors.count(), arr.length(), new Parallel.RangeTask() {
+            @Override
+            public void run(int from, int to) {
+                double[] keys = new double[vectors.length];
+                int[] index = new int[vectors.length];
+                int[] tmp = new int[k];
+                for (int i = from; i < to; i++) {
+                    vectors.readKeys(i, keys);
+                    for (int j = 0; j < index.length; j++)
+                        index[j] = j;
+                    select(keys, index, 0, index.length - 1, k - 1, largest);
+                    //index order first so the stable sort orders ties by index
+                    Arrays.sort(index, 0, k);
+                    mergeSort(keys, index, tmp, 0, k, largest);
+                    indexVectors.write(i, index, k);
+                    valueVectors.copy(i, vectors, i, index, k);
+                }
+            }
+        });
+
+        return new INDArray[]{indices, values};
+    }
+
+    private static INDArray sortWithIndices(final IComplexNDArray arr, INDArray indices, int dimension, final boolean ascending) {
+        final Vectors vectors = new Vectors(arr, dimension);
+        final Vectors indexVectors = indices != null ? new Vectors(indices, dimension) : null;
+        Parallel.run(vectors.count(), arr.length(), new Parallel.RangeTask() {
+            @Override
+            public void run(int from, int to) {
+                double[] keys = new double[vectors.length];
+                double[] data = new double[2 * vectors.length];
+                int[] index = new int[vectors.length];
+                int[] tmp = new int[vectors.length];
+                for (int i = from; i < to; i++) {
+                    vectors.readKeys(i, keys);
+                    argsort(keys, index, tmp, !ascending);
+                    int offset = vectors.offsets[i];
+                    for (int j = 0; j < index.length; j++) {
+                        data[2 * j] = vectors.data.getDouble(offset + j * vectors.stride);
+                        data[2 * j + 1] = vectors.data.getDouble(offset + j * vectors.stride + 1);
+                    }
+                    for (int j = 0; j < index.length; j++) {
+                        vectors.data.put(offset + j * vectors.stride, data[2 * index[j]]);
+                        vectors.data.put(offset + j * vectors.stride + 1, data[2 * index[j] + 1]);
+                    }
+                    if (indexVectors != null)
+                        indexVectors.write(i, index);
+                }
+            }
+        });
+
+        return indices;
+    }
+
+    //the stable order of the keys in to index
+    private static void argsort(double[] keys, int[] index, int[] tmp, boolean descending) {
+        for (int i = 0; i < index.length; i++)
+            index[i] = i;
+        mergeSort(keys, index, tmp, 0, index.length, descending);
+    }
+
+    //whether the element at a goes before the element at b
+    private static boolean before(double[] keys, int a, int b, boolean descending) {
+        int c = Double.compare(keys[a], keys[b]);
+        return descending ? c > 0 : c < 0;
+    }
+
+    //a total order for selection: ties are broken by index
+    private static boolean beforeOrLower(double[] keys, int a, int b, boolean largest) {
+        int c = Double.compare(keys[a], keys[b]);
+        if (c == 0)
+            return a < b;
+        return largest ? c > 0 : c < 0;
+    }
+
+    //stable merge sort of index[from, to) by the keys (tmp is scratch of at least to - from)
+    private static void mergeSort(double[] keys, int[] index, int[] tmp, int from, int to, boolean descending) {
+        if (to - from <= INSERTION_SORT_THRESHOLD) {
+            for (int i = from + 1; i < to; i++) {
+                int curr = index[i];
+                int j = i - 1;
+                while (j >= from && before(keys, curr, index[j], descending)) {
+                    index[j + 1] = index[j];
+                    j--;
+                }
+                index[j + 1] = curr;
+            }
+            return;
+        }
+
+        int mid = (from + to) >>> 1;
+        mergeSort(keys, index, tmp, from, mid, descending);
+        mergeSort(keys, index, tmp, mid, to, descending);
+        //already in order
+        if (!before(keys, index[mid], index[mid - 1], descending))
+            return;
+
+        System.arraycopy(index, from, tmp, 0, mid - from);
+        int i = 0, j = mid, k = from;
+        int leftLength = mid - from;
+        while (i < leftLength && j < to) {
+            if (before(keys, index[j], tmp[i], descending))
+                index[k++] = index[j++];
+            else
+                index[k++] = tmp[i++];
+        }
+        while (i < leftLength)
+            index[k++] = tmp[i++];
+    }
+
+    //partitions index[lo, hi] so the element at k is in its sorted place and every element before it goes before it
+    private static void select(double[] keys, int[] index, int lo, int hi, int k, boolean largest) {
+        while (hi > lo) {
+            //median of 3 pivot
+            int mid = (lo + hi) >>> 1;
+            if (beforeOrLower(keys, index[mid], index[lo], largest))
+                swap(index, lo, mid);
+            if (beforeOrLower(keys, index[hi], index[lo], largest))
+                swap(index, lo, hi);
+            if (beforeOrLower(keys, index[hi], index[mid], largest))
+                swap(index, mid, hi);
+            int pivot = index[mid];
+            int i = lo, j = hi;
+            while (i <= j) {
+                while (beforeOrLower(keys, index[i], pivot, largest))
+                    i++;
+                while (beforeOrLower(keys, pivot, index[j], largest))
+                    j--;
+                if (i <= j)
+                    swap(index, i++, j--);
+            }
+
+            if (k <= j)
+                hi = j;
+            else if (k >= i)
+                lo = i;
+            else
+                return;
+        }
+    }
+
+    private static void swap(int[] index, int i, int j) {
+        int tmp = index[i];
+        index[i] = index[j];
+        index[j] = tmp;
+    }
+
+    private static void reverse(double[] data) {
+        for (int i = 0, j = data.length - 1; i < j; i++, j--) {
+            double tmp = data[i];
+            data[i] = data[j];
+            data[j] = tmp;
+        }
+    }
+
+    /**
+     * The vectors along a dimension of an array:
+     * the buffer offset of each vector and the stride within a vector
+     */
+    private static class Vectors {
+        private DataBuffer data;
+        private boolean complex;
+        private int dimension, length, stride;
+        private int[] offsets;
+
+        Vectors(INDArray arr, int dimension) {
+            int rank = arr.rank();
+            this.dimension = dimension < 0 ? dimension + rank : dimension;
+            if (this.dimension < 0 || this.dimension >= rank)
+                throw new IllegalArgumentException("Illegal dimension " + dimension + " for an array of rank " + rank);
+
+            int[] shape = arr.shape();
+            int[] strides = arr.stride().clone();
+            //the strides of vector views aren't per dimension: step through them by their major stride
+            if (arr.isVector())
+                for (int i = 0; i < rank; i++)
+                    if (shape[i] > 1)
+                        strides[i] = arr.majorStride();
+
+            data = arr.data();
+            complex = arr instanceof IComplexNDArray;
+            length = shape[this.dimension];
+            stride = strides[this.dimension];
+            int[] outerShape = ArrayUtil.removeIndex(shape, this.dimension);
+            int[] outerStride = ArrayUtil.removeIndex(strides, this.dimension);
+            offsets = new int[ArrayUtil.prod(outerShape)];
+            StridedIterator iter = new StridedIterator(outerShape, outerStride, arr.offset());
+            for (int i = 0; i < offsets.length; i++)
+                offsets[i] = iter.next();
+        }
+
+        int count() {
+            return offsets.length;
+        }
+
+        void read(int vector, double[] to) {
+            int offset = offsets[vector];
+            for (int j = 0; j < length; j++)
+                to[j] = data.getDouble(offset + j * stride);
+        }
+
+        //the values compared when sorting: the absolute value of complex numbers
+        void readKeys(int vector, double[] to) {
+            if (!complex) {
+                read(vector, to);
+                return;
+            }
+
+            int offset = offsets[vector];
+            for (int j = 0; j < length; j++) {
+                int idx = offset + j * stride;
+                to[j] = Math.hypot(data.getDouble(idx), data.getDouble(idx + 1));
+            }
+        }
+
+        void write(int vector, double[] from) {
+            int offset = offsets[vector];
+            for (int j = 0; j < length; j++)
+                data.put(offset + j * stride, from[j]);
+        }
+
+        void write(int vector, int[] from) {
+            write(vector, from, length);
+        }
+
+        void write(int vector, int[] from, int n) {
+            int offset = offsets[vector];
+            for (int j = 0; j < n; j++)
+                data.put(offset + j * stride, from[j]);
+        }
+
+        //copy the elements at the given indices of a vector of another array in to a vector of this one
+        void copy(int vector, Vectors from, int fromVector, int[] index, int n) {
+            int offset = offsets[vector];
+            int fromOffset = from.offsets[fromVector];
+            for (int j = 0; j < n; j++) {
+                int idx = fromOffset + index[j] * from.stride;
+                data.put(offset + j * stride, from.data.getDouble(idx));
+                if (complex)
+                    data.put(offset + j * stride + 1, from.data.getDouble(idx + 1));
+            }
+        }
+    }
+
+}
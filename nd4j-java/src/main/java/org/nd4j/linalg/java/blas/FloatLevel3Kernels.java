@@ -0,0 +1,425 @@
+package org.nd4j.linalg.java.blas;
+
+import org.nd4j.linalg.util.Parallel;
+
+import static org.nd4j.linalg.java.blas.Level3Kernels.*;
+
+/**
+ * Pure java single precision level 3 blas.
+ *
+ * Matrices are column major and passed the way netlib passes them:
+ * an array, the offset of the first element and the leading dimension.
+ * Gemm packs op(a) and op(b) in to cache sized blocks and runs a register blocked
+ * micro kernel over them in parallel over macro tiles of c (see {@link Level3Kernels}).
+ * syrk, syr2k, symm, trmm and trsm are blocked so that the bulk of their work is gemm.
+ *
+ * @author Adam Gibson
+ */
+public class FloatLevel3Kernels {
+
+    private FloatLevel3Kernels() {
+    }
+
+    /**
+     * c := alpha * op(a) * op(b) + beta * c
+     * where op(a) is m x k, op(b) is k x n and c is m x n
+     */
+    public static void gemm(boolean transA, boolean transB, int m, int n, int k, float alpha,
+                            float[] a, int aOffset, int lda, float[] b, int bOffset, int ldb,
+                            float beta, float[] c, int cOffset, int ldc) {
+        if(m == 0 || n == 0)
+            return;
+        scale(m, n, beta, c, cOffset, ldc);
+        if(alpha == 0 || k == 0)
+            return;
+
+        final boolean parallel = parallel(m, n, k);
+        final int mc = blockRows(m, parallel);
+        final int rowBlocks = (m + mc - 1) / mc;
+        final float[] packedB = new float[roundUp(Math.min(n, NC), NR) * Math.min(k, KC)];
+        float[] packedA = null;
+        for(int jc = 0; jc < n; jc += NC) {
+            final int nc = Math.min(NC, n - jc);
+            for(int pc = 0; pc < k; pc += KC) {
+                final int kc = Math.min(KC, k - pc);
+                packB(transB, kc, nc, b, bOffset + index(transB, pc, jc, ldb), ldb, packedB);
+                final Panel panel = new Panel(transA, alpha, a, aOffset + index(transA, 0, pc, lda), lda,
+                        packedB, kc, c, cOffset + jc * ldc, ldc);
+                int parts = columnParts(rowBlocks, nc, parallel);
+                if(!parallel || rowBlocks * parts == 1) {
+                    if(packedA == null)
+                        packedA = new float[mc * Math.min(k, KC)];
+                    for(int ic = 0; ic < m; ic += mc)
+                        panel.tile(ic, Math.min(mc, m - ic), 0, nc, packedA);
+                    continue;
+                }
+
+                final int partColumns = roundUp((nc + parts - 1) / parts, NR);
+                final int columnTiles = (nc + partColumns - 1) / partColumns;
+                final int rows = m;
+                Parallel.run(rowBlocks * columnTiles, (long) m * nc * kc, new Parallel.RangeTask() {
+                    @Override
+                    public void run(int from, int to) {
+                        for(int tile = from; tile < to; tile++) {
+                            int ic = tile / columnTiles * mc, jr = tile % columnTiles * partColumns;
+                            int tileRows = Math.min(mc, rows - ic);
+                            panel.tile(ic, tileRows, jr, Math.min(partColumns, nc - jr), new float[roundUp(tileRows, MR) * kc]);
+                        }
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * c := alpha * op(a) * op(a)' + beta * c
+     * where op(a) is n x k and only the uplo triangle of c is updated
+     */
+    public static void syrk(boolean upper, boolean trans, int n, int k, float alpha,
+                            float[] a, int aOffset, int lda, float beta, float[] c, int cOffset, int ldc) {
+        rankUpdate(upper, trans, n, k, alpha, a, aOffset, lda, null, 0, 0, beta, c, cOffset, ldc);
+    }
+
+    /**
+     * c := alpha * op(a) * op(b)' + alpha * op(b) * op(a)' + beta * c
+     * where op(a) and op(b) are n x k and only the uplo triangle of c is updated
+     */
+    public static void syr2k(boolean upper, boolean trans, int n, int k, float alpha,
+                             float[] a, int aOffset, int lda, float[] b, int bOffset, int ldb,
+                             float beta, float[] c, int cOffset, int ldc) {
+        rankUpdate(upper, trans, n, k, alpha, a, aOffset, lda, b, bOffset, ldb, beta, c, cOffset, ldc);
+    }
+
+    /**
+     * c := alpha * a * b + beta * c (left) or c := alpha * b * a + beta * c (right)
+     * where a is symmetric with only its uplo triangle referenced and c is m x n
+     */
+    public static void symm(boolean left, boolean upper, int m, int n, float alpha,
+                            float[] a, int aOffset, int lda, float[] b, int bOffset, int ldb,
+                            float beta, float[] c, int cOffset, int ldc) {
+        int ka = left ? m : n;
+        float[] full = new float[ka * ka];
+        for(int j = 0; j < ka; j++) {
+            for(int i = 0; i < ka; i++) {
+                boolean stored = upper ? i <= j : i >= j;
+                full[i + j * ka] = stored ? a[aOffset + i + j * lda] : a[aOffset + j + i * lda];
+            }
+        }
+
+        if(left)
+            gemm(false, false, m, n, m, alpha, full, 0, ka, b, bOffset, ldb, beta, c, cOffset, ldc);
+        else
+            gemm(false, false, m, n, n, alpha, b, bOffset, ldb, full, 0, ka, beta, c, cOffset, ldc);
+    }
+
+    /**
+     * b := alpha * op(a) * b (left) or b := alpha * b * op(a) (right)
+     * where a is triangular and b is m x n
+     */
+    public static void trmm(boolean left, boolean upper, boolean trans, boolean unit, int m, int n, float alpha,
+                            float[] a, int aOffset, int lda, float[] b, int bOffset, int ldb) {
+        if(m == 0 || n == 0)
+            return;
+        int ka = left ? m : n;
+        float[] t = triangular(upper, trans, unit, ka, a, aOffset, lda);
+        float[] copy = new float[m * n];
+        for(int j = 0; j < n; j++)
+            System.arraycopy(b, bOffset + j * ldb, copy, j * m, m);
+
+        if(left)
+            gemm(false, false, m, n, m, alpha, t, 0, ka, copy, 0, m, 0, b, bOffset, ldb);
+        else
+            gemm(false, false, m, n, n, alpha, copy, 0, m, t, 0, ka, 0, b, bOffset, ldb);
+    }
+
+    /**
+     * Solves op(a) * x = alpha * b (left) or x * op(a) = alpha * b (right)
+     * where a is triangular, overwriting the m x n matrix b with x
+     */
+    public static void trsm(boolean left, boolean upper, boolean trans, boolean unit, int m, int n, float alpha,
+                            float[] a, int aOffset, int lda, float[] b, int bOffset, int ldb) {
+        if(m == 0 || n == 0)
+            return;
+        scale(m, n, alpha, b, bOffset, ldb);
+        if(alpha == 0)
+            return;
+
+        int ka = left ? m : n;
+        float[] t = triangular(upper, trans, unit, ka, a, aOffset, lda);
+        boolean lower = upper == trans;
+        if(left && lower) {
+            for(int i = 0; i < m; i += NB) {
+                int ib = Math.min(NB, m - i);
+                gemm(false, false, ib, n, i, -1, t, i, ka, b, bOffset, ldb, 1, b, bOffset + i, ldb);
+                for(int col = 0; col < n; col++) {
+                    int x = bOffset + i + col * ldb;
+                    for(int l = 0; l < ib; l++) {
+                        int tl = i + l + (i + l) * ka;
+                        float xl = b[x + l] /= t[tl];
+                        for(int r = l + 1; r < ib; r++)
+                            b[x + r] -= t[tl + r - l] * xl;
+                    }
+                }
+            }
+        }
+        else if(left) {
+            for(int i = (m - 1) / NB * NB; i >= 0; i -= NB) {
+                int ib = Math.min(NB, m - i);
+                gemm(false, false, ib, n, m - i - ib, -1, t, i + (i + ib) * ka, ka, b, bOffset + i + ib, ldb, 1, b, bOffset + i, ldb);
+                for(int col = 0; col < n; col++) {
+                    int x = bOffset + i + col * ldb;
+                    for(int l = ib - 1; l >= 0; l--) {
+                        int tl = i + (i + l) * ka;
+                        float xl = b[x + l] /= t[tl + l];
+                        for(int r = 0; r < l; r++)
+                            b[x + r] -= t[tl + r] * xl;
+                    }
+                }
+            }
+        }
+        else if(!lower) {
+            for(int j = 0; j < n; j += NB) {
+                int jb = Math.min(NB, n - j);
+                gemm(false, false, m, jb, j, -1, b, bOffset, ldb, t, j * ka, ka, 1, b, bOffset + j * ldb, ldb);
+                for(int jj = 0; jj < jb; jj++) {
+                    int x = bOffset + (j + jj) * ldb;
+                    for(int l = 0; l < jj; l++)
+                        axpy(m, -t[j + l + (j + jj) * ka], b, bOffset + (j + l) * ldb, b, x);
+                    divide(m, t[j + jj + (j + jj) * ka], b, x);
+                }
+            }
+        }
+        else {
+            for(int j = (n - 1) / NB * NB; j >= 0; j -= NB) {
+                int jb = Math.min(NB, n - j);
+                gemm(false, false, m, jb, n - j - jb, -1, b, bOffset + (j + jb) * ldb, ldb, t, j + jb + j * ka, ka, 1, b, bOffset + j * ldb, ldb);
+                for(int jj = jb - 1; jj >= 0; jj--) {
+                    int x = bOffset + (j + jj) * ldb;
+                    for(int l = jj + 1; l < jb; l++)
+                        axpy(m, -t[j + l + (j + jj) * ka], b, bOffset + (j + l) * ldb, b, x);
+                    divide(m, t[j + jj + (j + jj) * ka], b, x);
+                }
+            }
+        }
+    }
+
+
+    private static void rankUpdate(boolean upper, boolean trans, int n, int k, float alpha,
+                                   float[] a, int aOffset, int lda, float[] b, int bOffset, int ldb,
+                                   float beta, float[] c, int cOffset, int ldc) {
+        if(n == 0)
+            return;
+        if(alpha == 0 || k == 0) {
+            for(int j = 0; j < n; j++) {
+                int from = upper ? 0 : j, to = upper ? j + 1 : n;
+                for(int i = from; i < to; i++) {
+                    int idx = cOffset + i + j * ldc;
+                    c[idx] = beta == 0 ? 0 : beta * c[idx];
+                }
+            }
+            return;
+        }
+
+        //row i of op(a) starts here
+        int rowStride = trans ? lda : 1;
+        int bRowStride = trans ? ldb : 1;
+        float[] diagonal = new float[NB * NB];
+        for(int j = 0; j < n; j += NB) {
+            int jb = Math.min(NB, n - j);
+            gemm(trans, !trans, jb, jb, k, alpha, a, aOffset + j * rowStride, lda,
+                    b != null ? b : a, b != null ? bOffset + j * bRowStride : aOffset + j * rowStride, b != null ? ldb : lda,
+                    0, diagonal, 0, jb);
+            if(b != null)
+                gemm(trans, !trans, jb, jb, k, alpha, b, bOffset + j * bRowStride, ldb, a, aOffset + j * rowStride, lda,
+                        1, diagonal, 0, jb);
+            for(int jj = 0; jj < jb; jj++) {
+                int from = upper ? 0 : jj, to = upper ? jj + 1 : jb;
+                for(int ii = from; ii < to; ii++) {
+                    int idx = cOffset + j + ii + (j + jj) * ldc;
+                    c[idx] = (beta == 0 ? 0 : beta * c[idx]) + diagonal[ii + jj * jb];
+                }
+            }
+
+            int row = upper ? 0 : j + jb;
+            int rows = upper ? j : n - j - jb;
+            if(rows == 0)
+                continue;
+            int cBlock = cOffset + row + j * ldc;
+            if(b == null)
+                gemm(trans, !trans, rows, jb, k, alpha, a, aOffset + row * rowStride, lda, a, aOffset + j * rowStride, lda, beta, c, cBlock, ldc);
+            else {
+                gemm(trans, !trans, rows, jb, k, alpha, a, aOffset + row * rowStride, lda, b, bOffset + j * bRowStride, ldb, beta, c, cBlock, ldc);
+                gemm(trans, !trans, rows, jb, k, alpha, b, bOffset + row * bRowStride, ldb, a, aOffset + j * rowStride, lda, 1, c, cBlock, ldc);
+            }
+        }
+    }
+
+    /**
+     * op(a) as a dense column major ka x ka matrix
+     * with zeros outside of the triangle
+     */
+    private static float[] triangular(boolean upper, boolean trans, boolean unit, int ka, float[] a, int aOffset, int lda) {
+        float[] t = new float[ka * ka];
+        for(int j = 0; j < ka; j++) {
+            for(int i = 0; i < ka; i++) {
+                int r = trans ? j : i, s = trans ? i : j;
+                if(r == s)
+                    t[i + j * ka] = unit ? 1 : a[aOffset + r + s * lda];
+                else if(upper ? r < s : r > s)
+                    t[i + j * ka] = a[aOffset + r + s * lda];
+            }
+        }
+        return t;
+    }
+
+    private static void axpy(int n, float alpha, float[] x, int xOffset, float[] y, int yOffset) {
+        if(alpha == 0)
+            return;
+        for(int i = 0; i < n; i++)
+            y[yOffset + i] += alpha * x[xOffset + i];
+    }
+
+    private static void divide(int n, float divisor, float[] x, int xOffset) {
+        if(divisor == 1)
+            return;
+        for(int i = 0; i < n; i++)
+            x[xOffset + i] /= divisor;
+    }
+
+    private static void scale(int m, int n, float beta, float[] c, int cOffset, int ldc) {
+        if(beta == 1)
+            return;
+        for(int j = 0; j < n; j++) {
+            int col = cOffset + j * ldc;
+            if(beta == 0) {
+                for(int i = 0; i < m; i++)
+                    c[col + i] = 0;
+            }
+            else {
+                for(int i = 0; i < m; i++)
+                    c[col + i] *= beta;
+            }
+        }
+    }
+
+    /**
+     * Offset of element (row,column) of op(x)
+     */
+    private static int index(boolean trans, int row, int column, int ld) {
+        return trans ? column + row * ld : row + column * ld;
+    }
+
+    /**
+     * Pack a kc x nc panel of op(b) in to slivers NR columns wide,
+     * each stored row by row, zero padding the last sliver
+     */
+    private static void packB(boolean trans, int kc, int nc, float[] b, int offset, int ldb, float[] packed) {
+        int idx = 0;
+        for(int j = 0; j < nc; j += NR) {
+            int nr = Math.min(NR, nc - j);
+            for(int p = 0; p < kc; p++) {
+                for(int jj = 0; jj < NR; jj++)
+                    packed[idx++] = jj < nr ? b[offset + index(trans, p, j + jj, ldb)] : 0;
+            }
+        }
+    }
+
+    /**
+     * Pack an mc x kc block of op(a) in to slivers MR rows high,
+     * each stored column by column, zero padding the last sliver
+     */
+    private static void packA(boolean trans, int mc, int kc, float[] a, int offset, int lda, float[] packed) {
+        int idx = 0;
+        for(int i = 0; i < mc; i += MR) {
+            int mr = Math.min(MR, mc - i);
+            for(int p = 0; p < kc; p++) {
+                for(int ii = 0; ii < MR; ii++)
+                    packed[idx++] = ii < mr ? a[offset + index(trans, i + ii, p, lda)] : 0;
+            }
+        }
+    }
+
+    /**
+     * A packed kc deep panel of op(b) along with the matching columns of op(a) and c
+     * which is split in to macro tiles of c
+     */
+    private static class Panel {
+        private final boolean transA;
+        private final float alpha;
+        private final float[] a;
+        private final int aOffset, lda;
+        private final float[] packedB;
+        private final int kc;
+        private final float[] c;
+        private final int cOffset, ldc;
+
+        private Panel(boolean transA, float alpha, float[] a, int aOffset, int lda, float[] packedB, int kc, float[] c, int cOffset, int ldc) {
+            this.transA = transA;
+            this.alpha = alpha;
+            this.a = a;
+            this.aOffset = aOffset;
+            this.lda = lda;
+            this.packedB = packedB;
+            this.kc = kc;
+            this.c = c;
+            this.cOffset = cOffset;
+            this.ldc = ldc;
+        }
+
+        /**
+         * Multiply rows [row,row + rows) of op(a) with columns
+         * [column,column + columns) of the packed panel, column must be a multiple of NR
+         */
+        void tile(int row, int rows, int column, int columns, float[] packedA) {
+            packA(transA, rows, kc, a, aOffset + index(transA, row, 0, lda), lda, packedA);
+            for(int j = 0; j < columns; j += NR) {
+                int nr = Math.min(NR, columns - j);
+                int bIdx = (column + j) * kc;
+                for(int i = 0; i < rows; i += MR) {
+                    int mr = Math.min(MR, rows - i);
+                    micro(packedA, i * kc, bIdx, cOffset + row + i + (column + j) * ldc, mr, nr);
+                }
+            }
+        }
+
+        /**
+         * The MR x NR register tile
+         */
+        private void micro(float[] packedA, int aIdx, int bIdx, int cIdx, int mr, int nr) {
+            float c00 = 0, c01 = 0, c02 = 0, c03 = 0;
+            float c10 = 0, c11 = 0, c12 = 0, c13 = 0;
+            float c20 = 0, c21 = 0, c22 = 0, c23 = 0;
+            float c30 = 0, c31 = 0, c32 = 0, c33 = 0;
+            float[] b = packedB;
+            for(int p = 0; p < kc; p++) {
+                float a0 = packedA[aIdx], a1 = packedA[aIdx + 1], a2 = packedA[aIdx + 2], a3 = packedA[aIdx + 3];
+                float b0 = b[bIdx], b1 = b[bIdx + 1], b2 = b[bIdx + 2], b3 = b[bIdx + 3];
+                c00 += a0 * b0; c01 += a0 * b1; c02 += a0 * b2; c03 += a0 * b3;
+                c10 += a1 * b0; c11 += a1 * b1; c12 += a1 * b2; c13 += a1 * b3;
+                c20 += a2 * b0; c21 += a2 * b1; c22 += a2 * b2; c23 += a2 * b3;
+                c30 += a3 * b0; c31 += a3 * b1; c32 += a3 * b2; c33 += a3 * b3;
+                aIdx += MR;
+                bIdx += NR;
+            }
+
+            if(mr == MR && nr == NR) {
+                int c0 = cIdx, c1 = cIdx + ldc, c2 = c1 + ldc, c3 = c2 + ldc;
+                c[c0] += alpha * c00; c[c0 + 1] += alpha * c10; c[c0 + 2] += alpha * c20; c[c0 + 3] += alpha * c30;
+                c[c1] += alpha * c01; c[c1 + 1] += alpha * c11; c[c1 + 2] += alpha * c21; c[c1 + 3] += alpha * c31;
+                c[c2] += alpha * c02; c[c2 + 1] += alpha * c12; c[c2 + 2] += alpha * c22; c[c2 + 3] += alpha * c32;
+                c[c3] += alpha * c03; c[c3 + 1] += alpha * c13; c[c3 + 2] += alpha * c23; c[c3 + 3] += alpha * c33;
+                return;
+            }
+
+            float[] tile = {
+                    c00, c10, c20, c30,
+                    c01, c11, c21, c31,
+                    c02, c12, c22, c32,
+                    c03, c13, c23, c33
+            };
+            for(int j = 0; j < nr; j++)
+                for(int i = 0; i < mr; i++)
+                    c[cIdx + i + j * ldc] += alpha * tile[i + j * MR];
+        }
+    }
+}
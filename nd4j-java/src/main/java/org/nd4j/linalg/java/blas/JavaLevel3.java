@@ -1,105 +1,156 @@
 package org.nd4j.linalg.java.blas;
 
-import com.github.fommil.netlib.BLAS;
 import org.nd4j.linalg.api.blas.impl.BaseLevel3;
 import org.nd4j.linalg.api.complex.IComplexDouble;
 import org.nd4j.linalg.api.complex.IComplexFloat;
 import org.nd4j.linalg.api.complex.IComplexNDArray;
 import org.nd4j.linalg.api.ndarray.INDArray;
-import org.nd4j.linalg.util.Shape;
 
 import static org.nd4j.linalg.api.blas.BlasBufferUtil.*;
+import static org.nd4j.linalg.java.blas.Level3Kernels.*;
 
 
 /**
+ * Level 3 blas in pure java
+ * (see {@link DoubleLevel3Kernels} and {@link FloatLevel3Kernels})
+ * so the java backend does not depend on a native blas
+ * or the unblocked f2j reference implementation for matrix multiply.
+ *
  * @author Adam Gibson
  */
 public class JavaLevel3 extends BaseLevel3 {
     @Override
     protected void sgemm(char Order, char TransA, char TransB, int M, int N, int K, float alpha, INDArray A, int lda, INDArray B, int ldb, float beta, INDArray C, int ldc) {
-        A = Shape.toOffsetZero(A);
-        B = Shape.toOffsetZero(B);
-
         float[] cData = getFloatData(C);
-        BLAS.getInstance().sgemm(
-                String.valueOf(TransA)
-                ,String.valueOf(TransB)
-                ,M
-                ,N
-                ,K
-                ,alpha
-                ,getFloatData(A),getBlasOffset(A),lda,getFloatData(B),getBlasOffset(B),ldb,beta,cData,getBlasOffset(C),ldc);
-        setData(cData,C);
+        FloatLevel3Kernels.gemm(isTrans(TransA), isTrans(TransB), M, N, K, alpha,
+                getFloatData(A), getBlasOffset(A), lda, getFloatData(B), getBlasOffset(B), ldb,
+                beta, cData, getBlasOffset(C), ldc);
+        setData(cData, C);
     }
 
     @Override
-    protected void ssymm(char Order, char Side, char Uplo, int M, int N, float alpha, INDArray A, int lda, INDArray B, int ldb, float beta, INDArray C, int ldc) {
-        throw new UnsupportedOperationException();
+    protected void sgemmBatched(char Order, char TransA, char TransB, final int M, final int N, final int K, final float alpha, final INDArray[] A, final int lda, final INDArray[] B, final int ldb, final float beta, final INDArray[] C, final int ldc) {
+        final boolean transA = isTrans(TransA), transB = isTrans(TransB);
+        final float[][] aData = getFloatData(A), bData = getFloatData(B), cData = getFloatData(C);
+        final int[] aOffsets = getBlasOffsets(A), bOffsets = getBlasOffsets(B), cOffsets = getBlasOffsets(C);
+        runBatched(C.length, (long) M * N * K, new BatchTask() {
+            @Override
+            public void run(int i) {
+                FloatLevel3Kernels.gemm(transA, transB, M, N, K, alpha,
+                        aData[i], aOffsets[i], lda, bData[i], bOffsets[i], ldb,
+                        beta, cData[i], cOffsets[i], ldc);
+            }
+        });
+        setData(cData, C);
+    }
 
+    @Override
+    protected void ssymm(char Order, char Side, char Uplo, int M, int N, float alpha, INDArray A, int lda, INDArray B, int ldb, float beta, INDArray C, int ldc) {
+        float[] cData = getFloatData(C);
+        FloatLevel3Kernels.symm(isLeft(Side), isUpper(Uplo), M, N, alpha,
+                getFloatData(A), getBlasOffset(A), lda, getFloatData(B), getBlasOffset(B), ldb,
+                beta, cData, getBlasOffset(C), ldc);
+        setData(cData, C);
     }
 
     @Override
     protected void ssyrk(char Order, char Uplo, char Trans, int N, int K, float alpha, INDArray A, int lda, float beta, INDArray C, int ldc) {
-        throw new UnsupportedOperationException();
-
+        float[] cData = getFloatData(C);
+        FloatLevel3Kernels.syrk(isUpper(Uplo), isTrans(Trans), N, K, alpha,
+                getFloatData(A), getBlasOffset(A), lda, beta, cData, getBlasOffset(C), ldc);
+        setData(cData, C);
     }
 
     @Override
     protected void ssyr2k(char Order, char Uplo, char Trans, int N, int K, float alpha, INDArray A, int lda, INDArray B, int ldb, float beta, INDArray C, int ldc) {
-        throw new UnsupportedOperationException();
-
+        float[] cData = getFloatData(C);
+        FloatLevel3Kernels.syr2k(isUpper(Uplo), isTrans(Trans), N, K, alpha,
+                getFloatData(A), getBlasOffset(A), lda, getFloatData(B), getBlasOffset(B), ldb,
+                beta, cData, getBlasOffset(C), ldc);
+        setData(cData, C);
     }
 
     @Override
     protected void strmm(char Order, char Side, char Uplo, char TransA, char Diag, int M, int N, float alpha, INDArray A, int lda, INDArray B, int ldb) {
-        throw new UnsupportedOperationException();
-
+        float[] bData = getFloatData(B);
+        FloatLevel3Kernels.trmm(isLeft(Side), isUpper(Uplo), isTrans(TransA), isUnit(Diag), M, N, alpha,
+                getFloatData(A), getBlasOffset(A), lda, bData, getBlasOffset(B), ldb);
+        setData(bData, B);
     }
 
     @Override
     protected void strsm(char Order, char Side, char Uplo, char TransA, char Diag, int M, int N, float alpha, INDArray A, int lda, INDArray B, int ldb) {
-        throw new UnsupportedOperationException();
-
+        float[] bData = getFloatData(B);
+        FloatLevel3Kernels.trsm(isLeft(Side), isUpper(Uplo), isTrans(TransA), isUnit(Diag), M, N, alpha,
+                getFloatData(A), getBlasOffset(A), lda, bData, getBlasOffset(B), ldb);
+        setData(bData, B);
     }
 
     @Override
     protected void dgemm(char Order, char TransA, char TransB, int M, int N, int K, double alpha, INDArray A, int lda, INDArray B, int ldb, double beta, INDArray C, int ldc) {
-        A = Shape.toOffsetZero(A);
-        B = Shape.toOffsetZero(B);
-
         double[] cData = getDoubleData(C);
-        BLAS.getInstance().dgemm(String.valueOf(TransA), String.valueOf(TransB), M, N, K, alpha, getDoubleData(A), getBlasOffset(A), lda, getDoubleData(B), getBlasOffset(B), ldb, beta, cData, getBlasOffset(C), ldc);
-        setData(cData,C);
+        DoubleLevel3Kernels.gemm(isTrans(TransA), isTrans(TransB), M, N, K, alpha,
+                getDoubleData(A), getBlasOffset(A), lda, getDoubleData(B), getBlasOffset(B), ldb,
+                beta, cData, getBlasOffset(C), ldc);
+        setData(cData, C);
     }
 
     @Override
-    protected void dsymm(char Order, char Side, char Uplo, int M, int N, double alpha, INDArray A, int lda, INDArray B, int ldb, double beta, INDArray C, int ldc) {
-        throw new UnsupportedOperationException();
+    protected void dgemmBatched(char Order, char TransA, char TransB, final int M, final int N, final int K, final double alpha, final INDArray[] A, final int lda, final INDArray[] B, final int ldb, final double beta, final INDArray[] C, final int ldc) {
+        final boolean transA = isTrans(TransA), transB = isTrans(TransB);
+        final double[][] aData = getDoubleData(A), bData = getDoubleData(B), cData = getDoubleData(C);
+        final int[] aOffsets = getBlasOffsets(A), bOffsets = getBlasOffsets(B), cOffsets = getBlasOffsets(C);
+        runBatched(C.length, (long) M * N * K, new BatchTask() {
+            @Override
+            public void run(int i) {
+                DoubleLevel3Kernels.gemm(transA, transB, M, N, K, alpha,
+                        aData[i], aOffsets[i], lda, bData[i], bOffsets[i], ldb,
+                        beta, cData[i], cOffsets[i], ldc);
+            }
+        });
+        setData(cData, C);
+    }
 
+    @Override
+    protected void dsymm(char Order, char Side, char Uplo, int M, int N, double alpha, INDArray A, int lda, INDArray B, int ldb, double beta, INDArray C, int ldc) {
+        double[] cData = getDoubleData(C);
+        DoubleLevel3Kernels.symm(isLeft(Side), isUpper(Uplo), M, N, alpha,
+                getDoubleData(A), getBlasOffset(A), lda, getDoubleData(B), getBlasOffset(B), ldb,
+                beta, cData, getBlasOffset(C), ldc);
+        setData(cData, C);
     }
 
     @Override
     protected void dsyrk(char Order, char Uplo, char Trans, int N, int K, double alpha, INDArray A, int lda, double beta, INDArray C, int ldc) {
-        throw new UnsupportedOperationException();
-
+        double[] cData = getDoubleData(C);
+        DoubleLevel3Kernels.syrk(isUpper(Uplo), isTrans(Trans), N, K, alpha,
+                getDoubleData(A), getBlasOffset(A), lda, beta, cData, getBlasOffset(C), ldc);
+        setData(cData, C);
     }
 
     @Override
     protected void dsyr2k(char Order, char Uplo, char Trans, int N, int K, double alpha, INDArray A, int lda, INDArray B, int ldb, double beta, INDArray C, int ldc) {
-        throw new UnsupportedOperationException();
-
+        double[] cData = getDoubleData(C);
+        DoubleLevel3Kernels.syr2k(isUpper(Uplo), isTrans(Trans), N, K, alpha,
+                getDoubleData(A), getBlasOffset(A), lda, getDoubleData(B), getBlasOffset(B), ldb,
+                beta, cData, getBlasOffset(C), ldc);
+        setData(cData, C);
     }
 
     @Override
     protected void dtrmm(char Order, char Side, char Uplo, char TransA, char Diag, int M, int N, double alpha, INDArray A, int lda, INDArray B, int ldb) {
-        throw new UnsupportedOperationException();
-
+        double[] bData = getDoubleData(B);
+        DoubleLevel3Kernels.trmm(isLeft(Side), isUpper(Uplo), isTrans(TransA), isUnit(Diag), M, N, alpha,
+                getDoubleData(A), getBlasOffset(A), lda, bData, getBlasOffset(B), ldb);
+        setData(bData, B);
     }
 
     @Override
     protected void dtrsm(char Order, char Side, char Uplo, char TransA, char Diag, int M, int N, double alpha, INDArray A, int lda, INDArray B, int ldb) {
-        throw new UnsupportedOperationException();
-
+        double[] bData = getDoubleData(B);
+        DoubleLevel3Kernels.trsm(isLeft(Side), isUpper(Uplo), isTrans(TransA), isUnit(Diag), M, N, alpha,
+                getDoubleData(A), getBlasOffset(A), lda, bData, getBlasOffset(B), ldb);
+        setData(bData, B);
     }
 
     @Override
@@ -0,0 +1,113 @@
+package org.nd4j.linalg.java.blas;
+
+import org.nd4j.linalg.util.Parallel;
+
+/**
+ * Blocking parameters shared by
+ * the pure java level 3 kernels ({@link DoubleLevel3Kernels}
+ * and {@link FloatLevel3Kernels}).
+ *
+ * Gemm is blocked the way tuned blas implementations are:
+ * a KC deep panel of op(b) up to NC columns wide is packed once (sized for the last level cache),
+ * blocks of op(a) MC rows high are packed per macro tile (sized for the second level cache)
+ * and an MR x NR micro kernel accumulates a tile of c in registers.
+ *
+ * The macro tiles run on the shared pool of {@link Parallel}.
+ * The number of threads gemm splits its work over can be set with the system property
+ * {@value #THREADS}, it defaults to the size of that pool.
+ *
+ * @author Adam Gibson
+ */
+public class Level3Kernels {
+    public final static String THREADS = "org.nd4j.linalg.java.blas.threads";
+    /**
+     * Rows of the register tile
+     */
+    public final static int MR = 4;
+    /**
+     * Columns of the register tile
+     */
+    public final static int NR = 4;
+    /**
+     * Rows of a packed block of op(a)
+     */
+    public final static int MC = 128;
+    /**
+     * Depth of the packed panels
+     */
+    public final static int KC = 256;
+    /**
+     * Columns of a packed panel of op(b)
+     */
+    public final static int NC = 2048;
+    /**
+     * Block size the triangular and symmetric routines
+     * split their matrices in to before handing off to gemm
+     */
+    public final static int NB = 128;
+    /**
+     * Below this many multiply adds gemm runs on the calling thread
+     */
+    public final static long PARALLEL_THRESHOLD = 1 << 18;
+
+    private Level3Kernels() {
+    }
+
+    /**
+     * The number of threads gemm is split over
+     * @return the number of threads to use
+     */
+    public static int parallelism() {
+        return Math.max(1, Integer.getInteger(THREADS, Parallel.parallelism()));
+    }
+
+    /**
+     * Whether a gemm of the given size is worth splitting over threads
+     */
+    static boolean parallel(int m, int n, int k) {
+        return parallelism() > 1 && (long) m * n * k >= PARALLEL_THRESHOLD;
+    }
+
+    /**
+     * The height of the blocks of op(a): {@link #MC} unless there would
+     * be fewer blocks than threads in which case the rows are spread evenly
+     * (in multiples of {@link #MR}) over the threads
+     */
+    static int blockRows(int m, boolean parallel) {
+        if(!parallel)
+            return Math.min(MC, roundUp(m, MR));
+        int perThread = roundUp((m + parallelism() - 1) / parallelism(), MR);
+        return Math.max(MR, Math.min(MC, perThread));
+    }
+
+    /**
+     * The number of parts to split the columns of a packed panel of op(b) in to
+     * so each thread gets a macro tile when there are too few blocks of rows
+     */
+    static int columnParts(int rowBlocks, int columns, boolean parallel) {
+        if(!parallel || rowBlocks >= parallelism())
+            return 1;
+        int maxParts = Math.max(1, columns / (NR * 8));
+        return Math.max(1, Math.min(maxParts, parallelism() / rowBlocks));
+    }
+
+    static int roundUp(int n, int multiple) {
+        return (n + multiple - 1) / multiple * multiple;
+    }
+
+    static boolean isTrans(char trans) {
+        return trans != 'N' && trans != 'n';
+    }
+
+    static boolean isUpper(char uplo) {
+        return uplo == 'U' || uplo == 'u';
+    }
+
+    static boolean isLeft(char side) {
+        return side == 'L' || side == 'l';
+    }
+
+    static boolean isUnit(char diag) {
+        return diag == 'U' || diag == 'u';
+    }
+}
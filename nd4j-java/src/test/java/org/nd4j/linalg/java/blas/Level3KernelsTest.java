@@ -0,0 +1,203 @@
+package org.nd4j.linalg.java.blas;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * Checks the pure java level 3 kernels against
+ * naive column major implementations
+ *
+ * @author Adam Gibson
+ */
+public class Level3KernelsTest {
+    private Random random = new Random(123);
+
+    @Test
+    public void testGemm() {
+        //small, uneven (edge tiles), multiple KC panels and large enough to run in parallel
+        int[][] sizes = {{1, 1, 1}, {5, 3, 7}, {17, 33, 9}, {130, 70, 300}, {300, 260, 129}};
+        for(int[] size : sizes) {
+            int m = size[0], n = size[1], k = size[2];
+            for(boolean transA : new boolean[]{false, true}) {
+                for(boolean transB : new boolean[]{false, true}) {
+                    int lda = (transA ? k : m) + 2, ldb = (transB ? n : k) + 1, ldc = m + 3;
+                    double[] a = rand(3 + lda * (transA ? m : k));
+                    double[] b = rand(2 + ldb * (transB ? k : n));
+                    double[] c = rand(1 + ldc * n);
+                    double[] expected = c.clone();
+                    for(int j = 0; j < n; j++) {
+                        for(int i = 0; i < m; i++) {
+                            double sum = 0;
+                            for(int p = 0; p < k; p++)
+                                sum += get(a, 3, lda, transA, i, p) * get(b, 2, ldb, transB, p, j);
+                            expected[1 + i + j * ldc] = 1.5 * sum + 0.5 * expected[1 + i + j * ldc];
+                        }
+                    }
+                    DoubleLevel3Kernels.gemm(transA, transB, m, n, k, 1.5, a, 3, lda, b, 2, ldb, 0.5, c, 1, ldc);
+                    assertEquals(expected, c, 1e-9);
+
+                    float[] cf = toFloat(c);
+                    float[] expectedF = cf.clone();
+                    for(int j = 0; j < n; j++)
+                        for(int i = 0; i < m; i++) {
+                            double sum = 0;
+                            for(int p = 0; p < k; p++)
+                                sum += (float) get(a, 3, lda, transA, i, p) * (float) get(b, 2, ldb, transB, p, j);
+                            expectedF[1 + i + j * ldc] = (float) sum;
+                        }
+                    FloatLevel3Kernels.gemm(transA, transB, m, n, k, 1, toFloat(a), 3, lda, toFloat(b), 2, ldb, 0, cf, 1, ldc);
+                    for(int i = 0; i < cf.length; i++)
+                        org.junit.Assert.assertEquals(expectedF[i], cf[i], 1e-3 * Math.max(1, Math.abs(expectedF[i])));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testParallelGemm() {
+        int[][] sizes = {{300, 260, 129}, {8, 2000, 64}};
+        for(int[] size : sizes) {
+            int m = size[0], n = size[1], k = size[2];
+            double[] a = rand(m * k);
+            double[] b = rand(k * n);
+            double[] serial = new double[m * n];
+            System.setProperty(Level3Kernels.THREADS, "1");
+            DoubleLevel3Kernels.gemm(false, false, m, n, k, 1, a, 0, m, b, 0, k, 0, serial, 0, m);
+            System.setProperty(Level3Kernels.THREADS, "4");
+            try {
+                double[] parallel = new double[m * n];
+                DoubleLevel3Kernels.gemm(false, false, m, n, k, 1, a, 0, m, b, 0, k, 0, parallel, 0, m);
+                assertEquals(serial, parallel, 1e-12);
+            } finally {
+                System.clearProperty(Level3Kernels.THREADS);
+            }
+        }
+    }
+
+    @Test
+    public void testSyrk() {
+        for(int n : new int[]{7, 150}) {
+            for(boolean upper : new boolean[]{false, true}) {
+                for(boolean trans : new boolean[]{false, true}) {
+                    int k = 11, lda = trans ? k : n;
+                    double[] a = rand(lda * (trans ? n : k));
+                    double[] b = rand(lda * (trans ? n : k));
+                    double[] c = rand(n * n);
+                    double[] full = c.clone();
+                    DoubleLevel3Kernels.gemm(trans, !trans, n, n, k, 2, a, 0, lda, a, 0, lda, 3, full, 0, n);
+                    double[] expected = triangleOf(full, c, n, upper);
+                    DoubleLevel3Kernels.syrk(upper, trans, n, k, 2, a, 0, lda, 3, c, 0, n);
+                    assertEquals(expected, c, 1e-9);
+
+                    c = rand(n * n);
+                    full = c.clone();
+                    DoubleLevel3Kernels.gemm(trans, !trans, n, n, k, 2, a, 0, lda, b, 0, lda, 3, full, 0, n);
+                    DoubleLevel3Kernels.gemm(trans, !trans, n, n, k, 2, b, 0, lda, a, 0, lda, 1, full, 0, n);
+                    expected = triangleOf(full, c, n, upper);
+                    DoubleLevel3Kernels.syr2k(upper, trans, n, k, 2, a, 0, lda, b, 0, lda, 3, c, 0, n);
+                    assertEquals(expected, c, 1e-9);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSymm() {
+        int m = 9, n = 140;
+        for(boolean left : new boolean[]{false, true}) {
+            for(boolean upper : new boolean[]{false, true}) {
+                int ka = left ? m : n;
+                double[] a = rand(ka * ka);
+                double[] full = a.clone();
+                for(int j = 0; j < ka; j++)
+                    for(int i = 0; i < ka; i++)
+                        if(upper ? i > j : i < j)
+                            full[i + j * ka] = a[j + i * ka];
+                double[] b = rand(m * n);
+                double[] c = rand(m * n);
+                double[] expected = c.clone();
+                if(left)
+                    DoubleLevel3Kernels.gemm(false, false, m, n, m, 2, full, 0, m, b, 0, m, 1, expected, 0, m);
+                else
+                    DoubleLevel3Kernels.gemm(false, false, m, n, n, 2, b, 0, m, full, 0, n, 1, expected, 0, m);
+                DoubleLevel3Kernels.symm(left, upper, m, n, 2, a, 0, ka, b, 0, m, 1, c, 0, m);
+                assertEquals(expected, c, 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void testTrmmAndTrsm() {
+        int m = 150, n = 140;
+        for(boolean left : new boolean[]{false, true}) {
+            for(boolean upper : new boolean[]{false, true}) {
+                for(boolean trans : new boolean[]{false, true}) {
+                    for(boolean unit : new boolean[]{false, true}) {
+                        int ka = left ? m : n;
+                        double[] a = rand(ka * ka);
+                        //well conditioned: dominant diagonal
+                        for(int i = 0; i < ka; i++)
+                            a[i + i * ka] += ka;
+                        double[] t = new double[ka * ka];
+                        for(int j = 0; j < ka; j++)
+                            for(int i = 0; i < ka; i++) {
+                                int r = trans ? j : i, s = trans ? i : j;
+                                if(r == s)
+                                    t[i + j * ka] = unit ? 1 : a[r + s * ka];
+                                else if(upper ? r < s : r > s)
+                                    t[i + j * ka] = a[r + s * ka];
+                            }
+
+                        double[] b = rand(m * n);
+                        double[] expected = new double[m * n];
+                        if(left)
+                            DoubleLevel3Kernels.gemm(false, false, m, n, m, 2, t, 0, m, b, 0, m, 0, expected, 0, m);
+                        else
+                            DoubleLevel3Kernels.gemm(false, false, m, n, n, 2, b, 0, m, t, 0, n, 0, expected, 0, m);
+                        double[] product = b.clone();
+                        DoubleLevel3Kernels.trmm(left, upper, trans, unit, m, n, 2, a, 0, ka, product, 0, m);
+                        assertEquals(expected, product, 1e-9);
+
+                        //solving the product gets back b
+                        DoubleLevel3Kernels.trsm(left, upper, trans, unit, m, n, 0.5, a, 0, ka, product, 0, m);
+                        assertEquals(b, product, 1e-6);
+                    }
+                }
+            }
+        }
+    }
+
+    private double[] triangleOf(double[] full, double[] original, int n, boolean upper) {
+        double[] ret = original.clone();
+        for(int j = 0; j < n; j++)
+            for(int i = 0; i < n; i++)
+                if(upper ? i <= j : i >= j)
+                    ret[i + j * n] = full[i + j * n];
+        return ret;
+    }
+
+    private static double get(double[] x, int offset, int ld, boolean trans, int row, int column) {
+        return trans ? x[offset + column + row * ld] : x[offset + row + column * ld];
+    }
+
+    private double[] rand(int length) {
+        double[] ret = new double[length];
+        for(int i = 0; i < length; i++)
+            ret[i] = random.nextDouble() - 0.5;
+        return ret;
+    }
+
+    private static float[] toFloat(double[] data) {
+        float[] ret = new float[data.length];
+        for(int i = 0; i < data.length; i++)
+            ret[i] = (float) data[i];
+        return ret;
+    }
+
+    private static void assertEquals(double[] expected, double[] actual, double eps) {
+        org.junit.Assert.assertEquals(expected.length, actual.length);
+        for(int i = 0; i < expected.length; i++)
+            org.junit.Assert.assertEquals("Element " + i, expected[i], actual[i], eps);
+    }
+}
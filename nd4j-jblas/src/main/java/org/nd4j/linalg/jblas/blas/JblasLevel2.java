@@ -18,11 +18,8 @@ import static org.nd4j.linalg.api.blas.BlasBufferUtil.setData;
 public class JblasLevel2 extends BaseLevel2 {
     @Override
     protected void sgemv(char order, char TransA, int M, int N, float alpha, INDArray A, int lda, INDArray X, int incX, float beta, INDArray Y, int incY) {
-        A = Shape.toOffsetZero(A);
-        X = Shape.toOffsetZero(X);
-        Y = Shape.toOffsetZero(Y);
         float[] yData = getFloatData(Y);
-        NativeBlas.sgemv(TransA,M,N,alpha,getFloatData(A),getBlasOffset(A),A.size(0),getFloatData(X),getBlasOffset(X),incX,beta,yData,getBlasOffset(Y),incY);
+        NativeBlas.sgemv(TransA,M,N,alpha,getFloatData(A),getBlasOffset(A),lda,getFloatData(X),getBlasOffset(X),incX,beta,yData,getBlasOffset(Y),incY);
         setData(yData,Y);
     }
 
@@ -69,12 +66,8 @@ public class JblasLevel2 extends BaseLevel2 {
 
     @Override
     protected void dgemv(char order, char TransA, int M, int N, double alpha, INDArray A, int lda, INDArray X, int incX, double beta, INDArray Y, int incY) {
-        A = Shape.toOffsetZero(A);
-        X = Shape.toOffsetZero(X);
-        Y =  Shape.toOffsetZero(Y);
-
         double[] yData = getDoubleData(Y);
-        NativeBlas.dgemv(TransA,M,N,alpha,getDoubleData(A),getBlasOffset(A),A.size(0),getDoubleData(X),getBlasOffset(X),incX,beta,yData,getBlasOffset(Y),incY);
+        NativeBlas.dgemv(TransA,M,N,alpha,getDoubleData(A),getBlasOffset(A),lda,getDoubleData(X),getBlasOffset(X),incX,beta,yData,getBlasOffset(Y),incY);
         setData(yData, Y);
     }
 
@@ -25,10 +25,8 @@ import static org.nd4j.linalg.api.blas.BlasBufferUtil.setData;
 public class JblasLevel3 extends BaseLevel3 {
     @Override
     protected void sgemm(char Order, char TransA, char TransB, int M, int N, int K, float alpha, INDArray A, int lda, INDArray B, int ldb, float beta, INDArray C, int ldc) {
-        DataBuffer aData = Shape.toOffsetZero(A).data();
-        DataBuffer bData = Shape.toOffsetZero(B).data();
-        float[] aDataArr = aData.asFloat();
-        float[] bDataArr = bData.asFloat();
+        float[] aDataArr = getFloatData(A);
+        float[] bDataArr = getFloatData(B);
         float[] cData = getFloatData(C);
         NativeBlas.sgemm(
                 TransA
@@ -38,18 +36,28 @@ public class JblasLevel3 extends BaseLevel3 {
                 K,
                 alpha
                 ,aDataArr
-                ,0
+                ,getBlasOffset(A)
                 ,lda,
                 bDataArr
-                ,0
+                ,getBlasOffset(B)
                 ,ldb
                 ,beta
                 ,cData
-                ,0
+                ,getBlasOffset(C)
                 ,ldc);
         setData(cData,C);
     }
 
+    @Override
+    protected void sgemmBatched(char Order, char TransA, char TransB, int M, int N, int K, float alpha, INDArray[] A, int lda, INDArray[] B, int ldb, float beta, INDArray[] C, int ldc) {
+        //jni may copy the arrays in and out on each call so the batch can't share them across threads
+        float[][] aData = getFloatData(A), bData = getFloatData(B), cData = getFloatData(C);
+        int[] aOffsets = getBlasOffsets(A), bOffsets = getBlasOffsets(B), cOffsets = getBlasOffsets(C);
+        for(int i = 0; i < C.length; i++)
+            NativeBlas.sgemm(TransA,TransB,M,N,K,alpha,aData[i],aOffsets[i],lda,bData[i],bOffsets[i],ldb,beta,cData[i],cOffsets[i],ldc);
+        setData(cData, C);
+    }
+
     @Override
     protected void ssymm(char Order, char Side, char Uplo, int M, int N, float alpha, INDArray A, int lda, INDArray B, int ldb, float beta, INDArray C, int ldc) {
         throw new UnsupportedOperationException();
@@ -81,10 +89,8 @@ public class JblasLevel3 extends BaseLevel3 {
 
     @Override
     protected void dgemm(char Order, char TransA, char TransB, int M, int N, int K, double alpha, INDArray A, int lda, INDArray B, int ldb, double beta, INDArray C, int ldc) {
-        DataBuffer aData = Shape.toOffsetZero(A).data();
-        DataBuffer bData = Shape.toOffsetZero(B).data();
-        double[] aDataArr = aData.asDouble();
-        double[] bDataArr = bData.asDouble();
+        double[] aDataArr = getDoubleData(A);
+        double[] bDataArr = getDoubleData(B);
         double[] cData = getDoubleData(C);
         NativeBlas.dgemm(
                 TransA
@@ -109,6 +115,16 @@ public class JblasLevel3 extends BaseLevel3 {
         setData(cData,C);
     }
 
+    @Override
+    protected void dgemmBatched(char Order, char TransA, char TransB, int M, int N, int K, double alpha, INDArray[] A, int lda, INDArray[] B, int ldb, double beta, INDArray[] C, int ldc) {
+        //jni may copy the arrays in and out on each call so the batch can't share them across threads
+        double[][] aData = getDoubleData(A), bData = getDoubleData(B), cData = getDoubleData(C);
+        int[] aOffsets = getBlasOffsets(A), bOffsets = getBlasOffsets(B), cOffsets = getBlasOffsets(C);
+        for(int i = 0; i < C.length; i++)
+            NativeBlas.dgemm(TransA,TransB,M,N,K,alpha,aData[i],aOffsets[i],lda,bData[i],bOffsets[i],ldb,beta,cData[i],cOffsets[i],ldc);
+        setData(cData, C);
+    }
+
     @Override
     protected void dsymm(char Order, char Side, char Uplo, int M, int N, double alpha, INDArray A, int lda, INDArray B, int ldb, double beta, INDArray C, int ldc) {
         throw new UnsupportedOperationException();
@@ -423,9 +423,9 @@ public class ComplexDouble extends org.jblas.ComplexDouble implements IComplexDo
     @Override
     public IComplexNumber divi(Number v, IComplexNumber result) {
         if (this == result) {
-            set(real() / v.doubleValue(), imag());
+            set(real() / v.doubleValue(), imag() / v.doubleValue());
         } else {
-            result.set(result.realComponent().doubleValue() / v.doubleValue(), imaginaryComponent());
+            result.set(result.realComponent().doubleValue() / v.doubleValue(), result.imaginaryComponent().doubleValue() / v.doubleValue());
 
         }
         return result;
@@ -23,7 +23,6 @@ import org.nd4j.linalg.api.complex.IComplexNDArray;
 import org.nd4j.linalg.api.io.BaseNDArrayIO;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.factory.Nd4j;
-import org.nd4j.linalg.jblas.util.JblasSerde;
 
 import java.io.*;
 
@@ -41,7 +40,7 @@ public class JblasNDArrayIO extends BaseNDArrayIO {
      */
     @Override
     public INDArray read(InputStream is) throws IOException {
-        return JblasSerde.readJblasBinary(new DataInputStream(is));
+        return Nd4j.read(is instanceof DataInputStream ? (DataInputStream) is : new DataInputStream(is));
     }
 
     /**
@@ -52,7 +51,7 @@ public class JblasNDArrayIO extends BaseNDArrayIO {
      */
     @Override
     public IComplexNDArray readComplex(InputStream is) throws IOException {
-        return Nd4j.createComplex(read(is));
+        return Nd4j.readComplex(is instanceof DataInputStream ? (DataInputStream) is : new DataInputStream(is));
     }
 
     /**
@@ -63,7 +62,9 @@ public class JblasNDArrayIO extends BaseNDArrayIO {
      */
     @Override
     public void write(INDArray out, OutputStream to) throws IOException {
-        Nd4j.write(out, new DataOutputStream(to));
+        DataOutputStream dos = to instanceof DataOutputStream ? (DataOutputStream) to : new DataOutputStream(to);
+        Nd4j.write(out, dos);
+        dos.flush();
     }
 
     /**
@@ -74,6 +75,8 @@ public class JblasNDArrayIO extends BaseNDArrayIO {
      */
     @Override
     public void writeComplex(IComplexNDArray out, OutputStream to) throws IOException {
-        Nd4j.writeComplex(out, new DataOutputStream(to));
+        DataOutputStream dos = to instanceof DataOutputStream ? (DataOutputStream) to : new DataOutputStream(to);
+        Nd4j.writeComplex(out, dos);
+        dos.flush();
     }
 }
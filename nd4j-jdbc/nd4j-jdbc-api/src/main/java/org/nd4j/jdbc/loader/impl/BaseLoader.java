@@ -27,6 +27,7 @@ import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.factory.Nd4j;
 
 import javax.sql.DataSource;
+import java.io.BufferedInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
@@ -85,12 +86,7 @@ public abstract class BaseLoader implements JDBCNDArrayIO {
      */
     @Override
     public Blob convert(IComplexNDArray toConvert) throws IOException, SQLException {
-        ByteArrayOutputStream bos = new ByteArrayOutputStream();
-        DataOutputStream dos = new DataOutputStream(bos);
-
-        Nd4j.writeComplex(toConvert, dos);
-
-        byte[] bytes = bos.toByteArray();
+        byte[] bytes = toBytes(toConvert);
         Connection c = dataSource.getConnection();
         Blob b = c.createBlob();
         b.setBytes(1, bytes);
@@ -106,12 +102,7 @@ public abstract class BaseLoader implements JDBCNDArrayIO {
      */
     @Override
     public Blob convert(INDArray toConvert) throws SQLException, IOException {
-        ByteArrayOutputStream bos = new ByteArrayOutputStream();
-        DataOutputStream dos = new DataOutputStream(bos);
-
-        Nd4j.write(toConvert, dos);
-
-        byte[] bytes = bos.toByteArray();
+        byte[] bytes = toBytes(toConvert);
         Connection c = dataSource.getConnection();
         Blob b = c.createBlob();
         b.setBytes(1, bytes);
@@ -129,7 +120,7 @@ public abstract class BaseLoader implements JDBCNDArrayIO {
     public INDArray load(Blob blob) throws SQLException, IOException {
         if (blob == null)
             return null;
-        DataInputStream dis = new DataInputStream(blob.getBinaryStream());
+        DataInputStream dis = new DataInputStream(new BufferedInputStream(blob.getBinaryStream()));
         return Nd4j.read(dis);
     }
 
@@ -141,7 +132,7 @@ public abstract class BaseLoader implements JDBCNDArrayIO {
      */
     @Override
     public IComplexNDArray loadComplex(Blob blob) throws SQLException, IOException {
-        DataInputStream dis = new DataInputStream(blob.getBinaryStream());
+        DataInputStream dis = new DataInputStream(new BufferedInputStream(blob.getBinaryStream()));
         return Nd4j.readComplex(dis);
     }
 
@@ -167,17 +158,29 @@ public abstract class BaseLoader implements JDBCNDArrayIO {
     }
 
 
-    private void doSave(INDArray save, String id) throws SQLException, IOException {
-        Connection c = dataSource.getConnection();
-        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    /**
+     * Serialize an ndarray with {@link Nd4j#write(INDArray, DataOutputStream)}
+     * (or {@link Nd4j#writeComplex(IComplexNDArray, DataOutputStream)})
+     * in to a byte array sized up front for the data
+     *
+     * @param arr the array to serialize
+     * @return the serialized array
+     */
+    protected byte[] toBytes(INDArray arr) throws IOException {
+        int elements = arr instanceof IComplexNDArray ? arr.length() * 2 : arr.length();
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(elements * arr.data().getElementSize() + 1024);
         DataOutputStream dos = new DataOutputStream(bos);
-        if (save instanceof IComplexNDArray) {
-            IComplexNDArray c2 = (IComplexNDArray) save;
-            Nd4j.writeComplex(c2, dos);
-        } else
-            Nd4j.write(save, dos);
+        if (arr instanceof IComplexNDArray)
+            Nd4j.writeComplex((IComplexNDArray) arr, dos);
+        else
+            Nd4j.write(arr, dos);
+        dos.flush();
+        return bos.toByteArray();
+    }
 
-        byte[] bytes = bos.toByteArray();
+    private void doSave(INDArray save, String id) throws SQLException, IOException {
+        Connection c = dataSource.getConnection();
+        byte[] bytes = toBytes(save);
 
         PreparedStatement preparedStatement = c.prepareStatement(insertStatement());
         preparedStatement.setString(1, id);
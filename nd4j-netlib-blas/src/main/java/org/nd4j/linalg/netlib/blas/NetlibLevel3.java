@@ -6,7 +6,6 @@ import org.nd4j.linalg.api.complex.IComplexDouble;
 import org.nd4j.linalg.api.complex.IComplexFloat;
 import org.nd4j.linalg.api.complex.IComplexNDArray;
 import org.nd4j.linalg.api.ndarray.INDArray;
-import org.nd4j.linalg.util.Shape;
 
 import static org.nd4j.linalg.api.blas.BlasBufferUtil.*;
 import static org.nd4j.linalg.api.blas.BlasBufferUtil.getDoubleData;
@@ -19,14 +18,25 @@ import static org.nd4j.linalg.api.blas.BlasBufferUtil.getFloatData;
 public class NetlibLevel3 extends BaseLevel3 {
     @Override
     protected void sgemm(char Order, char TransA, char TransB, int M, int N, int K, float alpha, INDArray A, int lda, INDArray B, int ldb, float beta, INDArray C, int ldc) {
-        A = Shape.toOffsetZero(A);
-        B = Shape.toOffsetZero(B);
-
         float[] cData = getFloatData(C);
         BLAS.getInstance().sgemm(String.valueOf(TransA),String.valueOf(TransB),M,N,K,alpha,getFloatData(A),getBlasOffset(A),lda,getFloatData(B),getBlasOffset(B),ldb,beta,cData,getBlasOffset(C),ldc);
         setData(cData,C);
     }
 
+    @Override
+    protected void sgemmBatched(char Order, char TransA, char TransB, final int M, final int N, final int K, final float alpha, final INDArray[] A, final int lda, final INDArray[] B, final int ldb, final float beta, final INDArray[] C, final int ldc) {
+        final String transA = String.valueOf(TransA), transB = String.valueOf(TransB);
+        final float[][] aData = getFloatData(A), bData = getFloatData(B), cData = getFloatData(C);
+        final int[] aOffsets = getBlasOffsets(A), bOffsets = getBlasOffsets(B), cOffsets = getBlasOffsets(C);
+        runBatched(C.length, (long) M * N * K, new BatchTask() {
+            @Override
+            public void run(int i) {
+                BLAS.getInstance().sgemm(transA,transB,M,N,K,alpha,aData[i],aOffsets[i],lda,bData[i],bOffsets[i],ldb,beta,cData[i],cOffsets[i],ldc);
+            }
+        });
+        setData(cData, C);
+    }
+
     @Override
     protected void ssymm(char Order, char Side, char Uplo, int M, int N, float alpha, INDArray A, int lda, INDArray B, int ldb, float beta, INDArray C, int ldc) {
         float[] cData = getFloatData(C);
@@ -64,9 +74,6 @@ public class NetlibLevel3 extends BaseLevel3 {
 
     @Override
     protected void dgemm(char Order, char TransA, char TransB, int M, int N, int K, double alpha, INDArray A, int lda, INDArray B, int ldb, double beta, INDArray C, int ldc) {
-        A = Shape.toOffsetZero(A);
-        B = Shape.toOffsetZero(B);
-
         double[] cData = getDoubleData(C);
         BLAS.getInstance().dgemm(
                 String.valueOf(TransA)
@@ -88,6 +95,20 @@ public class NetlibLevel3 extends BaseLevel3 {
         setData(cData,C);
     }
 
+    @Override
+    protected void dgemmBatched(char Order, char TransA, char TransB, final int M, final int N, final int K, final double alpha, final INDArray[] A, final int lda, final INDArray[] B, final int ldb, final double beta, final INDArray[] C, final int ldc) {
+        final String transA = String.valueOf(TransA), transB = String.valueOf(TransB);
+        final double[][] aData = getDoubleData(A), bData = getDoubleData(B), cData = getDoubleData(C);
+        final int[] aOffsets = getBlasOffsets(A), bOffsets = getBlasOffsets(B), cOffsets = getBlasOffsets(C);
+        runBatched(C.length, (long) M * N * K, new BatchTask() {
+            @Override
+            public void run(int i) {
+                BLAS.getInstance().dgemm(transA,transB,M,N,K,alpha,aData[i],aOffsets[i],lda,bData[i],bOffsets[i],ldb,beta,cData[i],cOffsets[i],ldc);
+            }
+        });
+        setData(cData, C);
+    }
+
     @Override
     protected void dsymm(char Order, char Side, char Uplo, int M, int N, double alpha, INDArray A, int lda, INDArray B, int ldb, double beta, INDArray C, int ldc) {
         double[] cData = getDoubleData(C);
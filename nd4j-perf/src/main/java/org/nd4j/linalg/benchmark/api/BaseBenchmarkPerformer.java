@@ -7,7 +7,11 @@ import org.nd4j.linalg.factory.Nd4jBackend;
 
 /**
  * @author Adam Gibson
+ * @deprecated times a single run with no warmup or forking:
+ * use the jmh benchmarks in {@code org.nd4j.linalg.benchmark.jmh}
+ * (see {@link org.nd4j.linalg.benchmark.app.JmhBenchmarkApp})
  */
+@Deprecated
 public abstract class BaseBenchmarkPerformer implements BenchMarkPerformer {
     protected int nTimes;
     protected long averageTime;
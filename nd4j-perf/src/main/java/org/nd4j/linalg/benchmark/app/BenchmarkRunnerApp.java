@@ -20,7 +20,9 @@ import java.util.concurrent.TimeUnit;
  * You can specify the number of trials to run for each benchmark.
  *
  * @author Adam Gibson
+ * @deprecated use {@link JmhBenchmarkApp}
  */
+@Deprecated
 public class BenchmarkRunnerApp {
     @Option(name="--nTrials",usage="Number of trials to run",aliases = "-n")
     private int nTrials = 1000;
@@ -0,0 +1,88 @@
+package org.nd4j.linalg.benchmark.app;
+
+import org.kohsuke.args4j.CmdLineException;
+import org.kohsuke.args4j.CmdLineParser;
+import org.kohsuke.args4j.Option;
+import org.nd4j.linalg.benchmark.jmh.BaseNd4jBenchmark;
+import org.nd4j.linalg.factory.Nd4jBackend;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ * Runs the jmh benchmarks (see {@link BaseNd4jBenchmark})
+ * against every backend on the class path
+ * (or the given backends) and writes the results in a machine readable
+ * format (json by default) for tracking regressions.
+ *
+ * The benchmarks jar built by this module can also be run directly with
+ * java -jar nd4j-perf-benchmarks.jar and the usual jmh options.
+ *
+ * @author Adam Gibson
+ */
+public class JmhBenchmarkApp {
+    @Option(name="--include",usage="Regex of the benchmarks to run",aliases = "-i")
+    private String include = BaseNd4jBenchmark.class.getPackage().getName() + ".*";
+    @Option(name="--backends",usage="Comma separated backend class names (defaults to every backend on the class path)",aliases = "-b")
+    private String backends;
+    @Option(name="--result",usage="File to write the results to",aliases = "-o")
+    private String result = "nd4j-benchmarks.json";
+    @Option(name="--format",usage="Result format: json, csv, scsv, text or latex",aliases = "-f")
+    private String format = "json";
+    @Option(name="--forks",usage="Number of forks per benchmark (overrides the benchmark's own)")
+    private int forks = -1;
+    @Option(name="--param",usage="Benchmark parameter overrides of the form name=value1,value2",aliases = "-p")
+    private List<String> params = new ArrayList<>();
+
+    /**
+     * Do the main method
+     * @param args the arguments for the method
+     * @throws Exception if an exception is thrown
+     */
+    public void doMain(String[] args) throws Exception {
+        CmdLineParser parser = new CmdLineParser(this);
+        try {
+            parser.parseArgument(args);
+        } catch(CmdLineException e) {
+            System.err.println(e.getMessage());
+            parser.printUsage(System.err);
+            return;
+        }
+
+        List<String> backendNames = new ArrayList<>();
+        if(backends != null) {
+            for(String backend : backends.split(","))
+                backendNames.add(backend.trim());
+        }
+        else {
+            for(Nd4jBackend backend : ServiceLoader.load(Nd4jBackend.class)) {
+                if(backend.isAvailable())
+                    backendNames.add(backend.getClass().getName());
+            }
+        }
+
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(include)
+                .resultFormat(ResultFormatType.valueOf(format.toUpperCase()))
+                .result(result);
+        if(!backendNames.isEmpty())
+            options.param("backend", backendNames.toArray(new String[backendNames.size()]));
+        if(forks >= 0)
+            options.forks(forks);
+        for(String param : params) {
+            String[] split = param.split("=", 2);
+            options.param(split[0], split[1].split(","));
+        }
+
+        new Runner(options.build()).run();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new JmhBenchmarkApp().doMain(args);
+    }
+}
@@ -8,8 +8,8 @@ import org.nd4j.linalg.factory.Nd4j;
  * @author Adam Gibson
  */
 public class GemmOpRunner implements OpRunner {
-    INDArray arr = Nd4j.create(1000000);
-    INDArray arr2 = arr.transpose();
+    INDArray arr = Nd4j.create(1000,1000);
+    INDArray arr2 = Nd4j.create(1000,1000);
 
     @Override
     public void runOp() {
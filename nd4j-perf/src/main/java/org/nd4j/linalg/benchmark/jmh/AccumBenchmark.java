@@ -0,0 +1,42 @@
+package org.nd4j.linalg.benchmark.jmh;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.impl.accum.Norm2;
+import org.nd4j.linalg.api.ops.impl.accum.Sum;
+import org.nd4j.linalg.factory.Nd4j;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accumulations over all of the elements of an array
+ *
+ * @author Adam Gibson
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(2)
+public class AccumBenchmark extends BaseNd4jBenchmark {
+    @Param({"1x100000", "1000x1000"})
+    public String shape;
+
+    private INDArray x;
+
+    @Override
+    protected void setUpArrays() {
+        x = create(parseShape(shape));
+    }
+
+    @Benchmark
+    public double sum() {
+        return Nd4j.getExecutioner().execAndReturn(new Sum(x)).currentResult().doubleValue();
+    }
+
+    @Benchmark
+    public double norm2() {
+        return Nd4j.getExecutioner().execAndReturn(new Norm2(x)).currentResult().doubleValue();
+    }
+}
@@ -0,0 +1,91 @@
+package org.nd4j.linalg.benchmark.jmh;
+
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.factory.Nd4jBackend;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Base state for the jmh benchmarks.
+ *
+ * Every benchmark is run over the cross product of:
+ * the backend (a {@link Nd4jBackend} class name or default
+ * for the highest priority backend on the class path),
+ * the ordering (c or f) and data type (float or double) of the arrays
+ * and whether the arrays are contiguous or strided views.
+ * Sub classes add a shape parameter and create their arrays
+ * with {@link #create(int...)} in {@link #setUpArrays()}.
+ *
+ * @author Adam Gibson
+ */
+@State(Scope.Benchmark)
+public abstract class BaseNd4jBenchmark {
+    public final static String DEFAULT_BACKEND = "default";
+    public final static String CONTIGUOUS = "contiguous";
+    public final static String VIEW = "view";
+
+    @Param({DEFAULT_BACKEND})
+    public String backend;
+    @Param({"c", "f"})
+    public String ordering;
+    @Param({"float", "double"})
+    public String dataType;
+    @Param({CONTIGUOUS, VIEW})
+    public String layout;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Nd4jBackend nd4jBackend = backend.equals(DEFAULT_BACKEND) ? Nd4jBackend.load() : (Nd4jBackend) Class.forName(backend).newInstance();
+        new Nd4j().initWithBackend(nd4jBackend);
+        Nd4j.dtype = dataType.equals("double") ? DataBuffer.Type.DOUBLE : DataBuffer.Type.FLOAT;
+        Nd4j.factory().setDType(Nd4j.dtype);
+        Nd4j.getRandom().setSeed(123);
+        setUpArrays();
+    }
+
+    /**
+     * Create the arrays the benchmark runs over
+     */
+    protected abstract void setUpArrays();
+
+    /**
+     * Create a random array with the benchmark's ordering and layout.
+     * Views are strided: the transpose of an array with
+     * the reverse shape, or every other element for a row vector
+     * @param shape the shape of the array
+     * @return the created array
+     */
+    protected INDArray create(int... shape) {
+        char order = ordering.charAt(0);
+        if (!layout.equals(VIEW))
+            return random(shape, order);
+        if (shape.length == 2 && shape[0] == 1)
+            return random(new int[]{2, shape[1]}, 'f').getRow(0);
+        int[] reversed = new int[shape.length];
+        for (int i = 0; i < shape.length; i++)
+            reversed[i] = shape[shape.length - 1 - i];
+        return random(reversed, order).transpose();
+    }
+
+    /**
+     * Parse a shape parameter of the form 100x200
+     * @param shape the shape parameter
+     * @return the shape
+     */
+    public static int[] parseShape(String shape) {
+        String[] split = shape.split("x");
+        int[] ret = new int[split.length];
+        for (int i = 0; i < split.length; i++)
+            ret[i] = Integer.parseInt(split[i].trim());
+        return ret;
+    }
+
+    private static INDArray random(int[] shape, char order) {
+        return Nd4j.create(shape, order).assign(Nd4j.rand(shape));
+    }
+}
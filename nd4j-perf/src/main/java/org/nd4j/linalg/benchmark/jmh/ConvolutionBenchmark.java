@@ -0,0 +1,40 @@
+package org.nd4j.linalg.benchmark.jmh;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.convolution.Convolution;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 2d convolution of an image with a kernel
+ *
+ * @author Adam Gibson
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(2)
+public class ConvolutionBenchmark extends BaseNd4jBenchmark {
+    @Param({"28x28", "64x64"})
+    public String shape;
+    @Param({"3x3", "5x5"})
+    public String kernelShape;
+    @Param({"VALID", "FULL"})
+    public String type;
+
+    private INDArray input, kernel;
+
+    @Override
+    protected void setUpArrays() {
+        input = create(parseShape(shape));
+        kernel = create(parseShape(kernelShape));
+    }
+
+    @Benchmark
+    public INDArray conv2d() {
+        return Convolution.conv2d(input, kernel, Convolution.Type.valueOf(type));
+    }
+}
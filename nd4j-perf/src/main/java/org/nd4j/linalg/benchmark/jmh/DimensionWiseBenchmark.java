@@ -0,0 +1,44 @@
+package org.nd4j.linalg.benchmark.jmh;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reductions along each dimension of a matrix
+ *
+ * @author Adam Gibson
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(2)
+public class DimensionWiseBenchmark extends BaseNd4jBenchmark {
+    @Param({"100x100", "1000x1000", "10x100000"})
+    public String shape;
+
+    private INDArray x;
+
+    @Override
+    protected void setUpArrays() {
+        x = create(parseShape(shape));
+    }
+
+    @Benchmark
+    public INDArray meanColumns() {
+        return x.mean(0);
+    }
+
+    @Benchmark
+    public INDArray sumRows() {
+        return x.sum(1);
+    }
+
+    @Benchmark
+    public INDArray addiRowVector() {
+        return x.addiRowVector(x.getRow(0));
+    }
+}
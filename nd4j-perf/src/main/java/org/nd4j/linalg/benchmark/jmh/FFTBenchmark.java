@@ -0,0 +1,36 @@
+package org.nd4j.linalg.benchmark.jmh;
+
+import org.nd4j.linalg.api.complex.IComplexNDArray;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.fft.FFT;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fast fourier transforms of real vectors
+ *
+ * @author Adam Gibson
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(2)
+public class FFTBenchmark extends BaseNd4jBenchmark {
+    @Param({"1x256", "1x1024", "1x1000"})
+    public String shape;
+
+    private INDArray x;
+
+    @Override
+    protected void setUpArrays() {
+        x = create(parseShape(shape));
+    }
+
+    @Benchmark
+    public IComplexNDArray fft() {
+        return FFT.fft(x);
+    }
+}
@@ -0,0 +1,36 @@
+package org.nd4j.linalg.benchmark.jmh;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Matrix multiply of an m x k matrix by a k x n matrix
+ *
+ * @author Adam Gibson
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(2)
+public class GemmBenchmark extends BaseNd4jBenchmark {
+    @Param({"64x64x64", "256x256x256", "1024x1024x1024", "1x1024x1024"})
+    public String shape;
+
+    private INDArray x, y;
+
+    @Override
+    protected void setUpArrays() {
+        int[] mkn = parseShape(shape);
+        x = create(mkn[0], mkn[1]);
+        y = create(mkn[1], mkn[2]);
+    }
+
+    @Benchmark
+    public INDArray mmul() {
+        return x.mmul(y);
+    }
+}
@@ -0,0 +1,47 @@
+package org.nd4j.linalg.benchmark.jmh;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creating and walking linear views
+ *
+ * @author Adam Gibson
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(2)
+public class LinearViewBenchmark extends BaseNd4jBenchmark {
+    @Param({"100x100", "1000x1000"})
+    public String shape;
+
+    private INDArray x;
+
+    @Override
+    protected void setUpArrays() {
+        x = create(parseShape(shape));
+    }
+
+    @Benchmark
+    public INDArray linearView() {
+        x.resetLinearView();
+        return x.linearView();
+    }
+
+    @Benchmark
+    public double getPutScalar() {
+        INDArray linear = x.linearView();
+        double sum = 0;
+        for (int i = 0; i < linear.length(); i++) {
+            double d = linear.getDouble(i);
+            linear.putScalar(i, d);
+            sum += d;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,39 @@
+package org.nd4j.linalg.benchmark.jmh;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scalar ops applied to every element of an array
+ *
+ * @author Adam Gibson
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(2)
+public class ScalarBenchmark extends BaseNd4jBenchmark {
+    @Param({"1x100000", "1000x1000"})
+    public String shape;
+
+    private INDArray x;
+
+    @Override
+    protected void setUpArrays() {
+        x = create(parseShape(shape));
+    }
+
+    @Benchmark
+    public INDArray addi() {
+        return x.addi(1.0);
+    }
+
+    @Benchmark
+    public INDArray mul() {
+        return x.mul(2.0);
+    }
+}
@@ -0,0 +1,47 @@
+package org.nd4j.linalg.benchmark.jmh;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.ops.transforms.Transforms;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Element wise transforms, in place and copying
+ * as well as a pairwise transform
+ *
+ * @author Adam Gibson
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(2)
+public class TransformBenchmark extends BaseNd4jBenchmark {
+    @Param({"1x100000", "1000x1000"})
+    public String shape;
+
+    private INDArray x, y;
+
+    @Override
+    protected void setUpArrays() {
+        x = create(parseShape(shape));
+        y = create(parseShape(shape));
+    }
+
+    @Benchmark
+    public INDArray sigmoid() {
+        return Transforms.sigmoid(x);
+    }
+
+    @Benchmark
+    public INDArray sigmoidInPlace() {
+        return Transforms.sigmoid(y, false);
+    }
+
+    @Benchmark
+    public INDArray add() {
+        return x.add(y);
+    }
+}
@@ -29,6 +29,10 @@ import org.nd4j.linalg.api.complex.IComplexDouble;
 import org.nd4j.linalg.api.complex.IComplexNDArray;
 import org.nd4j.linalg.api.complex.IComplexNumber;
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.impl.accum.Dot;
+import org.nd4j.linalg.api.ops.impl.accum.Mean;
+import org.nd4j.linalg.api.ops.impl.accum.Prod;
+import org.nd4j.linalg.api.ops.impl.accum.Sum;
 import org.nd4j.linalg.api.ops.impl.transforms.VectorFFT;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.factory.Nd4jBackend;
@@ -554,6 +558,89 @@ public  class ComplexNDArrayTestsC extends BaseComplexNDArrayTests  {
     }
 
 
+    @Test
+    public void testElementWiseKernels() {
+        IComplexNDArray x = Nd4j.createComplex(new double[]{1, 2, -3, 1, 2, 0.5, 4, -2, 1, 1, -1, 3}, new int[]{2, 3});
+        IComplexNDArray y = Nd4j.createComplex(new double[]{2, -1, 1, 1, 0.5, 3, -2, 2, 3, 0.5, 1, -4}, new int[]{2, 3});
+        IComplexNumber n = Nd4j.createComplexNumber(2, -3);
+        for (int i = 0; i < x.rows(); i++) {
+            for (int j = 0; j < x.columns(); j++) {
+                IComplexNumber a = x.getComplex(i, j);
+                IComplexNumber b = y.getComplex(i, j);
+                assertComplexEquals(a.add(b), x.add(y).getComplex(i, j));
+                assertComplexEquals(a.mul(b), x.mul(y).getComplex(i, j));
+                assertComplexEquals(a.div(b), x.div(y).getComplex(i, j));
+                assertComplexEquals(a.conj(), x.conj().getComplex(i, j));
+                assertComplexEquals(a.add(n), x.add(n).getComplex(i, j));
+                assertComplexEquals(a.sub(n), x.sub(n).getComplex(i, j));
+                assertComplexEquals(n.sub(a), x.rsub(n).getComplex(i, j));
+                assertComplexEquals(a.mul(n), x.mul(n).getComplex(i, j));
+                assertComplexEquals(a.div(n), x.div(n).getComplex(i, j));
+                assertComplexEquals(n.div(a), x.rdiv(n).getComplex(i, j));
+            }
+        }
+
+        //views are walked in place
+        IComplexNDArray xColumn = x.getColumn(1);
+        IComplexNDArray yColumn = y.getColumn(2);
+        IComplexNDArray mulColumn = xColumn.mul(yColumn);
+        for (int i = 0; i < xColumn.length(); i++)
+            assertComplexEquals(xColumn.getComplex(i).mul(yColumn.getComplex(i)), mulColumn.getComplex(i));
+
+        IComplexNDArray xTranspose = x.transpose();
+        IComplexNDArray mulTranspose = xTranspose.mul(y.transpose());
+        for (int i = 0; i < xTranspose.rows(); i++)
+            for (int j = 0; j < xTranspose.columns(); j++)
+                assertComplexEquals(x.getComplex(j, i).mul(y.getComplex(j, i)), mulTranspose.getComplex(i, j));
+
+        IComplexNDArray dup = x.dup();
+        dup.getColumn(0).muli(n);
+        assertComplexEquals(x.getComplex(1, 0).mul(n), dup.getComplex(1, 0));
+        assertComplexEquals(x.getComplex(1, 1), dup.getComplex(1, 1));
+    }
+
+    @Test
+    public void testAccumulationKernels() {
+        IComplexNDArray x = Nd4j.createComplex(new double[]{1, 2, -3, 1, 2, 0.5, 4, -2}, new int[]{2, 2});
+        IComplexNDArray y = Nd4j.createComplex(new double[]{2, -1, 1, 1, 0.5, 3, -2, 2}, new int[]{2, 2});
+        IComplexNumber sum = Nd4j.createComplexNumber(0, 0);
+        IComplexNumber prod = Nd4j.createComplexNumber(1, 0);
+        IComplexNumber dot = Nd4j.createComplexNumber(0, 0);
+        for (int i = 0; i < x.length(); i++) {
+            IComplexNumber a = x.linearView().getComplex(i);
+            sum.addi(a);
+            prod.muli(a);
+            dot.addi(a.mul(y.linearView().getComplex(i)));
+        }
+
+        assertComplexEquals(sum, Nd4j.getExecutioner().execAndReturn(new Sum(x)).currentResultComplex());
+        assertComplexEquals(prod, Nd4j.getExecutioner().execAndReturn(new Prod(x)).currentResultComplex());
+        assertComplexEquals(sum.div(x.length()), Nd4j.getExecutioner().execAndReturn(new Mean(x)).currentResultComplex());
+        assertComplexEquals(dot, Nd4j.getExecutioner().execAndReturn(new Dot(x, y)).currentResultComplex());
+    }
+
+    private void assertComplexEquals(IComplexNumber expected, IComplexNumber actual) {
+        assertEquals(expected.realComponent().doubleValue(), actual.realComponent().doubleValue(), 1e-5);
+        assertEquals(expected.imaginaryComponent().doubleValue(), actual.imaginaryComponent().doubleValue(), 1e-5);
+    }
+
+    @Test
+    public void testSortByAbsoluteValue() {
+        IComplexNDArray arr = Nd4j.createComplex(new double[]{3, 4, 1, 0, 0, 2, -6, 0}, new int[]{1, 4});
+        INDArray[] sorted = Nd4j.sortWithIndices(arr.dup(), 1, false);
+        assertEquals(Nd4j.create(new double[]{3, 0, 2, 1}), sorted[0]);
+        IComplexNDArray values = (IComplexNDArray) sorted[1];
+        double[][] answer = {{-6, 0}, {3, 4}, {0, 2}, {1, 0}};
+        for (int i = 0; i < answer.length; i++) {
+            assertEquals(answer[i][0], values.getComplex(i).realComponent().doubleValue(), 1e-6);
+            assertEquals(answer[i][1], values.getComplex(i).imaginaryComponent().doubleValue(), 1e-6);
+        }
+
+        IComplexNDArray ascending = Nd4j.sort(arr.dup(), 1, true);
+        for (int i = 0; i < answer.length; i++)
+            assertEquals(answer[answer.length - 1 - i][0], ascending.getComplex(i).realComponent().doubleValue(), 1e-6);
+    }
+
     @Test
     public void testGetRow() {
         IComplexNDArray arr = Nd4j.createComplex(new int[]{3, 2});
@@ -749,6 +749,86 @@ public  class NDArrayTestsFortran  extends BaseNd4jTest {
 
 
 
+    @Test
+    public void testGemmBatchedF() {
+        INDArray[] a = new INDArray[50], b = new INDArray[50];
+        for(int i = 0; i < a.length; i++) {
+            a[i] = Nd4j.rand(new int[]{16, 8});
+            b[i] = Nd4j.rand(new int[]{8, 4});
+        }
+        INDArray[] c = Nd4j.gemmBatched(a, b);
+        for(int i = 0; i < c.length; i++)
+            assertEquals(a[i].mmul(b[i]), c[i]);
+
+        //slices of a tensor multiplied by a shared matrix, accumulated in to the result
+        INDArray tensor = Nd4j.rand(new int[]{6, 5, 3});
+        INDArray weights = Nd4j.rand(new int[]{3, 2});
+        INDArray result = Nd4j.ones(6, 5, 2);
+        Nd4j.getBlasWrapper().level3().gemmBatched('N', 'N', 'N', 2.0, tensor, weights, 1.0, result);
+        for(int i = 0; i < 6; i++)
+            assertEquals(tensor.slice(i).mmul(weights).mul(2).add(1), result.slice(i));
+
+        //operands that don't share a layout get their own parameters
+        INDArray[] mixed = {a[0], a[1].transpose().transpose().dup(), Nd4j.create(new int[]{16, 8}, 'c').addi(1)};
+        INDArray[] mixedB = {b[0], b[1], b[2]};
+        INDArray[] mixedC = Nd4j.gemmBatched(mixed, mixedB);
+        for(int i = 0; i < mixed.length; i++)
+            assertEquals(mixed[i].mmul(mixedB[i]), mixedC[i]);
+
+        //enough work to spread over threads
+        System.setProperty(Nd4j.PARALLEL_THREADS, "4");
+        try {
+            INDArray[] big = new INDArray[64], bigB = new INDArray[64];
+            for(int i = 0; i < big.length; i++) {
+                big[i] = Nd4j.rand(new int[]{32, 32});
+                bigB[i] = Nd4j.rand(new int[]{32, 16});
+            }
+            INDArray[] bigC = Nd4j.gemmBatched(big, bigB);
+            for(int i = 0; i < big.length; i++)
+                assertEquals(big[i].mmul(bigB[i]), bigC[i]);
+        } finally {
+            System.clearProperty(Nd4j.PARALLEL_THREADS);
+        }
+    }
+
+    @Test
+    public void testMmulViewsF() {
+        INDArray big = Nd4j.linspace(1, 60, 60).reshape(6, 10);
+        //offset views, transposes (row major in a column major array and vice versa) and mixed orderings
+        INDArray row = big.getRow(2);
+        INDArray other = Nd4j.linspace(1, 40, 40).reshape(10, 4);
+        assertEquals(naiveMmul(row, other), row.mmul(other));
+        INDArray transposed = big.transpose();
+        INDArray otherOrder = Nd4j.create(new int[]{6, 3}, 'c');
+        for(int i = 0; i < otherOrder.rows(); i++)
+            for(int j = 0; j < otherOrder.columns(); j++)
+                otherOrder.putScalar(new int[]{i, j}, i * 3 + j);
+        assertEquals(naiveMmul(transposed, otherOrder), transposed.mmul(otherOrder));
+        assertEquals(naiveMmul(big, transposed), big.mmul(transposed));
+        INDArray column = big.getColumn(3);
+        assertEquals(naiveMmul(transposed, column), transposed.mmul(column));
+
+        //alpha, beta and a result that is itself a view
+        INDArray result = Nd4j.linspace(1, 30, 30).reshape(5, 6);
+        INDArray resultRow = result.getRow(1);
+        INDArray expected = naiveMmul(row, transposed).mul(2).add(resultRow.dup());
+        Nd4j.getBlasWrapper().level3().gemm('N', 'N', 'N', 2.0, row, transposed, 1.0, resultRow);
+        assertEquals(expected, resultRow);
+        assertEquals(Nd4j.linspace(1, 30, 30).reshape(5, 6).getRow(0), result.getRow(0));
+    }
+
+    private INDArray naiveMmul(INDArray a, INDArray b) {
+        INDArray ret = Nd4j.create(a.rows(), b.columns());
+        for(int i = 0; i < a.rows(); i++)
+            for(int j = 0; j < b.columns(); j++) {
+                double sum = 0;
+                for(int k = 0; k < a.columns(); k++)
+                    sum += a.getDouble(i, k) * b.getDouble(k, j);
+                ret.putScalar(new int[]{i, j}, sum);
+            }
+        return ret;
+    }
+
     @Test
     public void testMmulF() {
 
@@ -24,6 +24,7 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.complex.IComplexNDArray;
 import org.nd4j.linalg.api.complex.IComplexNumber;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.api.ndarray.LinearViewNDArray;
@@ -33,11 +34,16 @@ import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.factory.Nd4jBackend;
 import org.nd4j.linalg.indexing.NDArrayIndex;
 import org.nd4j.linalg.ops.transforms.Transforms;
+import org.nd4j.linalg.util.ArrayUtil;
 import org.nd4j.linalg.util.Shape;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
+import java.nio.ReadOnlyBufferException;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -167,6 +173,37 @@ public  class Nd4jTestsC extends BaseNd4jTest {
 
 
 
+    @Test
+    public void testMmap() throws Exception {
+        Path path = Files.createTempFile("nd4j", ".bin");
+        try {
+            INDArray write = Nd4j.linspace(1, 24, 24).reshape(2, 3, 4);
+            Nd4j.writeBinary(write, path);
+            INDArray mapped = Nd4j.mmap(path);
+            assertTrue(mapped.data().asNetty().isDirect());
+            assertEquals(write, mapped);
+            try {
+                mapped.putScalar(0, 5);
+                fail("Read only mapping was written to");
+            } catch (ReadOnlyBufferException e) {
+                //expected
+            }
+
+            INDArray copyOnWrite = Nd4j.mmap(path, true);
+            copyOnWrite.addi(1);
+            assertEquals(write.add(1), copyOnWrite);
+            assertEquals(write, Nd4j.mmap(path));
+
+            //views are written densely
+            INDArray view = write.slice(1).transpose();
+            Nd4j.writeBinary(view, path);
+            assertEquals(view, Nd4j.mmap(path));
+        }
+        finally {
+            Files.delete(path);
+        }
+    }
+
     @Test
     public void testReadWrite() throws Exception {
         INDArray write = Nd4j.linspace(1,4,4);
@@ -184,6 +221,48 @@ public  class Nd4jTestsC extends BaseNd4jTest {
 
 
 
+    @Test
+    public void testBulkReadWrite() throws Exception {
+        //more than one chunk worth of elements
+        int length = DataBuffer.Type.DOUBLE == Nd4j.dataType() ? 200000 : 400000;
+        INDArray write = Nd4j.rand(new int[]{length / 100, 100});
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        Nd4j.write(write, new DataOutputStream(bos));
+        INDArray read = Nd4j.read(new DataInputStream(new ByteArrayInputStream(bos.toByteArray())));
+        assertEquals(write, read);
+
+        //views are written densely
+        INDArray view = write.slice(1);
+        bos = new ByteArrayOutputStream();
+        Nd4j.write(view, new DataOutputStream(bos));
+        assertEquals(view, Nd4j.read(new DataInputStream(new ByteArrayInputStream(bos.toByteArray()))));
+
+        //raw channels round trip the elements only
+        bos = new ByteArrayOutputStream();
+        write.data().write(Channels.newChannel(bos));
+        assertEquals(write.data().asBytes().length, bos.size());
+        assertTrue(Arrays.equals(write.data().asBytes(), bos.toByteArray()));
+        DataBuffer buffer = Nd4j.createBuffer(write.length());
+        buffer.read(Channels.newChannel(new ByteArrayInputStream(bos.toByteArray())));
+        assertEquals(write, Nd4j.create(buffer, write.shape()));
+
+        try {
+            Nd4j.createBuffer(write.length() + 1).read(Channels.newChannel(new ByteArrayInputStream(bos.toByteArray())));
+            fail("Read past the end of the channel");
+        } catch (EOFException e) {
+            //expected
+        }
+    }
+
+    @Test
+    public void testReadWriteComplex() throws Exception {
+        IComplexNDArray write = Nd4j.complexLinSpace(1, 6, 6).reshape(2, 3);
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        Nd4j.writeComplex(write, new DataOutputStream(bos));
+        IComplexNDArray read = Nd4j.readComplex(new DataInputStream(new ByteArrayInputStream(bos.toByteArray())));
+        assertEquals(write, read);
+    }
+
     @Test
     public void testExecSubArray() {
         INDArray nd = Nd4j.create(new double[]{1, 2, 3, 4, 5, 6}, new int[]{2, 3});
@@ -316,10 +395,33 @@ public  class Nd4jTestsC extends BaseNd4jTest {
         NDArrayIndex index = NDArrayIndex.interval(0, 2);
         INDArray get = arange.get(index, index);
         LinearViewNDArray linearViewNDArray = new LinearViewNDArray(get);
-        assertEquals(getFailureMessage(),Nd4j.create(new double[]{1, 2, 3, 4}),linearViewNDArray);
+        assertEquals(getFailureMessage(),Nd4j.create(new double[]{1, 2, 5, 6}),linearViewNDArray);
 
     }
 
+    @Test
+    public void testIntervalViews() {
+        NDArrayIndex batch = NDArrayIndex.interval(0, 1000000);
+        assertTrue(batch.isSymbolic());
+        assertEquals(1000000, batch.length());
+        assertEquals(999999, batch.end());
+
+        INDArray arr = Nd4j.linspace(1, 24, 24).reshape(4, 6);
+        INDArray get = arr.get(NDArrayIndex.interval(1, 3), NDArrayIndex.interval(0, 2, 6));
+        assertEquals(Nd4j.create(new double[][]{{7, 9, 11}, {13, 15, 17}}), get);
+        assertTrue(get.data() == arr.data());
+
+        arr.put(new NDArrayIndex[]{NDArrayIndex.interval(1, 3), NDArrayIndex.interval(0, 2, 6)}, Nd4j.zeros(2, 3));
+        assertEquals(0, arr.getDouble(1, 0), 1e-1);
+        assertEquals(8, arr.getDouble(1, 1), 1e-1);
+        assertEquals(0, arr.getDouble(2, 4), 1e-1);
+        assertEquals(Nd4j.create(new double[]{19, 20, 21, 22, 23, 24}), arr.getRow(3));
+
+        arr.put(new NDArrayIndex[]{NDArrayIndex.interval(2, 4), NDArrayIndex.all()}, 1);
+        assertEquals(Nd4j.ones(2, 6), arr.get(NDArrayIndex.interval(2, 4), NDArrayIndex.all()));
+        assertEquals(8, arr.getDouble(1, 1), 1e-1);
+    }
+
 
     @Test
     public void testRowVectorGemm() {
@@ -444,6 +546,98 @@ public  class Nd4jTestsC extends BaseNd4jTest {
 
     }
 
+    @Test
+    public void testSortAlongDimensionsOfViews() {
+        Nd4j.getRandom().setSeed(12345);
+        INDArray arr = Nd4j.rand(new int[]{3, 7, 5});
+        for (int dimension = 0; dimension < 3; dimension++) {
+            INDArray toSort = arr.dup();
+            INDArray indices = Nd4j.argsort(toSort, dimension, false);
+            INDArray[] sorted = Nd4j.sortWithIndices(toSort, dimension, false);
+            assertEquals(indices, sorted[0]);
+            int[] shape = arr.shape();
+            int[] outer = ArrayUtil.removeIndex(shape, dimension);
+            for (int i = 0; i < outer[0]; i++) {
+                for (int j = 0; j < outer[1]; j++) {
+                    double[] answer = new double[shape[dimension]];
+                    int[][] idx = new int[answer.length][];
+                    for (int l = 0; l < answer.length; l++) {
+                        idx[l] = dimension == 0 ? new int[]{l, i, j} : dimension == 1 ? new int[]{i, l, j} : new int[]{i, j, l};
+                        answer[l] = arr.getDouble(idx[l]);
+                    }
+                    Arrays.sort(answer);
+                    for (int l = 0; l < answer.length; l++) {
+                        assertEquals(answer[answer.length - 1 - l], sorted[1].getDouble(idx[l]), 1e-6);
+                        assertEquals(answer[answer.length - 1 - l], arr.getDouble(idx[(int) indices.getDouble(idx[l])]), 1e-6);
+                    }
+                }
+            }
+        }
+
+        //a column of a matrix is a strided view: it is sorted in place
+        INDArray matrix = Nd4j.create(new double[][]{{3, 1}, {1, 2}, {2, 3}});
+        Nd4j.sort(matrix.getColumn(0), 0, true);
+        assertEquals(Nd4j.create(new double[][]{{1, 1}, {2, 2}, {3, 3}}), matrix);
+    }
+
+    @Test
+    public void testTopK() {
+        Nd4j.getRandom().setSeed(12345);
+        INDArray arr = Nd4j.rand(new int[]{4, 50});
+        INDArray original = arr.dup();
+        INDArray[] top = Nd4j.topK(arr, 5, 1);
+        INDArray[] bottom = Nd4j.topK(arr, 3, 1, false);
+        assertEquals(original, arr);
+        assertTrue(Arrays.equals(new int[]{4, 5}, top[0].shape()));
+        assertTrue(Arrays.equals(new int[]{4, 3}, bottom[1].shape()));
+        for (int i = 0; i < 4; i++) {
+            double[] row = new double[50];
+            for (int j = 0; j < 50; j++)
+                row[j] = arr.getDouble(i, j);
+            Arrays.sort(row);
+            for (int j = 0; j < 5; j++) {
+                assertEquals(row[49 - j], top[1].getDouble(i, j), 1e-6);
+                assertEquals(row[49 - j], arr.getDouble(i, (int) top[0].getDouble(i, j)), 1e-6);
+            }
+            for (int j = 0; j < 3; j++) {
+                assertEquals(row[j], bottom[1].getDouble(i, j), 1e-6);
+                assertEquals(row[j], arr.getDouble(i, (int) bottom[0].getDouble(i, j)), 1e-6);
+            }
+        }
+
+        //ties are ordered by index
+        INDArray ties = Nd4j.create(new double[]{1, 3, 3, 2, 3});
+        INDArray[] topTies = Nd4j.topK(ties, 3, 1);
+        assertEquals(Nd4j.create(new double[]{1, 2, 4}), topTies[0]);
+        assertEquals(Nd4j.create(new double[]{3, 3, 3}), topTies[1]);
+    }
+
+    @Test
+    public void testGatherScatter() {
+        INDArray embeddings = Nd4j.linspace(1, 12, 12).reshape(4, 3);
+        assertEquals(Nd4j.create(new double[][]{{7, 8, 9}, {1, 2, 3}, {7, 8, 9}}), Nd4j.gather(embeddings, 0, new int[]{2, 0, 2}));
+        assertEquals(Nd4j.create(new double[][]{{3, 1}, {6, 4}, {9, 7}, {12, 10}}), Nd4j.gather(embeddings, 1, new int[]{2, 0}));
+        INDArray view = embeddings.get(NDArrayIndex.interval(1, 3), NDArrayIndex.interval(0, 2, 4));
+        assertEquals(Nd4j.create(new double[][]{{7, 9}, {4, 6}}), Nd4j.gather(view, 0, new int[]{1, 0}));
+
+        INDArray added = Nd4j.scatterAdd(Nd4j.zeros(4, 3), 0, new int[]{1, 3, 1}, Nd4j.linspace(1, 9, 9).reshape(3, 3));
+        assertEquals(Nd4j.create(new double[][]{{0, 0, 0}, {8, 10, 12}, {0, 0, 0}, {4, 5, 6}}), added);
+        INDArray updated = Nd4j.scatterUpdate(Nd4j.zeros(4, 3), 0, new int[]{1, 1}, Nd4j.create(new double[][]{{1, 1, 1}, {2, 2, 2}}));
+        assertEquals(Nd4j.create(new double[][]{{0, 0, 0}, {2, 2, 2}, {0, 0, 0}, {0, 0, 0}}), updated);
+
+        //large enough to be spread over threads, with every row repeated
+        INDArray table = Nd4j.rand(500, 64);
+        int[] indices = new int[4000];
+        for (int i = 0; i < indices.length; i++)
+            indices[i] = (i * 7) % 100;
+        INDArray rows = Nd4j.gather(table, 0, indices);
+        for (int i = 0; i < indices.length; i += 333)
+            assertEquals(table.getRow(indices[i]), rows.getRow(i));
+
+        INDArray gradient = Nd4j.scatterAdd(Nd4j.zeros(100, 64), 0, indices, Nd4j.ones(indices.length, 64));
+        assertEquals(Nd4j.ones(100, 64).muli(40), gradient);
+    }
+
     @Test
     public void testDimShuffle() {
         INDArray n = Nd4j.linspace(1, 4, 4).reshape(2, 2);
@@ -761,7 +955,7 @@ public  class Nd4jTestsC extends BaseNd4jTest {
     @Test
     public void testSum() {
         INDArray n = Nd4j.create(Nd4j.linspace(1, 8, 8).data(), new int[]{2, 2, 2});
-        INDArray test = Nd4j.create(new float[]{3, 11, 7, 15}, new int[]{2, 2});
+        INDArray test = Nd4j.create(new float[]{3, 7, 11, 15}, new int[]{2, 2});
         INDArray sum = n.sum(n.shape().length - 1);
         assertEquals(test, sum);
 
@@ -797,6 +991,107 @@ public  class Nd4jTestsC extends BaseNd4jTest {
     }
 
 
+    @Test
+    public void testGemmBatched() {
+        INDArray[] a = new INDArray[50], b = new INDArray[50];
+        for(int i = 0; i < a.length; i++) {
+            a[i] = Nd4j.rand(new int[]{16, 8});
+            b[i] = Nd4j.rand(new int[]{8, 4});
+        }
+        INDArray[] c = Nd4j.gemmBatched(a, b);
+        for(int i = 0; i < c.length; i++)
+            assertEquals(a[i].mmul(b[i]), c[i]);
+
+        //slices of a tensor multiplied by a shared matrix, accumulated in to the result
+        INDArray tensor = Nd4j.rand(new int[]{6, 5, 3});
+        INDArray weights = Nd4j.rand(new int[]{3, 2});
+        INDArray result = Nd4j.ones(6, 5, 2);
+        Nd4j.getBlasWrapper().level3().gemmBatched('N', 'N', 'N', 2.0, tensor, weights, 1.0, result);
+        for(int i = 0; i < 6; i++)
+            assertEquals(tensor.slice(i).mmul(weights).mul(2).add(1), result.slice(i));
+
+        //operands that don't share a layout get their own parameters
+        INDArray[] mixed = {a[0], a[1].transpose().transpose().dup(), Nd4j.create(new int[]{16, 8}, 'f').addi(1)};
+        INDArray[] mixedB = {b[0], b[1], b[2]};
+        INDArray[] mixedC = Nd4j.gemmBatched(mixed, mixedB);
+        for(int i = 0; i < mixed.length; i++)
+            assertEquals(mixed[i].mmul(mixedB[i]), mixedC[i]);
+
+        //enough work to spread over threads
+        System.setProperty(Nd4j.PARALLEL_THREADS, "4");
+        try {
+            INDArray[] big = new INDArray[64], bigB = new INDArray[64];
+            for(int i = 0; i < big.length; i++) {
+                big[i] = Nd4j.rand(new int[]{32, 32});
+                bigB[i] = Nd4j.rand(new int[]{32, 16});
+            }
+            INDArray[] bigC = Nd4j.gemmBatched(big, bigB);
+            for(int i = 0; i < big.length; i++)
+                assertEquals(big[i].mmul(bigB[i]), bigC[i]);
+        } finally {
+            System.clearProperty(Nd4j.PARALLEL_THREADS);
+        }
+    }
+
+    @Test
+    public void testMmulViews() {
+        INDArray big = Nd4j.linspace(1, 60, 60).reshape(6, 10);
+        //offset views, transposes (row major in a column major array and vice versa) and mixed orderings
+        INDArray row = big.getRow(2);
+        INDArray other = Nd4j.linspace(1, 40, 40).reshape(10, 4);
+        assertEquals(naiveMmul(row, other), row.mmul(other));
+        INDArray transposed = big.transpose();
+        INDArray otherOrder = Nd4j.create(new int[]{6, 3}, 'f');
+        for(int i = 0; i < otherOrder.rows(); i++)
+            for(int j = 0; j < otherOrder.columns(); j++)
+                otherOrder.putScalar(new int[]{i, j}, i * 3 + j);
+        assertEquals(naiveMmul(transposed, otherOrder), transposed.mmul(otherOrder));
+        assertEquals(naiveMmul(big, transposed), big.mmul(transposed));
+        INDArray column = big.getColumn(3);
+        assertEquals(naiveMmul(transposed, column), transposed.mmul(column));
+
+        //alpha, beta and a result that is itself a view
+        INDArray result = Nd4j.linspace(1, 30, 30).reshape(5, 6);
+        INDArray resultRow = result.getRow(1);
+        INDArray expected = naiveMmul(row, transposed).mul(2).add(resultRow.dup());
+        Nd4j.getBlasWrapper().level3().gemm('N', 'N', 'N', 2.0, row, transposed, 1.0, resultRow);
+        assertEquals(expected, resultRow);
+        assertEquals(Nd4j.linspace(1, 30, 30).reshape(5, 6).getRow(0), result.getRow(0));
+    }
+
+    @Test
+    public void testMmulViewsDirect() {
+        //direct buffers only hand blas the span of each view
+        Nd4j.alloc = DataBuffer.AllocationMode.DIRECT;
+        try {
+            testMmulViews();
+            INDArray big = Nd4j.linspace(1, 60, 60).reshape(6, 10);
+            INDArray[] rows = {big.getRow(1), big.getRow(4)};
+            INDArray other = Nd4j.linspace(1, 20, 20).reshape(10, 2);
+            INDArray result = Nd4j.create(4, 2);
+            INDArray[] resultRows = {result.getRow(0), result.getRow(3)};
+            Nd4j.getBlasWrapper().level3().gemmBatched('N', 'N', 'N', 1.0, rows, new INDArray[]{other, other}, 0.0, resultRows);
+            assertEquals(naiveMmul(rows[0], other), result.getRow(0));
+            assertEquals(naiveMmul(rows[1], other), result.getRow(3));
+            assertEquals(Nd4j.zeros(2, 2), result.get(NDArrayIndex.interval(1, 3), NDArrayIndex.all()));
+        }
+        finally {
+            Nd4j.alloc = DataBuffer.AllocationMode.HEAP;
+        }
+    }
+
+    private INDArray naiveMmul(INDArray a, INDArray b) {
+        INDArray ret = Nd4j.create(a.rows(), b.columns());
+        for(int i = 0; i < a.rows(); i++)
+            for(int j = 0; j < b.columns(); j++) {
+                double sum = 0;
+                for(int k = 0; k < a.columns(); k++)
+                    sum += a.getDouble(i, k) * b.getDouble(k, j);
+                ret.putScalar(new int[]{i, j}, sum);
+            }
+        return ret;
+    }
+
     @Test
     public void testMmul() {
         DataBuffer data = Nd4j.linspace(1, 10, 10).data();
@@ -1471,6 +1766,45 @@ public  class Nd4jTestsC extends BaseNd4jTest {
 
     }
 
+    @Test
+    public void testConcatAlongEachDimension() {
+        INDArray a = Nd4j.linspace(1, 24, 24).reshape(2, 3, 4);
+        for (int dim = 0; dim < 3; dim++) {
+            int[] shape = a.shape().clone();
+            shape[dim] = 2;
+            INDArray b = Nd4j.linspace(101, 100 + ArrayUtil.prod(shape), ArrayUtil.prod(shape)).reshape(shape);
+            INDArray concat = Nd4j.concat(dim, a, b);
+            assertEquals(a.shape()[dim] + 2, concat.shape()[dim]);
+            for (int i = 0; i < concat.shape()[0]; i++)
+                for (int j = 0; j < concat.shape()[1]; j++)
+                    for (int k = 0; k < concat.shape()[2]; k++) {
+                        int[] idx = {i, j, k};
+                        INDArray from = idx[dim] < a.shape()[dim] ? a : b;
+                        if (from == b)
+                            idx[dim] -= a.shape()[dim];
+                        assertEquals(from.getDouble(idx), concat.getDouble(i, j, k), 1e-6);
+                    }
+        }
+
+        //fortran ordered inputs and views are copied through their strides
+        INDArray fortran = Nd4j.create(3, 4, 'f');
+        for (int i = 0; i < fortran.length(); i++)
+            fortran.data().put(i, i);
+        INDArray matrix = Nd4j.linspace(1, 16, 16).reshape(4, 4);
+        INDArray view = matrix.get(NDArrayIndex.interval(1, 3), NDArrayIndex.all());
+        INDArray concat = Nd4j.concat(0, fortran, view);
+        assertEquals(fortran, concat.get(NDArrayIndex.interval(0, 3), NDArrayIndex.all()));
+        assertEquals(view, concat.get(NDArrayIndex.interval(3, 5), NDArrayIndex.all()));
+
+        INDArray[] batches = new INDArray[50];
+        for (int i = 0; i < batches.length; i++)
+            batches[i] = Nd4j.rand(20, 8);
+        INDArray stacked = Nd4j.vstack(batches);
+        assertTrue(Arrays.equals(new int[]{1000, 8}, stacked.shape()));
+        for (int i = 0; i < batches.length; i += 7)
+            assertEquals(batches[i], stacked.get(NDArrayIndex.interval(i * 20, (i + 1) * 20), NDArrayIndex.all()));
+    }
+
     @Test
     public void testConcatHorizontally() {
         INDArray rowVector = Nd4j.ones(5);
@@ -1607,7 +1941,7 @@ public  class Nd4jTestsC extends BaseNd4jTest {
         INDArray mul = get.mul(ones);
         INDArray assertion = Nd4j.create(new double[][]{
                 {0.25,0.5},
-                {0.75,1}
+                {1.25,1.5}
         });
         assertEquals(assertion, mul);
 
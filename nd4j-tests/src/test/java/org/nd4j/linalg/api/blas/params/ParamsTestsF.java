@@ -40,6 +40,37 @@ public class ParamsTestsF extends BaseNd4jTest {
         assertEquals(c.rows(),params.getLdc());
     }
 
+    @Test
+    public void testGemmViews() {
+        //a row major operand is passed transposed rather than copied
+        INDArray a = Nd4j.create(new int[]{2,4},'c');
+        INDArray b = Nd4j.create(4,3);
+        INDArray c = Nd4j.create(2,3);
+        GemmParams params = new GemmParams(a,b,c);
+        assertEquals(a,params.getA());
+        assertEquals('T',params.getTransA());
+        assertEquals(4,params.getLda());
+        assertEquals('N',params.getTransB());
+
+        //a view keeps the leading dimension of the array it came from
+        INDArray big = Nd4j.create(10,6);
+        INDArray row = big.getRow(3);
+        INDArray other = Nd4j.create(6,2);
+        params = new GemmParams(row,other,Nd4j.create(1,2));
+        assertTrue(params.getA() == row);
+        assertEquals(1,params.getM());
+        assertEquals(6,params.getK());
+
+        //a row major result computes the transposed product
+        params = new GemmParams(a,b,Nd4j.create(new int[]{2,3},'c'));
+        assertEquals(3,params.getM());
+        assertEquals(2,params.getN());
+        assertEquals(3,params.getLdc());
+        assertTrue(params.getA() == b);
+        assertEquals('T',params.getTransA());
+        assertEquals('N',params.getTransB());
+    }
+
     @Override
     public char ordering() {
         return 'f';
@@ -23,6 +23,9 @@ import io.netty.buffer.ByteBuf;
 import org.junit.Before;
 import org.junit.Test;
 import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.buffer.allocation.DataBufferPool;
+import org.nd4j.linalg.api.buffer.allocation.Workspace;
+import org.nd4j.linalg.api.buffer.factory.PooledDataBufferFactory;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.factory.Nd4jBackend;
@@ -30,6 +33,7 @@ import org.nd4j.linalg.util.SerializationUtils;
 
 
 import java.io.File;
+import java.util.concurrent.CountDownLatch;
 
 import static org.junit.Assert.assertArrayEquals;
 
@@ -178,6 +182,113 @@ public  class DoubleDataBufferTest extends BaseNd4jTest {
         assertEquals(assertion, blank);
     }
 
+    @Test
+    public void testPooledFactory() {
+        PooledDataBufferFactory factory = new PooledDataBufferFactory(new DataBufferPool(1024 * 1024, 2));
+        DataBuffer first = factory.createDouble(new double[]{1, 2, 3});
+        assertArrayEquals(new double[]{1, 2, 3}, first.asDouble(), 1e-1);
+        double[] backing = first.asDouble();
+        first.destroy();
+        assertEquals(1, factory.getPool().getReleases());
+
+        DataBuffer reused = factory.createDouble(3);
+        assertTrue(backing == reused.asDouble());
+        assertArrayEquals(new double[3], reused.asDouble(), 1e-1);
+        assertEquals(1, factory.getPool().getHits());
+        assertEquals(1, factory.getPool().getMisses());
+
+        //a different size class is not served from the pool
+        factory.createDouble(4).destroy();
+        assertEquals(2, factory.getPool().getMisses());
+        assertEquals(4 * 8, factory.getPool().getPooledBytes());
+        factory.getPool().clear();
+        assertEquals(0, factory.getPool().getPooledBytes());
+    }
+
+    @Test
+    public void testPoolThreadCaches() throws Exception {
+        final DataBufferPool pool = new DataBufferPool(1024 * 1024, 2);
+        final CountDownLatch released = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(1);
+        Thread worker = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                pool.release(new double[4]);
+                released.countDown();
+                try {
+                    done.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                pool.release(new double[8]);
+            }
+        });
+        worker.start();
+        released.await();
+
+        //clear drains the caches of other threads too
+        assertEquals(4 * 8, pool.getPooledBytes());
+        pool.clear();
+        assertEquals(0, pool.getPooledBytes());
+
+        //the cache of a thread that died is reclaimed
+        done.countDown();
+        worker.join();
+        assertEquals(0, pool.getPooledBytes());
+        pool.acquireDouble(8, false);
+        assertEquals(0, pool.getHits());
+    }
+
+    @Test
+    public void testWorkspace() {
+        INDArray outside = Nd4j.linspace(1, 4, 4);
+        INDArray kept;
+        Workspace workspace = Workspace.getNamed("test");
+        try (Workspace ws = Nd4j.workspace("test")) {
+            INDArray scratch = outside.add(1);
+            kept = ws.detach(scratch.mul(2));
+            assertTrue(ws.isScoped(scratch));
+            assertFalse(ws.isScoped(kept));
+            assertFalse(ws.isScoped(outside));
+        }
+
+        assertNull(Workspace.getCurrent());
+        assertEquals(Nd4j.create(new double[]{4, 6, 8, 10}), kept);
+        assertEquals(Nd4j.create(new double[]{1, 2, 3, 4}), outside);
+
+        //the next scope reuses the memory released by the last one
+        INDArray zeros = Nd4j.create(4);
+        long misses = workspace.getPool().getMisses();
+        try (Workspace ws = Nd4j.workspace("test")) {
+            INDArray scratch = Nd4j.create(4);
+            assertEquals(zeros, scratch);
+        }
+
+        assertEquals(misses, workspace.getPool().getMisses());
+        assertTrue(workspace.getPool().getHits() > 0);
+
+        //releasing the name drops the workspace and its memory
+        assertTrue(workspace.getPool().getPooledBytes() > 0);
+        assertTrue(Workspace.release("test"));
+        assertEquals(0, workspace.getPool().getPooledBytes());
+        assertFalse(Workspace.release("test"));
+        assertTrue(workspace != Workspace.getNamed("test"));
+        Workspace.release("test");
+    }
+
+    @Test
+    public void testWorkspaceBound() {
+        Workspace workspace = new Workspace(8 * 8);
+        try (Workspace ws = workspace.enter()) {
+            Nd4j.create(8);
+            Nd4j.create(8);
+        }
+
+        //only what fits in the bound is kept
+        assertEquals(8 * 8, workspace.getPool().getPooledBytes());
+        assertEquals(1, workspace.getPool().getDiscards());
+    }
+
 
 
     @Override
@@ -2,6 +2,7 @@ package org.nd4j.linalg.api.rng;
 
 import org.junit.Test;
 import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.factory.Nd4jBackend;
@@ -34,6 +35,74 @@ public class RngTests extends BaseNd4jTest {
         assertEquals(arr,arr2);
     }
 
+    @Test
+    public void testThreadStreams() throws Exception {
+        final DefaultRandom random = new DefaultRandom(42);
+        double first = random.nextDouble();
+        random.setSeed(42);
+        assertEquals(first, random.nextDouble(), 0);
+
+        //other threads draw from their own streams
+        final double[] other = new double[1];
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                other[0] = random.nextDouble();
+            }
+        });
+        thread.start();
+        thread.join();
+        assertTrue(other[0] != first);
+
+        Xoroshiro128PlusGenerator stream = Xoroshiro128PlusGenerator.forStream(7, 1);
+        assertEquals(stream.nextLong(), Xoroshiro128PlusGenerator.forStream(7, 1).nextLong());
+        assertTrue(Xoroshiro128PlusGenerator.forStream(7, 0).nextLong() != Xoroshiro128PlusGenerator.forStream(7, 1).nextLong());
+    }
+
+    @Test
+    public void testBulkFill() {
+        int n = 200000;
+        DataBuffer gaussian = Nd4j.create(1, n).data();
+        new DefaultRandom(123).fillGaussian(gaussian, 2, 3);
+        DataBuffer again = Nd4j.create(1, n).data();
+        new DefaultRandom(123).fillGaussian(again, 2, 3);
+        double sum = 0, sumSq = 0;
+        for (int i = 0; i < n; i++) {
+            assertEquals(gaussian.getDouble(i), again.getDouble(i), 0);
+            sum += gaussian.getDouble(i);
+            sumSq += gaussian.getDouble(i) * gaussian.getDouble(i);
+        }
+        double mean = sum / n;
+        assertEquals(2, mean, 0.05);
+        assertEquals(9, sumSq / n - mean * mean, 0.2);
+
+        DataBuffer uniform = Nd4j.create(1, n).data();
+        new DefaultRandom(123).fillUniform(uniform, -1, 1);
+        sum = 0;
+        for (int i = 0; i < n; i++) {
+            assertTrue(uniform.getDouble(i) >= -1 && uniform.getDouble(i) < 1);
+            sum += uniform.getDouble(i);
+        }
+        assertEquals(0, sum / n, 0.02);
+
+        DataBuffer mask = Nd4j.create(1, n).data();
+        new DefaultRandom(123).fillBinomial(mask, 1, 0.3);
+        DataBuffer counts = Nd4j.create(1, 1000).data();
+        new DefaultRandom(123).fillBinomial(counts, 100, 0.3);
+        sum = 0;
+        for (int i = 0; i < n; i++) {
+            assertTrue(mask.getDouble(i) == 0 || mask.getDouble(i) == 1);
+            sum += mask.getDouble(i);
+        }
+        assertEquals(0.3, sum / n, 0.01);
+        sum = 0;
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(Math.rint(counts.getDouble(i)), counts.getDouble(i), 0);
+            sum += counts.getDouble(i);
+        }
+        assertEquals(30, sum / 1000, 1);
+    }
+
 
     @Override
     public char ordering() {
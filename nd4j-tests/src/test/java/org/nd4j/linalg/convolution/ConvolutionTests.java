@@ -58,9 +58,24 @@ public  class ConvolutionTests extends BaseNd4jTest {
         Nd4j.EPS_THRESHOLD = 1e-1;
         INDArray arr = Nd4j.linspace(1, 8, 8);
         INDArray kernel = Nd4j.linspace(1, 3, 3);
-        INDArray answer = Nd4j.create(new double[]{1.0000012});
+        INDArray answer = Nd4j.create(new double[]{10, 16, 22, 28, 34, 40});
         INDArray test = Convolution.convn(arr, kernel, Convolution.Type.VALID);
         assertEquals(getFailureMessage(),answer, test);
+        assertTrue(Arrays.equals(new int[]{1, 6}, test.shape()));
+    }
+
+    @Test
+    public void testFftConvVector() {
+        INDArray arr = Nd4j.linspace(1, 8, 8);
+        INDArray kernel = Nd4j.linspace(1, 3, 3);
+        ConvolutionInstance fft = new DefaultConvolutionInstance();
+        for (Convolution.Type type : Convolution.Type.values()) {
+            INDArray answer = instance(AdaptiveConvolutionInstance.Algorithm.DIRECT).convn(arr, kernel, type, new int[]{0, 1});
+            INDArray test = fft.convn(arr, kernel, type, new int[]{0, 1});
+            assertTrue(type.toString(), Arrays.equals(answer.shape(), test.shape()));
+            for (int i = 0; i < answer.length(); i++)
+                assertEquals(type.toString(), answer.getDouble(i), test.getDouble(i), 1e-3);
+        }
     }
 
     @Test
@@ -83,6 +98,211 @@ public  class ConvolutionTests extends BaseNd4jTest {
 
 
 
+    @Test
+    public void testDirectAndIm2colMatchReference() {
+        Nd4j.getRandom().setSeed(12345);
+        int[][] shapes = {{5, 7}, {6, 6}, {3, 4}, {8, 5}};
+        int[][] kernelShapes = {{3, 3}, {2, 4}, {5, 5}, {1, 3}};
+        for (int i = 0; i < shapes.length; i++) {
+            INDArray input = Nd4j.rand(shapes[i]);
+            INDArray kernel = Nd4j.rand(kernelShapes[i]);
+            for (Convolution.Type type : Convolution.Type.values()) {
+                INDArray answer = reference(input, kernel, type);
+                for (AdaptiveConvolutionInstance.Algorithm algorithm : new AdaptiveConvolutionInstance.Algorithm[]{AdaptiveConvolutionInstance.Algorithm.DIRECT, AdaptiveConvolutionInstance.Algorithm.IM2COL}) {
+                    INDArray test = instance(algorithm).convn(input, kernel, type, new int[]{0, 1});
+                    assertTrue(algorithm + " " + type, Arrays.equals(answer.shape(), test.shape()));
+                    for (int r = 0; r < answer.rows(); r++)
+                        for (int c = 0; c < answer.columns(); c++)
+                            assertEquals(algorithm + " " + type, answer.getDouble(r, c), test.getDouble(r, c), 1e-3);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testBatchedConv2d() {
+        Nd4j.getRandom().setSeed(12345);
+        INDArray input = Nd4j.rand(new int[]{2, 3, 6, 5});
+        INDArray kernel = Nd4j.rand(new int[]{3, 3});
+        for (Convolution.Type type : Convolution.Type.values()) {
+            INDArray test = Convolution.conv2d(input, kernel, type);
+            for (int i = 0; i < 2; i++) {
+                for (int j = 0; j < 3; j++) {
+                    INDArray answer = reference(input.slice(i).slice(j), kernel, type);
+                    assertTrue(Arrays.equals(new int[]{2, 3, answer.rows(), answer.columns()}, test.shape()));
+                    INDArray slice = test.slice(i).slice(j);
+                    for (int r = 0; r < answer.rows(); r++)
+                        for (int c = 0; c < answer.columns(); c++)
+                            assertEquals(type.toString(), answer.getDouble(r, c), slice.getDouble(r, c), 1e-3);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testAlgorithmSelection() {
+        AdaptiveConvolutionInstance instance = new AdaptiveConvolutionInstance();
+        int[] axes = {2, 3};
+        assertEquals(AdaptiveConvolutionInstance.Algorithm.DIRECT, instance.algorithm(new int[]{10, 3, 28, 28}, new int[]{1, 1, 3, 3}, axes, Convolution.Type.VALID));
+        assertEquals(AdaptiveConvolutionInstance.Algorithm.IM2COL, instance.algorithm(new int[]{10, 3, 28, 28}, new int[]{1, 1, 9, 9}, axes, Convolution.Type.VALID));
+        assertEquals(AdaptiveConvolutionInstance.Algorithm.FFT, instance.algorithm(new int[]{1, 1, 512, 512}, new int[]{1, 1, 64, 64}, axes, Convolution.Type.FULL));
+        //kernels spanning a dimension that isn't convolved go through the fft
+        assertEquals(AdaptiveConvolutionInstance.Algorithm.FFT, instance.algorithm(new int[]{10, 3, 28, 28}, new int[]{1, 3, 3, 3}, axes, Convolution.Type.VALID));
+    }
+
+    private AdaptiveConvolutionInstance instance(AdaptiveConvolutionInstance.Algorithm algorithm) {
+        AdaptiveConvolutionInstance instance = new AdaptiveConvolutionInstance();
+        if (algorithm == AdaptiveConvolutionInstance.Algorithm.DIRECT)
+            instance.setDirectThreshold(Integer.MAX_VALUE);
+        else {
+            instance.setDirectThreshold(0);
+            instance.setIm2colThreshold(Integer.MAX_VALUE);
+        }
+        return instance;
+    }
+
+    //the full 2d convolution, centered to the size of the given type
+    private INDArray reference(INDArray input, INDArray kernel, Convolution.Type type) {
+        int rows = input.rows() + kernel.rows() - 1;
+        int columns = input.columns() + kernel.columns() - 1;
+        double[][] full = new double[rows][columns];
+        for (int i = 0; i < input.rows(); i++)
+            for (int j = 0; j < input.columns(); j++)
+                for (int k = 0; k < kernel.rows(); k++)
+                    for (int l = 0; l < kernel.columns(); l++)
+                        full[i + k][j + l] += input.getDouble(i, j) * kernel.getDouble(k, l);
+
+        int outRows = rows, outColumns = columns;
+        if (type == Convolution.Type.SAME) {
+            outRows = input.rows();
+            outColumns = input.columns();
+        }
+        else if (type == Convolution.Type.VALID) {
+            outRows = Math.abs(input.rows() - kernel.rows()) + 1;
+            outColumns = Math.abs(input.columns() - kernel.columns()) + 1;
+        }
+
+        INDArray ret = Nd4j.create(outRows, outColumns);
+        for (int i = 0; i < outRows; i++)
+            for (int j = 0; j < outColumns; j++)
+                ret.putScalar(new int[]{i, j}, full[i + (rows - outRows) / 2][j + (columns - outColumns) / 2]);
+        return ret;
+    }
+
+
+    @Test
+    public void testPooling() {
+        Nd4j.getRandom().setSeed(12345);
+        INDArray input = Nd4j.rand(new int[]{2, 3, 7, 6});
+        int[][] kernels = {{2, 2}, {3, 3}, {3, 2}};
+        int[][] strides = {{2, 2}, {2, 1}, {1, 2}};
+        int[][] paddings = {{0, 0}, {1, 1}, {1, 0}};
+        for (int t = 0; t < kernels.length; t++) {
+            int[] kernel = kernels[t], stride = strides[t], padding = paddings[t];
+            INDArray argMax = Nd4j.create(2, 3, (7 + 2 * padding[0] - kernel[0]) / stride[0] + 1, (6 + 2 * padding[1] - kernel[1]) / stride[1] + 1);
+            INDArray max = Transforms.maxPool(input, kernel, stride, padding, argMax);
+            INDArray avg = Transforms.avgPool(input, kernel, stride, padding);
+            INDArray sum = Transforms.sumPool(input, kernel, stride, padding);
+            assertTrue(Arrays.equals(argMax.shape(), max.shape()));
+            for (int b = 0; b < 2; b++) {
+                for (int c = 0; c < 3; c++) {
+                    for (int i = 0; i < max.size(2); i++) {
+                        for (int j = 0; j < max.size(3); j++) {
+                            double maxVal = Double.NEGATIVE_INFINITY, sumVal = 0;
+                            int count = 0, maxIdx = -1;
+                            for (int r = i * stride[0] - padding[0]; r < i * stride[0] - padding[0] + kernel[0]; r++) {
+                                for (int col = j * stride[1] - padding[1]; col < j * stride[1] - padding[1] + kernel[1]; col++) {
+                                    if (r < 0 || r >= 7 || col < 0 || col >= 6)
+                                        continue;
+                                    double val = input.getDouble(new int[]{b, c, r, col});
+                                    if (val > maxVal) {
+                                        maxVal = val;
+                                        maxIdx = r * 6 + col;
+                                    }
+                                    sumVal += val;
+                                    count++;
+                                }
+                            }
+
+                            int[] idx = {b, c, i, j};
+                            assertEquals(maxVal, max.getDouble(idx), 1e-6);
+                            assertEquals(maxIdx, argMax.getDouble(idx), 1e-6);
+                            assertEquals(sumVal, sum.getDouble(idx), 1e-5);
+                            assertEquals(sumVal / count, avg.getDouble(idx), 1e-5);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testMaxPoolIgnoreBorder() {
+        Nd4j.getRandom().setSeed(12345);
+        INDArray input = Nd4j.rand(new int[]{2, 3, 5, 5}).subi(0.5);
+        for (boolean ignoreBorder : new boolean[]{false, true}) {
+            INDArray max = Transforms.maxPool(input, new int[]{2, 2}, ignoreBorder);
+            int windows = ignoreBorder ? 2 : 3;
+            assertTrue(Arrays.equals(new int[]{2, 3, windows, windows}, max.shape()));
+            for (int b = 0; b < 2; b++) {
+                for (int c = 0; c < 3; c++) {
+                    for (int i = 0; i < windows; i++) {
+                        for (int j = 0; j < windows; j++) {
+                            double maxVal = Double.NEGATIVE_INFINITY;
+                            for (int r = 2 * i; r < Math.min(2 * i + 2, 5); r++)
+                                for (int col = 2 * j; col < Math.min(2 * j + 2, 5); col++)
+                                    maxVal = Math.max(maxVal, input.getDouble(new int[]{b, c, r, col}));
+                            assertEquals(maxVal, max.getDouble(new int[]{b, c, i, j}), 1e-6);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testMaxPoolBackprop() {
+        INDArray input = Nd4j.linspace(1, 64, 64).reshape(2, 2, 4, 4);
+        INDArray argMax = Nd4j.create(2, 2, 2, 2);
+        INDArray pooled = Transforms.maxPool(input, new int[]{2, 2}, new int[]{2, 2}, new int[]{0, 0}, argMax);
+        INDArray epsilon = Nd4j.ones(2, 2, 2, 2);
+        INDArray grad = Transforms.maxPoolBackprop(epsilon, argMax, input.shape());
+        assertTrue(Arrays.equals(input.shape(), grad.shape()));
+        double total = 0;
+        for (int b = 0; b < 2; b++)
+            for (int ch = 0; ch < 2; ch++)
+                for (int r = 0; r < 4; r++)
+                    for (int c = 0; c < 4; c++)
+                        total += grad.getDouble(new int[]{b, ch, r, c});
+        assertEquals(16, total, 1e-6);
+        for (int b = 0; b < 2; b++)
+            for (int ch = 0; ch < 2; ch++)
+                for (int i = 0; i < 2; i++)
+                    for (int j = 0; j < 2; j++) {
+                        int idx = (int) argMax.getDouble(new int[]{b, ch, i, j});
+                        assertEquals(pooled.getDouble(new int[]{b, ch, i, j}), input.getDouble(new int[]{b, ch, idx / 4, idx % 4}), 1e-6);
+                        assertEquals(1, grad.getDouble(new int[]{b, ch, idx / 4, idx % 4}), 1e-6);
+                    }
+    }
+
+    @Test
+    public void testPooledExpectations() {
+        INDArray input = Nd4j.linspace(1, 32, 32).reshape(2, 4, 4);
+        INDArray avg = Transforms.avgPooling(input, new int[]{2, 2});
+        INDArray sum = Transforms.sumPooling(input, new int[]{2, 2});
+        assertTrue(Arrays.equals(input.shape(), avg.shape()));
+        for (int s = 0; s < 2; s++)
+            for (int i = 0; i < 4; i++)
+                for (int j = 0; j < 4; j++) {
+                    double blockSum = 0;
+                    for (int r = (i / 2) * 2; r < (i / 2) * 2 + 2; r++)
+                        for (int c = (j / 2) * 2; c < (j / 2) * 2 + 2; c++)
+                            blockSum += input.getDouble(new int[]{s, r, c});
+                    assertEquals(blockSum, sum.getDouble(new int[]{s, i, j}), 1e-6);
+                    assertEquals(blockSum / 4, avg.getDouble(new int[]{s, i, j}), 1e-6);
+                }
+    }
+
     @Override
     public char ordering() {
         return 'f';
@@ -29,6 +29,9 @@ import org.nd4j.linalg.api.ops.impl.transforms.VectorFFT;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.factory.Nd4jBackend;
 
+import java.util.Arrays;
+import java.util.Random;
+
 
 /**
  * Base class for FFTs
@@ -93,6 +96,76 @@ public  class FFTTests extends BaseNd4jTest {
 
 
 
+    @Test
+    public void testPlanMatchesDft() {
+        Random random = new Random(123);
+        for (int n : new int[]{1, 2, 3, 5, 6, 7, 8, 12, 15, 16, 30, 49, 64, 97}) {
+            double[] re = new double[n];
+            double[] im = new double[n];
+            for (int i = 0; i < n; i++) {
+                re[i] = random.nextGaussian();
+                im[i] = random.nextGaussian();
+            }
+
+            double[] fftRe = re.clone();
+            double[] fftIm = im.clone();
+            FFTPlan.forLength(n, false).execute(fftRe, fftIm);
+            for (int k = 0; k < n; k++) {
+                double expectedRe = 0;
+                double expectedIm = 0;
+                for (int j = 0; j < n; j++) {
+                    double angle = -2 * Math.PI * j * k / n;
+                    expectedRe += re[j] * Math.cos(angle) - im[j] * Math.sin(angle);
+                    expectedIm += re[j] * Math.sin(angle) + im[j] * Math.cos(angle);
+                }
+                assertEquals(getFailureMessage(), expectedRe, fftRe[k], 1e-9);
+                assertEquals(getFailureMessage(), expectedIm, fftIm[k], 1e-9);
+            }
+
+            FFTPlan.forLength(n, true).execute(fftRe, fftIm);
+            for (int i = 0; i < n; i++) {
+                assertEquals(getFailureMessage(), re[i], fftRe[i], 1e-9);
+                assertEquals(getFailureMessage(), im[i], fftIm[i], 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void testPlansAreCached() {
+        assertTrue(FFTPlan.forLength(12, false) == FFTPlan.forLength(12, false));
+        assertFalse(FFTPlan.forLength(12, false) == FFTPlan.forLength(12, true));
+    }
+
+    @Test
+    public void testRfft() {
+        for (int n : new int[]{1, 2, 5, 8, 12, 15}) {
+            INDArray signal = Nd4j.linspace(1, n, n).muli(0.5);
+            IComplexNDArray half = FFT.rfft(signal);
+            IComplexNDArray full = FFT.fft(signal);
+            assertEquals(getFailureMessage(), n / 2 + 1, half.length());
+            for (int k = 0; k < half.length(); k++) {
+                assertEquals(getFailureMessage(), full.getComplex(k).realComponent().doubleValue(), half.getComplex(k).realComponent().doubleValue(), 1e-3);
+                assertEquals(getFailureMessage(), full.getComplex(k).imaginaryComponent().doubleValue(), half.getComplex(k).imaginaryComponent().doubleValue(), 1e-3);
+            }
+
+            INDArray inverse = FFT.irfftReal(half, n);
+            for (int i = 0; i < n; i++)
+                assertEquals(getFailureMessage(), signal.getDouble(i), inverse.getDouble(i), 1e-3);
+        }
+
+        INDArray rows = Nd4j.linspace(1, 12, 12).reshape(2, 6);
+        IComplexNDArray rowsFft = FFT.rfft(rows);
+        assertTrue(Arrays.equals(new int[]{2, 4}, rowsFft.shape()));
+        IComplexNDArray secondRow = FFT.rfft(rows.getRow(1));
+        for (int k = 0; k < 4; k++) {
+            assertEquals(getFailureMessage(), secondRow.getComplex(k).realComponent().doubleValue(), rowsFft.getRow(1).getComplex(k).realComponent().doubleValue(), 1e-3);
+            assertEquals(getFailureMessage(), secondRow.getComplex(k).imaginaryComponent().doubleValue(), rowsFft.getRow(1).getComplex(k).imaginaryComponent().doubleValue(), 1e-3);
+        }
+        INDArray rowsInverse = FFT.irfftReal(rowsFft, 6);
+        for (int i = 0; i < rows.length(); i++)
+            assertEquals(getFailureMessage(), rows.linearView().getDouble(i), rowsInverse.linearView().getDouble(i), 1e-3);
+    }
+
     @Test
     public void testSimple() {
         Nd4j.EPS_THRESHOLD = 1e-1;
@@ -24,6 +24,8 @@ import org.nd4j.linalg.BaseNd4jTest;
 import org.nd4j.linalg.api.buffer.DataBuffer.Type;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.api.ops.LossFunction;
+import org.nd4j.linalg.api.ops.executioner.DefaultOpExecutioner;
+import org.nd4j.linalg.api.ops.executioner.OpExecutioner;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.factory.Nd4jBackend;
 import org.slf4j.Logger;
@@ -61,6 +63,32 @@ public  class LossFunctionTests extends BaseNd4jTest {
         assertEquals(l.getClass(),TestLossFunction.class);
     }
 
+    @Test
+    public void testExecLossFunction() {
+        DefaultOpExecutioner executioner = (DefaultOpExecutioner) Nd4j.getExecutioner();
+        INDArray in = Nd4j.linspace(1, 2000, 2000);
+        INDArray out = in.add(2);
+        assertEquals(getFailureMessage(), 8000, executioner.execAndReturn(new TestLossFunction(in, out)).currentResult().doubleValue(), 1e-6);
+
+        //every chunk accumulates with its own copy of the loss function
+        OpExecutioner.ExecutionMode mode = executioner.executionMode();
+        int threshold = executioner.getParallelThreshold();
+        int chunkSize = executioner.getChunkSize();
+        try {
+            executioner.setExecutionMode(OpExecutioner.ExecutionMode.PARALLEL);
+            executioner.setParallelThreshold(100);
+            executioner.setChunkSize(64);
+            TestLossFunction loss = new TestLossFunction(in, out);
+            assertEquals(getFailureMessage(), 8000, executioner.execAndReturn(loss).currentResult().doubleValue(), 1e-6);
+            assertEquals(getFailureMessage(), 0, loss.numProcessed());
+        }
+        finally {
+            executioner.setExecutionMode(mode);
+            executioner.setParallelThreshold(threshold);
+            executioner.setChunkSize(chunkSize);
+        }
+    }
+
     @Test
     public void testRMseXent() {
         INDArray in = Nd4j.create(new double[][]{{1, 2}, {3, 4}});
@@ -6,6 +6,8 @@ import org.nd4j.linalg.api.ops.BaseLossFunction;
 import org.nd4j.linalg.api.ops.Op;
 
 /**
+ * Sum of squared differences between the input and the output
+ *
  * @author Adam Gibson
  */
 public class TestLossFunction extends BaseLossFunction {
@@ -30,12 +32,36 @@ public class TestLossFunction extends BaseLossFunction {
 
     @Override
     public void update(Number result) {
-
+        currentResult += result.doubleValue();
+        numProcessed++;
     }
 
     @Override
     public void update(IComplexNumber result) {
+        currentComplexResult.addi(result);
+        numProcessed++;
+    }
+
+    @Override
+    public double op(double origin, double other) {
+        numProcessed++;
+        return (origin - other) * (origin - other);
+    }
+
+    @Override
+    public double update(double accum, double x) {
+        return accum + x;
+    }
+
+    @Override
+    public double combineSubResult(double first, double second) {
+        return first + second;
+    }
 
+    @Override
+    public double getAndSetFinalResult(double accum) {
+        currentResult = accum;
+        return accum;
     }
 
     @Override
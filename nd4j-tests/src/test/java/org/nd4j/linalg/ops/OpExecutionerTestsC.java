@@ -24,8 +24,12 @@ package org.nd4j.linalg.ops;
 import org.junit.Test;
 import org.nd4j.linalg.BaseNd4jTest;
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.Op;
+import org.nd4j.linalg.api.ops.OpCodes;
 import org.nd4j.linalg.api.ops.exception.IllegalOpException;
+import org.nd4j.linalg.api.ops.executioner.DefaultOpExecutioner;
 import org.nd4j.linalg.api.ops.executioner.OpExecutioner;
+import org.nd4j.linalg.api.ops.lazy.Expression;
 import org.nd4j.linalg.api.ops.impl.accum.*;
 import org.nd4j.linalg.api.ops.impl.accum.distances.EuclideanDistance;
 import org.nd4j.linalg.api.ops.impl.scalar.ScalarAdd;
@@ -38,10 +42,12 @@ import org.nd4j.linalg.api.ops.impl.transforms.arithmetic.MulOp;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.factory.Nd4jBackend;
 import org.nd4j.linalg.ops.transforms.Transforms;
+import org.reflections.Reflections;
 import org.springframework.core.io.ClassPathResource;
 
 import java.io.DataInput;
 import java.io.DataInputStream;
+import java.lang.reflect.Modifier;
 
 /**
  * Created by agibsonccc on 2/22/15.
@@ -393,6 +399,169 @@ public  class OpExecutionerTestsC extends BaseNd4jTest {
     }
 
 
+    @Test
+    public void testParallelExecution() {
+        DefaultOpExecutioner executioner = (DefaultOpExecutioner) Nd4j.getExecutioner();
+        INDArray arr = Nd4j.linspace(1, 10000, 10000).divi(10000);
+        INDArray serialSigmoid = arr.dup();
+        executioner.exec(new Sigmoid(serialSigmoid));
+        INDArray serialScalar = arr.dup();
+        executioner.exec(new ScalarAdd(serialScalar, 1));
+        double sum = executioner.execAndReturn(new Sum(arr)).currentResult().doubleValue();
+        double mean = executioner.execAndReturn(new Mean(arr)).currentResult().doubleValue();
+        double norm2 = executioner.execAndReturn(new Norm2(arr)).currentResult().doubleValue();
+        double max = executioner.execAndReturn(new Max(arr)).currentResult().doubleValue();
+        double var = executioner.execAndReturn(new Variance(arr)).currentResult().doubleValue();
+
+        OpExecutioner.ExecutionMode mode = executioner.executionMode();
+        int threshold = executioner.getParallelThreshold();
+        int chunkSize = executioner.getChunkSize();
+        try {
+            executioner.setExecutionMode(OpExecutioner.ExecutionMode.PARALLEL);
+            executioner.setParallelThreshold(1000);
+            executioner.setChunkSize(333);
+            INDArray parallelSigmoid = arr.dup();
+            executioner.exec(new Sigmoid(parallelSigmoid));
+            assertEquals(getFailureMessage(), serialSigmoid, parallelSigmoid);
+            INDArray parallelScalar = arr.dup();
+            executioner.exec(new ScalarAdd(parallelScalar, 1));
+            assertEquals(getFailureMessage(), serialScalar, parallelScalar);
+            assertEquals(getFailureMessage(), sum, executioner.execAndReturn(new Sum(arr)).currentResult().doubleValue(), 1e-3);
+            assertEquals(getFailureMessage(), mean, executioner.execAndReturn(new Mean(arr)).currentResult().doubleValue(), 1e-6);
+            assertEquals(getFailureMessage(), norm2, executioner.execAndReturn(new Norm2(arr)).currentResult().doubleValue(), 1e-6);
+            assertEquals(getFailureMessage(), max, executioner.execAndReturn(new Max(arr)).currentResult().doubleValue(), 1e-6);
+            assertEquals(getFailureMessage(), var, executioner.execAndReturn(new Variance(arr)).currentResult().doubleValue(), 1e-6);
+        }
+        finally {
+            executioner.setExecutionMode(mode);
+            executioner.setParallelThreshold(threshold);
+            executioner.setChunkSize(chunkSize);
+        }
+    }
+
+    @Test
+    public void testStridedExecution() {
+        INDArray arr = Nd4j.linspace(1, 12, 12).reshape(3, 4);
+        INDArray transposed = arr.transpose();
+        INDArray z = Nd4j.create(4, 3);
+        Nd4j.getExecutioner().exec(new AddOp(transposed, transposed, z));
+        for (int i = 0; i < 4; i++)
+            for (int j = 0; j < 3; j++)
+                assertEquals(getFailureMessage(), 2 * arr.getDouble(j, i), z.getDouble(i, j), 1e-6);
+
+        assertEquals(getFailureMessage(), 78, Nd4j.getExecutioner().execAndReturn(new Sum(transposed)).currentResult().doubleValue(), 1e-6);
+        INDArray column = arr.getColumn(1);
+        assertEquals(getFailureMessage(), 2 + 6 + 10, Nd4j.getExecutioner().execAndReturn(new Sum(column)).currentResult().doubleValue(), 1e-6);
+        Nd4j.getExecutioner().exec(new ScalarAdd(column, 1));
+        assertEquals(getFailureMessage(), Nd4j.create(new double[]{3, 7, 11}), column);
+        assertEquals(getFailureMessage(), 5, arr.getDouble(1, 0), 1e-6);
+    }
+
+    @Test
+    public void testDimensionReduction() {
+        DefaultOpExecutioner executioner = (DefaultOpExecutioner) Nd4j.getExecutioner();
+        INDArray arr = Nd4j.linspace(1, 12, 12).reshape(3, 4);
+        INDArray rowSums = Nd4j.create(new double[]{10, 26, 42});
+        INDArray columnMax = Nd4j.create(new double[]{9, 10, 11, 12});
+        INDArray rowMeans = Nd4j.create(new double[]{2.5, 6.5, 10.5});
+        assertEquals(getFailureMessage(), rowSums, executioner.exec(new Sum(arr), 1));
+        assertEquals(getFailureMessage(), columnMax, executioner.exec(new Max(arr), 0));
+        assertEquals(getFailureMessage(), rowMeans, executioner.exec(new Mean(arr), 1));
+        assertEquals(getFailureMessage(), columnMax.sub(8), executioner.exec(new Min(arr), 0));
+
+        OpExecutioner.ExecutionMode mode = executioner.executionMode();
+        int threshold = executioner.getParallelThreshold();
+        int chunkSize = executioner.getChunkSize();
+        try {
+            executioner.setExecutionMode(OpExecutioner.ExecutionMode.PARALLEL);
+            executioner.setParallelThreshold(1);
+            executioner.setChunkSize(4);
+            assertEquals(getFailureMessage(), rowSums, executioner.exec(new Sum(arr), 1));
+            assertEquals(getFailureMessage(), columnMax, executioner.exec(new Max(arr), 0));
+            assertEquals(getFailureMessage(), rowMeans, executioner.exec(new Mean(arr.transpose()), 0));
+        }
+        finally {
+            executioner.setExecutionMode(mode);
+            executioner.setParallelThreshold(threshold);
+            executioner.setChunkSize(chunkSize);
+        }
+    }
+
+    @Test
+    public void testDimensionReductionRank3() {
+        DefaultOpExecutioner executioner = (DefaultOpExecutioner) Nd4j.getExecutioner();
+        INDArray arr = Nd4j.linspace(1, 24, 24).reshape(2, 3, 4);
+        INDArray sumAlong2 = Nd4j.create(2, 3);
+        INDArray sumAlong1 = Nd4j.create(2, 4);
+        INDArray maxAlong01 = Nd4j.create(1, 4);
+        for (int i = 0; i < 2; i++) {
+            for (int j = 0; j < 3; j++) {
+                for (int k = 0; k < 4; k++) {
+                    double value = arr.getDouble(i, j, k);
+                    sumAlong2.putScalar(new int[]{i, j}, sumAlong2.getDouble(i, j) + value);
+                    sumAlong1.putScalar(new int[]{i, k}, sumAlong1.getDouble(i, k) + value);
+                    maxAlong01.putScalar(new int[]{0, k}, Math.max(maxAlong01.getDouble(0, k), value));
+                }
+            }
+        }
+
+        OpExecutioner.ExecutionMode mode = executioner.executionMode();
+        int threshold = executioner.getParallelThreshold();
+        int chunkSize = executioner.getChunkSize();
+        try {
+            for (OpExecutioner.ExecutionMode executionMode : new OpExecutioner.ExecutionMode[]{OpExecutioner.ExecutionMode.JAVA, OpExecutioner.ExecutionMode.PARALLEL}) {
+                executioner.setExecutionMode(executionMode);
+                executioner.setParallelThreshold(1);
+                executioner.setChunkSize(4);
+                assertEquals(getFailureMessage(), sumAlong2, executioner.exec(new Sum(arr), 2));
+                assertEquals(getFailureMessage(), sumAlong1, executioner.exec(new Sum(arr), 1));
+                assertEquals(getFailureMessage(), maxAlong01, executioner.exec(new Max(arr), 0, 1));
+            }
+        }
+        finally {
+            executioner.setExecutionMode(mode);
+            executioner.setParallelThreshold(threshold);
+            executioner.setChunkSize(chunkSize);
+        }
+    }
+
+
+    @Test
+    public void testOpCodes() throws Exception {
+        for(Class<? extends Op> clazz : new Reflections("org.nd4j.linalg.api.ops.impl").getSubTypesOf(Op.class)) {
+            if(Modifier.isAbstract(clazz.getModifiers()))
+                continue;
+            Op op = clazz.newInstance();
+            assertTrue(op.name(), op.opNum() != OpCodes.UNKNOWN);
+            assertEquals(op.name(), OpCodes.name(op.opNum()));
+        }
+
+        Pow pow = new Pow(Nd4j.ones(2), 2);
+        double[] args = pow.extraArgsDouble();
+        assertEquals(1, args.length);
+        assertEquals(2, args[0], 1e-6);
+        assertSame(args, pow.extraArgsDouble());
+    }
+
+
+    @Test
+    public void testLazyExpression() {
+        INDArray x = Nd4j.linspace(1, 6, 6).reshape(2, 3);
+        INDArray w = Nd4j.linspace(1, 6, 6).reshape(3, 2).transpose();
+        INDArray b = Nd4j.ones(2, 3);
+        INDArray expected = Transforms.sigmoid(x.mul(w).addi(b));
+        assertEquals(getFailureMessage(), expected, Nd4j.lazy(x).mul(w).add(b).transform("sigmoid").materialize());
+
+        //shared sub expressions are evaluated once per element
+        Expression plusOne = Nd4j.lazy(x).add(1);
+        assertEquals(getFailureMessage(), x.add(1).muli(x.add(1)), plusOne.mul(plusOne).materialize());
+
+        INDArray inPlace = x.dup();
+        Nd4j.lazy(inPlace).rsub(2).div(inPlace).materialize(inPlace);
+        assertEquals(getFailureMessage(), x.rsub(2).divi(x), inPlace);
+    }
+
+
     @Override
     public char ordering() {
         return 'c';
@@ -43,7 +43,7 @@ public class TestAccumulation extends BaseAccumulation {
 
     @Override
     public void update(Number result) {
-        this.currentResult = result.doubleValue() + this.currentResult.doubleValue();
+        this.currentResult = result.doubleValue() + this.currentResult;
     }
 
     @Override
@@ -51,6 +51,22 @@ public class TestAccumulation extends BaseAccumulation {
         this.currentComplexResult.addi(result);
     }
 
+    @Override
+    public double update(double accum, double x) {
+        return accum + x;
+    }
+
+    @Override
+    public double combineSubResult(double first, double second) {
+        return first + second;
+    }
+
+    @Override
+    public double getAndSetFinalResult(double accum) {
+        this.currentResult = accum;
+        return accum;
+    }
+
     @Override
     public Number zero() {
         return 0;
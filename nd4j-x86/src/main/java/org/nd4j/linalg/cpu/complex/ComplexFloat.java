@@ -200,7 +200,7 @@ public class ComplexFloat extends org.jblas.ComplexFloat implements IComplexFloa
     @Override
     public IComplexNumber addi(IComplexNumber c, IComplexNumber result) {
         if (this == result) {
-            set(real() + c.realComponent().floatValue(), imag() + result.imaginaryComponent().floatValue());
+            set(real() + c.realComponent().floatValue(), imag() + c.imaginaryComponent().floatValue());
         } else {
             result.set(result.realComponent().floatValue() + c.realComponent().floatValue(), result.imaginaryComponent().floatValue() + c.imaginaryComponent().floatValue());
 
@@ -275,7 +275,7 @@ public class ComplexFloat extends org.jblas.ComplexFloat implements IComplexFloa
     @Override
     public IComplexNumber subi(IComplexNumber c, IComplexNumber result) {
         if (this == result) {
-            set(real() - c.realComponent().floatValue(), imag() - result.imaginaryComponent().floatValue());
+            set(real() - c.realComponent().floatValue(), imag() - c.imaginaryComponent().floatValue());
         } else {
             result.set(result.realComponent().floatValue() - c.realComponent().floatValue(), result.imaginaryComponent().floatValue() - c.imaginaryComponent().floatValue());
 
@@ -422,9 +422,9 @@ public class ComplexFloat extends org.jblas.ComplexFloat implements IComplexFloa
     @Override
     public IComplexNumber divi(Number v, IComplexNumber result) {
         if (this == result) {
-            set(real() / v.floatValue(), imag());
+            set(real() / v.floatValue(), imag() / v.floatValue());
         } else {
-            result.set(result.realComponent().floatValue() / v.floatValue(), imaginaryComponent());
+            result.set(result.realComponent().floatValue() / v.floatValue(), result.imaginaryComponent().floatValue() / v.floatValue());
 
         }
         return result;
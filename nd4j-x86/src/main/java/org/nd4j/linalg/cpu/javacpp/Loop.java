@@ -1,13 +1,21 @@
 package org.nd4j.linalg.cpu.javacpp;
 
+import org.bytedeco.javacpp.DoublePointer;
+import org.bytedeco.javacpp.FloatPointer;
 import org.bytedeco.javacpp.Loader;
 import org.bytedeco.javacpp.Pointer;
 import org.bytedeco.javacpp.annotation.Platform;
 
 /**
+ * Native cpu kernels for transforms, scalar ops and accumulations.
+ *
+ * Loop.h is compiled with OpenMP where the compiler supports it
+ * (see the platform.compiler.openmp property in the pom)
+ * so large arrays are split over threads.
+ *
  * @author Adam Gibson
  */
-@Platform(include="Loop.h")
+@Platform(include="Loop.h",compiler = {"default","openmp"})
 public class Loop extends Pointer {
     static { Loader.load(); }
 
@@ -17,6 +25,80 @@ public class Loop extends Pointer {
 
     private native void allocate();
 
+    /**
+     * The number of threads large arrays are split over
+     * @param threads the number of threads (0 for the OpenMP default)
+     */
+    public native void setThreads(int threads);
+
+    /**
+     * The minimum number of elements an array must have
+     * before it is split over threads
+     * @param parallelThreshold the min number of elements
+     */
+    public native void setParallelThreshold(int parallelThreshold);
+
+    /**
+     * Whether there's a native kernel for the given op
+     * @param opNum the op code (see org.nd4j.linalg.api.ops.OpCodes)
+     * @return true if the op can be run natively
+     */
+    public native boolean supports(int opNum);
+
+    /*
+     * Strided entry points: each array is described by a shape info
+     * (see org.nd4j.linalg.cpu.util.ShapeInfoUtil). The pair data (and its shape info)
+     * may be null. For scalar ops the scalar is extraArgs[0].
+     * Returns false if there's no kernel for the op.
+     */
+
+    public native boolean execTransform(double[] x, int[] xInfo, double[] y, int[] yInfo, double[] z, int[] zInfo,
+                                        int n, int opNum, double[] extraArgs);
+
+    public native boolean execTransform(float[] x, int[] xInfo, float[] y, int[] yInfo, float[] z, int[] zInfo,
+                                        int n, int opNum, float[] extraArgs);
+
+    public native boolean execTransform(DoublePointer x, int[] xInfo, DoublePointer y, int[] yInfo, DoublePointer z, int[] zInfo,
+                                        int n, int opNum, double[] extraArgs);
+
+    public native boolean execTransform(FloatPointer x, int[] xInfo, FloatPointer y, int[] yInfo, FloatPointer z, int[] zInfo,
+                                        int n, int opNum, float[] extraArgs);
+
+    /*
+     * The accumulated result of an accumulation over n elements starting at zero:
+     * the final result is left to the op. For iamax this is the index of the max.
+     */
+
+    public native double execReduce(double[] x, int[] xInfo, double[] y, int[] yInfo, int n, int opNum,
+                                    double[] extraArgs, double zero);
+
+    public native double execReduce(float[] x, int[] xInfo, float[] y, int[] yInfo, int n, int opNum,
+                                    float[] extraArgs, double zero);
+
+    public native double execReduce(DoublePointer x, int[] xInfo, DoublePointer y, int[] yInfo, int n, int opNum,
+                                    double[] extraArgs, double zero);
+
+    public native double execReduce(FloatPointer x, int[] xInfo, FloatPointer y, int[] yInfo, int n, int opNum,
+                                    float[] extraArgs, double zero);
+
+    /*
+     * Accumulations along dimensions: the outer shape infos describe the tensors
+     * to reduce, the inner shape infos the elements of each tensor.
+     * The final result for each tensor is written to z.
+     */
+
+    public native boolean execReduce(double[] x, int[] xOuterInfo, int[] xInnerInfo, double[] y, int[] yOuterInfo, int[] yInnerInfo,
+                                     double[] z, int[] zInfo, int opNum, double[] extraArgs, double zero);
+
+    public native boolean execReduce(float[] x, int[] xOuterInfo, int[] xInnerInfo, float[] y, int[] yOuterInfo, int[] yInnerInfo,
+                                     float[] z, int[] zInfo, int opNum, float[] extraArgs, double zero);
+
+    public native boolean execReduce(DoublePointer x, int[] xOuterInfo, int[] xInnerInfo, DoublePointer y, int[] yOuterInfo, int[] yInnerInfo,
+                                     DoublePointer z, int[] zInfo, int opNum, double[] extraArgs, double zero);
+
+    public native boolean execReduce(FloatPointer x, int[] xOuterInfo, int[] xInnerInfo, FloatPointer y, int[] yOuterInfo, int[] yInnerInfo,
+                                     FloatPointer z, int[] zInfo, int opNum, float[] extraArgs, double zero);
+
 
 
     public native void execFloatTransform(
@@ -129,4 +211,346 @@ public class Loop extends Pointer {
             , String  operation
             , float[] otherParams);
 
+    /*
+     * The same entry points over native memory (eg: direct buffers)
+     * which is read and written in place rather than copied in to and out of java arrays.
+     * The extra params are small and are still passed as arrays
+     */
+
+    public native void execFloatTransform(
+            FloatPointer data
+            , int length
+            , int offset,
+            int resultOffset
+            , int stride
+            ,int resultStride
+            , String  operation,
+            float[] otherParams
+            , FloatPointer result);
+
+    public native void execFloatTransform(
+            FloatPointer data,
+            FloatPointer pairData
+            , int length
+            , int offset,
+            int yOffset,
+            int resultOffset
+            , int stride,
+            int yStride
+            ,int resultStride
+            , String  operation,
+            float[] otherParams
+            , FloatPointer result);
+
+    public native void execScalarDouble(
+            DoublePointer data
+            ,DoublePointer result
+            ,int length
+            ,int offset,
+            int resultOffset
+            ,int stride
+            ,int resultStride
+            ,String  operation
+            ,double[] otherParams);
+
+    public native void execScalarFloat(
+            FloatPointer data
+            , FloatPointer result
+            ,int length
+            ,int offset,
+            int resultOffset
+            ,int stride
+            ,int resultStride
+            ,String  operation
+            , float[] otherParams);
+
+    public native void execDoubleTransform(
+            DoublePointer data
+            , int length
+            , int offset,
+            int resultOffset,
+            int stride
+            ,int resultStride
+            , String  operation,
+            double[] otherParams
+            ,DoublePointer result);
+
+    public native void execDoubleTransform(
+            DoublePointer data,
+            DoublePointer pairData
+            , int length
+            , int offset,
+            int yOffset,
+            int resultOffset
+            , int stride,
+            int yStride
+            ,int resultStride
+            , String  operation,
+            double[] otherParams
+            , DoublePointer result);
+
+    public native double reduce3(
+            DoublePointer data
+            , DoublePointer data2
+            ,int length
+            , int xOffset
+            , int yOffset
+            ,int xStride
+            ,int yStride
+            , String  operation,
+                   double[] otherParams);
+
+    public native double reduce(
+            DoublePointer data
+            , int length
+            , int offset
+            , int stride
+            , String  operation,
+                  double[] otherParams);
+
+    public native float reduce3Float(
+            FloatPointer data,
+            FloatPointer data2,
+            int length,
+            int xOffset,
+            int yOffset,
+            int xStride,
+            int yStride,
+            String  operation,
+                        float[] otherParams);
+
+    public native float reduceFloat(
+            FloatPointer data
+            , int length
+            , int offset
+            , int stride
+            , String  operation
+            , float[] otherParams);
+
+    /*
+     * The same entry points dispatched by op code (see org.nd4j.linalg.api.ops.OpCodes)
+     * rather than by name
+     */
+
+    public native void execFloatTransform(
+            float[] data
+            , int length
+            , int offset,
+            int resultOffset
+            , int stride
+            ,int resultStride
+            , int opNum,
+            float[] otherParams
+            , float[] result);
+
+    public native void execFloatTransform(
+            float[] data,
+            float[] pairData
+            , int length
+            , int offset,
+            int yOffset,
+            int resultOffset
+            , int stride,
+            int yStride
+            ,int resultStride
+            , int opNum,
+            float[] otherParams
+            , float[] result);
+
+    public native void execScalarDouble(
+            double[] data
+            ,double[] result
+            ,int length
+            ,int offset,
+            int resultOffset
+            ,int stride
+            ,int resultStride
+            ,int opNum
+            ,double[] otherParams);
+
+    public native void execScalarFloat(
+            float[] data
+            , float[] result
+            ,int length
+            ,int offset,
+            int resultOffset
+            ,int stride
+            ,int resultStride
+            ,int opNum
+            , float[] otherParams);
+
+    public native void execDoubleTransform(
+            double[] data
+            , int length
+            , int offset,
+            int resultOffset,
+            int stride
+            ,int resultStride
+            , int opNum,
+            double[] otherParams
+            ,double[] result);
+
+    public native void execDoubleTransform(
+            double[] data,
+            double[] pairData
+            , int length
+            , int offset,
+            int yOffset,
+            int resultOffset
+            , int stride,
+            int yStride
+            ,int resultStride
+            , int opNum,
+            double[] otherParams
+            , double[] result);
+
+    public native double reduce3(
+            double[] data
+            , double[] data2
+            ,int length
+            , int xOffset
+            , int yOffset
+            ,int xStride
+            ,int yStride
+            , int opNum,
+                   double[] otherParams);
+
+    public native double reduce(
+            double[] data
+            , int length
+            , int offset
+            , int stride
+            , int opNum,
+                  double[] otherParams);
+
+    public native float reduce3Float(
+            float[] data,
+            float[] data2,
+            int length,
+            int xOffset,
+            int yOffset,
+            int xStride,
+            int yStride,
+            int opNum,
+                        float[] otherParams);
+
+    public native float reduceFloat(
+            float[] data
+            , int length
+            , int offset
+            , int stride
+            , int opNum
+            , float[] otherParams);
+
+
+    public native void execFloatTransform(
+            FloatPointer data
+            , int length
+            , int offset,
+            int resultOffset
+            , int stride
+            ,int resultStride
+            , int opNum,
+            float[] otherParams
+            , FloatPointer result);
+
+    public native void execFloatTransform(
+            FloatPointer data,
+            FloatPointer pairData
+            , int length
+            , int offset,
+            int yOffset,
+            int resultOffset
+            , int stride,
+            int yStride
+            ,int resultStride
+            , int opNum,
+            float[] otherParams
+            , FloatPointer result);
+
+    public native void execScalarDouble(
+            DoublePointer data
+            ,DoublePointer result
+            ,int length
+            ,int offset,
+            int resultOffset
+            ,int stride
+            ,int resultStride
+            ,int opNum
+            ,double[] otherParams);
+
+    public native void execScalarFloat(
+            FloatPointer data
+            , FloatPointer result
+            ,int length
+            ,int offset,
+            int resultOffset
+            ,int stride
+            ,int resultStride
+            ,int opNum
+            , float[] otherParams);
+
+    public native void execDoubleTransform(
+            DoublePointer data
+            , int length
+            , int offset,
+            int resultOffset,
+            int stride
+            ,int resultStride
+            , int opNum,
+            double[] otherParams
+            ,DoublePointer result);
+
+    public native void execDoubleTransform(
+            DoublePointer data,
+            DoublePointer pairData
+            , int length
+            , int offset,
+            int yOffset,
+            int resultOffset
+            , int stride,
+            int yStride
+            ,int resultStride
+            , int opNum,
+            double[] otherParams
+            , DoublePointer result);
+
+    public native double reduce3(
+            DoublePointer data
+            , DoublePointer data2
+            ,int length
+            , int xOffset
+            , int yOffset
+            ,int xStride
+            ,int yStride
+            , int opNum,
+                   double[] otherParams);
+
+    public native double reduce(
+            DoublePointer data
+            , int length
+            , int offset
+            , int stride
+            , int opNum,
+                  double[] otherParams);
+
+    public native float reduce3Float(
+            FloatPointer data,
+            FloatPointer data2,
+            int length,
+            int xOffset,
+            int yOffset,
+            int xStride,
+            int yStride,
+            int opNum,
+                        float[] otherParams);
+
+    public native float reduceFloat(
+            FloatPointer data
+            , int length
+            , int offset
+            , int stride
+            , int opNum
+            , float[] otherParams);
+
 }
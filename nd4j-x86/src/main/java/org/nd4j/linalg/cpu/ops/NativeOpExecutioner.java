@@ -1,34 +1,54 @@
 package org.nd4j.linalg.cpu.ops;
 
 
-import org.nd4j.linalg.api.blas.BlasBufferUtil;
 import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.complex.IComplexNDArray;
-import org.nd4j.linalg.api.ndarray.LinearViewNDArray;
+import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.api.ops.Accumulation;
 import org.nd4j.linalg.api.ops.Op;
+import org.nd4j.linalg.api.ops.OpCodes;
 import org.nd4j.linalg.api.ops.ScalarOp;
 import org.nd4j.linalg.api.ops.TransformOp;
 import org.nd4j.linalg.api.ops.executioner.DefaultOpExecutioner;
+import org.nd4j.linalg.api.ops.executioner.StridedIterator;
 import org.nd4j.linalg.cpu.javacpp.Loop;
-import org.nd4j.linalg.cpu.util.ArgsConverter;
+import org.nd4j.linalg.cpu.util.PointerUtil;
+import org.nd4j.linalg.cpu.util.ShapeInfoUtil;
 
 
 /**
  *
  * Native operation executioner in c++
  *
+ * Every real valued transform, scalar op and accumulation
+ * with a kernel in the native loop runs natively:
+ * each array is handed over with its shape info
+ * (see {@link ShapeInfoUtil}) so views and arrays of any
+ * ordering are walked in place. Arrays with at least
+ * {@link #getParallelThreshold()} elements are split over
+ * {@link #getParallelism()} threads.
+ *
+ * Complex ops and ops without a kernel
+ * (pass through ops like softmax) run in java.
+ *
  * @author Adam Gibson
  */
 
 public class NativeOpExecutioner extends DefaultOpExecutioner {
     private Loop loop = new Loop();
 
+    public NativeOpExecutioner() {
+        loop.setThreads(parallelism);
+        loop.setParallelThreshold(parallelThreshold);
+    }
+
     @Override
     public Op exec(Op op) {
-        if(op.isPassThrough()  || executionMode() == ExecutionMode.JAVA)
+        if(op.isPassThrough() || executionMode() == ExecutionMode.JAVA || !canExecNatively(op, op.x(), op.y(), op.z())
+                || !hasElements(op.n(), op.x(), op.y(), op instanceof Accumulation ? null : op.z()))
             return super.exec(op);
 
+        checkOp(op);
         if(op instanceof ScalarOp) {
             ScalarOp s = (ScalarOp) op;
             exec(s);
@@ -41,170 +61,187 @@ public class NativeOpExecutioner extends DefaultOpExecutioner {
             Accumulation ac = (Accumulation) op;
             exec(ac);
         }
+        else
+            return super.exec(op);
 
         return op;
     }
 
-    private void exec(ScalarOp op) {
-        if(op.x() instanceof IComplexNDArray || op.x() instanceof LinearViewNDArray || executionMode() == ExecutionMode.JAVA) {
-            super.exec(op);
-        }
-        else {
-            checkOp(op);
-
-            if(op.x().data().dataType() == DataBuffer.Type.DOUBLE) {
-                loop.execScalarDouble(
-                        op.x().data().asDouble()
-                        ,op.z().data().asDouble()
-                        ,op.n()
-                        ,op.x().offset(),
-                        op.z().offset()
-                        ,BlasBufferUtil.getBlasStride(op.x())
-                        ,BlasBufferUtil.getBlasStride(op.z())
-                        ,op.name()
-                        ,new double[]{op.scalar().doubleValue()});
-            }
-            else {
-                loop.execScalarFloat(
-                        op.x().data().asFloat()
-                        , op.z().data().asFloat()
-                        , op.n()
-                        , op.x().offset(),
-                        op.z().offset()
-                        , BlasBufferUtil.getBlasStride(op.x())
-                        , BlasBufferUtil.getBlasStride(op.z())
-                        , op.name()
-                        , new float[]{op.scalar().floatValue()});
+    @Override
+    public void setParallelThreshold(int parallelThreshold) {
+        super.setParallelThreshold(parallelThreshold);
+        loop.setParallelThreshold(parallelThreshold);
+    }
 
-            }
-        }
+    @Override
+    public synchronized void setParallelism(int parallelism) {
+        super.setParallelism(parallelism);
+        loop.setThreads(parallelism);
     }
 
-    private void exec(TransformOp op) {
-        if(op.x() instanceof IComplexNDArray || op.x() instanceof LinearViewNDArray ||   executionMode() == ExecutionMode.JAVA) {
-            super.exec(op);
+    @Override
+    protected void reduce(Accumulation op, INDArray ret, int... dimension) {
+        if(executionMode() == ExecutionMode.JAVA || !canExecNatively(op, op.x(), op.y(), ret)) {
+            super.reduce(op, ret, dimension);
+            return;
+        }
 
+        INDArray x = StridedIterator.unwrap(op.x());
+        INDArray y = op.y() != null ? StridedIterator.unwrap(op.y()) : null;
+        int[] xOuterInfo = ShapeInfoUtil.outerShapeInfo(x, dimension);
+        int[] xInnerInfo = ShapeInfoUtil.innerShapeInfo(x, dimension);
+        int[] yOuterInfo = y != null ? ShapeInfoUtil.outerShapeInfo(y, dimension) : null;
+        int[] yInnerInfo = y != null ? ShapeInfoUtil.innerShapeInfo(y, dimension) : null;
+        int[] retInfo = ShapeInfoUtil.resultShapeInfo(x, ret, dimension);
+        double zero = op.zero().doubleValue();
+        boolean done;
+        if(PointerUtil.isDirect(x)) {
+            if(x.data().dataType() == DataBuffer.Type.DOUBLE)
+                done = loop.execReduce(PointerUtil.toDoublePointer(x.data()), xOuterInfo, xInnerInfo,
+                        y != null ? PointerUtil.toDoublePointer(y.data()) : null, yOuterInfo, yInnerInfo,
+                        PointerUtil.toDoublePointer(ret.data()), retInfo, op.opNum(), op.extraArgsDouble(), zero);
+            else
+                done = loop.execReduce(PointerUtil.toFloatPointer(x.data()), xOuterInfo, xInnerInfo,
+                        y != null ? PointerUtil.toFloatPointer(y.data()) : null, yOuterInfo, yInnerInfo,
+                        PointerUtil.toFloatPointer(ret.data()), retInfo, op.opNum(), op.extraArgsFloat(), zero);
         }
-        else {
-            checkOp(op);
-
-            if(op.x().data().dataType() == DataBuffer.Type.DOUBLE) {
-                if(op.y() != null) {
-                    loop.execDoubleTransform(
-                            op.x().data().asDouble()
-                            ,op.y().data().asDouble()
-                            ,op.n()
-                            ,op.x().offset()
-                            ,op.y().offset()
-                            ,op.z().offset(),
-                            BlasBufferUtil.getBlasStride(op.x())
-                            ,BlasBufferUtil.getBlasStride(op.y())
-                            ,BlasBufferUtil.getBlasStride(op.z())
-                            ,op.name()
-                            ,ArgsConverter.convertExtraArgsDouble(op)
-                            ,op.z().data().asDouble());
-                }
-                else {
-                      loop.execDoubleTransform(
-                            op.x().data().asDouble()
-                            , op.n()
-                            , op.x().offset()
-                            , op.z().offset(),
-                            BlasBufferUtil.getBlasStride(op.x())
-                            , BlasBufferUtil.getBlasStride(op.z())
-                            , op.name()
-                            , ArgsConverter.convertExtraArgsDouble(op)
-                            , op.z().data().asDouble());
-                }
-            }
-            else {
-                if(op.y() != null) {
-                    loop.execFloatTransform(
-                            op.x().data().asFloat()
-                            , op.y().data().asFloat()
-                            , op.n()
-                            , op.x().offset()
-                            , op.y().offset(),
-                            op.z().offset()
-                            , BlasBufferUtil.getBlasStride(op.x())
-                            , BlasBufferUtil.getBlasStride(op.y())
-                            , BlasBufferUtil.getBlasStride(op.z())
-                            , op.name()
-                            , ArgsConverter.convertExtraArgsFloat(op)
-                            , op.z().data().asFloat());
-
-                }
-                else {
-                    loop.execFloatTransform(
-                            op.x().data().asFloat()
-                            , op.n()
-                            , op.x().offset(),
-                            op.z().offset()
-                            , BlasBufferUtil.getBlasStride(op.x())
-                            , BlasBufferUtil.getBlasStride(op.z())
-                            , op.name()
-                            , ArgsConverter.convertExtraArgsFloat(op)
-                            , op.z().data().asFloat());
-                }
+        else if(x.data().dataType() == DataBuffer.Type.DOUBLE)
+            done = loop.execReduce(x.data().asDouble(), xOuterInfo, xInnerInfo,
+                    y != null ? y.data().asDouble() : null, yOuterInfo, yInnerInfo,
+                    ret.data().asDouble(), retInfo, op.opNum(), op.extraArgsDouble(), zero);
+        else
+            done = loop.execReduce(x.data().asFloat(), xOuterInfo, xInnerInfo,
+                    y != null ? y.data().asFloat() : null, yOuterInfo, yInnerInfo,
+                    ret.data().asFloat(), retInfo, op.opNum(), op.extraArgsFloat(), zero);
+
+        if(!done)
+            super.reduce(op, ret, dimension);
+    }
+
+    /**
+     * Whether the op can be handed to the native loop with the given arrays:
+     * the op must have a kernel and the arrays must be real valued,
+     * of the same data type and either all direct or all heap
+     * @param op  the op to test
+     * @param arrs the arrays the op works on (null entries are ignored)
+     * @return true if the op can run natively
+     */
+    protected boolean canExecNatively(Op op, INDArray... arrs) {
+        if(op.opNum() == OpCodes.UNKNOWN || !loop.supports(op.opNum()))
+            return false;
+
+        DataBuffer.Type type = null;
+        Boolean direct = null;
+        for(INDArray arr : arrs) {
+            if(arr == null)
+                continue;
+            INDArray unwrapped = StridedIterator.unwrap(arr);
+            if(unwrapped instanceof IComplexNDArray || !ShapeInfoUtil.canWalk(unwrapped))
+                return false;
+            if(type == null) {
+                type = unwrapped.data().dataType();
+                direct = PointerUtil.isDirect(unwrapped);
             }
+            else if(type != unwrapped.data().dataType() || direct != PointerUtil.isDirect(unwrapped))
+                return false;
         }
+
+        return type == DataBuffer.Type.DOUBLE || type == DataBuffer.Type.FLOAT;
     }
 
+    //whether every (non null) array has at least n elements
+    private boolean hasElements(int n, INDArray... arrs) {
+        for(INDArray arr : arrs)
+            if(arr != null && StridedIterator.unwrap(arr).length() < n)
+                return false;
+        return true;
+    }
 
-    private void exec(Accumulation op) {
-        if(op.x() instanceof IComplexNDArray || op.x() instanceof LinearViewNDArray || executionMode() == ExecutionMode.JAVA) {
+    private void exec(ScalarOp op) {
+        if(op.x().data().dataType() == DataBuffer.Type.DOUBLE)
+            transform(op, null, new double[]{op.scalar().doubleValue()});
+        else
+            transform(op, null, new float[]{op.scalar().floatValue()});
+    }
+
+    private void exec(TransformOp op) {
+        if(op.x().data().dataType() == DataBuffer.Type.DOUBLE)
+            transform(op, op.y(), op.extraArgsDouble());
+        else
+            transform(op, op.y(), op.extraArgsFloat());
+    }
+
+    private void transform(Op op, INDArray y, double[] extraArgs) {
+        INDArray x = StridedIterator.unwrap(op.x());
+        INDArray z = StridedIterator.unwrap(op.z());
+        if(y != null)
+            y = StridedIterator.unwrap(y);
+        int[] xInfo = ShapeInfoUtil.shapeInfo(x);
+        int[] yInfo = y != null ? ShapeInfoUtil.shapeInfo(y) : null;
+        int[] zInfo = ShapeInfoUtil.shapeInfo(z);
+        boolean done;
+        //direct buffers are handed to the native loop as pointers: results are written in place
+        if(PointerUtil.isDirect(x))
+            done = loop.execTransform(PointerUtil.toDoublePointer(x.data()), xInfo,
+                    y != null ? PointerUtil.toDoublePointer(y.data()) : null, yInfo,
+                    PointerUtil.toDoublePointer(z.data()), zInfo, op.n(), op.opNum(), extraArgs);
+        else
+            done = loop.execTransform(x.data().asDouble(), xInfo,
+                    y != null ? y.data().asDouble() : null, yInfo,
+                    z.data().asDouble(), zInfo, op.n(), op.opNum(), extraArgs);
+        if(!done)
             super.exec(op);
+    }
 
+    private void transform(Op op, INDArray y, float[] extraArgs) {
+        INDArray x = StridedIterator.unwrap(op.x());
+        INDArray z = StridedIterator.unwrap(op.z());
+        if(y != null)
+            y = StridedIterator.unwrap(y);
+        int[] xInfo = ShapeInfoUtil.shapeInfo(x);
+        int[] yInfo = y != null ? ShapeInfoUtil.shapeInfo(y) : null;
+        int[] zInfo = ShapeInfoUtil.shapeInfo(z);
+        boolean done;
+        if(PointerUtil.isDirect(x))
+            done = loop.execTransform(PointerUtil.toFloatPointer(x.data()), xInfo,
+                    y != null ? PointerUtil.toFloatPointer(y.data()) : null, yInfo,
+                    PointerUtil.toFloatPointer(z.data()), zInfo, op.n(), op.opNum(), extraArgs);
+        else
+            done = loop.execTransform(x.data().asFloat(), xInfo,
+                    y != null ? y.data().asFloat() : null, yInfo,
+                    z.data().asFloat(), zInfo, op.n(), op.opNum(), extraArgs);
+        if(!done)
+            super.exec(op);
+    }
+
+    private void exec(Accumulation op) {
+        INDArray x = StridedIterator.unwrap(op.x());
+        INDArray y = op.y() != null ? StridedIterator.unwrap(op.y()) : null;
+        int[] xInfo = ShapeInfoUtil.shapeInfo(x);
+        int[] yInfo = y != null ? ShapeInfoUtil.shapeInfo(y) : null;
+        //the starting value of max and min isn't in their extra args
+        double zero = op.zero().doubleValue();
+        double accum;
+        if(PointerUtil.isDirect(x)) {
+            if(x.data().dataType() == DataBuffer.Type.DOUBLE)
+                accum = loop.execReduce(PointerUtil.toDoublePointer(x.data()), xInfo,
+                        y != null ? PointerUtil.toDoublePointer(y.data()) : null, yInfo, op.n(), op.opNum(), op.extraArgsDouble(), zero);
+            else
+                accum = loop.execReduce(PointerUtil.toFloatPointer(x.data()), xInfo,
+                        y != null ? PointerUtil.toFloatPointer(y.data()) : null, yInfo, op.n(), op.opNum(), op.extraArgsFloat(), zero);
         }
-        else {
-            checkOp(op);
-
-            if(op.x().data().dataType() == DataBuffer.Type.DOUBLE) {
-                if(op.y() != null) {
-                    op.setCurrentResult(loop.reduce3(
-                            op.x().data().asDouble()
-                            ,op.y().data().asDouble()
-                            ,op.n()
-                            ,op.x().offset()
-                            ,op.y().offset()
-                            ,BlasBufferUtil.getBlasStride(op.x())
-                            ,BlasBufferUtil.getBlasStride(op.y())
-                            ,op.name()
-                            , ArgsConverter.convertExtraArgsDouble(op)));
-                }
-                else {
-                    op.setCurrentResult(loop.reduce(
-                            op.x().data().asDouble()
-                            ,op.n()
-                            ,op.x().offset()
-                            ,BlasBufferUtil.getBlasStride(op.x())
-                            ,op.name()
-                            ,ArgsConverter.convertExtraArgsDouble(op)));
-                }
-            }
-            else {
-                if(op.y() != null) {
-                    op.setCurrentResult(loop.reduce3Float(
-                            op.x().data().asFloat()
-                            , op.y().data().asFloat()
-                            , op.n()
-                            , op.x().offset()
-                            , op.y().offset()
-                            , BlasBufferUtil.getBlasStride(op.x())
-                            , BlasBufferUtil.getBlasStride(op.y())
-                            , op.name()
-                            , ArgsConverter.convertExtraArgsFloat(op)));
-                }
-                else {
-                    op.setCurrentResult(loop.reduceFloat(
-                            op.x().data().asFloat()
-                            , op.n()
-                            , op.x().offset()
-                            , BlasBufferUtil.getBlasStride(op.x())
-                            , op.name()
-                            , ArgsConverter.convertExtraArgsFloat(op)));
-                }
-            }
-        }
+        else if(x.data().dataType() == DataBuffer.Type.DOUBLE)
+            accum = loop.execReduce(x.data().asDouble(), xInfo, y != null ? y.data().asDouble() : null, yInfo,
+                    op.n(), op.opNum(), op.extraArgsDouble(), zero);
+        else
+            accum = loop.execReduce(x.data().asFloat(), xInfo, y != null ? y.data().asFloat() : null, yInfo,
+                    op.n(), op.opNum(), op.extraArgsFloat(), zero);
+
+        //the index of the max is the result itself
+        if(op.opNum() == OpCodes.IAMAX)
+            op.setCurrentResult(accum);
+        else
+            op.getAndSetFinalResult(accum);
     }
+
 }
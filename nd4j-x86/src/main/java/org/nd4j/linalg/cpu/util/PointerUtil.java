@@ -0,0 +1,80 @@
+/*
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ *
+ */
+
+package org.nd4j.linalg.cpu.util;
+
+import io.netty.buffer.ByteBuf;
+import org.bytedeco.javacpp.DoublePointer;
+import org.bytedeco.javacpp.FloatPointer;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.Op;
+
+/**
+ * Wraps direct data buffers as javacpp pointers
+ * so native code can work on them in place.
+ *
+ * @author Adam Gibson
+ */
+public class PointerUtil {
+
+    private PointerUtil() {
+    }
+
+    /**
+     * Whether every (non null) array of the op
+     * is backed by direct memory
+     * @param op the op to test
+     * @return true if native code can work on the op's buffers in place
+     */
+    public static boolean isDirect(Op op) {
+        return isDirect(op.x()) && (op.y() == null || isDirect(op.y())) && isDirect(op.z());
+    }
+
+    /**
+     * Whether the array is backed by direct memory
+     * @param arr the array to test
+     * @return true if native code can work on the array's buffer in place
+     */
+    public static boolean isDirect(INDArray arr) {
+        DataBuffer data = arr.data();
+        if (data.allocationMode() != DataBuffer.AllocationMode.DIRECT)
+            return false;
+        ByteBuf buf = data.asNetty();
+        return buf != null && buf.isDirect();
+    }
+
+    /**
+     * A pointer to the start of a direct buffer
+     * @param buffer the buffer to point to
+     * @return a pointer to the memory of the buffer (no copy is made)
+     */
+    public static DoublePointer toDoublePointer(DataBuffer buffer) {
+        return new DoublePointer(buffer.asNio().asDoubleBuffer());
+    }
+
+    /**
+     * A pointer to the start of a direct buffer
+     * @param buffer the buffer to point to
+     * @return a pointer to the memory of the buffer (no copy is made)
+     */
+    public static FloatPointer toFloatPointer(DataBuffer buffer) {
+        return new FloatPointer(buffer.asNio().asFloatBuffer());
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ *
+ */
+
+package org.nd4j.linalg.cpu.util;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.executioner.StridedIterator;
+
+/**
+ * Describes the layout of an ndarray to the native loop.
+ *
+ * A shape info is an int array of:
+ * rank, shape (rank ints), stride (rank ints), offset.
+ * The native loop visits the elements in row major order
+ * of the shape, which is the order of the linear view of the array.
+ * The shape is collapsed the same way as {@link StridedIterator}:
+ * size 1 dimensions are dropped and contiguous dimensions are merged,
+ * so a contiguous array is a single unit stride run.
+ *
+ * @author Adam Gibson
+ */
+public class ShapeInfoUtil {
+    /**
+     * The max rank the native loop can walk
+     */
+    public static final int MAX_RANK = 32;
+
+    private ShapeInfoUtil() {
+    }
+
+    /**
+     * The shape info for the given array
+     * @param arr the array (linear views are described by the array they wrap)
+     * @return the shape info of the array
+     */
+    public static int[] shapeInfo(INDArray arr) {
+        StridedIterator iter = new StridedIterator(StridedIterator.unwrap(arr));
+        return toShapeInfo(iter.shape(), iter.stride(), iter.offset());
+    }
+
+    /**
+     * The shape info for the elements described by
+     * the given shape, stride and offset
+     * @param shape  the shape
+     * @param stride the stride of each dimension
+     * @param offset the buffer offset of the first element
+     * @return the (collapsed) shape info
+     */
+    public static int[] shapeInfo(int[] shape, int[] stride, int offset) {
+        StridedIterator iter = new StridedIterator(shape, stride, offset);
+        return toShapeInfo(iter.shape(), iter.stride(), iter.offset());
+    }
+
+    /**
+     * The shape info of the tensors along the given dimensions:
+     * the dimensions that are not reduced with the offset of the array.
+     * Each element is the first element of a tensor.
+     * @param arr       the array to reduce
+     * @param dimension the dimensions to reduce along
+     * @return the shape info of the tensors
+     */
+    public static int[] outerShapeInfo(INDArray arr, int... dimension) {
+        return split(arr, false, dimension);
+    }
+
+    /**
+     * The shape info of the elements of one tensor along the given dimensions
+     * relative to the first element of the tensor (the offset is 0)
+     * @param arr       the array to reduce
+     * @param dimension the dimensions to reduce along
+     * @return the shape info of a tensor
+     */
+    public static int[] innerShapeInfo(INDArray arr, int... dimension) {
+        return split(arr, true, dimension);
+    }
+
+    /**
+     * The shape info of the result of reducing along the given dimensions:
+     * one element per tensor
+     * @param arr       the array to reduce
+     * @param ret       the result: the shape of the array without the reduced dimensions
+     *                  (size 1 dimensions may be prepended)
+     * @param dimension the dimensions to reduce along
+     * @return the shape info of the result
+     */
+    public static int[] resultShapeInfo(INDArray arr, INDArray ret, int... dimension) {
+        int[] shape = arr.shape();
+        boolean[] reduce = new boolean[shape.length];
+        for (int d : dimension)
+            reduce[d < 0 ? d + shape.length : d] = true;
+        int outerRank = 0;
+        for (boolean r : reduce)
+            if (!r)
+                outerRank++;
+
+        //the output may have leading ones prepended (eg: a row vector for a matrix)
+        int[] retStride = ret.stride();
+        int[] outerShape = new int[outerRank];
+        int[] outerStride = new int[outerRank];
+        int count = 0;
+        for (int i = 0; i < shape.length; i++) {
+            if (!reduce[i]) {
+                outerShape[count] = shape[i];
+                outerStride[count] = retStride[retStride.length - outerRank + count];
+                count++;
+            }
+        }
+
+        return shapeInfo(outerShape, outerStride, ret.offset());
+    }
+
+    /**
+     * Whether the native loop can walk the given array
+     * @param arr the array to test
+     * @return true if the rank of the array is at most {@link #MAX_RANK}
+     */
+    public static boolean canWalk(INDArray arr) {
+        return arr == null || arr.rank() <= MAX_RANK;
+    }
+
+    private static int[] split(INDArray arr, boolean inner, int... dimension) {
+        int[] shape = arr.shape();
+        boolean[] reduce = new boolean[shape.length];
+        for (int d : dimension)
+            reduce[d < 0 ? d + shape.length : d] = true;
+
+        int rank = 0;
+        for (boolean r : reduce)
+            if (r == inner)
+                rank++;
+        int[] splitShape = new int[rank];
+        int[] splitStride = new int[rank];
+        int count = 0;
+        for (int i = 0; i < shape.length; i++) {
+            if (reduce[i] == inner) {
+                splitShape[count] = shape[i];
+                splitStride[count] = arr.stride(i);
+                count++;
+            }
+        }
+
+        return shapeInfo(splitShape, splitStride, inner ? 0 : arr.offset());
+    }
+
+    private static int[] toShapeInfo(int[] shape, int[] stride, int offset) {
+        int rank = shape.length;
+        int[] ret = new int[2 * rank + 2];
+        ret[0] = rank;
+        System.arraycopy(shape, 0, ret, 1, rank);
+        System.arraycopy(stride, 0, ret, 1 + rank, rank);
+        ret[1 + 2 * rank] = offset;
+        return ret;
+    }
+}
@@ -3,788 +3,1136 @@
 #include <jni.h>
 #include <algorithm>
 using namespace std;
+
 /**
- * CPU math operations for:
- * linear transforms
- * reductions
- *
- * @author Adam Gibson
+ * Op codes: these mirror org.nd4j.linalg.api.ops.OpCodes
+ * and have to be kept in sync with it
  */
-class Loop {
-
-
-public:
+enum OpCode {
+    OP_UNKNOWN = -1,
+    OP_ADD = 0,
+    OP_SUB = 1,
+    OP_RSUB = 2,
+    OP_MUL = 3,
+    OP_DIV = 4,
+    OP_RDIV = 5,
+    OP_COPY = 6,
+    OP_EQ = 7,
+    OP_NEQ = 8,
+    OP_GT = 9,
+    OP_GTE = 10,
+    OP_LT = 11,
+    OP_LTE = 12,
+    OP_EPS = 13,
+    OP_ABS = 100,
+    OP_ACOS = 101,
+    OP_ASIN = 102,
+    OP_ATAN = 103,
+    OP_CEIL = 104,
+    OP_COS = 105,
+    OP_EXP = 106,
+    OP_FLOOR = 107,
+    OP_HARD_TANH = 108,
+    OP_HARD_TANH_DERIVATIVE = 109,
+    OP_IDENTITY = 110,
+    OP_LINEAR_INDEX = 111,
+    OP_LOG = 112,
+    OP_MAX_OUT = 113,
+    OP_NEG = 114,
+    OP_ONE_MINUS = 115,
+    OP_ONES = 116,
+    OP_POW = 117,
+    OP_RELU = 118,
+    OP_ROUND = 119,
+    OP_SET_RANGE = 120,
+    OP_SIGMOID = 121,
+    OP_SIGMOID_DERIVATIVE = 122,
+    OP_SIGN = 123,
+    OP_SIN = 124,
+    OP_SOFTMAX = 125,
+    OP_SOFTMAX_DERIVATIVE = 126,
+    OP_SOFT_PLUS = 127,
+    OP_SQRT = 128,
+    OP_STABILIZE = 129,
+    OP_TANH = 130,
+    OP_FFT = 131,
+    OP_IFFT = 132,
+    OP_ADD_SCALAR = 200,
+    OP_SUB_SCALAR = 201,
+    OP_RSUB_SCALAR = 202,
+    OP_MUL_SCALAR = 203,
+    OP_DIV_SCALAR = 204,
+    OP_RDIV_SCALAR = 205,
+    OP_MAX_SCALAR = 206,
+    OP_SET_SCALAR = 207,
+    OP_EQUALS_SCALAR = 208,
+    OP_NOT_EQUALS_SCALAR = 209,
+    OP_GREATER_THAN_SCALAR = 210,
+    OP_GREATER_THAN_OR_EQUAL_SCALAR = 211,
+    OP_LESS_THAN_SCALAR = 212,
+    OP_LESS_THAN_OR_EQUAL_SCALAR = 213,
+    OP_SET_VAL_OR_LESS_SCALAR = 214,
+    OP_SUM = 300,
+    OP_PROD = 301,
+    OP_MEAN = 302,
+    OP_MAX = 303,
+    OP_MIN = 304,
+    OP_BIAS = 305,
+    OP_VAR = 306,
+    OP_STD = 307,
+    OP_NORM1 = 308,
+    OP_NORM2 = 309,
+    OP_NORM_MAX = 310,
+    OP_DOT = 311,
+    OP_IAMAX = 312,
+    OP_COSINE_SIMILARITY = 313,
+    OP_EUCLIDEAN = 314,
+    OP_MANHATTAN = 315
+};
+
+struct OpName {
+    const char *name;
+    int opNum;
+};
+
+static const OpName OP_NAMES[] = {
+    {"add", OP_ADD},
+    {"sub", OP_SUB},
+    {"rsub", OP_RSUB},
+    {"mul", OP_MUL},
+    {"div", OP_DIV},
+    {"rdiv", OP_RDIV},
+    {"copy", OP_COPY},
+    {"eq", OP_EQ},
+    {"neq", OP_NEQ},
+    {"gt", OP_GT},
+    {"gte", OP_GTE},
+    {"lt", OP_LT},
+    {"lte", OP_LTE},
+    {"eps", OP_EPS},
+    {"abs", OP_ABS},
+    {"acos", OP_ACOS},
+    {"asin", OP_ASIN},
+    {"atan", OP_ATAN},
+    {"ceil", OP_CEIL},
+    {"cos", OP_COS},
+    {"exp", OP_EXP},
+    {"floor", OP_FLOOR},
+    {"hardtanh", OP_HARD_TANH},
+    {"hardtanhderivative", OP_HARD_TANH_DERIVATIVE},
+    {"identity", OP_IDENTITY},
+    {"linearindex", OP_LINEAR_INDEX},
+    {"log", OP_LOG},
+    {"maxout", OP_MAX_OUT},
+    {"neg", OP_NEG},
+    {"oneminus", OP_ONE_MINUS},
+    {"ones", OP_ONES},
+    {"pow", OP_POW},
+    {"relu", OP_RELU},
+    {"round", OP_ROUND},
+    {"setrange", OP_SET_RANGE},
+    {"sigmoid", OP_SIGMOID},
+    {"sigmoidderivative", OP_SIGMOID_DERIVATIVE},
+    {"sign", OP_SIGN},
+    {"sin", OP_SIN},
+    {"softmax", OP_SOFTMAX},
+    {"softmaxderivative", OP_SOFTMAX_DERIVATIVE},
+    {"softplus", OP_SOFT_PLUS},
+    {"sqrt", OP_SQRT},
+    {"stabilize", OP_STABILIZE},
+    {"tanh", OP_TANH},
+    {"fft", OP_FFT},
+    {"ifft", OP_IFFT},
+    {"add_scalar", OP_ADD_SCALAR},
+    {"sub_scalar", OP_SUB_SCALAR},
+    {"rsub_scalar", OP_RSUB_SCALAR},
+    {"mul_scalar", OP_MUL_SCALAR},
+    {"div_scalar", OP_DIV_SCALAR},
+    {"rdiv_scalar", OP_RDIV_SCALAR},
+    {"max_scalar", OP_MAX_SCALAR},
+    {"set_scalar", OP_SET_SCALAR},
+    {"equals_scalar", OP_EQUALS_SCALAR},
+    {"notequals_scalar", OP_NOT_EQUALS_SCALAR},
+    {"greaterthan_scalar", OP_GREATER_THAN_SCALAR},
+    {"greaterthanorequal_scalar", OP_GREATER_THAN_OR_EQUAL_SCALAR},
+    {"lessthan_scalar", OP_LESS_THAN_SCALAR},
+    {"lessthanorequal_scalar", OP_LESS_THAN_OR_EQUAL_SCALAR},
+    {"setvalorless_scalar", OP_SET_VAL_OR_LESS_SCALAR},
+    {"sum", OP_SUM},
+    {"prod", OP_PROD},
+    {"mean", OP_MEAN},
+    {"max", OP_MAX},
+    {"min", OP_MIN},
+    {"bias", OP_BIAS},
+    {"var", OP_VAR},
+    {"std", OP_STD},
+    {"norm1", OP_NORM1},
+    {"norm2", OP_NORM2},
+    {"normmax", OP_NORM_MAX},
+    {"dot", OP_DOT},
+    {"iamax", OP_IAMAX},
+    {"cosinesimilarity", OP_COSINE_SIMILARITY},
+    {"euclidean", OP_EUCLIDEAN},
+    {"manhattan", OP_MANHATTAN},
+};
 
+/**
+ * The op code for the given op name
+ * @param operation the name of the op
+ * @return the op code or OP_UNKNOWN
+ */
+inline int opCode(const std::string &operation) {
+    for(unsigned int i = 0; i < sizeof(OP_NAMES) / sizeof(OP_NAMES[0]); i++) {
+        if(operation.compare(OP_NAMES[i].name) == 0)
+            return OP_NAMES[i].opNum;
+    }
+    return OP_UNKNOWN;
+}
 
-    void execDoubleTransform(
-            double *data,
-            double *pairData
-            , int length
-            , int offset,
-            int yOffset,
-            int resultOffset
-            , int stride,
-            int yStride
-            ,int resultStride
-            , const std::string  operation,
-            double *otherParams
-            , double *result) {
-        if(operation.compare("add") == 0) {
-            for(int i = 0; i < length; i++) {
-                result[resultOffset + (i * resultStride)] = data[offset + (i * stride)] + pairData[yOffset + (i * yStride)];
-            }
-        }
-        else if(operation.compare("sub") == 0) {
-            for(int i = 0; i < length; i++)
-                result[resultOffset + (i * resultStride)] = data[offset + (i * stride)] - pairData[yOffset + (i * yStride)];
 
-        }
-        else if(operation.compare("rsub") == 0) {
-            for(int i = 0; i < length; i++)
-                result[resultOffset + (i * resultStride)] = pairData[yOffset + (i * yStride)] - data[offset + (i * stride)];
+/*
+ * Kernels
+ *
+ * Every array is described by a shape info: an int array of
+ * rank, shape (rank ints), stride (rank ints), offset
+ * (see org.nd4j.linalg.cpu.util.ShapeInfoUtil).
+ * Elements are visited in row major order (the last dimension changes fastest)
+ * which is the order of the linear view of the array on the java side.
+ * Arrays of different shapes (but the same length) are walked in lock step
+ * by their own shape info.
+ *
+ * The element wise ops are function objects so each kernel
+ * is compiled with its op inlined in to the inner loop: unit stride inner loops
+ * are vectorized (omp simd) and large arrays are split in to one
+ * contiguous range of elements per thread (omp parallel).
+ */
 
-        }
-        else if(operation.compare("mul") == 0) {
-            for(int i = 0; i < length; i++)
-                result[resultOffset + (i * resultStride)] = data[offset + (i * stride)] * pairData[yOffset + (i * yStride)];
+#ifdef _OPENMP
+#include <omp.h>
+#define LOOP_SIMD _Pragma("omp simd")
+#else
+#define LOOP_SIMD
+#endif
 
-        }
-        else if(operation.compare("div") == 0) {
-            for(int i = 0; i < length; i++)
-                result[resultOffset + (i * resultStride)] = data[offset + (i * stride)] / pairData[yOffset + (i * yStride)];
+#define LOOP_MAX_RANK 32
 
+/**
+ * Walks the buffer offsets of an array described by a shape info.
+ * Elements are visited a run at a time: a run is the rest of the
+ * current row (along the last dimension), which has a constant stride.
+ */
+struct Walker {
+    int rank;
+    int shape[LOOP_MAX_RANK];
+    int stride[LOOP_MAX_RANK];
+    int coords[LOOP_MAX_RANK];
+    long offset;
+
+    Walker(const int *info, long start) {
+        rank = info[0];
+        offset = info[1 + 2 * rank];
+        for(int i = 0; i < rank; i++) {
+            shape[i] = info[1 + i];
+            stride[i] = info[1 + rank + i];
+        }
+        //a single element
+        if(rank == 0) {
+            rank = 1;
+            shape[0] = 1;
+            stride[0] = 1;
+        }
+
+        long remaining = start;
+        for(int i = rank - 1; i >= 0; i--) {
+            coords[i] = (int) (remaining % shape[i]);
+            remaining /= shape[i];
+            offset += (long) coords[i] * stride[i];
         }
-        else if(operation.compare("rdiv") == 0) {
-            for(int i = 0; i < length; i++)
-                result[resultOffset + (i * resultStride)] =  pairData[yOffset + (i * yStride)] / data[offset + (i * stride)];
+    }
 
-        }
-        else if(operation.compare("copy") == 0) {
-            for(int i = 0; i < length; i++)
-                result[resultOffset + (i * resultStride)] = data[offset + (i * stride)];
+    //the number of elements left in the current row
+    inline int run() const {
+        return shape[rank - 1] - coords[rank - 1];
+    }
 
-        }
+    //the stride between the elements of a row
+    inline int step() const {
+        return stride[rank - 1];
     }
 
+    //move n elements ahead: at most to the end of the current row
+    inline void advance(int n) {
+        int last = rank - 1;
+        coords[last] += n;
+        offset += (long) n * stride[last];
+        if(coords[last] < shape[last])
+            return;
 
-    void execFloatTransform(
-            float *data,
-            float *pairData
-            , int length
-            , int offset,
-            int yOffset,
-            int resultOffset
-            , int stride,
-            int yStride
-            ,int resultStride
-            , const std::string  operation,
-            float *otherParams
-            , float *result) {
-        if(operation.compare("add") == 0) {
-            for(int i = 0; i < length; i++) {
-                result[resultOffset + (i * resultStride)] = data[offset + (i * stride)] + pairData[yOffset + (i * yStride)];
+        offset -= (long) shape[last] * stride[last];
+        coords[last] = 0;
+        for(int i = last - 1; i >= 0; i--) {
+            if(++coords[i] < shape[i]) {
+                offset += stride[i];
+                return;
             }
-        }
-        else if(operation.compare("sub") == 0) {
-            for(int i = 0; i < length; i++)
-                result[resultOffset + (i * resultStride)] = data[offset + (i * stride)] - pairData[yOffset + (i * yStride)];
 
+            offset -= (long) (shape[i] - 1) * stride[i];
+            coords[i] = 0;
         }
-        else if(operation.compare("rsub") == 0) {
-            for(int i = 0; i < length; i++)
-                result[resultOffset + (i * resultStride)] = pairData[yOffset + (i * yStride)] - data[offset + (i * stride)];
+    }
+};
 
-        }
-        else if(operation.compare("mul") == 0) {
-            for(int i = 0; i < length; i++)
-                result[resultOffset + (i * resultStride)] = data[offset + (i * stride)] * pairData[yOffset + (i * yStride)];
+/**
+ * The range of elements [start,end) thread t of n threads works on
+ */
+inline void threadRange(long length, int t, int n, long &start, long &end) {
+    long chunk = (length + n - 1) / n;
+    start = min(length, (long) t * chunk);
+    end = min(length, start + chunk);
+}
+
+inline int minRun(int a, int b, long remaining) {
+    return (int) min((long) min(a, b), remaining);
+}
+
+/*
+ * Element wise ops: unary ops take x, pairwise ops take x and y.
+ * Scalar ops are unary ops holding the scalar (extraArgs[0]).
+ */
 
-        }
-        else if(operation.compare("div") == 0) {
-            for(int i = 0; i < length; i++)
-                result[resultOffset + (i * resultStride)] = data[offset + (i * stride)] / pairData[yOffset + (i * yStride)];
+template<typename T> inline T extraArg(const T *extraArgs, int i, T defaultValue) {
+    return extraArgs != NULL ? extraArgs[i] : defaultValue;
+}
+
+template<typename T> struct Add { inline T operator()(T x, T y) const { return x + y; } };
+template<typename T> struct Sub { inline T operator()(T x, T y) const { return x - y; } };
+template<typename T> struct RSub { inline T operator()(T x, T y) const { return y - x; } };
+template<typename T> struct Mul { inline T operator()(T x, T y) const { return x * y; } };
+template<typename T> struct Div { inline T operator()(T x, T y) const { return x / y; } };
+template<typename T> struct RDiv { inline T operator()(T x, T y) const { return y / x; } };
+template<typename T> struct First { inline T operator()(T x, T y) const { return x; } };
+template<typename T> struct EqualTo { inline T operator()(T x, T y) const { return x == y ? 1 : 0; } };
+template<typename T> struct NotEqualTo { inline T operator()(T x, T y) const { return x != y ? 1 : 0; } };
+template<typename T> struct GreaterThan { inline T operator()(T x, T y) const { return x > y ? 1 : 0; } };
+template<typename T> struct GreaterThanOrEqual { inline T operator()(T x, T y) const { return x >= y ? 1 : 0; } };
+template<typename T> struct LessThan { inline T operator()(T x, T y) const { return x < y ? 1 : 0; } };
+template<typename T> struct LessThanOrEqual { inline T operator()(T x, T y) const { return x <= y ? 1 : 0; } };
+template<typename T> struct Maximum { inline T operator()(T x, T y) const { return x > y ? x : y; } };
+template<typename T> struct Minimum { inline T operator()(T x, T y) const { return x < y ? x : y; } };
+template<typename T> struct Eps {
+    T eps;
+    Eps(const T *extraArgs) : eps(extraArg(extraArgs, 0, (T) 1e-5f)) {}
+    inline T operator()(T x, T y) const { return std::abs(x - y) < eps ? 1 : 0; }
+};
+
+template<typename T> struct Identity { inline T operator()(T x) const { return x; } };
+template<typename T> struct Ones { inline T operator()(T x) const { return 1; } };
+template<typename T> struct Abs { inline T operator()(T x) const { return std::abs(x); } };
+template<typename T> struct ACos { inline T operator()(T x) const { return std::acos(x); } };
+template<typename T> struct ASin { inline T operator()(T x) const { return std::asin(x); } };
+template<typename T> struct ATan { inline T operator()(T x) const { return std::atan(x); } };
+template<typename T> struct Ceil { inline T operator()(T x) const { return std::ceil(x); } };
+template<typename T> struct Cos { inline T operator()(T x) const { return std::cos(x); } };
+template<typename T> struct Exp { inline T operator()(T x) const { return std::exp(x); } };
+template<typename T> struct Floor { inline T operator()(T x) const { return std::floor(x); } };
+template<typename T> struct HardTanh { inline T operator()(T x) const { return x < -1 ? -1 : x > 1 ? 1 : x; } };
+template<typename T> struct Log { inline T operator()(T x) const { return std::log(x); } };
+template<typename T> struct Neg { inline T operator()(T x) const { return -x; } };
+template<typename T> struct OneMinus { inline T operator()(T x) const { return 1 - x; } };
+//rounds half up like java's Math.round
+template<typename T> struct Round { inline T operator()(T x) const { return std::floor(x + (T) 0.5); } };
+template<typename T> struct Sigmoid { inline T operator()(T x) const { return 1 / (1 + std::exp(-x)); } };
+template<typename T> struct SigmoidDerivative { inline T operator()(T x) const { return x * (1 - x); } };
+template<typename T> struct Sign { inline T operator()(T x) const { return (T) ((x > 0) - (x < 0)); } };
+template<typename T> struct Sin { inline T operator()(T x) const { return std::sin(x); } };
+template<typename T> struct SoftPlus { inline T operator()(T x) const { return std::log(1 + std::exp(x)); } };
+template<typename T> struct Sqrt { inline T operator()(T x) const { return std::sqrt(x); } };
+template<typename T> struct Tanh { inline T operator()(T x) const { return std::tanh(x); } };
+template<typename T> struct Pow {
+    T power;
+    Pow(const T *extraArgs) : power(extraArg(extraArgs, 0, (T) 1)) {}
+    inline T operator()(T x) const { return std::pow(x, power); }
+};
+template<typename T> struct RectifiedLinear {
+    T cutoff;
+    RectifiedLinear(const T *extraArgs) : cutoff(extraArg(extraArgs, 0, (T) 0)) {}
+    inline T operator()(T x) const { return x < cutoff ? cutoff : x; }
+};
+template<typename T> struct SetRange {
+    T min, max;
+    SetRange(const T *extraArgs) : min(extraArg(extraArgs, 0, (T) 0)), max(extraArg(extraArgs, 1, (T) 1)) {}
+    inline T operator()(T x) const {
+        if(x >= min && x <= max)
+            return x;
+        if(min == 0 && max == 1)
+            return std::floor(1 / (1 + std::exp(-x)) * (max - min)) + min;
+        return std::floor(x * (max - min)) + min;
+    }
+};
+template<typename T> struct Stabilize {
+    T k;
+    double cutOff;
+    Stabilize(const T *extraArgs) : k(extraArg(extraArgs, 0, (T) 1)), cutOff(std::log((double) 1.1755e-38f)) {}
+    inline T operator()(T x) const {
+        if(x * k > -cutOff)
+            return (T) (float) (-cutOff / k);
+        if(x * k < cutOff)
+            return (T) (float) (cutOff / k);
+        return x;
+    }
+};
+
+template<typename T> struct Scalar {
+    T scalar;
+    Scalar(const T *extraArgs) : scalar(extraArg(extraArgs, 0, (T) 0)) {}
+};
+template<typename T> struct AddScalar : Scalar<T> { AddScalar(const T *e) : Scalar<T>(e) {} inline T operator()(T x) const { return x + this->scalar; } };
+template<typename T> struct SubScalar : Scalar<T> { SubScalar(const T *e) : Scalar<T>(e) {} inline T operator()(T x) const { return x - this->scalar; } };
+template<typename T> struct RSubScalar : Scalar<T> { RSubScalar(const T *e) : Scalar<T>(e) {} inline T operator()(T x) const { return this->scalar - x; } };
+template<typename T> struct MulScalar : Scalar<T> { MulScalar(const T *e) : Scalar<T>(e) {} inline T operator()(T x) const { return x * this->scalar; } };
+template<typename T> struct DivScalar : Scalar<T> { DivScalar(const T *e) : Scalar<T>(e) {} inline T operator()(T x) const { return x / this->scalar; } };
+template<typename T> struct RDivScalar : Scalar<T> { RDivScalar(const T *e) : Scalar<T>(e) {} inline T operator()(T x) const { return this->scalar / x; } };
+template<typename T> struct MaxScalar : Scalar<T> { MaxScalar(const T *e) : Scalar<T>(e) {} inline T operator()(T x) const { return x > this->scalar ? x : this->scalar; } };
+template<typename T> struct SetScalar : Scalar<T> { SetScalar(const T *e) : Scalar<T>(e) {} inline T operator()(T x) const { return this->scalar; } };
+template<typename T> struct EqualsScalar : Scalar<T> { EqualsScalar(const T *e) : Scalar<T>(e) {} inline T operator()(T x) const { return x == this->scalar ? 1 : 0; } };
+template<typename T> struct NotEqualsScalar : Scalar<T> { NotEqualsScalar(const T *e) : Scalar<T>(e) {} inline T operator()(T x) const { return x != this->scalar ? 1 : 0; } };
+template<typename T> struct GreaterThanScalar : Scalar<T> { GreaterThanScalar(const T *e) : Scalar<T>(e) {} inline T operator()(T x) const { return x > this->scalar ? 1 : 0; } };
+template<typename T> struct GreaterThanOrEqualScalar : Scalar<T> { GreaterThanOrEqualScalar(const T *e) : Scalar<T>(e) {} inline T operator()(T x) const { return x >= this->scalar ? 1 : 0; } };
+template<typename T> struct LessThanScalar : Scalar<T> { LessThanScalar(const T *e) : Scalar<T>(e) {} inline T operator()(T x) const { return x < this->scalar ? 1 : 0; } };
+template<typename T> struct LessThanOrEqualScalar : Scalar<T> { LessThanOrEqualScalar(const T *e) : Scalar<T>(e) {} inline T operator()(T x) const { return x <= this->scalar ? 1 : 0; } };
+template<typename T> struct SetValOrLessScalar : Scalar<T> { SetValOrLessScalar(const T *e) : Scalar<T>(e) {} inline T operator()(T x) const { return x < this->scalar ? this->scalar : x; } };
+
+/*
+ * Transform kernels
+ */
 
-        }
-        else if(operation.compare("rdiv") == 0) {
-            for(int i = 0; i < length; i++)
-                result[resultOffset + (i * resultStride)] =  pairData[yOffset + (i * yStride)] / data[offset + (i * stride)];
+template<typename T, typename Op>
+inline void transformRun(const Op &op, const T *x, int xStride, T *z, int zStride, int n) {
+    if(xStride == 1 && zStride == 1) {
+        LOOP_SIMD
+        for(int i = 0; i < n; i++)
+            z[i] = op(x[i]);
+    }
+    else {
+        for(int i = 0; i < n; i++)
+            z[(long) i * zStride] = op(x[(long) i * xStride]);
+    }
+}
+
+template<typename T, typename Op>
+inline void transformRun(const Op &op, const T *x, int xStride, const T *y, int yStride, T *z, int zStride, int n) {
+    if(xStride == 1 && yStride == 1 && zStride == 1) {
+        LOOP_SIMD
+        for(int i = 0; i < n; i++)
+            z[i] = op(x[i], y[i]);
+    }
+    else {
+        for(int i = 0; i < n; i++)
+            z[(long) i * zStride] = op(x[(long) i * xStride], y[(long) i * yStride]);
+    }
+}
+
+template<typename T, typename Op>
+void transformRange(const Op &op, const T *x, const int *xInfo, T *z, const int *zInfo, long start, long end) {
+    Walker xWalker(xInfo, start), zWalker(zInfo, start);
+    for(long i = start; i < end;) {
+        int n = minRun(xWalker.run(), zWalker.run(), end - i);
+        transformRun(op, x + xWalker.offset, xWalker.step(), z + zWalker.offset, zWalker.step(), n);
+        xWalker.advance(n);
+        zWalker.advance(n);
+        i += n;
+    }
+}
+
+template<typename T, typename Op>
+void transformRange(const Op &op, const T *x, const int *xInfo, const T *y, const int *yInfo, T *z, const int *zInfo, long start, long end) {
+    Walker xWalker(xInfo, start), yWalker(yInfo, start), zWalker(zInfo, start);
+    for(long i = start; i < end;) {
+        int n = minRun(min(xWalker.run(), yWalker.run()), zWalker.run(), end - i);
+        transformRun(op, x + xWalker.offset, xWalker.step(), y + yWalker.offset, yWalker.step(), z + zWalker.offset, zWalker.step(), n);
+        xWalker.advance(n);
+        yWalker.advance(n);
+        zWalker.advance(n);
+        i += n;
+    }
+}
+
+template<typename T, typename Op>
+void transform(const Op &op, const T *x, const int *xInfo, T *z, const int *zInfo, long length, int threads) {
+#ifdef _OPENMP
+    if(threads > 1) {
+#pragma omp parallel num_threads(threads)
+        {
+            long start, end;
+            threadRange(length, omp_get_thread_num(), omp_get_num_threads(), start, end);
+            transformRange(op, x, xInfo, z, zInfo, start, end);
+        }
+        return;
+    }
+#endif
+    transformRange(op, x, xInfo, z, zInfo, 0, length);
+}
+
+template<typename T, typename Op>
+void transform(const Op &op, const T *x, const int *xInfo, const T *y, const int *yInfo, T *z, const int *zInfo, long length, int threads) {
+#ifdef _OPENMP
+    if(threads > 1) {
+#pragma omp parallel num_threads(threads)
+        {
+            long start, end;
+            threadRange(length, omp_get_thread_num(), omp_get_num_threads(), start, end);
+            transformRange(op, x, xInfo, y, yInfo, z, zInfo, start, end);
+        }
+        return;
+    }
+#endif
+    transformRange(op, x, xInfo, y, yInfo, z, zInfo, 0, length);
+}
+
+/*
+ * Reductions: an accumulator folds every element in to a partial result
+ * (update) and merges partial results (combine). The starting value
+ * passed in is the identity of combine. Partial results are kept as doubles.
+ * The element folded in is x, or a function of x and y (for pairwise accumulations).
+ */
 
+struct PlusAccumulator {
+    inline double update(double accum, double x) const { return accum + x; }
+    inline double combine(double a, double b) const { return a + b; }
+};
+struct TimesAccumulator {
+    inline double update(double accum, double x) const { return accum * x; }
+    inline double combine(double a, double b) const { return a * b; }
+};
+struct MaxAccumulator {
+    inline double update(double accum, double x) const { return x > accum ? x : accum; }
+    inline double combine(double a, double b) const { return b > a ? b : a; }
+};
+struct MinAccumulator {
+    inline double update(double accum, double x) const { return x < accum ? x : accum; }
+    inline double combine(double a, double b) const { return b < a ? b : a; }
+};
+struct AbsPlusAccumulator {
+    inline double update(double accum, double x) const { return accum + std::abs(x); }
+    inline double combine(double a, double b) const { return a + b; }
+};
+struct SquarePlusAccumulator {
+    inline double update(double accum, double x) const { return accum + x * x; }
+    inline double combine(double a, double b) const { return a + b; }
+};
+struct AbsMaxAccumulator {
+    inline double update(double accum, double x) const { return std::abs(x) > accum ? std::abs(x) : accum; }
+    inline double combine(double a, double b) const { return b > a ? b : a; }
+};
+//sum of deviations from the mean
+struct DeviationAccumulator {
+    double mean;
+    DeviationAccumulator(double mean) : mean(mean) {}
+    inline double update(double accum, double x) const { return accum + (x - mean); }
+    inline double combine(double a, double b) const { return a + b; }
+};
+//sum of squared deviations from the mean
+struct SquaredDeviationAccumulator {
+    double mean;
+    SquaredDeviationAccumulator(double mean) : mean(mean) {}
+    inline double update(double accum, double x) const { return accum + (x - mean) * (x - mean); }
+    inline double combine(double a, double b) const { return a + b; }
+};
+
+template<typename T> struct Product { inline double operator()(T x, T y) const { return (double) x * y; } };
+template<typename T> struct Difference { inline double operator()(T x, T y) const { return (double) x - y; } };
+
+//four independent partial results per run so unit stride runs are not bound by the latency of one chain
+template<typename T, typename Accumulator>
+inline double reduceRun(const Accumulator &acc, const T *x, int xStride, int n, double zero) {
+    double a0 = zero, a1 = zero, a2 = zero, a3 = zero;
+    int i = 0;
+    if(xStride == 1) {
+        for(; i + 4 <= n; i += 4) {
+            a0 = acc.update(a0, x[i]);
+            a1 = acc.update(a1, x[i + 1]);
+            a2 = acc.update(a2, x[i + 2]);
+            a3 = acc.update(a3, x[i + 3]);
         }
-        else if(operation.compare("copy") == 0) {
-            for(int i = 0; i < length; i++)
-                result[resultOffset + (i * resultStride)] = data[offset + (i * stride)];
-
+    }
+    for(; i < n; i++)
+        a0 = acc.update(a0, x[(long) i * xStride]);
+    return acc.combine(acc.combine(a0, a1), acc.combine(a2, a3));
+}
+
+template<typename T, typename Accumulator, typename Pair>
+inline double reduceRun(const Accumulator &acc, const Pair &pair, const T *x, int xStride, const T *y, int yStride, int n, double zero) {
+    double a0 = zero, a1 = zero, a2 = zero, a3 = zero;
+    int i = 0;
+    if(xStride == 1 && yStride == 1) {
+        for(; i + 4 <= n; i += 4) {
+            a0 = acc.update(a0, pair(x[i], y[i]));
+            a1 = acc.update(a1, pair(x[i + 1], y[i + 1]));
+            a2 = acc.update(a2, pair(x[i + 2], y[i + 2]));
+            a3 = acc.update(a3, pair(x[i + 3], y[i + 3]));
         }
     }
+    for(; i < n; i++)
+        a0 = acc.update(a0, pair(x[(long) i * xStride], y[(long) i * yStride]));
+    return acc.combine(acc.combine(a0, a1), acc.combine(a2, a3));
+}
+
+template<typename T, typename Accumulator>
+double reduceRange(const Accumulator &acc, const T *x, const int *xInfo, long start, long end, double zero) {
+    double ret = zero;
+    Walker xWalker(xInfo, start);
+    for(long i = start; i < end;) {
+        int n = (int) min((long) xWalker.run(), end - i);
+        ret = acc.combine(ret, reduceRun(acc, x + xWalker.offset, xWalker.step(), n, zero));
+        xWalker.advance(n);
+        i += n;
+    }
+    return ret;
+}
+
+template<typename T, typename Accumulator, typename Pair>
+double reduceRange(const Accumulator &acc, const Pair &pair, const T *x, const int *xInfo, const T *y, const int *yInfo, long start, long end, double zero) {
+    double ret = zero;
+    Walker xWalker(xInfo, start), yWalker(yInfo, start);
+    for(long i = start; i < end;) {
+        int n = minRun(xWalker.run(), yWalker.run(), end - i);
+        ret = acc.combine(ret, reduceRun(acc, pair, x + xWalker.offset, xWalker.step(), y + yWalker.offset, yWalker.step(), n, zero));
+        xWalker.advance(n);
+        yWalker.advance(n);
+        i += n;
+    }
+    return ret;
+}
+
+//partial results are combined in thread order so the result doesn't depend on scheduling
+template<typename T, typename Accumulator>
+double reduce(const Accumulator &acc, const T *x, const int *xInfo, long length, double zero, int threads) {
+#ifdef _OPENMP
+    if(threads > 1) {
+        double partials[256];
+        int used = min(threads, 256);
+#pragma omp parallel num_threads(used)
+        {
+            long start, end;
+            int t = omp_get_thread_num();
+            threadRange(length, t, omp_get_num_threads(), start, end);
+            partials[t] = reduceRange(acc, x, xInfo, start, end, zero);
+            if(t == 0)
+                used = omp_get_num_threads();
+        }
+        double ret = zero;
+        for(int t = 0; t < used; t++)
+            ret = acc.combine(ret, partials[t]);
+        return ret;
+    }
+#endif
+    return reduceRange(acc, x, xInfo, 0, length, zero);
+}
+
+template<typename T, typename Accumulator, typename Pair>
+double reduce(const Accumulator &acc, const Pair &pair, const T *x, const int *xInfo, const T *y, const int *yInfo, long length, double zero, int threads) {
+#ifdef _OPENMP
+    if(threads > 1) {
+        double partials[256];
+        int used = min(threads, 256);
+#pragma omp parallel num_threads(used)
+        {
+            long start, end;
+            int t = omp_get_thread_num();
+            threadRange(length, t, omp_get_num_threads(), start, end);
+            partials[t] = reduceRange(acc, pair, x, xInfo, y, yInfo, start, end, zero);
+            if(t == 0)
+                used = omp_get_num_threads();
+        }
+        double ret = zero;
+        for(int t = 0; t < used; t++)
+            ret = acc.combine(ret, partials[t]);
+        return ret;
+    }
+#endif
+    return reduceRange(acc, pair, x, xInfo, y, yInfo, 0, length, zero);
+}
+
+//the element x and y contribute to a pairwise accumulation
+template<typename T, typename Accumulator>
+double reducePairs(const Accumulator &acc, int opNum, const T *x, const int *xInfo, const T *y, const int *yInfo, long length, double zero, int threads) {
+    if(y == NULL)
+        return reduce(acc, x, xInfo, length, zero, threads);
+    switch(opNum) {
+        case OP_DOT:
+        case OP_COSINE_SIMILARITY:
+            return reduce(acc, Product<T>(), x, xInfo, y, yInfo, length, zero, threads);
+        case OP_EUCLIDEAN:
+        case OP_MANHATTAN:
+            return reduce(acc, Difference<T>(), x, xInfo, y, yInfo, length, zero, threads);
+        default:
+            //the other accumulations ignore y
+            return reduce(acc, x, xInfo, length, zero, threads);
+    }
+}
+
+//the index of the first max element: each thread finds the max of its range
+template<typename T>
+long indexOfMaxRange(const T *x, const int *xInfo, long start, long end, T &max) {
+    Walker xWalker(xInfo, start);
+    long ret = start;
+    max = x[xWalker.offset];
+    for(long i = start; i < end;) {
+        int n = (int) min((long) xWalker.run(), end - i);
+        const T *run = x + xWalker.offset;
+        int step = xWalker.step();
+        for(int j = 0; j < n; j++) {
+            if(run[(long) j * step] > max) {
+                max = run[(long) j * step];
+                ret = i + j;
+            }
+        }
+        xWalker.advance(n);
+        i += n;
+    }
+    return ret;
+}
+
+template<typename T>
+long indexOfMax(const T *x, const int *xInfo, long length, int threads) {
+    if(length < 1)
+        return -1;
+#ifdef _OPENMP
+    if(threads > 1) {
+        long indexes[256];
+        T maxes[256];
+        int used = min(threads, 256);
+#pragma omp parallel num_threads(used)
+        {
+            long start, end;
+            int t = omp_get_thread_num();
+            threadRange(length, t, omp_get_num_threads(), start, end);
+            indexes[t] = start < end ? indexOfMaxRange(x, xInfo, start, end, maxes[t]) : -1;
+            if(t == 0)
+                used = omp_get_num_threads();
+        }
+        long ret = indexes[0];
+        for(int t = 1; t < used; t++) {
+            if(indexes[t] >= 0 && maxes[t] > maxes[0]) {
+                maxes[0] = maxes[t];
+                ret = indexes[t];
+            }
+        }
+        return ret;
+    }
+#endif
+    T max;
+    return indexOfMaxRange(x, xInfo, 0, length, max);
+}
 
-    void execFloatTransform(float *data, int length, int offset, int resultOffset,int stride,int resultStride, const std::string operation,
-                            float *otherParams,float *result) {
-        if(operation.compare("tanh") == 0) {
-            for(int i = 0; i < length; i++) {
-                result[resultOffset + (i * resultStride)] = tanhf(data[offset + (i  * stride)]);
-            }
-        }
-        else if(operation.compare("exp") == 0) {
-            for(int i = 0; i < length; i++) {
-                result[resultOffset + (i * resultStride)] = expf(data[offset + (i  * stride)]);
-            }
-        }
-        else if(operation.compare("cos") == 0) {
-            for(int i = 0; i < length; i++) {
-                result[resultOffset + (i * resultStride)] = cosf(data[offset + (i  * stride)]);
-            }
-        }
-        else if(operation.compare("abs") == 0) {
-            for(int i = 0; i < length; i++) {
-                result[resultOffset + (i * resultStride)] = fabs(data[offset + (i  * stride)]);
-            }
-        }
-        else if(operation.compare("acos") == 0) {
-            for(int i = 0; i < length; i++) {
-                result[resultOffset + (i * resultStride)] = acosf(data[offset + (i  * stride)]);
-            }
-        }
-        else if(operation.compare("asin") == 0) {
-            for(int i = 0; i < length; i++) {
-                result[resultOffset + (i * resultStride)] = asin(data[offset + (i  * stride)]);
-            }
-        }
 
-        else if(operation.compare("atan") == 0) {
-            for(int i = 0; i < length; i++) {
-                result[resultOffset + (i * resultStride)] = atan(data[offset + (i  * stride)]);
-            }
-        }
-          else if(operation.compare("softplus") == 0) {
-                    for(int i = 0; i < length; i++) {
-                        result[resultOffset + (i * resultStride)] = log( 1 + exp(data[offset + (i  * stride)]));
-                    }
-         }
-        else if(operation.compare("setrange") == 0) {
-            float min = otherParams[0];
-            float max = otherParams[1];
-            for(int i = 0; i < length; i++) {
-                float origin = data[offset + (i * stride)];
-                if (origin >= min && origin <= max)
-                    result[resultOffset + (i * resultStride)] = origin;
-                else if (min == 0 && max == 1) {
-                    float val = 1 / (1 + expf(-origin));
-                    result[resultOffset + (i * resultStride)] =  floorf(val * (max - min)) + min;
-                }
-                else {
-                    result[resultOffset + (i * resultStride)] = floorf(origin * (max - min)) + min;
+/**
+ * CPU math operations for:
+ * linear transforms
+ * reductions
+ *
+ * Large arrays are split over
+ * threads (when built with OpenMP).
+ *
+ * @author Adam Gibson
+ */
+class Loop {
+    //0 means the OpenMP default
+    int threads;
+    //arrays with fewer elements run in the calling thread
+    long parallelThreshold;
+
+    int threadsFor(long length) const {
+#ifdef _OPENMP
+        if(length < parallelThreshold)
+            return 1;
+        return threads > 0 ? threads : omp_get_max_threads();
+#else
+        return 1;
+#endif
+    }
 
-                }
-            }
+    template<typename T>
+    bool transform(T *x, int *xInfo, T *y, int *yInfo, T *z, int *zInfo, int length, int opNum, T *extraArgs) {
+        int t = threadsFor(length);
+        if(y != NULL) {
+            switch(opNum) {
+                case OP_ADD: ::transform(Add<T>(), x, xInfo, y, yInfo, z, zInfo, length, t); return true;
+                case OP_SUB: ::transform(Sub<T>(), x, xInfo, y, yInfo, z, zInfo, length, t); return true;
+                case OP_RSUB: ::transform(RSub<T>(), x, xInfo, y, yInfo, z, zInfo, length, t); return true;
+                case OP_MUL: ::transform(Mul<T>(), x, xInfo, y, yInfo, z, zInfo, length, t); return true;
+                case OP_DIV: ::transform(Div<T>(), x, xInfo, y, yInfo, z, zInfo, length, t); return true;
+                case OP_RDIV: ::transform(RDiv<T>(), x, xInfo, y, yInfo, z, zInfo, length, t); return true;
+                case OP_COPY: ::transform(First<T>(), x, xInfo, y, yInfo, z, zInfo, length, t); return true;
+                case OP_EQ: ::transform(EqualTo<T>(), x, xInfo, y, yInfo, z, zInfo, length, t); return true;
+                case OP_NEQ: ::transform(NotEqualTo<T>(), x, xInfo, y, yInfo, z, zInfo, length, t); return true;
+                case OP_GT: ::transform(GreaterThan<T>(), x, xInfo, y, yInfo, z, zInfo, length, t); return true;
+                case OP_GTE: ::transform(GreaterThanOrEqual<T>(), x, xInfo, y, yInfo, z, zInfo, length, t); return true;
+                case OP_LT: ::transform(LessThan<T>(), x, xInfo, y, yInfo, z, zInfo, length, t); return true;
+                case OP_LTE: ::transform(LessThanOrEqual<T>(), x, xInfo, y, yInfo, z, zInfo, length, t); return true;
+                case OP_EPS: ::transform(Eps<T>(extraArgs), x, xInfo, y, yInfo, z, zInfo, length, t); return true;
+                case OP_MAX: ::transform(Maximum<T>(), x, xInfo, y, yInfo, z, zInfo, length, t); return true;
+                case OP_MIN: ::transform(Minimum<T>(), x, xInfo, y, yInfo, z, zInfo, length, t); return true;
+                //element wise transforms ignore y
+                default: break;
+            }
+        }
+
+        switch(opNum) {
+            //pairwise ops without a y pass x through (comparisons are true)
+            case OP_ADD: case OP_SUB: case OP_RSUB: case OP_MUL: case OP_DIV: case OP_RDIV: case OP_COPY: case OP_MAX: case OP_MIN:
+            case OP_IDENTITY: ::transform(Identity<T>(), x, xInfo, z, zInfo, length, t); return true;
+            case OP_EQ: case OP_NEQ: case OP_GT: case OP_GTE: case OP_LT: case OP_LTE: case OP_EPS:
+            case OP_ONES: ::transform(Ones<T>(), x, xInfo, z, zInfo, length, t); return true;
+            case OP_ABS: ::transform(Abs<T>(), x, xInfo, z, zInfo, length, t); return true;
+            case OP_ACOS: ::transform(ACos<T>(), x, xInfo, z, zInfo, length, t); return true;
+            case OP_ASIN: ::transform(ASin<T>(), x, xInfo, z, zInfo, length, t); return true;
+            case OP_ATAN: ::transform(ATan<T>(), x, xInfo, z, zInfo, length, t); return true;
+            case OP_CEIL: ::transform(Ceil<T>(), x, xInfo, z, zInfo, length, t); return true;
+            case OP_COS: ::transform(Cos<T>(), x, xInfo, z, zInfo, length, t); return true;
+            case OP_EXP: ::transform(Exp<T>(), x, xInfo, z, zInfo, length, t); return true;
+            case OP_FLOOR: ::transform(Floor<T>(), x, xInfo, z, zInfo, length, t); return true;
+            case OP_HARD_TANH:
+            case OP_HARD_TANH_DERIVATIVE: ::transform(HardTanh<T>(), x, xInfo, z, zInfo, length, t); return true;
+            case OP_LOG: ::transform(Log<T>(), x, xInfo, z, zInfo, length, t); return true;
+            case OP_MAX_OUT: ::transform(SetScalar<T>(extraArgs), x, xInfo, z, zInfo, length, t); return true;
+            case OP_NEG: ::transform(Neg<T>(), x, xInfo, z, zInfo, length, t); return true;
+            case OP_ONE_MINUS: ::transform(OneMinus<T>(), x, xInfo, z, zInfo, length, t); return true;
+            case OP_POW: ::transform(Pow<T>(extraArgs), x, xInfo, z, zInfo, length, t); return true;
+            case OP_RELU: ::transform(RectifiedLinear<T>(extraArgs), x, xInfo, z, zInfo, length, t); return true;
+            case OP_ROUND: ::transform(Round<T>(), x, xInfo, z, zInfo, length, t); return true;
+            case OP_SET_RANGE: ::transform(SetRange<T>(extraArgs), x, xInfo, z, zInfo, length, t); return true;
+            case OP_SIGMOID: ::transform(Sigmoid<T>(), x, xInfo, z, zInfo, length, t); return true;
+            case OP_SIGMOID_DERIVATIVE: ::transform(SigmoidDerivative<T>(), x, xInfo, z, zInfo, length, t); return true;
+            case OP_SIGN: ::transform(Sign<T>(), x, xInfo, z, zInfo, length, t); return true;
+            case OP_SIN: ::transform(Sin<T>(), x, xInfo, z, zInfo, length, t); return true;
+            case OP_SOFT_PLUS: ::transform(SoftPlus<T>(), x, xInfo, z, zInfo, length, t); return true;
+            case OP_SQRT: ::transform(Sqrt<T>(), x, xInfo, z, zInfo, length, t); return true;
+            case OP_STABILIZE: ::transform(Stabilize<T>(extraArgs), x, xInfo, z, zInfo, length, t); return true;
+            case OP_TANH: ::transform(Tanh<T>(), x, xInfo, z, zInfo, length, t); return true;
+            case OP_ADD_SCALAR: ::transform(AddScalar<T>(extraArgs), x, xInfo, z, zInfo, length, t); return true;
+            case OP_SUB_SCALAR: ::transform(SubScalar<T>(extraArgs), x, xInfo, z, zInfo, length, t); return true;
+            case OP_RSUB_SCALAR: ::transform(RSubScalar<T>(extraArgs), x, xInfo, z, zInfo, length, t); return true;
+            case OP_MUL_SCALAR: ::transform(MulScalar<T>(extraArgs), x, xInfo, z, zInfo, length, t); return true;
+            case OP_DIV_SCALAR: ::transform(DivScalar<T>(extraArgs), x, xInfo, z, zInfo, length, t); return true;
+            case OP_RDIV_SCALAR: ::transform(RDivScalar<T>(extraArgs), x, xInfo, z, zInfo, length, t); return true;
+            case OP_MAX_SCALAR: ::transform(MaxScalar<T>(extraArgs), x, xInfo, z, zInfo, length, t); return true;
+            case OP_SET_SCALAR: ::transform(SetScalar<T>(extraArgs), x, xInfo, z, zInfo, length, t); return true;
+            case OP_EQUALS_SCALAR: ::transform(EqualsScalar<T>(extraArgs), x, xInfo, z, zInfo, length, t); return true;
+            case OP_NOT_EQUALS_SCALAR: ::transform(NotEqualsScalar<T>(extraArgs), x, xInfo, z, zInfo, length, t); return true;
+            case OP_GREATER_THAN_SCALAR: ::transform(GreaterThanScalar<T>(extraArgs), x, xInfo, z, zInfo, length, t); return true;
+            case OP_GREATER_THAN_OR_EQUAL_SCALAR: ::transform(GreaterThanOrEqualScalar<T>(extraArgs), x, xInfo, z, zInfo, length, t); return true;
+            case OP_LESS_THAN_SCALAR: ::transform(LessThanScalar<T>(extraArgs), x, xInfo, z, zInfo, length, t); return true;
+            case OP_LESS_THAN_OR_EQUAL_SCALAR: ::transform(LessThanOrEqualScalar<T>(extraArgs), x, xInfo, z, zInfo, length, t); return true;
+            case OP_SET_VAL_OR_LESS_SCALAR: ::transform(SetValOrLessScalar<T>(extraArgs), x, xInfo, z, zInfo, length, t); return true;
+            default: return false;
         }
+    }
 
-        else if(operation.compare("ceil") == 0) {
-            for(int i = 0; i < length; i++) {
-                result[resultOffset + (i * resultStride)] = ceilf(data[offset + (i  * stride)]);
-            }
-        }
-        else if(operation.compare("floor") == 0) {
-            for(int i = 0; i < length; i++) {
-                result[resultOffset + (i * resultStride)] = floorf(data[offset + (i  * stride)]);
-            }
-        }
-        else if(operation.compare("hardtanh") == 0) {
-            for(int i = 0; i < length; i++) {
-                float tanh2 = tanhf(data[offset + (i  * stride)]);
-                if(tanh2 < -1)
-                    tanh2 = -1;
-                if(tanh2 > 1)
-                    tanh2 = 1;
-                result[resultOffset + (i * resultStride)] = tanh2;
-            }
-        }
-        else if(operation.compare("log") == 0) {
-            for(int i = 0; i < length; i++) {
-                result[resultOffset + (i * resultStride)] = logf(data[offset + (i  * stride)]);
-            }
-        }
-        else if(operation.compare("neg") == 0) {
-            for(int i = 0; i < length; i++) {
-                result[resultOffset + (i * resultStride)] = -data[offset + (i  * stride)];
-            }
-        }
-        else if(operation.compare("oneminus") == 0) {
-            for(int i = 0; i < length; i++) {
-                result[resultOffset + (i * resultStride)] =  1 - data[offset + (i  * stride)];
-            }
-        }
-        else if(operation.compare("ones") == 0) {
-            for(int i = 0; i < length; i++) {
-                result[resultOffset + (i * resultStride)] =  1;
-            }
-        }
-        else if(operation.compare("pow") == 0) {
-            for(int i = 0; i < length; i++) {
-                result[resultOffset + (i * resultStride)] =  powf(data[offset + (i  * stride)],(float) otherParams[0]);
-            }
-        }
-        else if(operation.compare("sigmoid") == 0) {
-            for(int i = 0; i < length; i++) {
-                result[resultOffset + (i * resultStride)] =  1.0 / (1.0 + expf(-data[offset + (i  * stride)]));
-            }
-        }
-        else if(operation.compare("sign") == 0) {
-            for(int i = 0; i < length; i++) {
-                float d1 = data[offset + (i  * stride)];
-                result[resultOffset + (i * resultStride)] = (d1 > 0) - (d1 < 0);
-            }
-        }
-        else if(operation.compare("round") == 0) {
-            for(int i = 0; i < length; i++) {
-                float d1 = data[offset + (i  * stride)];
-                result[resultOffset + (i * resultStride)] = roundf(d1);
-            }
-        }
-        else if(operation.compare("softmax") == 0) {
-            for(int i = 0; i < length; i++) {
-                float d1 = data[offset + (i  * stride)];
-                result[resultOffset + (i * resultStride)] = roundf(d1);
-            }
+    //the accumulated (not yet final) result: NaN for an op without a kernel
+    template<typename T>
+    double accumulate(T *x, int *xInfo, T *y, int *yInfo, long length, int opNum, T *extraArgs, double zero, int t) {
+        switch(opNum) {
+            case OP_SUM: case OP_MEAN: case OP_DOT: case OP_COSINE_SIMILARITY:
+                return reducePairs(PlusAccumulator(), opNum, x, xInfo, y, yInfo, length, zero, t);
+            case OP_PROD:
+                return reducePairs(TimesAccumulator(), opNum, x, xInfo, y, yInfo, length, zero, t);
+            case OP_MAX:
+                return reducePairs(MaxAccumulator(), opNum, x, xInfo, y, yInfo, length, zero, t);
+            case OP_MIN:
+                return reducePairs(MinAccumulator(), opNum, x, xInfo, y, yInfo, length, zero, t);
+            case OP_NORM1: case OP_MANHATTAN:
+                return reducePairs(AbsPlusAccumulator(), opNum, x, xInfo, y, yInfo, length, zero, t);
+            case OP_NORM2: case OP_EUCLIDEAN:
+                return reducePairs(SquarePlusAccumulator(), opNum, x, xInfo, y, yInfo, length, zero, t);
+            case OP_NORM_MAX:
+                return reducePairs(AbsMaxAccumulator(), opNum, x, xInfo, y, yInfo, length, zero, t);
+            case OP_BIAS:
+                return reducePairs(DeviationAccumulator(extraArg(extraArgs, 1, (T) 0)), opNum, x, xInfo, y, yInfo, length, zero, t);
+            case OP_VAR: case OP_STD:
+                return reducePairs(SquaredDeviationAccumulator(extraArg(extraArgs, 2, (T) 0)), opNum, x, xInfo, y, yInfo, length, zero, t);
+            case OP_IAMAX:
+                return (double) indexOfMax(x, xInfo, length, t);
+            default:
+                return NAN;
         }
+    }
 
-        else if(operation.compare("sqrt") == 0) {
-            for(int i = 0; i < length; i++) {
-                float d1 = data[offset + (i  * stride)];
-                result[resultOffset + (i * resultStride)] = sqrtf(d1);
-            }
+    /**
+     * The final result of an accumulation from the accumulated result.
+     * Variance and standard deviation are bias corrected
+     * (extraArgs[1] is the bias), cosine similarity is normalized
+     * by the norms in extraArgs[1] and extraArgs[2]
+     */
+    template<typename T>
+    static double finalResult(int opNum, double accum, long length, T *extraArgs) {
+        switch(opNum) {
+            case OP_MEAN:
+                return accum / (double) length;
+            case OP_NORM2:
+            case OP_EUCLIDEAN:
+                return std::sqrt(accum);
+            case OP_VAR: {
+                double bias = extraArg(extraArgs, 1, (T) 0);
+                return (accum - (bias * bias / length)) / (length - 1.0);
+            }
+            case OP_STD: {
+                double bias = extraArg(extraArgs, 1, (T) 0);
+                return std::sqrt((accum - (bias * bias / length)) / (length - 1.0));
+            }
+            case OP_COSINE_SIMILARITY:
+                return accum / extraArg(extraArgs, 1, (T) 1) / extraArg(extraArgs, 2, (T) 1);
+            default:
+                return accum;
         }
-
     }
 
-
-
-    void execScalarDouble(
-            double *data
-            ,double *result
-            ,int length
-            ,int offset,
-            int resultOffset
-            ,int stride
-            ,int resultStride
-            ,const std::string operation
-            ,double *otherParams) {
-        double scalar = otherParams[0];
-        if(operation.compare("equals_scalar") == 0) {
-            for(int i = 0; i < length; i++) {
-                double d1 = data[offset + (i  * stride)];
-                result[resultOffset + (i * resultStride)] = d1 == scalar ? 1 : 0.0;
-            }
-        }
-        else if(operation.compare("greaterthan_scalar") == 0) {
-            for(int i = 0; i < length; i++) {
-                double d1 = data[offset + (i  * stride)];
-                result[resultOffset + (i * resultStride)] = d1 >= scalar ? 1 : 0.0;
-            }
-        }
-        else if(operation.compare("greaterthanorequal_scalar") == 0) {
-            for(int i = 0; i < length; i++) {
-                double d1 = data[offset + (i  * stride)];
-                result[resultOffset + (i * resultStride)] = d1 == scalar ? 1 : 0.0;
-            }
-        }
-        else if(operation.compare("lessthan_scalar") == 0) {
-            for(int i = 0; i < length; i++) {
-                double d1 = data[offset + (i  * stride)];
-                result[resultOffset + (i * resultStride)] = d1 < scalar ? 1 : 0.0;
-            }
-        }
-        else if(operation.compare("lessthanorequal_scalar") == 0) {
-            for(int i = 0; i < length; i++) {
-                double d1 = data[offset + (i  * stride)];
-                result[resultOffset + (i * resultStride)] = d1 <= scalar ? 1 : 0.0;
-            }
-        }
-        else if(operation.compare("greaterthan_scalar") == 0) {
-            for(int i = 0; i < length; i++) {
-                double d1 = data[offset + (i  * stride)];
-                result[resultOffset + (i * resultStride)] = d1 > scalar ? 1 : 0.0;
+    template<typename T>
+    bool reduce(T *x, int *xOuterInfo, int *xInnerInfo, T *y, int *yOuterInfo, int *yInnerInfo,
+                T *z, int *zInfo, int opNum, T *extraArgs, double zero) {
+        if(!canAccumulate(opNum))
+            return false;
+        long tensors = 1, tensorLength = 1;
+        for(int i = 0; i < xOuterInfo[0]; i++)
+            tensors *= xOuterInfo[1 + i];
+        for(int i = 0; i < xInnerInfo[0]; i++)
+            tensorLength *= xInnerInfo[1 + i];
+
+        int t = threadsFor(tensors * tensorLength);
+        //enough tensors to give each thread its own: otherwise each tensor is split over the threads
+        int innerThreads = tensors >= t ? 1 : threadsFor(tensorLength);
+#ifdef _OPENMP
+        int tensorThreads = tensors >= t ? t : 1;
+#pragma omp parallel num_threads(tensorThreads) if(tensorThreads > 1)
+#endif
+        {
+            long start = 0, end = tensors;
+#ifdef _OPENMP
+            threadRange(tensors, omp_get_thread_num(), omp_get_num_threads(), start, end);
+#endif
+            if(start < end) {
+                Walker xTensors(xOuterInfo, start), zTensors(zInfo, start);
+                Walker yTensors(y != NULL ? yOuterInfo : xOuterInfo, start);
+                for(long i = start; i < end; i++) {
+                    double accum = accumulate(x + xTensors.offset, xInnerInfo, y != NULL ? y + yTensors.offset : NULL, yInnerInfo,
+                                              tensorLength, opNum, extraArgs, zero, innerThreads);
+                    z[zTensors.offset] = (T) finalResult(opNum, accum, tensorLength, extraArgs);
+                    xTensors.advance(1);
+                    yTensors.advance(1);
+                    zTensors.advance(1);
+                }
             }
         }
-        else if(operation.compare("add_scalar") == 0) {
-            for(int i = 0; i < length; i++)
-                result[resultOffset + (i * resultStride)] = data[offset + (i  * stride)] + scalar;
+        return true;
+    }
 
-        }
-        else if(operation.compare("div_scalar") == 0) {
-            for(int i = 0; i < length; i++)
-                result[resultOffset + (i * resultStride)] = data[offset + (i  * stride)] / scalar;
+    static bool canAccumulate(int opNum) {
+        return opNum >= OP_SUM && opNum <= OP_MANHATTAN;
+    }
 
-        }
-        else if(operation.compare("max_scalar") == 0) {
-            for(int i = 0; i < length; i++)
-                result[resultOffset + (i * resultStride)] = max(data[offset + (i  * stride)],scalar);
+public:
 
-        }
-        else if(operation.compare("mul_scalar") == 0) {
-            for(int i = 0; i < length; i++)
-                result[resultOffset + (i * resultStride)] = data[offset + (i  * stride)] * scalar;
+    Loop() : threads(0), parallelThreshold(65536) {
+    }
 
-        }
-        else if(operation.compare("rdiv_scalar") == 0) {
-            for(int i = 0; i < length; i++)
-                result[resultOffset + (i * resultStride)] = scalar / data[offset + (i  * stride)];
+    /**
+     * The number of threads large arrays are split over
+     * @param threads the number of threads (0 for the OpenMP default)
+     */
+    void setThreads(int threads) {
+        this->threads = max(0, threads);
+    }
 
-        }
-        else if(operation.compare("rsub_scalar") == 0) {
-            for(int i = 0; i < length; i++)
-                result[resultOffset + (i * resultStride)] = scalar - data[offset + (i  * stride)];
+    /**
+     * The minimum number of elements an array
+     * must have before it is split over threads
+     * @param parallelThreshold the min number of elements
+     */
+    void setParallelThreshold(int parallelThreshold) {
+        this->parallelThreshold = max(1, parallelThreshold);
+    }
 
+    /**
+     * Whether there's a kernel for the given op code
+     * @param opNum the op code
+     * @return true if the op can be run natively
+     */
+    bool supports(int opNum) {
+        if(canAccumulate(opNum))
+            return true;
+        switch(opNum) {
+            case OP_LINEAR_INDEX: case OP_SOFTMAX: case OP_SOFTMAX_DERIVATIVE: case OP_FFT: case OP_IFFT:
+                return false;
+            default:
+                return opNum >= OP_ADD && opNum <= OP_SET_VAL_OR_LESS_SCALAR && opNum != OP_UNKNOWN;
         }
+    }
 
-        else if(operation.compare("sub_scalar") == 0) {
-            for(int i = 0; i < length; i++)
-                result[resultOffset + (i * resultStride)] = data[offset + (i  * stride)] - scalar;
-
-        }
+    /*
+     * Strided entry points: each array is described by a shape info
+     * (rank, shape, stride, offset). Transforms and scalar ops (the scalar is extraArgs[0])
+     * write n elements of z. y may be null.
+     */
 
+    bool execTransform(double *x, int *xInfo, double *y, int *yInfo, double *z, int *zInfo, int n, int opNum, double *extraArgs) {
+        return transform(x, xInfo, y, yInfo, z, zInfo, n, opNum, extraArgs);
     }
 
-    void execScalarFloat(
-            float *data
-            ,float *result
-            ,int length
-            ,int offset,
-            int resultOffset
-            ,int stride
-            ,int resultStride
-            ,const std::string operation
-            ,float *otherParams) {
-        float scalar = otherParams[0];
-        if(operation.compare("equals_scalar") == 0) {
-            for(int i = 0; i < length; i++) {
-                float d1 = data[offset + (i  * stride)];
-                result[resultOffset + (i * resultStride)] = d1 == scalar ? 1 : 0.0;
-            }
-        }
-        else if(operation.compare("greaterthan_scalar") == 0) {
-            for(int i = 0; i < length; i++) {
-                float d1 = data[offset + (i  * stride)];
-                result[resultOffset + (i * resultStride)] = d1 >= scalar ? 1 : 0.0;
-            }
-        }
-        else if(operation.compare("greaterthanorequal_scalar") == 0) {
-            for(int i = 0; i < length; i++) {
-                float d1 = data[offset + (i  * stride)];
-                result[resultOffset + (i * resultStride)] = d1 == scalar ? 1 : 0.0;
-            }
-        }
-        else if(operation.compare("lessthan_scalar") == 0) {
-            for(int i = 0; i < length; i++) {
-                float d1 = data[offset + (i  * stride)];
-                result[resultOffset + (i * resultStride)] = d1 < scalar ? 1 : 0.0;
-            }
-        }
-        else if(operation.compare("lessthanorequal_scalar") == 0) {
-            for(int i = 0; i < length; i++) {
-                float d1 = data[offset + (i  * stride)];
-                result[resultOffset + (i * resultStride)] = d1 <= scalar ? 1 : 0.0;
-            }
-        }
-        else if(operation.compare("greaterthan_scalar") == 0) {
-            for(int i = 0; i < length; i++) {
-                float d1 = data[offset + (i  * stride)];
-                result[resultOffset + (i * resultStride)] = d1 > scalar ? 1 : 0.0;
-            }
-        }
-        else if(operation.compare("add_scalar") == 0) {
-            for(int i = 0; i < length; i++)
-                result[resultOffset + (i * resultStride)] = data[offset + (i  * stride)] + scalar;
+    bool execTransform(float *x, int *xInfo, float *y, int *yInfo, float *z, int *zInfo, int n, int opNum, float *extraArgs) {
+        return transform(x, xInfo, y, yInfo, z, zInfo, n, opNum, extraArgs);
+    }
 
-        }
-        else if(operation.compare("div_scalar") == 0) {
-            for(int i = 0; i < length; i++)
-                result[resultOffset + (i * resultStride)] = data[offset + (i  * stride)] / scalar;
+    /*
+     * The accumulated result over n elements of x (and y) starting from zero,
+     * before the final result is computed (eg: the sum for a mean).
+     * For iamax this is the index of the max.
+     */
 
-        }
-        else if(operation.compare("max_scalar") == 0) {
-            for(int i = 0; i < length; i++)
-                result[resultOffset + (i * resultStride)] = max(data[offset + (i  * stride)],scalar);
+    double execReduce(double *x, int *xInfo, double *y, int *yInfo, int n, int opNum, double *extraArgs, double zero) {
+        return accumulate(x, xInfo, y, yInfo, n, opNum, extraArgs, zero, threadsFor(n));
+    }
 
-        }
-        else if(operation.compare("mul_scalar") == 0) {
-            for(int i = 0; i < length; i++)
-                result[resultOffset + (i * resultStride)] = data[offset + (i  * stride)] * scalar;
+    double execReduce(float *x, int *xInfo, float *y, int *yInfo, int n, int opNum, float *extraArgs, double zero) {
+        return accumulate(x, xInfo, y, yInfo, n, opNum, extraArgs, zero, threadsFor(n));
+    }
 
-        }
-        else if(operation.compare("rdiv_scalar") == 0) {
-            for(int i = 0; i < length; i++)
-                result[resultOffset + (i * resultStride)] = scalar / data[offset + (i  * stride)];
+    /*
+     * Reduce along dimensions: the outer infos describe the tensors
+     * (the shape of the dimensions that are kept and the stride of x, y and z along them),
+     * the inner infos describe the elements of one tensor relative to its first element.
+     * The final result for each tensor is written to z.
+     */
 
-        }
-        else if(operation.compare("rsub_scalar") == 0) {
-            for(int i = 0; i < length; i++)
-                result[resultOffset + (i * resultStride)] = scalar - data[offset + (i  * stride)];
+    bool execReduce(double *x, int *xOuterInfo, int *xInnerInfo, double *y, int *yOuterInfo, int *yInnerInfo,
+                    double *z, int *zInfo, int opNum, double *extraArgs, double zero) {
+        return reduce(x, xOuterInfo, xInnerInfo, y, yOuterInfo, yInnerInfo, z, zInfo, opNum, extraArgs, zero);
+    }
 
-        }
+    bool execReduce(float *x, int *xOuterInfo, int *xInnerInfo, float *y, int *yOuterInfo, int *yInnerInfo,
+                    float *z, int *zInfo, int opNum, float *extraArgs, double zero) {
+        return reduce(x, xOuterInfo, xInnerInfo, y, yOuterInfo, yInnerInfo, z, zInfo, opNum, extraArgs, zero);
+    }
 
-        else if(operation.compare("sub_scalar") == 0) {
-            for(int i = 0; i < length; i++)
-                result[resultOffset + (i * resultStride)] = data[offset + (i  * stride)] - scalar;
+    /*
+     * Vector entry points: each array is described by a length, offset and stride.
+     * Reductions start from otherParams[0] and return the final result.
+     */
 
-        }
+    void execDoubleTransform(double *data, double *pairData, int length, int offset, int yOffset, int resultOffset,
+                             int stride, int yStride, int resultStride, int opNum, double *otherParams, double *result) {
+        int xInfo[] = {1, length, stride, offset}, yInfo[] = {1, length, yStride, yOffset}, zInfo[] = {1, length, resultStride, resultOffset};
+        transform(data, xInfo, pairData, yInfo, result, zInfo, length, opNum, otherParams);
     }
 
-    void execDoubleTransform(double *data, int length, int offset,int resultOffset, int stride,int resultStride, const std::string operation,
-                             double *otherParams,double *result) {
-        if(operation.compare("tanh") == 0) {
-            for(int i = 0; i < length; i++) {
-                result[resultOffset + (i * resultStride)] = tanh(data[offset + (i  * stride)]);
-            }
-        }
-        else if(operation.compare("exp") == 0) {
-            for(int i = 0; i < length; i++) {
-                result[resultOffset + (i * resultStride)] = exp(data[offset + (i  * stride)]);
-            }
-        }
-        else if(operation.compare("cos") == 0) {
-            for(int i = 0; i < length; i++) {
-                result[resultOffset + (i * resultStride)] = cos(data[offset + (i  * stride)]);
-            }
-        }
-        else if(operation.compare("abs") == 0) {
-            for(int i = 0; i < length; i++) {
-                double d = data[offset + (i  * stride)];
-                result[resultOffset + (i * resultStride)] = abs(d);
-            }
-        }
-        else if(operation.compare("acos") == 0) {
-            for(int i = 0; i < length; i++) {
-                result[resultOffset + (i * resultStride)] = acos(data[offset + (i  * stride)]);
-            }
-        }
-        else if(operation.compare("setrange") == 0) {
-            double min = otherParams[0];
-            double max = otherParams[1];
-            for(int i = 0; i < length; i++) {
-                double origin = data[offset + (i * stride)];
-                if (origin >= min && origin <= max)
-                    result[resultOffset + (i * resultStride)] = origin;
-                else if (min == 0 && max == 1) {
-                    double val = 1 / (1 + exp(-origin));
-                    result[resultOffset + (i * resultStride)] =  floor(val * (max - min)) + min;
-                }
-                else {
-                    result[resultOffset + (i * resultStride)] = floor(origin * (max - min)) + min;
+    void execFloatTransform(float *data, float *pairData, int length, int offset, int yOffset, int resultOffset,
+                            int stride, int yStride, int resultStride, int opNum, float *otherParams, float *result) {
+        int xInfo[] = {1, length, stride, offset}, yInfo[] = {1, length, yStride, yOffset}, zInfo[] = {1, length, resultStride, resultOffset};
+        transform(data, xInfo, pairData, yInfo, result, zInfo, length, opNum, otherParams);
+    }
 
-                }
-            }
-        }
-        else if(operation.compare("asin") == 0) {
-            for(int i = 0; i < length; i++) {
-                result[resultOffset + (i * resultStride)] = asinf(data[offset + (i  * stride)]);
-            }
-        }
-        else if(operation.compare("asin") == 0) {
-            for(int i = 0; i < length; i++) {
-                result[resultOffset + (i * resultStride)] = atan(data[offset + (i  * stride)]);
-            }
-        }
-        else if(operation.compare("ceil") == 0) {
-            for(int i = 0; i < length; i++) {
-                result[resultOffset + (i * resultStride)] = floorf(data[offset + (i  * stride)]);
-            }
-        }
-        else if(operation.compare("hardtanh") == 0) {
-            for(int i = 0; i < length; i++) {
-                double tanh2 = tanh(data[offset + (i  * stride)]);
-                if(tanh2 < -1)
-                    tanh2 = -1;
-                if(tanh2 > 1)
-                    tanh2 = 1;
-                result[resultOffset + (i * resultStride)] = tanh2;
-            }
-        }
-        else if(operation.compare("log") == 0) {
-            for(int i = 0; i < length; i++) {
-                result[resultOffset + (i * resultStride)] = log(data[offset + (i  * stride)]);
-            }
-        }
-        else if(operation.compare("neg") == 0) {
-            for(int i = 0; i < length; i++) {
-                result[resultOffset + (i * resultStride)] = -data[offset + (i  * stride)];
-            }
-        }
-        else if(operation.compare("oneminus") == 0) {
-            for(int i = 0; i < length; i++) {
-                result[resultOffset + (i * resultStride)] =  1 - data[offset + (i  * stride)];
-            }
-        }
-        else if(operation.compare("ones") == 0) {
-            for(int i = 0; i < length; i++) {
-                result[resultOffset + (i * resultStride)] =  1;
-            }
-        }
+    void execDoubleTransform(double *data, int length, int offset, int resultOffset, int stride, int resultStride, int opNum,
+                             double *otherParams, double *result) {
+        int xInfo[] = {1, length, stride, offset}, zInfo[] = {1, length, resultStride, resultOffset};
+        transform(data, xInfo, (double *) NULL, (int *) NULL, result, zInfo, length, opNum, otherParams);
+    }
 
-        else if(operation.compare("pow") == 0) {
-            for(int i = 0; i < length; i++) {
-                result[resultOffset + (i * resultStride)] =  pow(data[offset + (i  * stride)],(double) otherParams[0]);
-            }
-        }
-        else if(operation.compare("sigmoid") == 0) {
-            for(int i = 0; i < length; i++) {
-                result[resultOffset + (i * resultStride)] =  1.0 / (1.0 + exp(-data[offset + (i  * stride)]));
-            }
-        }
-        else if(operation.compare("sign") == 0) {
-            for(int i = 0; i < length; i++) {
-                double d1 = data[offset + (i  * stride)];
-                result[resultOffset + (i * resultStride)] = (d1 > 0) - (d1 < 0);
-            }
-        }
-        else if(operation.compare("round") == 0) {
-            for(int i = 0; i < length; i++) {
-                double d1 = data[offset + (i  * stride)];
-                result[resultOffset + (i * resultStride)] = round(d1);
-            }
-        }
+    void execFloatTransform(float *data, int length, int offset, int resultOffset, int stride, int resultStride, int opNum,
+                            float *otherParams, float *result) {
+        int xInfo[] = {1, length, stride, offset}, zInfo[] = {1, length, resultStride, resultOffset};
+        transform(data, xInfo, (float *) NULL, (int *) NULL, result, zInfo, length, opNum, otherParams);
+    }
 
-        else if(operation.compare("softmax") == 0) {
-            for(int i = 0; i < length; i++) {
-                float d1 = data[offset + (i  * stride)];
-                result[resultOffset + (i * resultStride)] = roundf(d1);
-            }
-        }
-        else if(operation.compare("sqrt") == 0) {
-            for(int i = 0; i < length; i++) {
-                float d1 = data[offset + (i  * stride)];
-                result[resultOffset + (i * resultStride)] = sqrt(d1);
-            }
-        }
+    void execScalarDouble(double *data, double *result, int length, int offset, int resultOffset, int stride, int resultStride,
+                          int opNum, double *otherParams) {
+        execDoubleTransform(data, length, offset, resultOffset, stride, resultStride, opNum, otherParams, result);
+    }
 
-           else if(operation.compare("softplus") == 0) {
-                for(int i = 0; i < length; i++) {
-                     result[resultOffset + (i * resultStride)] = logf( 1 + expf(data[offset + (i  * stride)]));
-                }
-          }
+    void execScalarFloat(float *data, float *result, int length, int offset, int resultOffset, int stride, int resultStride,
+                         int opNum, float *otherParams) {
+        execFloatTransform(data, length, offset, resultOffset, stride, resultStride, opNum, otherParams, result);
     }
 
-    double reduce3(double *data, double *data2,int length, int xOffset, int yOffset,int xStride,int yStride, const std::string operation,
+    double reduce3(double *data, double *data2, int length, int xOffset, int yOffset, int xStride, int yStride, int opNum,
                    double *otherParams) {
-        double startingValue = otherParams[0];
-
-        if(operation.compare("cosinesimilarity") == 0) {
-            double constantNormalizedByNorm2X = otherParams[1];
-            double constantNormalizedByNorm2Y = otherParams[2];
-            for(int i = 0; i < length; i++) {
-                double val1 = data[(i + xOffset) * xStride];
-                double val2 = data2[(i + yOffset) * yStride];
-                startingValue += (val1 * val2);
-            }
-            startingValue =  startingValue / constantNormalizedByNorm2X / constantNormalizedByNorm2Y;
-            return startingValue;
-        }
-        else if(operation.compare("euclidean") == 0) {
-            for(int i = 0; i < length; i++) {
-                startingValue += pow(data[(i + xOffset) * xStride] - data2[(i + yOffset) * yStride],2);
-            }
-            startingValue /= sqrt(startingValue);
-
-        }
-        else if(operation.compare("manhattan") == 0) {
-            for(int i = 0; i < length; i++) {
-                startingValue += (data[(i + xOffset) * xStride] - data2[(i + yOffset) * yStride]);
-            }
-        }
-
-        return startingValue;
+        int xInfo[] = {1, length, xStride, xOffset}, yInfo[] = {1, length, yStride, yOffset};
+        double accum = accumulate(data, xInfo, data2, yInfo, length, opNum, otherParams, extraArg(otherParams, 0, 0.0), threadsFor(length));
+        return finalResult(opNum, accum, length, otherParams);
     }
 
-    double reduce(double *data, int length, int offset, int stride, const std::string operation,
-                  double *otherParams) {
-        double startingValue = otherParams[0];
-        if(operation.compare("sum") == 0) {
-            for(int i = 0; i < length; i++) {
-                startingValue += data[offset + (i  * stride)];
-            }
-
-        }
-        else if(operation.compare("prod") == 0) {
-            for(int i = 0; i < length; i++) {
-                startingValue *= data[offset + (i  * stride)];
-            }
-
-        }
-        else if(operation.compare("mean") == 0) {
-            for(int i = 0; i < length; i++) {
-                startingValue += data[offset + (i  * stride)];
-            }
-
-            startingValue /= (double) length;
-        }
-        else if(operation.compare("max") == 0) {
-            for(int i = 0; i < length; i++) {
-                startingValue = max(data[offset + (i  * stride)],startingValue);
-            }
-        }
-        else if(operation.compare("bias") == 0) {
-            double mean = otherParams[1];
-            for(int i = 0; i < length; i++) {
-                double val = data[offset + (i  * stride)];
-                double subMean = val - mean;
-                startingValue += subMean;
-            }
-        }
-        else if(operation.compare("var") == 0) {
-            double bias = otherParams[1];
-            double mean = otherParams[2];
-            for(int i = 0; i < length; i++) {
-                startingValue += powf(data[offset + (i  * stride)] - mean,2.0);
-            }
-            startingValue = (startingValue - (pow(bias,2.0) / length)) / (double) (length - 1.0);
-        }
-        else if(operation.compare("std") == 0) {
-            double bias = otherParams[1];
-            double mean = otherParams[2];
-            for(int i = 0; i < length; i++) {
-                startingValue += powf(data[offset + (i  * stride)] - mean,2.0);
-            }
-            startingValue = sqrt((startingValue - (pow(bias,2.0) / length)) / (double) (length - 1.0));
-        }
-        else if(operation.compare("min") == 0) {
-            for(int i = 0; i < length; i++) {
-                startingValue = min(data[offset + (i  * stride)],startingValue);
-            }
-        }
-        else if(operation.compare("norm1") == 0) {
-            for(int i = 0; i < length; i++) {
-                startingValue += abs(data[offset + (i  * stride)]);
-            }
-        }
-        else if(operation.compare("norm2") == 0) {
-            for(int i = 0; i < length; i++) {
-                startingValue += pow(data[offset + (i  * stride)],2);
-            }
-
-            startingValue = sqrt(startingValue);
-        }
-        else if(operation.compare("normmax") == 0) {
-            for(int i = 0; i < length; i++) {
-                startingValue = max(abs(startingValue),abs(data[offset + (i  * stride)]));
-            }
-        }
-
-
-        return  startingValue;
+    double reduce(double *data, int length, int offset, int stride, int opNum, double *otherParams) {
+        int xInfo[] = {1, length, stride, offset};
+        double accum = accumulate(data, xInfo, (double *) NULL, (int *) NULL, length, opNum, otherParams, extraArg(otherParams, 0, 0.0), threadsFor(length));
+        return finalResult(opNum, accum, length, otherParams);
     }
 
-    float reduce3Float(float *data, float *data2,int length, int xOffset, int yOffset,int xStride,int yStride, const std::string operation,
+    float reduce3Float(float *data, float *data2, int length, int xOffset, int yOffset, int xStride, int yStride, int opNum,
                        float *otherParams) {
-        float startingValue = otherParams[0];
-
-
-        if(operation.compare("cosinesimilarity") == 0) {
-            float constantNormalizedByNorm2X = otherParams[1];
-            float constantNormalizedByNorm2Y = otherParams[2];
-            for(int i = 0; i < length; i++) {
-                float val1 = data[(i + xOffset) * xStride];
-                float val2 = data2[(i + yOffset) * yStride];
-                startingValue += (val1 * val2);
-            }
-            startingValue =  startingValue / constantNormalizedByNorm2X / constantNormalizedByNorm2Y;
-        }
-        else if(operation.compare("euclidean") == 0) {
-            for(int i = 0; i < length; i++) {
-                startingValue += powf(data[(i + xOffset) * xStride] - data2[(i + yOffset) * yStride],2);
-            }
-            startingValue /= sqrtf(startingValue);
-
-        }
-        else if(operation.compare("manhattan") == 0) {
-            for(int i = 0; i < length; i++) {
-                startingValue += (data[(i + xOffset) * xStride] - data2[(i + yOffset) * yStride]);
-            }
-        }
+        int xInfo[] = {1, length, xStride, xOffset}, yInfo[] = {1, length, yStride, yOffset};
+        double accum = accumulate(data, xInfo, data2, yInfo, length, opNum, otherParams, extraArg(otherParams, 0, 0.0f), threadsFor(length));
+        return (float) finalResult(opNum, accum, length, otherParams);
+    }
 
-        return startingValue;
+    float reduceFloat(float *data, int length, int offset, int stride, int opNum, float *otherParams) {
+        int xInfo[] = {1, length, stride, offset};
+        double accum = accumulate(data, xInfo, (float *) NULL, (int *) NULL, length, opNum, otherParams, extraArg(otherParams, 0, 0.0f), threadsFor(length));
+        return (float) finalResult(opNum, accum, length, otherParams);
     }
 
-    float reduceFloat(float *data, int length, int offset, int stride, const std::string operation,
-                      float *otherParams) {
-        float startingValue = otherParams[0];
-        if(operation.compare("sum") == 0) {
-            for(int i = 0; i < length; i++) {
-                startingValue += data[offset + (i  * stride)];
-            }
 
-        }
-        else if(operation.compare("prod") == 0) {
-            for(int i = 0; i < length; i++) {
-                startingValue *= data[offset + (i  * stride)];
-            }
+    /*
+     * The entry points by op name: these look up the op code
+     * once per call and dispatch to the op code entry points above
+     */
 
-        }
-        else if(operation.compare("mean") == 0) {
-            for(int i = 0; i < length; i++) {
-                startingValue += data[offset + (i  * stride)];
-            }
-
-            startingValue /= (float) length;
-        }
-        else if(operation.compare("max") == 0) {
-            for(int i = 0; i < length; i++) {
-                startingValue = fmaxf(data[offset + (i  * stride)],startingValue);
-            }
-        }
-        else if(operation.compare("bias") == 0) {
-            float mean = otherParams[1];
-            for(int i = 0; i < length; i++) {
-                float val = data[offset + (i  * stride)];
-                float subMean = val - mean;
-                startingValue += subMean;
-            }
-        }
-        else if(operation.compare("var") == 0) {
-            float bias = otherParams[1];
-            float mean = otherParams[2];
-            for(int i = 0; i < length; i++) {
-                startingValue += powf(data[offset + (i  * stride)] - mean,2.0);
-            }
-            startingValue = (startingValue - (powf(bias,2.0) / length)) / (float) (length - 1.0);
-        }
-        else if(operation.compare("std") == 0) {
-            float bias = otherParams[1];
-            float mean = otherParams[2];
-            for(int i = 0; i < length; i++) {
-                startingValue += powf(data[offset + (i  * stride)] - mean,2.0);
-            }
-            startingValue = sqrtf((startingValue - (powf(bias,2.0) / length)) / (float) (length - 1.0));
-        }
-        else if(operation.compare("min") == 0) {
-            for(int i = 0; i < length; i++) {
-                startingValue = fminf(data[offset + (i  * stride)],startingValue);
-            }
-        }
-        else if(operation.compare("norm1") == 0) {
-            for(int i = 0; i < length; i++) {
-                startingValue += fabsf(data[offset + (i  * stride)]);
-            }
-        }
-        else if(operation.compare("norm2") == 0) {
-            for(int i = 0; i < length; i++) {
-                startingValue += powf(data[offset + (i  * stride)],2);
-            }
-
-            startingValue = sqrtf(startingValue);
+    void execDoubleTransform(double *data, double *pairData, int length, int offset, int yOffset, int resultOffset,
+                             int stride, int yStride, int resultStride, const std::string operation,
+                             double *otherParams, double *result) {
+        execDoubleTransform(data, pairData, length, offset, yOffset, resultOffset, stride, yStride, resultStride,
+                            opCode(operation), otherParams, result);
+    }
 
-        }
-        else if(operation.compare("normmax") == 0) {
-            for(int i = 0; i < length; i++) {
-                startingValue = fmaxf(abs(startingValue),abs(data[offset + (i  * stride)]));
-            }
-        }
+    void execFloatTransform(float *data, float *pairData, int length, int offset, int yOffset, int resultOffset,
+                            int stride, int yStride, int resultStride, const std::string operation,
+                            float *otherParams, float *result) {
+        execFloatTransform(data, pairData, length, offset, yOffset, resultOffset, stride, yStride, resultStride,
+                           opCode(operation), otherParams, result);
+    }
 
+    void execFloatTransform(float *data, int length, int offset, int resultOffset, int stride, int resultStride,
+                            const std::string operation, float *otherParams, float *result) {
+        execFloatTransform(data, length, offset, resultOffset, stride, resultStride, opCode(operation), otherParams, result);
+    }
 
-        return  startingValue;
+    void execDoubleTransform(double *data, int length, int offset, int resultOffset, int stride, int resultStride,
+                             const std::string operation, double *otherParams, double *result) {
+        execDoubleTransform(data, length, offset, resultOffset, stride, resultStride, opCode(operation), otherParams, result);
     }
 
+    void execScalarDouble(double *data, double *result, int length, int offset, int resultOffset, int stride,
+                          int resultStride, const std::string operation, double *otherParams) {
+        execScalarDouble(data, result, length, offset, resultOffset, stride, resultStride, opCode(operation), otherParams);
+    }
 
+    void execScalarFloat(float *data, float *result, int length, int offset, int resultOffset, int stride,
+                         int resultStride, const std::string operation, float *otherParams) {
+        execScalarFloat(data, result, length, offset, resultOffset, stride, resultStride, opCode(operation), otherParams);
+    }
 
+    double reduce3(double *data, double *data2, int length, int xOffset, int yOffset, int xStride, int yStride,
+                   const std::string operation, double *otherParams) {
+        return reduce3(data, data2, length, xOffset, yOffset, xStride, yStride, opCode(operation), otherParams);
+    }
 
+    double reduce(double *data, int length, int offset, int stride, const std::string operation, double *otherParams) {
+        return reduce(data, length, offset, stride, opCode(operation), otherParams);
+    }
 
+    float reduce3Float(float *data, float *data2, int length, int xOffset, int yOffset, int xStride, int yStride,
+                       const std::string operation, float *otherParams) {
+        return reduce3Float(data, data2, length, xOffset, yOffset, xStride, yStride, opCode(operation), otherParams);
+    }
 
+    float reduceFloat(float *data, int length, int offset, int stride, const std::string operation, float *otherParams) {
+        return reduceFloat(data, length, offset, stride, opCode(operation), otherParams);
+    }
 };
\ No newline at end of file
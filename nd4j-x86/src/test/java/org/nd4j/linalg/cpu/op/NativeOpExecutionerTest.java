@@ -1,13 +1,41 @@
 package org.nd4j.linalg.cpu.op;
 
 import org.junit.Test;
+import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.Accumulation;
 import org.nd4j.linalg.api.ops.Op;
+import org.nd4j.linalg.api.ops.OpCodes;
+import org.nd4j.linalg.api.ops.executioner.DefaultOpExecutioner;
 import org.nd4j.linalg.api.ops.executioner.OpExecutioner;
-import org.nd4j.linalg.api.ops.impl.transforms.Exp;
+import org.nd4j.linalg.api.ops.impl.accum.*;
+import org.nd4j.linalg.api.ops.impl.accum.distances.CosineSimilarity;
+import org.nd4j.linalg.api.ops.impl.accum.distances.EuclideanDistance;
+import org.nd4j.linalg.api.ops.impl.accum.distances.ManhattanDistance;
+import org.nd4j.linalg.api.ops.impl.scalar.*;
+import org.nd4j.linalg.api.ops.impl.scalar.comparison.*;
+import org.nd4j.linalg.api.ops.impl.transforms.*;
+import org.nd4j.linalg.api.ops.impl.transforms.arithmetic.*;
+import org.nd4j.linalg.api.ops.impl.transforms.comparison.Eps;
+import org.nd4j.linalg.api.ops.impl.transforms.comparison.EqualTo;
+import org.nd4j.linalg.api.ops.impl.transforms.comparison.GreaterThan;
+import org.nd4j.linalg.api.ops.impl.transforms.comparison.GreaterThanOrEqual;
+import org.nd4j.linalg.api.ops.impl.transforms.comparison.LessThan;
+import org.nd4j.linalg.api.ops.impl.transforms.comparison.LessThanOrEqual;
+import org.nd4j.linalg.api.ops.impl.transforms.comparison.NotEqualTo;
+import org.nd4j.linalg.cpu.javacpp.Loop;
 import org.nd4j.linalg.cpu.ops.NativeOpExecutioner;
 import org.nd4j.linalg.factory.Nd4j;
 
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
 /**
  * @author Adam Gibson
  */
@@ -20,4 +48,245 @@ public class NativeOpExecutionerTest {
         System.out.println(op2);
     }
 
+    @Test
+    public void testDirectInPlace() {
+        DataBuffer.AllocationMode alloc = Nd4j.alloc;
+        Nd4j.alloc = DataBuffer.AllocationMode.DIRECT;
+        try {
+            NativeOpExecutioner op = new NativeOpExecutioner();
+            op.setExecutionMode(OpExecutioner.ExecutionMode.NATIVE);
+            INDArray x = Nd4j.create(new float[]{1, 2, 3, 4});
+            INDArray z = Nd4j.create(4);
+            assertTrue(x.data().asNetty().isDirect());
+            op.exec(new Exp(x, z));
+            for (int i = 0; i < 4; i++)
+                assertEquals(Math.exp(i + 1), z.getDouble(i), 1e-3);
+            op.exec(new ScalarAdd(x, 1));
+            assertEquals(Nd4j.create(new float[]{2, 3, 4, 5}), x);
+            assertEquals(14, op.execAndReturn(new Sum(x)).currentResult().doubleValue(), 1e-3);
+        }
+        finally {
+            Nd4j.alloc = alloc;
+        }
+    }
+
+    @Test
+    public void testOpCodeDispatch() {
+        Loop loop = new Loop();
+        float[] data = {1, 2, 3, 4};
+        float[] byName = new float[4];
+        float[] byCode = new float[4];
+        loop.execFloatTransform(data, 4, 0, 0, 1, 1, "exp", null, byName);
+        loop.execFloatTransform(data, 4, 0, 0, 1, 1, OpCodes.EXP, null, byCode);
+        assertArrayEquals(byName, byCode, 1e-6f);
+        assertEquals(10, loop.reduceFloat(data, 4, 0, 1, OpCodes.SUM, new float[]{0}), 1e-6);
+
+        Sum sum = new Sum(Nd4j.create(data));
+        assertEquals(OpCodes.SUM, sum.opNum());
+        assertSame(sum.extraArgsFloat(), sum.extraArgsFloat());
+    }
+
+    @Test
+    public void testTransformsMatchJava() {
+        for (INDArray[] operands : layouts()) {
+            for (Class<?> clazz : new Class<?>[]{Abs.class, ACos.class, ASin.class, ATan.class, Ceil.class, Cos.class, Exp.class,
+                    Floor.class, HardTanh.class, HardTanhDerivative.class, Identity.class, Log.class, Negative.class,
+                    OneMinus.class, Ones.class, RectifedLinear.class, Round.class, Sigmoid.class, SigmoidDerivative.class,
+                    Sign.class, Sin.class, SoftPlus.class, Sqrt.class, Tanh.class})
+                assertTransformMatchesJava(operands, clazz);
+            assertTransformMatchesJava(operands, Pow.class, 2.0);
+            assertTransformMatchesJava(operands, RectifedLinear.class, 0.5);
+            assertTransformMatchesJava(operands, SetRange.class, -1.0, 1.0);
+            assertTransformMatchesJava(operands, Stabilize.class, 1.0);
+
+            for (Class<?> clazz : new Class<?>[]{AddOp.class, SubOp.class, RSubOp.class, MulOp.class, DivOp.class, RDivOp.class,
+                    CopyOp.class, EqualTo.class, NotEqualTo.class, GreaterThan.class, GreaterThanOrEqual.class, LessThan.class,
+                    LessThanOrEqual.class, Eps.class, org.nd4j.linalg.api.ops.impl.transforms.comparison.Max.class,
+                    org.nd4j.linalg.api.ops.impl.transforms.comparison.Min.class})
+                assertPairwiseMatchesJava(operands, clazz);
+        }
+    }
+
+    @Test
+    public void testScalarsMatchJava() {
+        for (INDArray[] operands : layouts()) {
+            for (Class<?> clazz : new Class<?>[]{ScalarAdd.class, ScalarSubtraction.class, ScalarReverseSubtraction.class,
+                    ScalarMultiplication.class, ScalarDivision.class, ScalarReverseDivision.class, ScalarMax.class, ScalarSet.class,
+                    ScalarEquals.class, ScalarNotEquals.class, ScalarGreaterThan.class, ScalarGreaterThanOrEqual.class,
+                    ScalarLessThan.class, ScalarLessThanOrEqual.class, ScalarSetValue.class}) {
+                INDArray expected = operands[0].dup();
+                INDArray actual = operands[0].dup();
+                javaExecutioner().exec(newOp(clazz, expected, 0.25));
+                nativeExecutioner().exec(newOp(clazz, actual, 0.25));
+                assertEquals(clazz.getSimpleName(), expected, actual);
+            }
+        }
+    }
+
+    @Test
+    public void testAccumulationsMatchJava() {
+        for (INDArray[] operands : layouts()) {
+            for (Class<?> clazz : new Class<?>[]{Sum.class, Prod.class, Mean.class, Max.class, Min.class, Bias.class,
+                    Variance.class, StandardDeviation.class, Norm1.class, Norm2.class, NormMax.class}) {
+                double expected = javaExecutioner().execAndReturn((Accumulation) newOp(clazz, operands[0])).currentResult().doubleValue();
+                double actual = nativeExecutioner().execAndReturn((Accumulation) newOp(clazz, operands[0])).currentResult().doubleValue();
+                assertEquals(clazz.getSimpleName(), expected, actual, 1e-3 * Math.max(1, Math.abs(expected)));
+            }
+
+            //the index of the max in linear order
+            assertEquals(indexOfMax(operands[0]), nativeExecutioner().execAndReturn(new IAMax(operands[0])).currentResult().intValue());
+
+            for (Class<?> clazz : new Class<?>[]{Dot.class, CosineSimilarity.class, EuclideanDistance.class, ManhattanDistance.class}) {
+                double expected = javaExecutioner().execAndReturn((Accumulation) newOp(clazz, operands[0], operands[1])).currentResult().doubleValue();
+                double actual = nativeExecutioner().execAndReturn((Accumulation) newOp(clazz, operands[0], operands[1])).currentResult().doubleValue();
+                assertEquals(clazz.getSimpleName(), expected, actual, 1e-3 * Math.max(1, Math.abs(expected)));
+            }
+        }
+    }
+
+    @Test
+    public void testAlongDimensionMatchesJava() {
+        INDArray c = Nd4j.rand(new int[]{6, 9}).subi(0.5);
+        INDArray f = Nd4j.create(new int[]{6, 9}, 'f').assign(c);
+        INDArray view = Nd4j.rand(new int[]{10, 12}).get(
+                org.nd4j.linalg.indexing.NDArrayIndex.interval(2, 8), org.nd4j.linalg.indexing.NDArrayIndex.interval(1, 10));
+        for (INDArray x : new INDArray[]{c, f, view}) {
+            for (int dimension = 0; dimension < 2; dimension++) {
+                for (Class<?> clazz : new Class<?>[]{Sum.class, Prod.class, Mean.class, Max.class, Min.class, Norm1.class, Norm2.class, NormMax.class}) {
+                    INDArray expected = javaExecutioner().exec((Accumulation) newOp(clazz, x), dimension);
+                    INDArray actual = nativeExecutioner().exec((Accumulation) newOp(clazz, x), dimension);
+                    assertEquals(clazz.getSimpleName() + " along " + dimension, expected, actual);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testParallelMatchesJava() {
+        NativeOpExecutioner parallel = nativeExecutioner();
+        parallel.setParallelism(4);
+        parallel.setParallelThreshold(1);
+        INDArray x = Nd4j.rand(new int[]{37, 41}).subi(0.5);
+        INDArray y = Nd4j.create(new int[]{37, 41}, 'f').assign(Nd4j.rand(new int[]{37, 41}));
+
+        INDArray expected = Nd4j.create(37, 41);
+        INDArray actual = Nd4j.create(37, 41);
+        javaExecutioner().exec(new MulOp(x, y, expected, x.length()));
+        parallel.exec(new MulOp(x, y, actual, x.length()));
+        assertEquals(expected, actual);
+
+        assertEquals(javaExecutioner().execAndReturn(new Sum(x)).currentResult().doubleValue(),
+                parallel.execAndReturn(new Sum(x)).currentResult().doubleValue(), 1e-3);
+        assertEquals(indexOfMax(x), parallel.execAndReturn(new IAMax(x)).currentResult().intValue());
+        assertEquals(javaExecutioner().exec(new Norm2(x), 1), parallel.exec(new Norm2(x), 1));
+        assertEquals(javaExecutioner().exec(new Max(y), 0), parallel.exec(new Max(y), 0));
+    }
+
+    @Test
+    public void testDoubleMatchesJava() {
+        DataBuffer.Type dtype = Nd4j.dtype;
+        Nd4j.dtype = DataBuffer.Type.DOUBLE;
+        try {
+            INDArray[] operands = layouts().get(1);
+            assertEquals(DataBuffer.Type.DOUBLE, operands[0].data().dataType());
+            assertTransformMatchesJava(operands, Sigmoid.class);
+            assertPairwiseMatchesJava(operands, DivOp.class);
+            assertEquals(javaExecutioner().execAndReturn(new Variance(operands[0])).currentResult().doubleValue(),
+                    nativeExecutioner().execAndReturn(new Variance(operands[0])).currentResult().doubleValue(), 1e-9);
+            assertEquals(javaExecutioner().exec(new Mean(operands[0]), 1), nativeExecutioner().exec(new Mean(operands[0]), 1));
+        }
+        finally {
+            Nd4j.dtype = dtype;
+        }
+    }
+
+    //x, y and a result array of the same length but different layouts
+    private List<INDArray[]> layouts() {
+        List<INDArray[]> ret = new ArrayList<>();
+        INDArray c = Nd4j.rand(new int[]{5, 7}).muli(4).subi(2);
+        INDArray f = Nd4j.create(new int[]{5, 7}, 'f').assign(Nd4j.rand(new int[]{5, 7}).muli(4).subi(2));
+        ret.add(new INDArray[]{c, f, Nd4j.create(new int[]{5, 7}, 'f')});
+        ret.add(new INDArray[]{f, c, Nd4j.create(new int[]{5, 7})});
+        //views with strides in every dimension
+        INDArray big = Nd4j.rand(new int[]{9, 11}).muli(4).subi(2);
+        INDArray column = big.getColumn(3);
+        INDArray row = big.getRow(4);
+        ret.add(new INDArray[]{column, Nd4j.rand(new int[]{9, 1}), Nd4j.create(9, 1)});
+        ret.add(new INDArray[]{row, Nd4j.rand(new int[]{1, 11}), big.getRow(7)});
+        INDArray tensor = Nd4j.rand(new int[]{3, 4, 5}).muli(4).subi(2);
+        ret.add(new INDArray[]{tensor, Nd4j.create(new int[]{3, 4, 5}, 'f').assign(tensor).addi(1), Nd4j.create(new int[]{3, 4, 5})});
+        return ret;
+    }
+
+    private void assertTransformMatchesJava(INDArray[] operands, Class<?> clazz, Object... args) {
+        INDArray expected = operands[2].dup();
+        INDArray actual = operands[2].dup();
+        javaExecutioner().exec(newOp(clazz, concat(new Object[]{operands[0], expected}, args)));
+        nativeExecutioner().exec(newOp(clazz, concat(new Object[]{operands[0], actual}, args)));
+        assertEquals(clazz.getSimpleName(), expected, actual);
+    }
+
+    private void assertPairwiseMatchesJava(INDArray[] operands, Class<?> clazz) {
+        INDArray expected = operands[2].dup();
+        INDArray actual = operands[2].dup();
+        javaExecutioner().exec(newOp(clazz, operands[0], operands[1], expected, operands[0].length()));
+        nativeExecutioner().exec(newOp(clazz, operands[0], operands[1], actual, operands[0].length()));
+        assertEquals(clazz.getSimpleName(), expected, actual);
+    }
+
+    private static int indexOfMax(INDArray arr) {
+        INDArray linear = arr.linearView();
+        int ret = 0;
+        for (int i = 1; i < linear.length(); i++)
+            if (linear.getDouble(i) > linear.getDouble(ret))
+                ret = i;
+        return ret;
+    }
+
+    private static Object[] concat(Object[] first, Object[] second) {
+        Object[] ret = new Object[first.length + second.length];
+        System.arraycopy(first, 0, ret, 0, first.length);
+        System.arraycopy(second, 0, ret, first.length, second.length);
+        return ret;
+    }
+
+    private static NativeOpExecutioner nativeExecutioner() {
+        NativeOpExecutioner ret = new NativeOpExecutioner();
+        ret.setExecutionMode(OpExecutioner.ExecutionMode.NATIVE);
+        return ret;
+    }
+
+    private static DefaultOpExecutioner javaExecutioner() {
+        return new DefaultOpExecutioner();
+    }
+
+    //create an op with the (first) constructor the arguments fit
+    private static Op newOp(Class<?> clazz, Object... args) {
+        for (Constructor<?> constructor : clazz.getConstructors()) {
+            Class<?>[] types = constructor.getParameterTypes();
+            if (types.length != args.length)
+                continue;
+            boolean fits = true;
+            for (int i = 0; i < types.length; i++) {
+                if (types[i] == double.class)
+                    fits &= args[i] instanceof Double;
+                else if (types[i] == int.class)
+                    fits &= args[i] instanceof Integer;
+                else
+                    fits &= types[i].isInstance(args[i]);
+            }
+
+            if (fits) {
+                try {
+                    return (Op) constructor.newInstance(args);
+                }
+                catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+
+        throw new IllegalArgumentException("No constructor of " + clazz.getSimpleName() + " fits the arguments");
+    }
+
 }